@@ -92,10 +92,12 @@ CREATE TABLE conversation (
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     status ENUM('active', 'archived', 'deleted') DEFAULT 'active',
+    last_message_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     metadata JSON,
     
     FOREIGN KEY (user_id) REFERENCES user(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
+    INDEX idx_conversation_user_last_message (user_id, last_message_at, id),
     INDEX idx_status (status),
     INDEX idx_created_at (created_at)
 );
@@ -112,6 +114,7 @@ CREATE TABLE message (
     
     FOREIGN KEY (conversation_id) REFERENCES conversation(id) ON DELETE CASCADE,
     INDEX idx_conversation_id (conversation_id),
+    INDEX idx_message_conversation_created (conversation_id, created_at, id),
     INDEX idx_role (role),
     INDEX idx_created_at (created_at)
 );
@@ -201,10 +204,13 @@ CREATE TABLE tool_execution (
     user_id BIGINT NOT NULL,
     parameters JSON,
     result JSON,
-    status ENUM('pending', 'running', 'completed', 'failed') NOT NULL,
-    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(20) NOT NULL, -- ToolStatus 이름 (값이 늘어나도 스키마 변경이 없도록 ENUM 대신 문자열)
+    executed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     completed_at TIMESTAMP NULL,
     error_message TEXT,
+    execution_time_ms BIGINT,
+    conversation_id VARCHAR(36),
+    message_id VARCHAR(36),
     sandbox_id VARCHAR(36),
     
     FOREIGN KEY (tool_id) REFERENCES tool(id) ON DELETE CASCADE,
@@ -212,7 +218,7 @@ CREATE TABLE tool_execution (
     INDEX idx_tool_id (tool_id),
     INDEX idx_user_id (user_id),
     INDEX idx_status (status),
-    INDEX idx_started_at (started_at)
+    INDEX idx_executed_at (executed_at)
 );
 
 -- 4. 계획 관리 테이블
@@ -520,20 +526,39 @@ CREATE TABLE setting (
 
 -- 8.2 LOG 테이블
 CREATE TABLE log (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY, -- 시간순 ID (애플리케이션에서 발급)
     level VARCHAR(20) NOT NULL,
     message TEXT NOT NULL,
     timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    component VARCHAR(100),
-    user_id BIGINT,
-    trace_id VARCHAR(36),
-    additional_data JSON,
+    source VARCHAR(100),
+    user_id VARCHAR(36),
+    session_id VARCHAR(36),
+    request_id VARCHAR(36),
+    stack_trace TEXT,
+    metadata JSON,
     
     INDEX idx_level (level),
-    INDEX idx_timestamp (timestamp),
-    INDEX idx_component (component),
+    INDEX idx_log_timestamp (timestamp),
+    INDEX idx_source (source),
     INDEX idx_user_id (user_id),
-    INDEX idx_trace_id (trace_id)
+    INDEX idx_request_id (request_id)
+);
+
+-- 로그 시간 세그먼트 (log 테이블은 애플리케이션이 기동 시 id 기준 시간별 RANGE 파티션으로 전환)
+CREATE TABLE log_segment (
+    name VARCHAR(20) PRIMARY KEY,
+    start_id BIGINT NOT NULL,
+    end_id BIGINT NOT NULL,
+    min_timestamp TIMESTAMP NULL,
+    max_timestamp TIMESTAMP NULL,
+    level_mask INT NOT NULL,
+    row_count BIGINT NOT NULL
+);
+
+CREATE TABLE log_node (
+    node_id INT PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    heartbeat_at TIMESTAMP NOT NULL
 );
 
 -- 8.3 MONITORING 테이블
@@ -1139,3 +1164,49 @@ CREATE TABLE inspiration_source (
     INDEX idx_source_type (source_type),
     INDEX idx_influence_level (influence_level)
 );
+
+-- 기존 데이터베이스 갱신 (이전 버전 스키마에서 올리는 경우 해당하는 구문만 실행)
+-- ddl-auto: update는 기존 컬럼의 타입(ENUM 값 목록 포함)을 바꾸지 않으므로 직접 적용해야 합니다.
+
+-- 2.1 CONVERSATION: 마지막 메시지 시각 추가 후 채우기 (메시지가 없으면 생성 시각)
+-- ddl-auto가 컬럼을 먼저 추가한 경우 ADD COLUMN은 건너뛰고 UPDATE부터 실행 (비어 있는 값도 채워짐)
+ALTER TABLE conversation ADD COLUMN last_message_at TIMESTAMP NULL;
+-- 2.2 MESSAGE 키셋 인덱스 (채우기 집계에도 사용되므로 먼저)
+CREATE INDEX idx_message_conversation_created ON message (conversation_id, created_at, id);
+UPDATE conversation c
+    LEFT JOIN (SELECT conversation_id, MAX(created_at) AS last_at FROM message GROUP BY conversation_id) m
+        ON m.conversation_id = c.id
+SET c.last_message_at = COALESCE(m.last_at, c.created_at)
+WHERE c.last_message_at IS NULL OR c.last_message_at < COALESCE(m.last_at, c.created_at);
+ALTER TABLE conversation MODIFY last_message_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE INDEX idx_conversation_user_last_message ON conversation (user_id, last_message_at, id);
+
+-- 3.3 TOOL_EXECUTION: 상태를 문자열로 (TIMEOUT, CANCELLED 추가), 이전 스크립트의 소문자 값 변환
+ALTER TABLE tool_execution MODIFY status VARCHAR(20) NOT NULL;
+UPDATE tool_execution SET status = UPPER(status) WHERE status <> UPPER(status);
+-- 이전 스크립트로 만든 테이블만 (started_at이 있고 executed_at이 없는 경우)
+ALTER TABLE tool_execution
+    CHANGE started_at executed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ADD COLUMN execution_time_ms BIGINT,
+    ADD COLUMN conversation_id VARCHAR(36),
+    ADD COLUMN message_id VARCHAR(36),
+    RENAME INDEX idx_started_at TO idx_executed_at;
+
+-- 8.2 LOG: 애플리케이션이 발급하는 시간순 BIGINT ID와 수집 파이프라인 컬럼 (기동 시 id 기준 파티션 전환 전제)
+-- 이전 스크립트로 만든 테이블만 (id가 AUTO_INCREMENT이고 component/trace_id/additional_data가 있는 경우)
+ALTER TABLE log
+    MODIFY id BIGINT NOT NULL,
+    MODIFY user_id VARCHAR(36),
+    CHANGE component source VARCHAR(100),
+    CHANGE trace_id request_id VARCHAR(36),
+    CHANGE additional_data metadata JSON,
+    ADD COLUMN session_id VARCHAR(36),
+    ADD COLUMN stack_trace TEXT,
+    RENAME INDEX idx_timestamp TO idx_log_timestamp,
+    RENAME INDEX idx_component TO idx_source,
+    RENAME INDEX idx_trace_id TO idx_request_id;
+-- 엔티티로 생성된 테이블만 (id가 UUID 문자열인 경우): 기존 id는 숫자로 바꿀 수 없으므로 옮겨 두면 기동 시 새로 생성됨
+RENAME TABLE log TO log_uuid_backup;
+
+-- TASK (엔티티로 생성되는 테이블): 상태를 문자열로 (WAITING 추가)
+ALTER TABLE task MODIFY status VARCHAR(20) NOT NULL;
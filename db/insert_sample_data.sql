@@ -222,7 +222,7 @@ INSERT INTO setting (id, category, key, value, description) VALUES
 ('setting-005', 'sandbox', 'max_memory', '4096', '샌드박스 최대 메모리(MB)');
 
 -- 8.2 LOG 테이블
-INSERT INTO log (id, level, message, timestamp, component, user_id, trace_id) VALUES
+INSERT INTO log (id, level, message, timestamp, source, user_id, request_id) VALUES
 (1, 'INFO', '시스템 시작됨', '2025-05-28 00:00:01', 'system', NULL, NULL),
 (2, 'INFO', '사용자 로그인', '2025-05-28 09:00:00', 'auth', 1, 'trace-001'),
 (3, 'INFO', '대화 시작됨', '2025-05-28 10:15:00', 'conversation', 2, 'trace-002'),
@@ -1,13 +1,45 @@
 package com.agi.ai.generation.controller;
 
+import com.agi.ai.generation.dto.request.TextGenerationRequest;
+import com.agi.ai.generation.dto.response.TextGenerationResultDto;
+import com.agi.ai.generation.service.GenerationService;
+import com.agi.common.exception.BadRequestException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * 생성 모델 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/ai/generation")
+@RequiredArgsConstructor
 public class GenerationController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final GenerationService generationService;
+    
+    /**
+     * 텍스트 생성 (stream=true 요청은 /text/stream 사용)
+     */
+    @PostMapping("/text")
+    public ResponseEntity<TextGenerationResultDto> generateText(@Valid @RequestBody TextGenerationRequest request) {
+        if (Boolean.TRUE.equals(request.getStream())) {
+            throw new BadRequestException("스트리밍 생성은 /api/ai/generation/text/stream 을 사용하세요");
+        }
+        return ResponseEntity.ok(generationService.generate(request));
+    }
+    
+    /**
+     * 텍스트 토큰 스트리밍 생성 (SSE: token, done, error 이벤트)
+     */
+    @PostMapping(value = "/text/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamText(@Valid @RequestBody TextGenerationRequest request) {
+        return generationService.stream(request);
+    }
 }
@@ -1,5 +1,6 @@
 package com.agi.ai.generation.dto.request;
 
+import com.agi.ai.generation.enums.GenerationModelType;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Builder;
@@ -15,6 +16,11 @@ public class TextGenerationRequest {
     @NotBlank(message = "프롬프트는 필수입니다")
     private String prompt;
     
+    /** 대화 컨텍스트를 프롬프트 앞에 붙일 대화 ID (선택) */
+    private Long conversationId;
+    
+    private GenerationModelType modelType;
+    
     private Integer maxTokens;
     
     private Double temperature;
@@ -22,4 +22,6 @@ public class TextGenerationResultDto {
     private Boolean isSuccessful;
     
     private String errorMessage;
+    
+    private Boolean cached;
 }
@@ -46,4 +46,7 @@ public class TextGeneration {
     private LocalDateTime createdAt;
     
     private Boolean isSuccessful;
+    
+    /** 캐시 적중으로 모델을 호출하지 않은 생성 여부 */
+    private Boolean cached;
 }
@@ -0,0 +1,147 @@
+package com.agi.ai.generation.service;
+
+import com.agi.ai.generation.enums.GenerationModelType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 결정적 생성 결과 캐시
+ *
+ * temperature가 0인 요청만 저장하며, 키는 정규화한 프롬프트(NFC, 앞뒤 공백 제거, 연속 공백 축약)와
+ * 모델 유형, temperature, maxTokens, stopSequences의 SHA-256입니다.
+ * 항목은 TTL이 지나면 조회 시 제거되고, 최대 개수를 넘으면 가장 오래 사용되지 않은 항목부터 제거됩니다.
+ */
+@Component
+public class GenerationCache {
+
+    private final long ttlMillis;
+    private final Map<String, CachedCompletion> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public GenerationCache(MeterRegistry meterRegistry,
+                           @Value("${ai.generation.cache.max-entries:10000}") int maxEntries,
+                           @Value("${ai.generation.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCompletion> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("ai.generation.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ai.generation.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("ai.generation.cache.size", this, GenerationCache::size).register(meterRegistry);
+    }
+
+    /**
+     * 캐시 대상 여부 (temperature 0만 결정적)
+     */
+    public boolean isCacheable(Double temperature) {
+        return temperature != null && temperature == 0.0;
+    }
+
+    /**
+     * 정규화된 요청 키 생성
+     */
+    public String keyOf(String prompt, GenerationModelType modelType, Double temperature, Integer maxTokens,
+                        String[] stopSequences) {
+        StringBuilder key = new StringBuilder();
+        append(key, normalize(prompt));
+        append(key, modelType != null ? modelType.name() : null);
+        append(key, temperature != null ? temperature.toString() : null);
+        append(key, maxTokens != null ? maxTokens.toString() : null);
+        if (stopSequences != null) {
+            for (String stop : stopSequences) {
+                append(key, stop);
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * 캐시 조회 (만료된 항목은 제거 후 미스)
+     */
+    public CachedCompletion get(String key) {
+        CachedCompletion cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+            if (cached != null && System.currentTimeMillis() - cached.createdAt > ttlMillis) {
+                entries.remove(key);
+                cached = null;
+            }
+        }
+        (cached != null ? hits : misses).increment();
+        return cached;
+    }
+
+    /**
+     * 생성 결과 저장
+     */
+    public void put(String key, String text, int tokens) {
+        synchronized (entries) {
+            entries.put(key, new CachedCompletion(text, tokens, System.currentTimeMillis()));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String normalize(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        return Normalizer.normalize(prompt, Normalizer.Form.NFC).strip().replaceAll("\\s+", " ");
+    }
+
+    // 필드 경계가 모호하지 않도록 길이를 앞에 붙임 (null은 -1)
+    private static void append(StringBuilder key, String value) {
+        if (value == null) {
+            key.append("-1:");
+        } else {
+            key.append(value.length()).append(':').append(value);
+        }
+    }
+
+    /**
+     * 캐시된 생성 결과
+     */
+    public static final class CachedCompletion {
+        private final String text;
+        private final int tokens;
+        private final long createdAt;
+
+        private CachedCompletion(String text, int tokens, long createdAt) {
+            this.text = text;
+            this.tokens = tokens;
+            this.createdAt = createdAt;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public int getTokens() {
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.agi.ai.generation.service;
+
+import com.agi.ai.generation.enums.GenerationModelType;
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.StreamingChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 생성 모델 호출 래퍼 (Spring AI 채팅 클라이언트)
+ *
+ * 모델 유형은 ai.generation.models.{유형}에 설정한 모델 이름으로 호출하며, 설정이 없는 유형은 지원하지 않습니다.
+ */
+@Component
+public class GenerationModelClient {
+
+    private final ChatClient chatClient;
+    private final StreamingChatClient streamingChatClient;
+    private final Map<GenerationModelType, String> models = new EnumMap<>(GenerationModelType.class);
+
+    public GenerationModelClient(ChatClient chatClient, StreamingChatClient streamingChatClient,
+                                 Environment environment) {
+        this.chatClient = chatClient;
+        this.streamingChatClient = streamingChatClient;
+        for (GenerationModelType modelType : GenerationModelType.values()) {
+            String model = environment.getProperty("ai.generation.models." + modelType.name());
+            if (model != null && !model.isBlank()) {
+                models.put(modelType, model);
+            }
+        }
+    }
+
+    /**
+     * 호출할 모델이 설정된 유형인지
+     */
+    public boolean supports(GenerationModelType modelType) {
+        return models.containsKey(modelType);
+    }
+
+    /**
+     * 전체 응답을 한 번에 생성
+     */
+    public Completion generate(GenerationModelType modelType, String prompt, Double temperature, Integer maxTokens,
+                               String[] stopSequences) {
+        ChatResponse response = chatClient.call(toPrompt(modelType, prompt, temperature, maxTokens, stopSequences));
+        return new Completion(contentOf(response), generationTokensOf(response));
+    }
+
+    /**
+     * 토큰 청크 단위 스트리밍 생성 (구독자의 request 수만큼만 방출)
+     */
+    public Flux<String> stream(GenerationModelType modelType, String prompt, Double temperature, Integer maxTokens,
+                               String[] stopSequences) {
+        return streamingChatClient.stream(toPrompt(modelType, prompt, temperature, maxTokens, stopSequences))
+                .map(GenerationModelClient::contentOf)
+                .filter(chunk -> !chunk.isEmpty());
+    }
+
+    private Prompt toPrompt(GenerationModelType modelType, String prompt, Double temperature, Integer maxTokens,
+                            String[] stopSequences) {
+        String model = models.get(modelType);
+        if (model == null) {
+            throw new IllegalArgumentException("No model configured for type: " + modelType);
+        }
+        OpenAiChatOptions.Builder options = OpenAiChatOptions.builder().withModel(model);
+        if (temperature != null) {
+            options.withTemperature(temperature.floatValue());
+        }
+        if (maxTokens != null) {
+            options.withMaxTokens(maxTokens);
+        }
+        if (stopSequences != null && stopSequences.length > 0) {
+            options.withStop(Arrays.asList(stopSequences));
+        }
+        return new Prompt(prompt, options.build());
+    }
+
+    private static String contentOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String content = response.getResult().getOutput().getContent();
+        return content != null ? content : "";
+    }
+
+    private static Integer generationTokensOf(ChatResponse response) {
+        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return null;
+        }
+        Long tokens = response.getMetadata().getUsage().getGenerationTokens();
+        return tokens != null && tokens > 0 ? tokens.intValue() : null;
+    }
+
+    /**
+     * 생성 결과 (토큰 수는 모델이 보고한 경우에만)
+     */
+    public static final class Completion {
+        private final String text;
+        private final Integer generationTokens;
+
+        public Completion(String text, Integer generationTokens) {
+            this.text = text;
+            this.generationTokens = generationTokens;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Integer getGenerationTokens() {
+            return generationTokens;
+        }
+    }
+}
@@ -1,11 +1,324 @@
 package com.agi.ai.generation.service;
 
+import com.agi.ai.generation.dto.request.TextGenerationRequest;
+import com.agi.ai.generation.dto.response.TextGenerationResultDto;
+import com.agi.ai.generation.entity.TextGeneration;
+import com.agi.ai.generation.enums.GenerationModelType;
+import com.agi.ai.generation.repository.TextGenerationRepository;
+import com.agi.common.exception.BadRequestException;
+import com.agi.common.metrics.RequestTiming;
+import com.agi.conversation.service.ContextWindowBuilder;
+import com.agi.conversation.service.TokenEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 생성 모델 관련 서비스
+ *
+ * 모델 호출이 수 초 이상 걸리므로 트랜잭션을 열지 않고, 생성 이력은 완료 시점에 한 번만 저장합니다.
+ * temperature 0 요청은 {@link GenerationCache}를 먼저 조회하여 적중 시 모델을 호출하지 않습니다.
  */
+@Slf4j
 @Service
 public class GenerationService {
-    // 서비스 구현체는 추후 개발
+    
+    // 모델 스트림에서 미리 받아 둘 최대 청크 수 (느린 클라이언트가 버퍼를 붙잡지 않도록 작게 유지)
+    private static final int STREAM_PREFETCH = 8;
+    
+    private final GenerationModelClient modelClient;
+    private final TextGenerationRepository textGenerationRepository;
+    private final ContextWindowBuilder contextWindowBuilder;
+    private final GenerationCache generationCache;
+    private final MeterRegistry meterRegistry;
+    private final GenerationModelType defaultModelType;
+    private final long streamTimeoutMillis;
+    
+    public GenerationService(GenerationModelClient modelClient,
+                             TextGenerationRepository textGenerationRepository,
+                             ContextWindowBuilder contextWindowBuilder,
+                             GenerationCache generationCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${ai.generation.default-model-type:GPT_4}") GenerationModelType defaultModelType,
+                             @Value("${ai.generation.stream-timeout-ms:120000}") long streamTimeoutMillis) {
+        this.modelClient = modelClient;
+        this.textGenerationRepository = textGenerationRepository;
+        this.contextWindowBuilder = contextWindowBuilder;
+        this.generationCache = generationCache;
+        this.meterRegistry = meterRegistry;
+        this.defaultModelType = defaultModelType;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+    }
+    
+    /**
+     * 텍스트 생성 (완료 후 한 번에 응답)
+     */
+    public TextGenerationResultDto generate(TextGenerationRequest request) {
+        GenerationModelType modelType = modelTypeOf(request);
+        long started = System.nanoTime();
+        String prompt = assemblePrompt(request);
+        String cacheKey = cacheKeyOf(request, prompt, modelType);
+        if (cacheKey != null) {
+            GenerationCache.CachedCompletion cached = generationCache.get(cacheKey);
+            if (cached != null) {
+                long elapsed = System.nanoTime() - started;
+                record(request, modelType, cached.getText(), cached.getTokens(), elapsed, true, true);
+                return toResult(request.getPrompt(), cached.getText(), cached.getTokens(), elapsed, true, null, true);
+            }
+        }
+        try {
+            long modelStarted = System.nanoTime();
+            GenerationModelClient.Completion completion = modelClient.generate(modelType, prompt,
+                    request.getTemperature(), request.getMaxTokens(), request.getStopSequences());
+            RequestTiming.addModel(System.nanoTime() - modelStarted);
+            long elapsed = System.nanoTime() - started;
+            int tokens = completion.getGenerationTokens() != null
+                    ? completion.getGenerationTokens() : TokenEstimator.estimate(completion.getText());
+            if (cacheKey != null) {
+                generationCache.put(cacheKey, completion.getText(), tokens);
+            }
+            record(request, modelType, completion.getText(), tokens, elapsed, true, false);
+            recordDuration(modelType, false, true, elapsed);
+            return toResult(request.getPrompt(), completion.getText(), tokens, elapsed, true, null, false);
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - started;
+            log.error("Text generation failed", e);
+            record(request, modelType, "", 0, elapsed, false, false);
+            recordDuration(modelType, false, false, elapsed);
+            return toResult(request.getPrompt(), null, 0, elapsed, false, e.getMessage(), false);
+        }
+    }
+    
+    /**
+     * 토큰 스트리밍 생성 (SSE)
+     *
+     * token 이벤트로 청크를 보내고, 끝나면 done 이벤트(생성 통계) 또는 error 이벤트를 보냅니다.
+     * 청크는 클라이언트로 쓰기가 끝난 뒤에야 하나씩 요청하므로 느린 클라이언트는 모델 스트림을 늦출 뿐
+     * 서버 버퍼를 키우지 않습니다.
+     */
+    public SseEmitter stream(TextGenerationRequest request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        GenerationModelType modelType = modelTypeOf(request);
+        String prompt = assemblePrompt(request);
+        String cacheKey = cacheKeyOf(request, prompt, modelType);
+        if (cacheKey != null) {
+            GenerationCache.CachedCompletion cached = generationCache.get(cacheKey);
+            if (cached != null) {
+                streamCached(request, modelType, cached, emitter);
+                return emitter;
+            }
+        }
+        
+        TokenForwarder forwarder = new TokenForwarder(request, modelType, cacheKey, emitter);
+        emitter.onTimeout(() -> forwarder.abort("stream timeout"));
+        emitter.onError(e -> forwarder.abort("client disconnected"));
+        emitter.onCompletion(() -> forwarder.abort("client disconnected"));
+        
+        modelClient.stream(modelType, prompt, request.getTemperature(), request.getMaxTokens(),
+                        request.getStopSequences())
+                // SSE 쓰기는 블로킹이므로 모델 클라이언트의 이벤트 루프가 아닌 스레드에서 수행
+                .publishOn(Schedulers.boundedElastic(), STREAM_PREFETCH)
+                .subscribe(forwarder);
+        return emitter;
+    }
+    
+    /**
+     * 캐시 적중 결과를 한 번의 token 이벤트와 done 이벤트로 전송
+     */
+    private void streamCached(TextGenerationRequest request, GenerationModelType modelType,
+                              GenerationCache.CachedCompletion cached, SseEmitter emitter) {
+        long started = System.nanoTime();
+        try {
+            emitter.send(SseEmitter.event().name("token").data(cached.getText()));
+            long elapsed = System.nanoTime() - started;
+            record(request, modelType, cached.getText(), cached.getTokens(), elapsed, true, true);
+            emitter.send(SseEmitter.event().name("done")
+                    .data(toResult(request.getPrompt(), null, cached.getTokens(), elapsed, true, null, true)));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Failed to send cached generation: {}", e.getMessage());
+            emitter.complete();
+        }
+    }
+    
+    private String cacheKeyOf(TextGenerationRequest request, String prompt, GenerationModelType modelType) {
+        if (!generationCache.isCacheable(request.getTemperature())) {
+            return null;
+        }
+        return generationCache.keyOf(prompt, modelType, request.getTemperature(), request.getMaxTokens(),
+                request.getStopSequences());
+    }
+    
+    private String assemblePrompt(TextGenerationRequest request) {
+        if (request.getConversationId() == null) {
+            return request.getPrompt();
+        }
+        ContextWindowBuilder.ContextWindow window = contextWindowBuilder.build(request.getConversationId(), request.getMaxTokens());
+        return window.toPrompt() + "user: " + request.getPrompt();
+    }
+    
+    private GenerationModelType modelTypeOf(TextGenerationRequest request) {
+        GenerationModelType modelType = request.getModelType() != null ? request.getModelType() : defaultModelType;
+        if (!modelClient.supports(modelType)) {
+            throw new BadRequestException("지원하지 않는 모델 유형입니다: " + modelType);
+        }
+        return modelType;
+    }
+    
+    private void record(TextGenerationRequest request, GenerationModelType modelType, String text,
+                        int tokens, long elapsedNanos, boolean successful, boolean cached) {
+        try {
+            textGenerationRepository.save(TextGeneration.builder()
+                    .id(UUID.randomUUID().toString())
+                    .prompt(request.getPrompt())
+                    .generatedText(text)
+                    .tokensUsed(tokens)
+                    .completionTime(elapsedNanos / 1_000_000_000.0)
+                    .modelType(modelType)
+                    .temperature(request.getTemperature())
+                    .maxTokens(request.getMaxTokens())
+                    .createdAt(LocalDateTime.now())
+                    .isSuccessful(successful)
+                    .cached(cached)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Failed to record text generation", e);
+        }
+    }
+    
+    private void recordDuration(GenerationModelType modelType, boolean streamed, boolean successful, long elapsedNanos) {
+        Timer.builder("ai.generation.duration")
+                .tag("model", modelType.name())
+                .tag("streamed", String.valueOf(streamed))
+                .tag("outcome", successful ? "success" : "failure")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private static TextGenerationResultDto toResult(String prompt, String text, int tokens, long elapsedNanos,
+                                                    boolean successful, String errorMessage, boolean cached) {
+        return TextGenerationResultDto.builder()
+                .prompt(prompt)
+                .generatedText(text)
+                .tokensUsed(tokens)
+                .completionTime(elapsedNanos / 1_000_000_000.0)
+                .isSuccessful(successful)
+                .errorMessage(errorMessage)
+                .cached(cached)
+                .build();
+    }
+    
+    /**
+     * 모델 청크를 하나씩 받아 SSE로 전달하는 구독자
+     */
+    private final class TokenForwarder extends BaseSubscriber<String> {
+        private final TextGenerationRequest request;
+        private final GenerationModelType modelType;
+        private final String cacheKey;
+        private final SseEmitter emitter;
+        private final StringBuilder text = new StringBuilder();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final long started = System.nanoTime();
+        private boolean firstToken = true;
+        
+        TokenForwarder(TextGenerationRequest request, GenerationModelType modelType, String cacheKey, SseEmitter emitter) {
+            this.request = request;
+            this.modelType = modelType;
+            this.cacheKey = cacheKey;
+            this.emitter = emitter;
+        }
+        
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+        
+        @Override
+        protected void hookOnNext(String chunk) {
+            if (firstToken) {
+                firstToken = false;
+                Timer.builder("ai.generation.time-to-first-token")
+                        .tag("model", modelType.name())
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            synchronized (text) {
+                text.append(chunk);
+            }
+            try {
+                emitter.send(SseEmitter.event().name("token").data(chunk));
+            } catch (IOException | IllegalStateException e) {
+                abort("client disconnected");
+                return;
+            }
+            request(1);
+        }
+        
+        @Override
+        protected void hookOnComplete() {
+            TextGenerationResultDto result = finish(true, null);
+            if (result != null) {
+                sendQuietly("done", result);
+                emitter.complete();
+            }
+        }
+        
+        @Override
+        protected void hookOnError(Throwable error) {
+            log.error("Streaming text generation failed", error);
+            TextGenerationResultDto result = finish(false, error.getMessage());
+            if (result != null) {
+                sendQuietly("error", result);
+                emitter.complete();
+            }
+        }
+        
+        /**
+         * 클라이언트 측 종료 시 모델 스트림 취소 (정상 완료 후 호출되면 무시)
+         */
+        void abort(String reason) {
+            if (finish(false, reason) != null) {
+                dispose();
+            }
+        }
+        
+        private TextGenerationResultDto finish(boolean successful, String errorMessage) {
+            if (!finished.compareAndSet(false, true)) {
+                return null;
+            }
+            long elapsed = System.nanoTime() - started;
+            String generated;
+            synchronized (text) {
+                generated = text.toString();
+            }
+            int tokens = TokenEstimator.estimate(generated);
+            if (successful && cacheKey != null) {
+                generationCache.put(cacheKey, generated, tokens);
+            }
+            record(request, modelType, generated, tokens, elapsed, successful, false);
+            recordDuration(modelType, true, successful, elapsed);
+            // 본문은 이미 token 이벤트로 전달했으므로 통계만 보냄
+            return toResult(request.getPrompt(), null, tokens, elapsed, successful, errorMessage, false);
+        }
+        
+        private void sendQuietly(String name, TextGenerationResultDto result) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(result));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Failed to send {} event: {}", name, e.getMessage());
+            }
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.agi.ai.inference;
+
+import com.agi.common.batch.MicroBatcher;
+import com.agi.common.metrics.RequestTiming;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.UnaryOperator;
+
+/**
+ * 모델별 추론 요청 묶음 처리기
+ *
+ * 입력은 첫 차원이 1인 배열이며, 같은 모델의 동시 요청을 첫 차원으로 이어 붙여 한 번에 forward하고
+ * 출력([batch, n])의 행을 요청별로 나눠 돌려줍니다.
+ */
+@Slf4j
+@Component
+public class InferenceBatcher {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final Map<String, MicroBatcher<INDArray, INDArray>> batchers = new ConcurrentHashMap<>();
+
+    public InferenceBatcher(MeterRegistry meterRegistry,
+                            @Value("${ai.inference.batch.max-size:32}") int maxBatchSize,
+                            @Value("${ai.inference.batch.max-wait-ms:5}") long maxWaitMs,
+                            @Value("${ai.inference.batch.queue-capacity:1024}") int queueCapacity,
+                            @Value("${ai.inference.timeout-ms:10000}") long timeoutMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 추론 요청을 등록하고 결과를 기다림 (ai.inference.timeout-ms 초과 시 실패)
+     */
+    public INDArray infer(String model, INDArray features, UnaryOperator<INDArray> forward) {
+        long started = System.nanoTime();
+        CompletableFuture<INDArray> future = submit(model, features, forward);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new IllegalStateException("Inference timed out: " + model, e);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Inference interrupted: " + model, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Inference failed: " + model, cause);
+        } finally {
+            RequestTiming.addModel(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * 추론 요청 등록
+     *
+     * forward는 모델별 묶음 처리기를 처음 만들 때 한 번만 등록되며, 묶음마다 호출됩니다.
+     */
+    public CompletableFuture<INDArray> submit(String model, INDArray features, UnaryOperator<INDArray> forward) {
+        return batchers.computeIfAbsent(model, key -> create(key, forward)).submit(features);
+    }
+
+    private MicroBatcher<INDArray, INDArray> create(String model, UnaryOperator<INDArray> forward) {
+        DistributionSummary batchSize = DistributionSummary.builder("ai.inference.batch.size")
+                .tag("model", model)
+                .register(meterRegistry);
+        Timer queueWait = Timer.builder("ai.inference.batch.wait").tag("model", model).register(meterRegistry);
+        Timer duration = Timer.builder("ai.inference.batch.duration").tag("model", model).register(meterRegistry);
+        log.info("Inference batcher created: model={}, maxBatchSize={}, maxWait={}", model, maxBatchSize, maxWait);
+        return new MicroBatcher<>(model, maxBatchSize, maxWait, queueCapacity,
+                inputs -> forwardBatch(inputs, forward),
+                (size, waitNanos, durationNanos) -> {
+                    batchSize.record(size);
+                    queueWait.record(waitNanos, TimeUnit.NANOSECONDS);
+                    duration.record(durationNanos, TimeUnit.NANOSECONDS);
+                });
+    }
+
+    private static List<INDArray> forwardBatch(List<INDArray> inputs, UnaryOperator<INDArray> forward) {
+        INDArray batch = inputs.size() == 1
+                ? inputs.get(0)
+                : Nd4j.concat(0, inputs.toArray(new INDArray[0]));
+        INDArray output = forward.apply(batch);
+        List<INDArray> rows = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            rows.add(output.getRow(i, true).dup());
+        }
+        return rows;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchers.values().forEach(MicroBatcher::close);
+        batchers.clear();
+    }
+}
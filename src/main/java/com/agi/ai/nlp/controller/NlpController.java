@@ -1,5 +1,13 @@
 package com.agi.ai.nlp.controller;
 
+import com.agi.ai.nlp.dto.request.SentimentAnalysisRequest;
+import com.agi.ai.nlp.dto.response.SentimentAnalysisResultDto;
+import com.agi.ai.nlp.service.NlpService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -8,6 +16,16 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @RequestMapping("/api/ai/nlp")
+@RequiredArgsConstructor
 public class NlpController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final NlpService nlpService;
+    
+    /**
+     * 감성 분석
+     */
+    @PostMapping("/sentiment")
+    public ResponseEntity<SentimentAnalysisResultDto> analyzeSentiment(@Valid @RequestBody SentimentAnalysisRequest request) {
+        return ResponseEntity.ok(nlpService.analyzeSentiment(request));
+    }
 }
@@ -1,11 +1,128 @@
 package com.agi.ai.nlp.service;
 
+import com.agi.ai.inference.InferenceBatcher;
+import com.agi.ai.nlp.dto.request.SentimentAnalysisRequest;
+import com.agi.ai.nlp.dto.response.SentimentAnalysisResultDto;
+import com.agi.ai.nlp.entity.SentimentAnalysis;
+import com.agi.ai.nlp.enums.SentimentType;
+import com.agi.ai.nlp.repository.SentimentAnalysisRepository;
+import com.agi.common.search.TextTokenizer;
+import com.agi.learning.model.service.ModelRegistry;
+import com.agi.learning.model.service.ModelRegistry.LoadedModel;
+import com.agi.learning.model.service.ModelRegistry.ModelKey;
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * 자연어 처리 관련 서비스
+ *
+ * 감성 모델은 {@link ModelRegistry}에서 받아 쓰므로 적재/메모리 예산/LRU 내리기를 다른 모델과 함께 관리합니다.
  */
+@Slf4j
 @Service
 public class NlpService {
-    // 서비스 구현체는 추후 개발
+
+    /** 감성 모델 출력 순서 */
+    private static final int NEGATIVE = 0;
+    private static final int NEUTRAL = 1;
+    private static final int POSITIVE = 2;
+
+    private final SentimentAnalysisRepository sentimentAnalysisRepository;
+    private final InferenceBatcher inferenceBatcher;
+    private final ModelRegistry modelRegistry;
+    private final ModelKey sentimentModel;
+    private final double mixedThreshold;
+
+    public NlpService(SentimentAnalysisRepository sentimentAnalysisRepository,
+                      InferenceBatcher inferenceBatcher,
+                      ModelRegistry modelRegistry,
+                      @Value("${ai.nlp.sentiment.model:sentiment}") String sentimentModel,
+                      @Value("${ai.nlp.sentiment.mixed-threshold:0.35}") double mixedThreshold) {
+        this.sentimentAnalysisRepository = sentimentAnalysisRepository;
+        this.inferenceBatcher = inferenceBatcher;
+        this.modelRegistry = modelRegistry;
+        this.sentimentModel = ModelKey.parse(sentimentModel);
+        this.mixedThreshold = mixedThreshold;
+    }
+
+    /**
+     * 감성 분석 (동시 요청은 모델 단위로 묶어 추론)
+     */
+    public SentimentAnalysisResultDto analyzeSentiment(SentimentAnalysisRequest request) {
+        LoadedModel model = modelRegistry.acquire(sentimentModel);
+        if (!(model.getNetwork() instanceof MultiLayerNetwork network)) {
+            throw new IllegalStateException("Sentiment model must be a MultiLayerNetwork: " + sentimentModel);
+        }
+        INDArray features = featurize(request.getText(), (int) network.layerInputSize(0));
+        // 묶음이 모이는 사이 내려갔을 수 있으므로 forward 직전에 다시 조회
+        INDArray scores = inferenceBatcher.infer(sentimentModel.toString(), features,
+                batch -> modelRegistry.acquire(sentimentModel).output(batch));
+
+        double negative = scores.getDouble(NEGATIVE);
+        double neutral = scores.getDouble(NEUTRAL);
+        double positive = scores.getDouble(POSITIVE);
+        SentimentType sentiment = classify(negative, neutral, positive);
+
+        SentimentAnalysis analysis = SentimentAnalysis.builder()
+                .id(UUID.randomUUID().toString())
+                .text(request.getText())
+                .sentiment(sentiment)
+                .positiveScore(positive)
+                .negativeScore(negative)
+                .neutralScore(neutral)
+                .language(request.getLanguage())
+                .analyzedAt(LocalDateTime.now())
+                .build();
+        sentimentAnalysisRepository.save(analysis);
+
+        return SentimentAnalysisResultDto.builder()
+                .text(request.getText())
+                .sentiment(sentiment.name())
+                .positiveScore(positive)
+                .negativeScore(negative)
+                .neutralScore(neutral)
+                .language(request.getLanguage())
+                .isSuccessful(true)
+                .build();
+    }
+
+    private SentimentType classify(double negative, double neutral, double positive) {
+        if (positive >= mixedThreshold && negative >= mixedThreshold) {
+            return SentimentType.MIXED;
+        }
+        if (positive >= negative && positive >= neutral) {
+            return SentimentType.POSITIVE;
+        }
+        return negative >= neutral ? SentimentType.NEGATIVE : SentimentType.NEUTRAL;
+    }
+
+    /**
+     * 토큰 해싱 bag-of-words 특징 벡터 ([1, featureSize], L2 정규화)
+     */
+    private static INDArray featurize(String text, int featureSize) {
+        float[] vector = new float[featureSize];
+        List<String> tokens = TextTokenizer.tokenize(text);
+        for (String token : tokens) {
+            vector[Math.floorMod(token.hashCode(), featureSize)] += 1f;
+        }
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float scale = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return Nd4j.create(vector, new long[]{1, featureSize});
+    }
 }
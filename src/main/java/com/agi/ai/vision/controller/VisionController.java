@@ -1,5 +1,13 @@
 package com.agi.ai.vision.controller;
 
+import com.agi.ai.vision.dto.request.ImageAnalysisRequest;
+import com.agi.ai.vision.dto.response.ImageAnalysisResultDto;
+import com.agi.ai.vision.service.VisionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -8,6 +16,16 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @RequestMapping("/api/ai/vision")
+@RequiredArgsConstructor
 public class VisionController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final VisionService visionService;
+    
+    /**
+     * 이미지 분석 (분류 라벨, 대표 색상)
+     */
+    @PostMapping("/analyze")
+    public ResponseEntity<ImageAnalysisResultDto> analyzeImage(@Valid @RequestBody ImageAnalysisRequest request) {
+        return ResponseEntity.ok(visionService.analyzeImage(request));
+    }
 }
@@ -1,11 +1,335 @@
 package com.agi.ai.vision.service;
 
+import com.agi.ai.inference.InferenceBatcher;
+import com.agi.ai.vision.dto.request.ImageAnalysisRequest;
+import com.agi.ai.vision.dto.response.ImageAnalysisResultDto;
+import com.agi.ai.vision.entity.ImageAnalysis;
+import com.agi.ai.vision.repository.ImageAnalysisRepository;
+import com.agi.common.exception.BadRequestException;
+import com.agi.learning.model.service.ModelRegistry;
+import com.agi.learning.model.service.ModelRegistry.ModelKey;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
 /**
  * 컴퓨터 비전 관련 서비스
+ *
+ * 분류 모델은 {@link ModelRegistry}에서 받아 쓰므로 적재/메모리 예산/LRU 내리기를 다른 모델과 함께 관리합니다.
+ * 이미지 URL은 http/https만 받고, 내부망/루프백/링크 로컬 주소로 향하면 리다이렉트 단계마다 다시 확인해 거부하며,
+ * 받는 바이트 수와 디코딩할 픽셀 수에 상한을 둡니다.
  */
+@Slf4j
 @Service
 public class VisionService {
-    // 서비스 구현체는 추후 개발
+
+    private static final int CHANNELS = 3;
+
+    private final ImageAnalysisRepository imageAnalysisRepository;
+    private final InferenceBatcher inferenceBatcher;
+    private final ModelRegistry modelRegistry;
+    private final ModelKey classifierModel;
+    private final Path labelsFile;
+    private final int width;
+    private final int height;
+    private final int topK;
+    private final double minConfidence;
+    private final int fetchTimeoutMillis;
+    private final int fetchMaxBytes;
+    private final int fetchMaxRedirects;
+    private final long maxPixels;
+    private volatile List<String> labels;
+
+    public VisionService(ImageAnalysisRepository imageAnalysisRepository,
+                         InferenceBatcher inferenceBatcher,
+                         ModelRegistry modelRegistry,
+                         @Value("${dl4j.model.path}") String modelPath,
+                         @Value("${ai.vision.classifier.model:image-classifier}") String classifierModel,
+                         @Value("${ai.vision.classifier.labels-file:image-classifier-labels.txt}") String labelsFile,
+                         @Value("${ai.vision.classifier.width:224}") int width,
+                         @Value("${ai.vision.classifier.height:224}") int height,
+                         @Value("${ai.vision.classifier.top-k:5}") int topK,
+                         @Value("${ai.vision.classifier.min-confidence:0.1}") double minConfidence,
+                         @Value("${ai.vision.fetch-timeout-ms:5000}") int fetchTimeoutMillis,
+                         @Value("${ai.vision.fetch-max-bytes:10485760}") int fetchMaxBytes,
+                         @Value("${ai.vision.fetch-max-redirects:3}") int fetchMaxRedirects,
+                         @Value("${ai.vision.max-pixels:40000000}") long maxPixels) {
+        this.imageAnalysisRepository = imageAnalysisRepository;
+        this.inferenceBatcher = inferenceBatcher;
+        this.modelRegistry = modelRegistry;
+        this.classifierModel = ModelKey.parse(classifierModel);
+        this.labelsFile = Paths.get(modelPath, labelsFile);
+        this.width = width;
+        this.height = height;
+        this.topK = topK;
+        this.minConfidence = minConfidence;
+        this.fetchTimeoutMillis = fetchTimeoutMillis;
+        this.fetchMaxBytes = fetchMaxBytes;
+        this.fetchMaxRedirects = fetchMaxRedirects;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * 이미지 분류 및 대표 색상 분석 (동시 요청은 모델 단위로 묶어 추론)
+     */
+    public ImageAnalysisResultDto analyzeImage(ImageAnalysisRequest request) {
+        BufferedImage image = fetch(request.getImageUrl());
+        float[] pixels = new float[CHANNELS * width * height];
+        String dominantColor = toTensor(image, pixels);
+
+        Map<String, Double> confidenceScores = new LinkedHashMap<>();
+        if (!Boolean.FALSE.equals(request.getIncludeLabels())) {
+            // 첫 요청에서 적재 실패를 바로 드러내고, forward 직전에는 내려갔을 수 있으므로 다시 조회
+            modelRegistry.acquire(classifierModel);
+            INDArray input = Nd4j.create(pixels, new long[]{1, CHANNELS, height, width});
+            INDArray scores = inferenceBatcher.infer(classifierModel.toString(), input,
+                    batch -> modelRegistry.acquire(classifierModel).output(batch));
+            confidenceScores = topLabels(scores);
+        }
+        List<String> topLabels = new ArrayList<>(confidenceScores.keySet());
+
+        ImageAnalysis analysis = ImageAnalysis.builder()
+                .id(UUID.randomUUID().toString())
+                .imageUrl(request.getImageUrl())
+                .labels(topLabels)
+                .dominantColor(dominantColor)
+                .analyzedAt(LocalDateTime.now())
+                .isSuccessful(true)
+                .build();
+        imageAnalysisRepository.save(analysis);
+
+        return ImageAnalysisResultDto.builder()
+                .imageUrl(request.getImageUrl())
+                .labels(topLabels)
+                .detectedObjects(Collections.emptyList())
+                .detectedFaces(Collections.emptyList())
+                .confidenceScores(confidenceScores)
+                .dominantColor(dominantColor)
+                .isSuccessful(true)
+                .build();
+    }
+
+    private Map<String, Double> topLabels(INDArray scores) {
+        List<String> names = labels();
+        int classes = (int) scores.length();
+        List<Integer> order = new ArrayList<>(classes);
+        for (int i = 0; i < classes; i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Double.compare(scores.getDouble(b), scores.getDouble(a)));
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(topK, classes); i++) {
+            int index = order.get(i);
+            double confidence = scores.getDouble(index);
+            if (confidence < minConfidence) {
+                break;
+            }
+            result.put(index < names.size() ? names.get(index) : "class_" + index, confidence);
+        }
+        return result;
+    }
+
+    private BufferedImage fetch(String imageUrl) {
+        byte[] bytes;
+        try {
+            bytes = download(URI.create(imageUrl));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadRequestException("이미지를 불러올 수 없습니다: " + imageUrl);
+        }
+        try {
+            BufferedImage image = decode(bytes);
+            if (image == null) {
+                throw new BadRequestException("지원하지 않는 이미지 형식입니다: " + imageUrl);
+            }
+            return image;
+        } catch (IOException e) {
+            throw new BadRequestException("지원하지 않는 이미지 형식입니다: " + imageUrl);
+        }
+    }
+
+    /**
+     * 리다이렉트를 직접 따라가며 단계마다 대상 주소를 확인하고 fetchMaxBytes까지만 읽음
+     */
+    private byte[] download(URI uri) throws IOException {
+        for (int hop = 0; hop <= fetchMaxRedirects; hop++) {
+            checkTarget(uri);
+            HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+            connection.setInstanceFollowRedirects(false);
+            connection.setConnectTimeout(fetchTimeoutMillis);
+            connection.setReadTimeout(fetchTimeoutMillis);
+            try {
+                int status = connection.getResponseCode();
+                if (status >= 300 && status < 400) {
+                    String location = connection.getHeaderField("Location");
+                    if (location == null) {
+                        throw new IOException("Redirect without location");
+                    }
+                    uri = uri.resolve(location);
+                    continue;
+                }
+                if (status != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Unexpected status " + status);
+                }
+                if (connection.getContentLengthLong() > fetchMaxBytes) {
+                    throw new BadRequestException("이미지가 너무 큽니다 (최대 " + fetchMaxBytes + " bytes)");
+                }
+                try (InputStream in = connection.getInputStream()) {
+                    return readLimited(in);
+                }
+            } finally {
+                connection.disconnect();
+            }
+        }
+        throw new IOException("Too many redirects");
+    }
+
+    private byte[] readLimited(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (out.size() + read > fetchMaxBytes) {
+                throw new BadRequestException("이미지가 너무 큽니다 (최대 " + fetchMaxBytes + " bytes)");
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * http/https 외의 스킴과 내부 주소로 향하는 요청 거부
+     */
+    private static void checkTarget(URI uri) throws UnknownHostException {
+        String scheme = uri.getScheme();
+        if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+            throw new BadRequestException("http 또는 https 이미지 URL만 지원합니다");
+        }
+        if (uri.getHost() == null) {
+            throw new BadRequestException("이미지 URL에 호스트가 없습니다");
+        }
+        for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+            if (isInternal(address)) {
+                throw new BadRequestException("내부 주소의 이미지는 불러올 수 없습니다: " + uri.getHost());
+            }
+        }
+    }
+
+    private static boolean isInternal(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] raw = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // fc00::/7 고유 로컬 주소
+            return (raw[0] & 0xFE) == 0xFC;
+        }
+        // 100.64.0.0/10 공유 주소 (클라우드 내부망에서 사용)
+        return (raw[0] & 0xFF) == 100 && (raw[1] & 0xC0) == 64;
+    }
+
+    /**
+     * 헤더의 크기를 먼저 확인해 작은 파일로 거대한 이미지를 만드는 입력을 거부한 뒤 디코딩
+     */
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    throw new BadRequestException("이미지 해상도가 너무 큽니다 (최대 " + maxPixels + " 픽셀)");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 입력 크기로 축소한 RGB 값을 [C, H, W] 순서로 0~1 정규화해 채우고, 평균 색상을 #RRGGBB로 반환
+     */
+    private String toTensor(BufferedImage source, float[] pixels) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+
+        int plane = width * height;
+        long red = 0;
+        long green = 0;
+        long blue = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = resized.getRGB(x, y);
+                int r = (rgb >> 16) & 0xFF;
+                int g = (rgb >> 8) & 0xFF;
+                int b = rgb & 0xFF;
+                int offset = y * width + x;
+                pixels[offset] = r / 255f;
+                pixels[plane + offset] = g / 255f;
+                pixels[2 * plane + offset] = b / 255f;
+                red += r;
+                green += g;
+                blue += b;
+            }
+        }
+        return String.format("#%02X%02X%02X", red / plane, green / plane, blue / plane);
+    }
+
+    private List<String> labels() {
+        List<String> names = labels;
+        if (names == null) {
+            try {
+                names = Files.exists(labelsFile)
+                        ? Files.readAllLines(labelsFile, StandardCharsets.UTF_8).stream()
+                                .map(String::trim)
+                                .filter(line -> !line.isEmpty())
+                                .collect(Collectors.toList())
+                        : Collections.emptyList();
+            } catch (IOException e) {
+                log.warn("Failed to read labels: {}", labelsFile, e);
+                names = Collections.emptyList();
+            }
+            labels = names;
+        }
+        return names;
+    }
 }
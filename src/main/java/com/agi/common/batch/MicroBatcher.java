@@ -0,0 +1,177 @@
+package com.agi.common.batch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 요청 묶음 처리기 (micro-batching)
+ *
+ * 동시에 들어온 요청을 최대 maxBatchSize개 또는 가장 오래된 요청 도착 후 maxWait까지 모아
+ * 전용 스레드에서 batchFunction을 한 번 호출하고, 결과를 요청 순서대로 각 Future에 돌려줍니다.
+ * 묶음 처리가 실패하면 원인 요청만 실패하도록 요청별로 다시 실행합니다.
+ */
+@Slf4j
+public class MicroBatcher<I, O> implements AutoCloseable {
+
+    /**
+     * 묶음 처리 통계 수신자
+     */
+    @FunctionalInterface
+    public interface BatchListener {
+        void onBatch(int size, long oldestWaitNanos, long durationNanos);
+    }
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Function<List<I>, List<O>> batchFunction;
+    private final BatchListener listener;
+    private final BlockingQueue<Pending<I, O>> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public MicroBatcher(String name, int maxBatchSize, Duration maxWait, int queueCapacity,
+                        Function<List<I>, List<O>> batchFunction, BatchListener listener) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.batchFunction = batchFunction;
+        this.listener = listener;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = new Thread(this::run, "micro-batcher-" + name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 요청 등록 (대기열이 가득 차면 RejectedExecutionException으로 완료된 Future 반환)
+     */
+    public CompletableFuture<O> submit(I input) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        Pending<I, O> pending = new Pending<>(input, future, System.nanoTime());
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("Batcher is closed: " + name));
+        } else if (!queue.offer(pending)) {
+            future.completeExceptionally(new RejectedExecutionException("Batch queue is full: " + name));
+        } else if (!running && queue.remove(pending)) {
+            // 종료와 경합한 요청은 처리 스레드가 이미 멈췄을 수 있음
+            future.completeExceptionally(new IllegalStateException("Batcher is closed: " + name));
+        }
+        return future;
+    }
+
+    /**
+     * 대기 중인 요청 수
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Pending<I, O>> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Pending<I, O> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedAt + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending<I, O> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Micro batch loop failed: {}", name, e);
+                batch.forEach(p -> p.future.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        List<Pending<I, O>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(p -> p.future.completeExceptionally(new IllegalStateException("Batcher is closed: " + name)));
+    }
+
+    private void dispatch(List<Pending<I, O>> batch) {
+        // 호출자가 이미 취소한 요청은 제외
+        batch.removeIf(p -> p.future.isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        List<I> inputs = new ArrayList<>(batch.size());
+        for (Pending<I, O> p : batch) {
+            inputs.add(p.input);
+        }
+        try {
+            List<O> outputs = batchFunction.apply(inputs);
+            if (outputs == null || outputs.size() != inputs.size()) {
+                throw new IllegalStateException("Batch output size mismatch: " + name);
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(outputs.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+            } else {
+                log.warn("Micro batch of {} failed, retrying individually: {}", batch.size(), name, e);
+                for (Pending<I, O> p : batch) {
+                    runSingle(p);
+                }
+            }
+        }
+        if (listener != null) {
+            listener.onBatch(batch.size(), startedAt - batch.get(0).enqueuedAt, System.nanoTime() - startedAt);
+        }
+    }
+
+    private void runSingle(Pending<I, O> pending) {
+        try {
+            List<O> outputs = batchFunction.apply(List.of(pending.input));
+            pending.future.complete(outputs.get(0));
+        } catch (RuntimeException e) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Pending<I, O>(I input, CompletableFuture<O> future, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.agi.common.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 고정 크기 다중 생산자/단일 소비자 링 버퍼 (lock-free)
+ *
+ * 생산자는 CAS로 슬롯 번호를 확보한 뒤 슬롯에 값을 게시하고, 가득 차 있으면 기다리지 않고 false를 반환합니다.
+ * poll/drain은 한 스레드에서만 호출해야 합니다.
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * @param capacity 2의 거듭제곱으로 올림
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2: " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * 값 추가 (가득 차면 즉시 false)
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        while (true) {
+            long producer = producerIndex.get();
+            if (producer - consumerIndex.get() >= capacity) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(producer, producer + 1)) {
+                slots.lazySet((int) (producer & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 값 하나 꺼내기 (비어 있거나 확보된 슬롯이 아직 게시되지 않았으면 null, 소비자 전용)
+     */
+    public E poll() {
+        long consumer = consumerIndex.get();
+        int slot = (int) (consumer & mask);
+        E element = slots.get(slot);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(slot, null);
+        consumerIndex.lazySet(consumer + 1);
+        return element;
+    }
+
+    /**
+     * 최대 limit개를 꺼내 전달하고 전달한 개수 반환 (소비자 전용)
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * 현재 크기 (동시 변경 중에는 근사값)
+     */
+    public int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
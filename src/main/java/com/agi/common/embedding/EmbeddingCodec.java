@@ -0,0 +1,66 @@
+package com.agi.common.embedding;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 임베딩 BLOB 직렬화 유틸리티
+ *
+ * 임베딩은 float32 리틀 엔디언 배열로 저장합니다 (차원 수 = 바이트 길이 / 4).
+ */
+public final class EmbeddingCodec {
+
+    private EmbeddingCodec() {
+    }
+
+    /**
+     * BLOB 바이트 배열을 float 벡터로 변환
+     */
+    public static float[] decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes.length % Float.BYTES != 0) {
+            return null;
+        }
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    /**
+     * float 벡터를 BLOB 바이트 배열로 변환
+     */
+    public static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    /**
+     * 벡터를 단위 길이로 정규화한 복사본 반환 (영벡터는 null)
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * inv;
+        }
+        return normalized;
+    }
+
+    /**
+     * 내적 (정규화된 벡터에서는 코사인 유사도)
+     */
+    public static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
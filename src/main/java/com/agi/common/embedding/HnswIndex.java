@@ -0,0 +1,669 @@
+package com.agi.common.embedding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * HNSW(Hierarchical Navigable Small World) 기반 근사 최근접 이웃 인덱스
+ *
+ * 벡터는 정규화하여 저장하므로 점수는 코사인 유사도입니다.
+ * 각 노드는 tenant(예: 사용자)와 partition(예: 대화) 키를 가지며,
+ * 범위가 작은 검색은 그래프 대신 해당 노드만 정확 탐색합니다.
+ * 삭제와 교체는 툼스톤 방식이며, 툼스톤이 살아 있는 노드 수를 넘으면 살아 있는 노드만으로
+ * 그래프와 범위 목록을 다시 구성해 배열이 삭제/교체 횟수만큼 계속 늘어나지 않게 합니다.
+ *
+ * {@link MappedEmbeddingStore}와 함께 생성하면 벡터를 힙에 두지 않고
+ * 매핑된 파일에서 직접 유사도를 계산합니다.
+ */
+public class HnswIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_FILTERED_EF = 4096;
+    /** 이보다 적은 툼스톤은 정리하지 않음 */
+    private static final int MIN_COMPACT_TOMBSTONES = INITIAL_CAPACITY;
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int exactScanThreshold;
+    private final double levelMultiplier;
+    private final MappedEmbeddingStore store;
+    private final float[] scratch;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<VisitedSet> visitedSets = ThreadLocal.withInitial(VisitedSet::new);
+
+    private float[][] vectors = new float[INITIAL_CAPACITY][];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] tenants = new long[INITIAL_CAPACITY];
+    private long[] partitions = new long[INITIAL_CAPACITY];
+    private int[][][] links = new int[INITIAL_CAPACITY][][];
+
+    private final BitSet deleted = new BitSet();
+    private final Map<Long, Integer> nodeByKey = new HashMap<>();
+    private final Map<Long, IntList> nodesByTenant = new HashMap<>();
+    private final Map<Long, IntList> nodesByPartition = new HashMap<>();
+
+    private int size;
+    private int liveCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimension, int m, int efConstruction, int efSearch, int exactScanThreshold) {
+        this(dimension, m, efConstruction, efSearch, exactScanThreshold, null);
+    }
+
+    /**
+     * 오프힙 저장소 기반 인덱스 생성 (저장소에는 정규화된 벡터가 기록됨)
+     */
+    public HnswIndex(int dimension, int m, int efConstruction, int efSearch, int exactScanThreshold,
+                     MappedEmbeddingStore store) {
+        if (dimension <= 0 || m < 2) {
+            throw new IllegalArgumentException("Invalid HNSW parameters: dimension=" + dimension + ", m=" + m);
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = efSearch;
+        this.exactScanThreshold = exactScanThreshold;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.store = store;
+        this.scratch = new float[dimension];
+    }
+
+    /**
+     * 저장소에 이미 있는 벡터로 그래프 구성 (DB를 거치지 않는 재기동용)
+     *
+     * @return 인덱싱된 벡터 수
+     */
+    public int loadFromStore() {
+        if (store == null) {
+            throw new IllegalStateException("Index is not backed by an embedding store");
+        }
+        lock.writeLock().lock();
+        try {
+            float[] vector = new float[dimension];
+            int before = liveCount;
+            store.forEach((slot, key, tenant, partition) -> {
+                if (nodeByKey.containsKey(key)) {
+                    return;
+                }
+                store.read(slot, vector);
+                int node = addNode(key, tenant, partition);
+                slots[node] = slot;
+                link(node, vector);
+            });
+            return liveCount - before;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 벡터 추가 또는 교체 (같은 key의 기존 노드는 툼스톤 처리)
+     */
+    public void upsert(long key, long tenant, long partition, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but was " + vector.length);
+        }
+        float[] normalized = EmbeddingCodec.normalize(vector);
+        if (normalized == null) {
+            remove(key);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = nodeByKey.get(key);
+            if (previous != null && !deleted.get(previous)) {
+                deleted.set(previous);
+                liveCount--;
+            }
+
+            int node = addNode(key, tenant, partition);
+            if (store != null) {
+                slots[node] = store.put(key, tenant, partition, normalized);
+            } else {
+                vectors[node] = normalized;
+            }
+            link(node, normalized);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 벡터 삭제
+     */
+    public boolean remove(long key) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodeByKey.remove(key);
+            if (node == null || deleted.get(node)) {
+                return false;
+            }
+            deleted.set(node);
+            liveCount--;
+            if (store != null) {
+                store.remove(key);
+            }
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 전체 인덱스에서 top-k 검색
+     */
+    public List<Hit> search(float[] query, int k) {
+        return search(query, k, null, null);
+    }
+
+    /**
+     * 특정 tenant 범위에서 top-k 검색
+     */
+    public List<Hit> searchByTenant(float[] query, int k, long tenant) {
+        lock.readLock().lock();
+        try {
+            return search(query, k, nodesByTenant.get(tenant), node -> tenants[node] == tenant);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 특정 partition 범위에서 top-k 검색
+     */
+    public List<Hit> searchByPartition(float[] query, int k, long partition) {
+        lock.readLock().lock();
+        try {
+            return search(query, k, nodesByPartition.get(partition), node -> partitions[node] == partition);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public boolean contains(long key) {
+        lock.readLock().lock();
+        try {
+            return nodeByKey.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Hit> search(float[] query, int k, IntList scope, IntPredicate scopeFilter) {
+        if (query.length != dimension || k <= 0) {
+            return Collections.emptyList();
+        }
+        float[] normalized = EmbeddingCodec.normalize(query);
+        if (normalized == null) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return Collections.emptyList();
+            }
+            if (scopeFilter == null) {
+                return toHits(searchGraph(normalized, Math.max(efSearch, k), node -> !deleted.get(node), Integer.MAX_VALUE), k);
+            }
+            if (scope == null || scope.size == 0) {
+                return Collections.emptyList();
+            }
+            if (scope.size <= exactScanThreshold) {
+                return exactScan(normalized, k, scope);
+            }
+            // 범위 비율에 비례해 ef를 키워 필터로 인한 재현율 손실을 보정
+            long scaled = (long) Math.max(efSearch, k) * Math.max(1, liveCount / scope.size);
+            int ef = (int) Math.min(MAX_FILTERED_EF, scaled);
+            IntPredicate accept = node -> scopeFilter.test(node) && !deleted.get(node);
+            return toHits(searchGraph(normalized, ef, accept, ef * 32), k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NodeHeap searchGraph(float[] query, int ef, IntPredicate accept, int maxVisits) {
+        int ep = entryPoint;
+        for (int level = maxLevel; level > 0; level--) {
+            ep = greedyClosest(query, ep, level);
+        }
+        return searchLayer(query, ep, ef, 0, accept, maxVisits);
+    }
+
+    private List<Hit> exactScan(float[] query, int k, IntList scope) {
+        NodeHeap results = new NodeHeap(false, k + 1);
+        for (int i = 0; i < scope.size; i++) {
+            int node = scope.values[i];
+            if (deleted.get(node)) {
+                continue;
+            }
+            float score = similarity(query, node);
+            if (results.size() < k || score > results.topScore()) {
+                results.push(node, score);
+                if (results.size() > k) {
+                    results.pop();
+                }
+            }
+        }
+        return toHits(results, k);
+    }
+
+    private int addNode(long key, long tenant, long partition) {
+        ensureCapacity(size + 1);
+        int node = size++;
+        keys[node] = key;
+        tenants[node] = tenant;
+        partitions[node] = partition;
+        nodeByKey.put(key, node);
+        nodesByTenant.computeIfAbsent(tenant, t -> new IntList()).add(node);
+        nodesByPartition.computeIfAbsent(partition, p -> new IntList()).add(node);
+        liveCount++;
+        return node;
+    }
+
+    /**
+     * 툼스톤이 살아 있는 노드보다 많아지면 살아 있는 노드만으로 재구성 (쓰기 잠금 안에서)
+     *
+     * 정리 비용은 그동안 쌓인 삭제/교체 횟수에 비례하므로 호출당 평균 비용은 일정합니다.
+     */
+    private void compactIfNeeded() {
+        int tombstones = size - liveCount;
+        if (tombstones < MIN_COMPACT_TOMBSTONES || tombstones <= liveCount) {
+            return;
+        }
+        int oldSize = size;
+        float[][] oldVectors = vectors;
+        int[] oldSlots = slots;
+        long[] oldKeys = keys;
+        long[] oldTenants = tenants;
+        long[] oldPartitions = partitions;
+        BitSet oldDeleted = (BitSet) deleted.clone();
+
+        int capacity = Math.max(INITIAL_CAPACITY, liveCount * 2);
+        vectors = new float[capacity][];
+        slots = new int[capacity];
+        keys = new long[capacity];
+        tenants = new long[capacity];
+        partitions = new long[capacity];
+        links = new int[capacity][][];
+        deleted.clear();
+        nodeByKey.clear();
+        nodesByTenant.clear();
+        nodesByPartition.clear();
+        size = 0;
+        liveCount = 0;
+        entryPoint = -1;
+        maxLevel = -1;
+
+        float[] buffer = store != null ? new float[dimension] : null;
+        for (int old = 0; old < oldSize; old++) {
+            if (oldDeleted.get(old)) {
+                continue;
+            }
+            int node = addNode(oldKeys[old], oldTenants[old], oldPartitions[old]);
+            if (store != null) {
+                slots[node] = oldSlots[old];
+                store.read(oldSlots[old], buffer);
+                link(node, buffer);
+            } else {
+                vectors[node] = oldVectors[old];
+                link(node, oldVectors[old]);
+            }
+        }
+    }
+
+    private float similarity(float[] query, int node) {
+        return store != null ? store.dot(slots[node], query) : EmbeddingCodec.dot(query, vectors[node]);
+    }
+
+    private void link(int node, float[] vector) {
+        int level = randomLevel();
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int ep = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedyClosest(vector, ep, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            NodeHeap candidates = searchLayer(vector, ep, efConstruction, l, n -> true, Integer.MAX_VALUE);
+            int[] selected = candidates.drainDescending();
+            int limit = Math.min(m, selected.length);
+            int maxConnections = l == 0 ? maxM0 : m;
+            for (int i = 0; i < limit; i++) {
+                int neighbor = selected[i];
+                addLink(node, neighbor, l, maxConnections);
+                addLink(neighbor, node, l, maxConnections);
+            }
+            if (selected.length > 0) {
+                ep = selected[0];
+            }
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    private void addLink(int from, int to, int level, int maxConnections) {
+        int[] list = links[from][level];
+        int count = list[0];
+        if (count < maxConnections) {
+            list[++count] = to;
+            list[0] = count;
+            return;
+        }
+        // 연결 수 초과 시 가장 먼 이웃을 교체
+        float[] base;
+        if (store != null) {
+            store.read(slots[from], scratch);
+            base = scratch;
+        } else {
+            base = vectors[from];
+        }
+        int worstIndex = -1;
+        float worstScore = similarity(base, to);
+        for (int i = 1; i <= count; i++) {
+            float score = similarity(base, list[i]);
+            if (score < worstScore) {
+                worstScore = score;
+                worstIndex = i;
+            }
+        }
+        if (worstIndex > 0) {
+            list[worstIndex] = to;
+        }
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = similarity(query, current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] list = links[current][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int candidate = list[i];
+                float score = similarity(query, candidate);
+                if (score > best) {
+                    best = score;
+                    current = candidate;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private NodeHeap searchLayer(float[] query, int entry, int ef, int level, IntPredicate accept, int maxVisits) {
+        VisitedSet visited = visitedSets.get();
+        visited.reset(size);
+
+        NodeHeap candidates = new NodeHeap(true, ef * 2);
+        NodeHeap results = new NodeHeap(false, ef + 1);
+
+        float entryScore = similarity(query, entry);
+        visited.visit(entry);
+        candidates.push(entry, entryScore);
+        if (accept.test(entry)) {
+            results.push(entry, entryScore);
+        }
+
+        int visits = 1;
+        while (!candidates.isEmpty() && visits < maxVisits) {
+            float candidateScore = candidates.topScore();
+            int candidate = candidates.pop();
+            if (results.size() >= ef && candidateScore < results.topScore()) {
+                break;
+            }
+            int[] list = links[candidate].length > level ? links[candidate][level] : null;
+            if (list == null) {
+                continue;
+            }
+            for (int i = 1; i <= list[0]; i++) {
+                int neighbor = list[i];
+                if (!visited.visit(neighbor)) {
+                    continue;
+                }
+                visits++;
+                float score = similarity(query, neighbor);
+                if (results.size() < ef || score > results.topScore()) {
+                    candidates.push(neighbor, score);
+                    if (accept.test(neighbor)) {
+                        results.push(neighbor, score);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<Hit> toHits(NodeHeap results, int k) {
+        float[] scores = new float[results.size()];
+        int[] nodes = new int[results.size()];
+        for (int i = nodes.length - 1; i >= 0; i--) {
+            scores[i] = results.topScore();
+            nodes[i] = results.pop();
+        }
+        int limit = Math.min(k, nodes.length);
+        List<Hit> hits = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            hits.add(new Hit(keys[nodes[i]], scores[i]));
+        }
+        return hits;
+    }
+
+    private int randomLevel() {
+        double u = 1.0 - random.nextDouble();
+        return (int) Math.floor(-Math.log(u) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= keys.length) {
+            return;
+        }
+        int capacity = Math.max(required, keys.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        tenants = Arrays.copyOf(tenants, capacity);
+        partitions = Arrays.copyOf(partitions, capacity);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    /**
+     * 검색 결과 (key와 코사인 유사도)
+     */
+    public static final class Hit {
+        private final long key;
+        private final float score;
+
+        public Hit(long key, float score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * 박싱 없는 (node, score) 이진 힙
+     */
+    private static final class NodeHeap {
+        private final boolean maxHeap;
+        private int[] nodes;
+        private float[] scores;
+        private int size;
+
+        NodeHeap(boolean maxHeap, int capacity) {
+            this.maxHeap = maxHeap;
+            this.nodes = new int[Math.max(capacity, 4)];
+            this.scores = new float[Math.max(capacity, 4)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        float topScore() {
+            return scores[0];
+        }
+
+        void push(int node, float score) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(score, scores[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            scores[i] = score;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            float lastScore = scores[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(scores[child + 1], scores[child])) {
+                    child++;
+                }
+                if (!before(scores[child], lastScore)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                scores[i] = scores[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            scores[i] = lastScore;
+            return top;
+        }
+
+        /**
+         * 힙을 비우면서 점수 내림차순 노드 배열 반환
+         */
+        int[] drainDescending() {
+            int[] drained = new int[size];
+            if (maxHeap) {
+                for (int i = 0; i < drained.length; i++) {
+                    drained[i] = pop();
+                }
+            } else {
+                for (int i = drained.length - 1; i >= 0; i--) {
+                    drained[i] = pop();
+                }
+            }
+            return drained;
+        }
+
+        private boolean before(float a, float b) {
+            return maxHeap ? a > b : a < b;
+        }
+    }
+
+    /**
+     * 검색마다 재할당하지 않는 방문 표시 배열
+     */
+    private static final class VisitedSet {
+        private int[] marks = new int[0];
+        private int epoch;
+
+        void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[Math.max(capacity, marks.length * 2)];
+                epoch = 0;
+            }
+            epoch++;
+            if (epoch == 0) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        boolean visit(int node) {
+            if (marks[node] == epoch) {
+                return false;
+            }
+            marks[node] = epoch;
+            return true;
+        }
+    }
+
+    /**
+     * 증가형 int 배열
+     */
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package com.agi.common.embedding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 메모리 매핑 파일 기반 고정 폭 임베딩 저장소
+ *
+ * JPA BLOB 컬럼이 원본이며, 이 저장소는 유사도 계산을 힙 복사 없이 수행하기 위한
+ * 오프힙 사본입니다. 헤더에 차원과 양자화 방식을 기록하므로 재기동 시 즉시 다시 열 수 있습니다.
+ *
+ * 파일 구조: [헤더 64바이트][레코드 0][레코드 1]... (헤더에는 마지막 DB 대조 시각도 기록)
+ * 레코드 구조: [id 8][tenant 8][partition 8][벡터 dimension x (4 | 2)]
+ */
+public class MappedEmbeddingStore implements Closeable {
+
+    /**
+     * 벡터 성분 저장 형식
+     */
+    public enum Quantization {
+        FLOAT32(4),
+        FLOAT16(2);
+
+        private final int bytes;
+
+        Quantization(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * 레코드 순회 콜백
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(int slot, long id, long tenant, long partition);
+    }
+
+    /**
+     * 점수 순회 콜백
+     */
+    @FunctionalInterface
+    public interface ScoreVisitor {
+        void visit(long id, long tenant, long partition, float score);
+    }
+
+    private static final long MAGIC = 0x41474945_4D423031L; // "AGIEMB01"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_COUNT_OFFSET = 24;
+    private static final int SYNCED_AT_OFFSET = 32;
+    private static final int VECTOR_OFFSET = 24;
+    private static final long FREE = Long.MIN_VALUE;
+    private static final int MAX_REGION_BYTES = 1 << 30;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+    private final LongIntMap slotById = new LongIntMap();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private Quantization quantization;
+    private int dimension;
+    private int recordBytes;
+    private int slotsPerRegion;
+    private int slotCount;
+    private long maxId;
+    private MappedByteBuffer header;
+
+    private MappedEmbeddingStore(Path path, FileChannel channel, Quantization quantization) {
+        this.path = path;
+        this.channel = channel;
+        this.quantization = quantization;
+    }
+
+    /**
+     * 저장소 열기 (파일이 있으면 헤더의 차원/양자화 정보를 그대로 사용)
+     *
+     * @param quantization 새 파일 생성 시 사용할 양자화 방식
+     */
+    public static MappedEmbeddingStore open(Path path, Quantization quantization) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedEmbeddingStore store = new MappedEmbeddingStore(path, channel, quantization);
+        try {
+            store.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            store.header.order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() > HEADER_BYTES || store.header.getLong(0) == MAGIC) {
+                store.load();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * 벡터 저장 (같은 id는 제자리 덮어쓰기)
+     *
+     * @return 저장된 슬롯 번호
+     */
+    public int put(long id, long tenant, long partition, float[] vector) {
+        if (id == FREE) {
+            throw new IllegalArgumentException("Reserved id: " + id);
+        }
+        lock.writeLock().lock();
+        try {
+            if (dimension == 0) {
+                initialize(vector.length);
+            } else if (vector.length != dimension) {
+                throw new IllegalArgumentException("Expected dimension " + dimension + " but was " + vector.length);
+            }
+
+            int slot = slotById.get(id);
+            if (slot < 0) {
+                slot = freeSlots.isEmpty() ? allocateSlot() : freeSlots.pop();
+                slotById.put(id, slot);
+            }
+
+            ByteBuffer region = region(slot);
+            int offset = offset(slot);
+            region.putLong(offset, id);
+            region.putLong(offset + 8, tenant);
+            region.putLong(offset + 16, partition);
+            int base = offset + VECTOR_OFFSET;
+            if (quantization == Quantization.FLOAT32) {
+                for (int i = 0; i < dimension; i++) {
+                    region.putFloat(base + i * 4, vector[i]);
+                }
+            } else {
+                for (int i = 0; i < dimension; i++) {
+                    region.putShort(base + i * 2, floatToHalf(vector[i]));
+                }
+            }
+            maxId = Math.max(maxId, id);
+            return slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 벡터 삭제 (슬롯은 재사용 목록으로 반환)
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotById.remove(id);
+            if (slot < 0) {
+                return false;
+            }
+            region(slot).putLong(offset(slot), FREE);
+            freeSlots.push(slot);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * id에 해당하는 슬롯 번호 (없으면 -1)
+     */
+    public int slotOf(long id) {
+        lock.readLock().lock();
+        try {
+            return slotById.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 매핑된 메모리에서 직접 내적 계산
+     */
+    public float dot(int slot, float[] query) {
+        lock.readLock().lock();
+        try {
+            return dotAt(slot, query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 슬롯의 벡터를 호출자 버퍼로 복사
+     */
+    public void read(int slot, float[] target) {
+        lock.readLock().lock();
+        try {
+            ByteBuffer region = region(slot);
+            int base = offset(slot) + VECTOR_OFFSET;
+            for (int i = 0; i < dimension; i++) {
+                target[i] = quantization == Quantization.FLOAT32
+                        ? region.getFloat(base + i * 4)
+                        : halfToFloat(region.getShort(base + i * 2));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * id의 벡터 복사본 (없으면 null)
+     */
+    public float[] get(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotById.get(id);
+            if (slot < 0) {
+                return null;
+            }
+            float[] vector = new float[dimension];
+            read(slot, vector);
+            return vector;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 사용 중인 모든 레코드 순회
+     */
+    public void forEach(RecordVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                ByteBuffer region = region(slot);
+                int offset = offset(slot);
+                long id = region.getLong(offset);
+                if (id != FREE) {
+                    visitor.visit(slot, id, region.getLong(offset + 8), region.getLong(offset + 16));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 전체 레코드에 대해 질의 벡터와의 내적을 계산하며 순회 (힙 복사 없음)
+     */
+    public void scan(float[] query, ScoreVisitor visitor) {
+        if (query.length != dimension) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                ByteBuffer region = region(slot);
+                int offset = offset(slot);
+                long id = region.getLong(offset);
+                if (id != FREE) {
+                    visitor.visit(id, region.getLong(offset + 8), region.getLong(offset + 16), dotAt(slot, query));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public Quantization quantization() {
+        return quantization;
+    }
+
+    /**
+     * 저장된 최대 id (DB 증분 동기화 기준점)
+     */
+    public long maxId() {
+        lock.readLock().lock();
+        try {
+            return maxId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 저장된 id 목록 (오름차순)
+     */
+    public long[] ids() {
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[slotById.size()];
+            int count = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                long id = region(slot).getLong(offset(slot));
+                if (id != FREE) {
+                    ids[count++] = id;
+                }
+            }
+            Arrays.sort(ids, 0, count);
+            return count == ids.length ? ids : Arrays.copyOf(ids, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * 마지막으로 DB와 대조를 마친 시각 (epoch 밀리초, 없으면 0)
+     */
+    public long syncedAt() {
+        lock.readLock().lock();
+        try {
+            return header.getLong(SYNCED_AT_OFFSET);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 레코드를 디스크에 기록한 뒤 DB 대조 시각 기록
+     *
+     * 시각이 레코드보다 먼저 디스크에 남지 않도록 레코드를 먼저 기록합니다.
+     */
+    public void markSynced(long epochMillis) {
+        lock.writeLock().lock();
+        try {
+            forceRegions();
+            header.putLong(SYNCED_AT_OFFSET, epochMillis);
+            header.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 변경 내용을 디스크에 기록
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            forceRegions();
+            header.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void forceRegions() {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+    }
+
+    private float dotAt(int slot, float[] query) {
+        ByteBuffer region = region(slot);
+        int base = offset(slot) + VECTOR_OFFSET;
+        float sum = 0f;
+        if (quantization == Quantization.FLOAT32) {
+            for (int i = 0; i < dimension; i++) {
+                sum += region.getFloat(base + i * 4) * query[i];
+            }
+        } else {
+            for (int i = 0; i < dimension; i++) {
+                sum += halfToFloat(region.getShort(base + i * 2)) * query[i];
+            }
+        }
+        return sum;
+    }
+
+    private void initialize(int vectorDimension) {
+        dimension = vectorDimension;
+        computeLayout();
+        header.putLong(0, MAGIC);
+        header.putInt(8, VERSION);
+        header.putInt(12, dimension);
+        header.putInt(16, quantization.ordinal());
+        header.putInt(20, recordBytes);
+        header.putInt(SLOT_COUNT_OFFSET, 0);
+    }
+
+    private void load() throws IOException {
+        if (header.getLong(0) != MAGIC) {
+            throw new IllegalStateException("Not an embedding store: " + path);
+        }
+        int version = header.getInt(8);
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported embedding store version " + version + ": " + path);
+        }
+        dimension = header.getInt(12);
+        quantization = Quantization.values()[header.getInt(16)];
+        computeLayout();
+        if (header.getInt(20) != recordBytes) {
+            throw new IllegalStateException("Corrupted embedding store header: " + path);
+        }
+        slotCount = header.getInt(SLOT_COUNT_OFFSET);
+
+        int regionCount = (slotCount + slotsPerRegion - 1) / slotsPerRegion;
+        for (int i = 0; i < regionCount; i++) {
+            mapRegion(i);
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            long id = region(slot).getLong(offset(slot));
+            if (id == FREE) {
+                freeSlots.push(slot);
+            } else {
+                slotById.put(id, slot);
+                maxId = Math.max(maxId, id);
+            }
+        }
+    }
+
+    private void computeLayout() {
+        recordBytes = VECTOR_OFFSET + dimension * quantization.getBytes();
+        slotsPerRegion = Math.max(1, MAX_REGION_BYTES / recordBytes);
+    }
+
+    private int allocateSlot() {
+        int slot = slotCount;
+        if (slot / slotsPerRegion >= regions.size()) {
+            try {
+                mapRegion(regions.size());
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to grow embedding store: " + path, e);
+            }
+        }
+        slotCount++;
+        header.putInt(SLOT_COUNT_OFFSET, slotCount);
+        return slot;
+    }
+
+    private void mapRegion(int index) throws IOException {
+        long position = HEADER_BYTES + (long) index * slotsPerRegion * recordBytes;
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) slotsPerRegion * recordBytes);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+        regions.add(region);
+    }
+
+    private ByteBuffer region(int slot) {
+        return regions.get(slot / slotsPerRegion);
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerRegion) * recordBytes;
+    }
+
+    static short floatToHalf(float value) {
+        int bits = Float.floatToIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int rounded = (bits & 0x7fffffff) + 0x1000;
+        if (rounded >= 0x47800000) {
+            if ((bits & 0x7fffffff) >= 0x47800000) {
+                if (rounded < 0x7f800000) {
+                    return (short) (sign | 0x7c00);
+                }
+                return (short) (sign | 0x7c00 | ((bits & 0x007fffff) >>> 13));
+            }
+            return (short) (sign | 0x7bff);
+        }
+        if (rounded >= 0x38800000) {
+            return (short) (sign | ((rounded - 0x38000000) >>> 13));
+        }
+        if (rounded < 0x33000000) {
+            return (short) sign;
+        }
+        int exponent = (bits & 0x7fffffff) >>> 23;
+        return (short) (sign | ((((bits & 0x7fffff) | 0x800000) + (0x800000 >>> (exponent - 102))) >>> (126 - exponent)));
+    }
+
+    static float halfToFloat(short half) {
+        int bits = half & 0xffff;
+        int mantissa = bits & 0x03ff;
+        int exponent = bits & 0x7c00;
+        if (exponent == 0x7c00) {
+            exponent = 0x3fc00;
+        } else if (exponent != 0) {
+            exponent += 0x1c000;
+        } else if (mantissa != 0) {
+            exponent = 0x1c400;
+            do {
+                mantissa <<= 1;
+                exponent -= 0x400;
+            } while ((mantissa & 0x400) == 0);
+            mantissa &= 0x3ff;
+        }
+        return Float.intBitsToFloat((bits & 0x8000) << 16 | (exponent | mantissa) << 13);
+    }
+
+    /**
+     * 박싱 없는 long -> int 해시 맵 (선형 탐사, 역방향 이동 삭제)
+     */
+    private static final class LongIntMap {
+        private long[] keys;
+        private int[] values;
+        private boolean[] used;
+        private int size;
+
+        LongIntMap() {
+            allocate(1024);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (used[i]) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (used[i] && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (!used[i]) {
+                return -1;
+            }
+            int removed = values[i];
+            used[i] = false;
+            size--;
+            // 탐사 체인을 유지하도록 뒤쪽 항목을 앞으로 이동
+            int gap = i;
+            for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+                if (movable) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    used[gap] = true;
+                    used[j] = false;
+                    gap = j;
+                }
+            }
+            return removed;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            allocate(capacity);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            used = new boolean[capacity];
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.agi.common.embedding;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 오프힙 저장소 기반 HNSW 인덱스와 원본 테이블 대조
+ *
+ * 기동 시 저장소 파일에서 그래프를 다시 구성한 뒤 DB와 대조합니다.
+ * 대조는 마지막 대조 이후 임베딩이 바뀐 행을 다시 읽어 교체하고, 임베딩이 있는 id 목록을 id 순으로 훑어
+ * 저장소에 없는 행은 추가하고 DB에 없는(삭제되었거나 임베딩이 지워진) 항목은 지웁니다.
+ * 대조를 마치면 저장소를 디스크에 기록하고 대조 시작 시각을 저장소 헤더에 남기므로,
+ * 기록 전에 비정상 종료되어 잃은 변경도 다음 대조에서 다시 반영됩니다.
+ * 같은 대조를 주기적으로 반복해 다른 노드에서 생긴 변경도 따라잡습니다.
+ */
+@Slf4j
+public class SyncedVectorIndex {
+
+    /**
+     * 원본 테이블의 임베딩 행
+     */
+    public record Row(long id, long tenant, long partition, byte[] embedding) {
+    }
+
+    /**
+     * 원본 테이블 조회 (모두 임베딩이 있는 행만, id 오름차순)
+     */
+    public interface Source {
+
+        List<Long> findIdsAfter(long afterId, int limit);
+
+        List<Row> findByIds(List<Long> ids);
+
+        /**
+         * since 이후 임베딩이 바뀐 행
+         */
+        List<Row> findChangedSince(LocalDateTime since, long afterId, int limit);
+    }
+
+    /** 갱신 시각 기록 후 늦게 커밋된 트랜잭션을 놓치지 않도록 대조 시각에서 빼는 여유 */
+    private static final long COMMIT_LAG_MILLIS = 5 * 60 * 1000L;
+
+    private final String name;
+    private final Source source;
+    private final MappedEmbeddingStore store;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int exactScanThreshold;
+    private final int batchSize;
+    private final AtomicBoolean synchronizing = new AtomicBoolean();
+
+    private volatile HnswIndex index;
+    private volatile boolean ready;
+
+    public SyncedVectorIndex(String name, Source source, MappedEmbeddingStore store, int m, int efConstruction,
+                             int efSearch, int exactScanThreshold, int batchSize) {
+        this.name = name;
+        this.source = source;
+        this.store = store;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.exactScanThreshold = exactScanThreshold;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 저장소 파일에서 그래프를 구성한 뒤 DB와 대조 (기동 시 한 번)
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            if (store.size() > 0) {
+                int loaded = indexFor(store.dimension()).loadFromStore();
+                log.info("{} vector index loaded {} embeddings from {}", name, loaded, store.path());
+            }
+            if (synchronize()) {
+                ready = true;
+                log.info("{} vector index rebuilt: {} embeddings in {} ms", name, size(),
+                        System.currentTimeMillis() - started);
+            }
+        } catch (RuntimeException e) {
+            log.error("{} vector index rebuild failed", name, e);
+        }
+    }
+
+    /**
+     * DB와 대조 후 저장소를 디스크에 기록 (이미 대조 중이면 건너뜀)
+     *
+     * @return 대조를 마쳤으면 true
+     */
+    public boolean synchronize() {
+        if (!synchronizing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            int changed = refreshChanged(store.syncedAt());
+            int[] reconciled = reconcileIds();
+            store.markSynced(started);
+            if (changed + reconciled[0] + reconciled[1] > 0) {
+                log.info("{} vector index synchronized: {} changed, {} added, {} removed in {} ms", name, changed,
+                        reconciled[0], reconciled[1], System.currentTimeMillis() - started);
+            }
+            return true;
+        } finally {
+            synchronizing.set(false);
+        }
+    }
+
+    /**
+     * 임베딩 추가 또는 교체
+     *
+     * @return 인덱싱했으면 true (형식이나 차원이 맞지 않으면 false)
+     */
+    public boolean upsert(long id, long tenant, long partition, byte[] embedding) {
+        float[] vector = EmbeddingCodec.decode(embedding);
+        if (vector == null) {
+            log.warn("Skipping malformed {} embedding {}", name, id);
+            return false;
+        }
+        HnswIndex current = indexFor(store.dimension() > 0 ? store.dimension() : vector.length);
+        if (current.dimension() != vector.length) {
+            log.warn("Skipping {} embedding {}: dimension {} does not match index dimension {}",
+                    name, id, vector.length, current.dimension());
+            return false;
+        }
+        current.upsert(id, tenant, partition, vector);
+        return true;
+    }
+
+    /**
+     * 임베딩 제거
+     */
+    public boolean remove(long id) {
+        HnswIndex current = index;
+        boolean removed = current != null && current.remove(id);
+        // 그래프에 올리기 전 저장소에만 남은 항목도 정리
+        return store.remove(id) || removed;
+    }
+
+    /**
+     * 현재 그래프 (아직 임베딩이 하나도 없으면 null)
+     */
+    public HnswIndex index() {
+        return index;
+    }
+
+    /**
+     * 저장소에 보관된 임베딩 (정규화된 벡터, 없으면 null)
+     */
+    public float[] vectorOf(long id) {
+        return store.get(id);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        HnswIndex current = index;
+        return current != null ? current.size() : 0;
+    }
+
+    private int refreshChanged(long syncedAt) {
+        if (store.size() == 0) {
+            // 저장소가 비어 있으면 id 대조에서 모두 추가됨
+            return 0;
+        }
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(Math.max(0, syncedAt - COMMIT_LAG_MILLIS)),
+                ZoneId.systemDefault());
+        int changed = 0;
+        long lastId = 0L;
+        while (true) {
+            List<Row> batch = source.findChangedSince(since, lastId, batchSize);
+            if (batch.isEmpty()) {
+                return changed;
+            }
+            for (Row row : batch) {
+                lastId = row.id();
+                if (upsert(row.id(), row.tenant(), row.partition(), row.embedding())) {
+                    changed++;
+                }
+            }
+        }
+    }
+
+    /**
+     * 저장소 id 목록과 DB id 목록을 병합하며 양쪽 차이 반영
+     *
+     * @return {추가 수, 제거 수}
+     */
+    private int[] reconcileIds() {
+        long[] stored = store.ids();
+        int cursor = 0;
+        int added = 0;
+        int removed = 0;
+        List<Long> missing = new ArrayList<>();
+        long lastId = 0L;
+        while (true) {
+            List<Long> ids = source.findIdsAfter(lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Long id : ids) {
+                while (cursor < stored.length && stored[cursor] < id) {
+                    if (remove(stored[cursor++])) {
+                        removed++;
+                    }
+                }
+                if (cursor < stored.length && stored[cursor] == id) {
+                    cursor++;
+                } else {
+                    missing.add(id);
+                }
+            }
+            lastId = ids.get(ids.size() - 1);
+            if (missing.size() >= batchSize) {
+                added += addMissing(missing);
+                missing.clear();
+            }
+        }
+        // 대조 시작 후 리스너로 추가된 항목은 stored에 없으므로 지우지 않음
+        while (cursor < stored.length) {
+            if (remove(stored[cursor++])) {
+                removed++;
+            }
+        }
+        added += addMissing(missing);
+        return new int[]{added, removed};
+    }
+
+    private int addMissing(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int added = 0;
+        for (Row row : source.findByIds(ids)) {
+            // 그 사이 리스너로 들어온 최신 임베딩은 덮어쓰지 않음
+            HnswIndex current = index;
+            if (current != null && current.contains(row.id())) {
+                continue;
+            }
+            if (upsert(row.id(), row.tenant(), row.partition(), row.embedding())) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private HnswIndex indexFor(int dimension) {
+        HnswIndex current = index;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (index == null) {
+                // 차원은 저장소 헤더 또는 첫 임베딩에서 결정
+                index = new HnswIndex(dimension, m, efConstruction, efSearch, exactScanThreshold, store);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.agi.common.jdbc;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 동시 커넥션 수를 세마포어로 제한하는 DataSource
+ *
+ * 가상 스레드 수만큼 요청이 몰려도 커넥션 풀에 들어가는 대기자는 permits개뿐이고,
+ * 나머지는 공정 세마포어에서 순서대로 파킹됩니다. 허가는 커넥션을 닫을 때 한 번만 반환됩니다.
+ */
+public class GatedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutMillis;
+
+    public GatedDataSource(DataSource target, int permits, long acquireTimeoutMillis) {
+        super(target);
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        this.permits = new Semaphore(permits, true);
+        this.maxPermits = permits;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return gate(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return gate(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * 허가를 기다리는 스레드 수 (추정치)
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + acquireTimeoutMillis
+                        + "ms waiting for a connection permit (" + maxPermits + " in use, "
+                        + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", e);
+        }
+    }
+
+    private Connection gate(Connection target) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new GatedConnectionHandler(target));
+    }
+
+    private final class GatedConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private GatedConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
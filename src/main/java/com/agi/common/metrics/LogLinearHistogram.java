@@ -0,0 +1,148 @@
+package com.agi.common.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로그-선형 구간 히스토그램 (HDR 방식, lock-free)
+ *
+ * 2의 거듭제곱 구간마다 2^(subBucketBits-1)개의 선형 하위 구간을 두어 상대 오차를 일정하게 유지합니다.
+ * 기록은 배열 원소 하나의 원자적 증가뿐이며, 백분위는 구간 상한값으로 보고합니다.
+ * 최대값을 넘는 값은 최대값으로 기록됩니다.
+ */
+public class LogLinearHistogram {
+
+    private final int subBucketBits;
+    private final int subBucketHalf;
+    private final long maxValue;
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param maxValue 기록할 최대값
+     * @param subBucketBits 하위 구간 비트 수 (6이면 약 3% 상대 오차)
+     */
+    public LogLinearHistogram(long maxValue, int subBucketBits) {
+        if (subBucketBits < 2 || subBucketBits > 16) {
+            throw new IllegalArgumentException("subBucketBits must be in [2, 16]: " + subBucketBits);
+        }
+        this.subBucketBits = subBucketBits;
+        this.subBucketHalf = 1 << (subBucketBits - 1);
+        this.maxValue = maxValue;
+        this.counts = new AtomicLongArray(indexOf(maxValue) + 1);
+    }
+
+    /**
+     * 값 기록 (음수는 0)
+     */
+    public void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), maxValue);
+        counts.incrementAndGet(indexOf(clamped));
+        totalCount.increment();
+        sum.add(clamped);
+        long current = max.get();
+        while (clamped > current && !max.compareAndSet(current, clamped)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * 다른 히스토그램 누적 (같은 설정이어야 함)
+     */
+    public void add(LogLinearHistogram other) {
+        if (other.counts.length() != counts.length() || other.subBucketBits != subBucketBits) {
+            throw new IllegalArgumentException("Histogram layout mismatch");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        sum.add(other.sum.sum());
+        long otherMax = other.max.get();
+        long current = max.get();
+        while (otherMax > current && !max.compareAndSet(current, otherMax)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * 초기화 (기록 중인 스레드가 없을 때 호출)
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * 백분위 값 (percentile은 0~100, 기록이 없으면 0)
+     */
+    public long percentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public long count() {
+        return totalCount.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * 빈 복제본 (같은 설정)
+     */
+    public LogLinearHistogram emptyCopy() {
+        return new LogLinearHistogram(maxValue, subBucketBits);
+    }
+
+    int indexOf(long value) {
+        if (value < subBucketHalf) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - (subBucketBits - 1);
+        if (shift < 0) {
+            return (int) value;
+        }
+        return shift * subBucketHalf + (int) (value >>> shift);
+    }
+
+    long highestEquivalentValue(int index) {
+        if (index < 2 * subBucketHalf) {
+            return index;
+        }
+        int shift = index / subBucketHalf - 1;
+        long subBucket = index - (long) shift * subBucketHalf;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
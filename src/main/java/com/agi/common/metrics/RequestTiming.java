@@ -0,0 +1,121 @@
+package com.agi.common.metrics;
+
+/**
+ * 요청 처리 스레드의 구간별 소요 시간 (스레드당 객체 하나를 재사용)
+ *
+ * 요청 계측이 begin/end로 감싸는 동안 DB, 모델, 직렬화 구간 시간을 누적합니다.
+ * 요청 밖에서 호출된 add는 무시됩니다.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = ThreadLocal.withInitial(RequestTiming::new);
+
+    private boolean active;
+    private long startNanos;
+    private long dbNanos;
+    private int dbCalls;
+    private long modelNanos;
+    private long serializationNanos;
+
+    private RequestTiming() {
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 요청 계측 시작
+     */
+    public static void begin(long startNanos) {
+        RequestTiming timing = CURRENT.get();
+        timing.active = true;
+        timing.startNanos = startNanos;
+        timing.dbNanos = 0;
+        timing.dbCalls = 0;
+        timing.modelNanos = 0;
+        timing.serializationNanos = 0;
+    }
+
+    /**
+     * 요청 계측 종료
+     */
+    public static void end() {
+        CURRENT.get().active = false;
+    }
+
+    /**
+     * 비동기 처리로 넘어가는 요청의 계측 분리 (누적값 사본을 반환하고 현재 스레드는 종료)
+     */
+    public static RequestTiming detach() {
+        RequestTiming timing = CURRENT.get();
+        RequestTiming detached = new RequestTiming();
+        detached.active = timing.active;
+        detached.startNanos = timing.startNanos;
+        detached.dbNanos = timing.dbNanos;
+        detached.dbCalls = timing.dbCalls;
+        detached.modelNanos = timing.modelNanos;
+        detached.serializationNanos = timing.serializationNanos;
+        timing.active = false;
+        return detached;
+    }
+
+    /**
+     * 비동기 디스패치 스레드에서 분리해 둔 계측 이어가기
+     */
+    public static void resume(RequestTiming detached) {
+        RequestTiming timing = CURRENT.get();
+        timing.active = detached.active;
+        timing.startNanos = detached.startNanos;
+        timing.dbNanos = detached.dbNanos;
+        timing.dbCalls = detached.dbCalls;
+        timing.modelNanos = detached.modelNanos;
+        timing.serializationNanos = detached.serializationNanos;
+    }
+
+    public static void addDb(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing.active) {
+            timing.dbNanos += nanos;
+            timing.dbCalls++;
+        }
+    }
+
+    public static void addModel(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing.active) {
+            timing.modelNanos += nanos;
+        }
+    }
+
+    public static void addSerialization(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing.active) {
+            timing.serializationNanos += nanos;
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public int getDbCalls() {
+        return dbCalls;
+    }
+
+    public long getModelNanos() {
+        return modelNanos;
+    }
+
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+}
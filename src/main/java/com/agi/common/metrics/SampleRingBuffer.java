@@ -0,0 +1,86 @@
+package com.agi.common.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 고정 크기 시계열 링 버퍼 (단일 기록자, 다중 조회자, lock-free)
+ *
+ * 가장 오래된 표본부터 덮어쓰며, 조회 중 덮어써졌을 수 있는 표본은 기록 위치를 다시 확인해 결과에서 제외합니다.
+ */
+public class SampleRingBuffer {
+
+    /**
+     * 표본 (epoch 밀리초, 값)
+     */
+    public record Sample(long timestamp, double value) {
+    }
+
+    private final int capacity;
+    private final long[] timestamps;
+    private final double[] values;
+    private final AtomicLong writeIndex = new AtomicLong();
+
+    public SampleRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * 표본 추가 (기록 스레드 전용)
+     */
+    public void add(long timestamp, double value) {
+        long index = writeIndex.get();
+        int slot = (int) (index % capacity);
+        timestamps[slot] = timestamp;
+        values[slot] = value;
+        // volatile 쓰기로 슬롯 내용을 게시
+        writeIndex.set(index + 1);
+    }
+
+    /**
+     * since(epoch 밀리초) 이후 표본 (오래된 순)
+     */
+    public List<Sample> since(long since) {
+        long end = writeIndex.get();
+        long start = Math.max(0, end - capacity);
+        int length = (int) (end - start);
+        long[] readTimestamps = new long[length];
+        double[] readValues = new double[length];
+        for (int i = 0; i < length; i++) {
+            int slot = (int) ((start + i) % capacity);
+            readTimestamps[i] = timestamps[slot];
+            readValues[i] = values[slot];
+        }
+        // 읽는 동안 덮어써졌거나 기록 중일 수 있는 앞부분 제외
+        int firstValid = (int) Math.min(length, Math.max(0, writeIndex.get() + 1 - capacity - start));
+        List<Sample> samples = new ArrayList<>();
+        for (int i = firstValid; i < length; i++) {
+            if (readTimestamps[i] >= since) {
+                samples.add(new Sample(readTimestamps[i], readValues[i]));
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * 가장 최근 표본 (없으면 null)
+     */
+    public Sample latest() {
+        long end = writeIndex.get();
+        if (end == 0) {
+            return null;
+        }
+        int slot = (int) ((end - 1) % capacity);
+        return new Sample(timestamps[slot], values[slot]);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,59 @@
+package com.agi.common.pagination;
+
+import com.agi.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 키셋 페이지네이션 커서 (정렬 시각 + id)
+ *
+ * 클라이언트에는 불투명한 base64url 문자열로 전달합니다.
+ */
+public final class Cursor {
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public Cursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * 커서를 문자열로 인코딩
+     */
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 문자열 커서 디코딩 (null 또는 빈 문자열이면 null = 첫 페이지)
+     */
+    public static Cursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new BadRequestException("잘못된 커서입니다: " + value);
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("잘못된 커서입니다: " + value, e);
+        }
+    }
+}
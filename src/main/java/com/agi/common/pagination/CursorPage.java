@@ -0,0 +1,32 @@
+package com.agi.common.pagination;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 커서 기반 페이지 응답 DTO
+ */
+@Getter
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Boolean hasNext;
+    
+    /**
+     * size + 1개 조회 결과로 페이지 생성 (초과분이 있으면 마지막 항목 기준 다음 커서 생성)
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, Cursor> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        return CursorPage.<T>builder()
+                .items(page.stream().map(mapper).collect(Collectors.toList()))
+                .nextCursor(hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+}
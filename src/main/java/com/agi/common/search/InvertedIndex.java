@@ -0,0 +1,431 @@
+package com.agi.common.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * BM25 점수 기반 인메모리 역색인
+ *
+ * 문서는 long 키로 식별하며, 내부적으로는 단조 증가하는 순번(ordinal)을 부여해
+ * 포스팅 목록이 항상 순번 오름차순을 유지하도록 합니다. 덕분에 질의는 질의 토큰의
+ * 포스팅만 문서 단위(document-at-a-time)로 병합하므로 비용이 전체 문서 수가 아니라
+ * 일치 문서 수에 비례합니다.
+ * 문서 교체/삭제 시 이전 순번은 삭제 표시만 하고, 삭제된 순번이 살아 있는 문서보다
+ * 많아지면 포스팅을 압축합니다.
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int COMPACT_MIN_DEAD = 1024;
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * 일치 문서 방문자
+     */
+    public interface HitVisitor {
+        void visit(long key, float score);
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Map<Long, Integer> ordinalByKey = new HashMap<>();
+
+    private Postings[] postings = new Postings[INITIAL_CAPACITY];
+    private int termCount;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    // 문서별 고유 용어 ID (null이면 삭제된 순번)
+    private int[][] docTerms = new int[INITIAL_CAPACITY][];
+    private int ordinalCount;
+    private int liveCount;
+    private long totalLength;
+
+    /**
+     * 문서 추가 또는 교체 (토큰이 없으면 삭제와 동일)
+     */
+    public void upsert(long key, List<String> tokens) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+            if (!frequencies.isEmpty()) {
+                int ordinal = nextOrdinal();
+                int[] terms = new int[frequencies.size()];
+                int i = 0;
+                for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                    int termId = termIdFor(entry.getKey());
+                    postings[termId].add(ordinal, entry.getValue());
+                    terms[i++] = termId;
+                }
+                keys[ordinal] = key;
+                lengths[ordinal] = tokens.size();
+                docTerms[ordinal] = terms;
+                ordinalByKey.put(key, ordinal);
+                liveCount++;
+                totalLength += tokens.size();
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 문서 삭제
+     */
+    public boolean remove(long key) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeInternal(key);
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 상위 k개 문서 검색
+     *
+     * @param filter 키 단위 필터 (null이면 전체)
+     */
+    public SearchResult search(String query, int k, LongPredicate filter) {
+        TopK top = new TopK(Math.max(k, 0));
+        int total = forEachMatch(query, filter, top::offer);
+        return new SearchResult(top.toHits(), total);
+    }
+
+    /**
+     * 여러 샤드의 검색 결과를 상위 k개로 병합 (전체 일치 수는 합산)
+     */
+    public static SearchResult merge(List<SearchResult> results, int k) {
+        List<Hit> hits = new ArrayList<>();
+        int total = 0;
+        for (SearchResult result : results) {
+            hits.addAll(result.getHits());
+            total += result.getTotalHits();
+        }
+        hits.sort(Hit.BY_SCORE);
+        return new SearchResult(hits.size() > k ? new ArrayList<>(hits.subList(0, k)) : hits, total);
+    }
+
+    /**
+     * 질의 토큰 중 하나 이상을 포함하는 모든 문서를 순번 순으로 방문하고 일치 수를 반환
+     *
+     * 방문자는 읽기 잠금 안에서 호출되므로 가볍게 유지해야 합니다.
+     */
+    public int forEachMatch(String query, LongPredicate filter, HitVisitor visitor) {
+        Set<String> queryTerms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0) {
+                return 0;
+            }
+            Postings[] lists = new Postings[queryTerms.size()];
+            float[] idf = new float[queryTerms.size()];
+            int count = 0;
+            for (String term : queryTerms) {
+                Integer termId = termIds.get(term);
+                if (termId == null || postings[termId].live == 0) {
+                    continue;
+                }
+                Postings list = postings[termId];
+                lists[count] = list;
+                idf[count] = (float) Math.log(1.0 + (liveCount - list.live + 0.5) / (list.live + 0.5));
+                count++;
+            }
+            return count > 0 ? merge(lists, idf, count, filter, visitor) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long key) {
+        lock.readLock().lock();
+        try {
+            return ordinalByKey.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int merge(Postings[] lists, float[] idf, int count, LongPredicate filter, HitVisitor visitor) {
+        float averageLength = (float) totalLength / liveCount;
+        int[] cursors = new int[count];
+        int hits = 0;
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int j = 0; j < count; j++) {
+                if (cursors[j] < lists[j].size) {
+                    doc = Math.min(doc, lists[j].docs[cursors[j]]);
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                return hits;
+            }
+            boolean accept = docTerms[doc] != null && (filter == null || filter.test(keys[doc]));
+            float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+            float score = 0f;
+            for (int j = 0; j < count; j++) {
+                Postings list = lists[j];
+                int cursor = cursors[j];
+                if (cursor < list.size && list.docs[cursor] == doc) {
+                    if (accept) {
+                        int tf = list.freqs[cursor];
+                        score += idf[j] * tf * (K1 + 1) / (tf + norm);
+                    }
+                    cursors[j] = cursor + 1;
+                }
+            }
+            if (accept) {
+                hits++;
+                visitor.visit(keys[doc], score);
+            }
+        }
+    }
+
+    private boolean removeInternal(long key) {
+        Integer ordinal = ordinalByKey.remove(key);
+        if (ordinal == null) {
+            return false;
+        }
+        for (int termId : docTerms[ordinal]) {
+            postings[termId].live--;
+        }
+        docTerms[ordinal] = null;
+        liveCount--;
+        totalLength -= lengths[ordinal];
+        return true;
+    }
+
+    private int nextOrdinal() {
+        if (ordinalCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+        }
+        return ordinalCount++;
+    }
+
+    private int termIdFor(String term) {
+        Integer termId = termIds.get(term);
+        if (termId != null) {
+            return termId;
+        }
+        if (termCount == postings.length) {
+            postings = Arrays.copyOf(postings, termCount * 2);
+        }
+        postings[termCount] = new Postings();
+        termIds.put(term, termCount);
+        return termCount++;
+    }
+
+    /**
+     * 살아 있는 순번만 남기도록 재번호 부여 (순서가 유지되므로 포스팅 정렬도 유지)
+     */
+    private void compactIfNeeded() {
+        int dead = ordinalCount - liveCount;
+        if (dead < COMPACT_MIN_DEAD || dead < liveCount) {
+            return;
+        }
+        int[] remap = new int[ordinalCount];
+        int next = 0;
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            if (docTerms[ordinal] == null) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            remap[ordinal] = next;
+            keys[next] = keys[ordinal];
+            lengths[next] = lengths[ordinal];
+            docTerms[next] = docTerms[ordinal];
+            ordinalByKey.put(keys[next], next);
+            next++;
+        }
+        Arrays.fill(docTerms, next, ordinalCount, null);
+        ordinalCount = next;
+        for (int termId = 0; termId < termCount; termId++) {
+            postings[termId].remap(remap);
+        }
+    }
+
+    /**
+     * 용어별 포스팅 목록 (순번 오름차순)
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+        private int live;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+            live++;
+        }
+
+        void remap(int[] remap) {
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[next] = doc;
+                    freqs[next] = freqs[i];
+                    next++;
+                }
+            }
+            size = next;
+            if (docs.length > 4 && size < docs.length / 4) {
+                docs = Arrays.copyOf(docs, Math.max(4, size * 2));
+                freqs = Arrays.copyOf(freqs, docs.length);
+            }
+        }
+    }
+
+    /**
+     * 고정 크기 최소 힙 기반 상위 k개 수집기
+     */
+    private static final class TopK {
+        private final long[] keys;
+        private final float[] scores;
+        private int size;
+
+        TopK(int k) {
+            this.keys = new long[k];
+            this.scores = new float[k];
+        }
+
+        void offer(long key, float score) {
+            if (keys.length == 0) {
+                return;
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                keys[0] = key;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        List<Hit> toHits() {
+            List<Hit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new Hit(keys[i], scores[i]));
+            }
+            hits.sort(Hit.BY_SCORE);
+            return hits;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] <= scores[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+                if (scores[i] <= scores[smallest]) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    /**
+     * 검색 결과 (상위 문서와 전체 일치 수)
+     */
+    public static final class SearchResult {
+        private final List<Hit> hits;
+        private final int totalHits;
+
+        public SearchResult(List<Hit> hits, int totalHits) {
+            this.hits = hits;
+            this.totalHits = totalHits;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        public int getTotalHits() {
+            return totalHits;
+        }
+    }
+
+    /**
+     * 검색 결과 항목
+     */
+    public static final class Hit {
+        /** 점수 내림차순, 동점이면 키 오름차순 */
+        public static final Comparator<Hit> BY_SCORE = (a, b) ->
+                a.score != b.score ? Float.compare(b.score, a.score) : Long.compare(a.key, b.key);
+
+        private final long key;
+        private final float score;
+
+        public Hit(long key, float score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
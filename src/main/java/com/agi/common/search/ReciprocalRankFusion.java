@@ -0,0 +1,206 @@
+package com.agi.common.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * 가중 역순위 융합(Reciprocal Rank Fusion) 누산기
+ *
+ * 여러 검색기의 순위 목록을 score = Σ weight / (rankConstant + rank) 로 합산합니다.
+ * 후보 수는 검색기별 상위 N개의 합집합으로 제한되므로 키는 박싱 없는 작은
+ * 개방 주소 해시 테이블에 보관합니다.
+ */
+public final class ReciprocalRankFusion {
+
+    private final int rankConstant;
+    private final float[] weights;
+    private final int sources;
+
+    private long[] keys;
+    private float[] scores;
+    private int[] ranks;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    /**
+     * @param rankConstant 순위 상수 (일반적으로 60)
+     * @param weights      검색기별 가중치 (인덱스가 검색기 번호)
+     * @param expectedKeys 예상 후보 수
+     */
+    public ReciprocalRankFusion(int rankConstant, float[] weights, int expectedKeys) {
+        this.rankConstant = rankConstant;
+        this.weights = weights.clone();
+        this.sources = weights.length;
+        int capacity = Integer.highestOneBit(Math.max(4, expectedKeys * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * 검색기 결과의 한 항목 반영 (rank는 0부터)
+     */
+    public void add(int source, long key, int rank) {
+        if (size * 2 >= keys.length) {
+            grow();
+        }
+        int slot = slotFor(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            Arrays.fill(ranks, slot * sources, slot * sources + sources, -1);
+            size++;
+        }
+        int index = slot * sources + source;
+        if (ranks[index] < 0 || rank < ranks[index]) {
+            if (ranks[index] >= 0) {
+                scores[slot] -= weights[source] / (rankConstant + ranks[index] + 1);
+            }
+            ranks[index] = rank;
+            scores[slot] += weights[source] / (rankConstant + rank + 1);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 융합 점수에 사전 점수(prior)를 더해 상위 n개 반환 (점수 내림차순)
+     *
+     * prior는 후보 합집합에 대해서만 한 번씩 계산됩니다.
+     */
+    public List<Fused> top(int n, LongToDoubleFunction prior) {
+        int k = Math.min(n, size);
+        int[] heap = new int[k];
+        float[] heapScores = new float[k];
+        int heapSize = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (!used[slot]) {
+                continue;
+            }
+            float score = scores[slot] + (prior != null ? (float) prior.applyAsDouble(keys[slot]) : 0f);
+            if (heapSize < k) {
+                heap[heapSize] = slot;
+                heapScores[heapSize] = score;
+                siftUp(heap, heapScores, heapSize++);
+            } else if (k > 0 && score > heapScores[0]) {
+                heap[0] = slot;
+                heapScores[0] = score;
+                siftDown(heap, heapScores, heapSize);
+            }
+        }
+        List<Fused> result = new ArrayList<>(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            int slot = heap[i];
+            result.add(new Fused(keys[slot], heapScores[i], Arrays.copyOfRange(ranks, slot * sources, slot * sources + sources)));
+        }
+        result.sort((a, b) -> a.score != b.score ? Float.compare(b.score, a.score) : Long.compare(a.key, b.key));
+        return result;
+    }
+
+    private int slotFor(long key) {
+        int slot = (int) mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        float[] oldScores = scores;
+        int[] oldRanks = ranks;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (!oldUsed[old]) {
+                continue;
+            }
+            int slot = slotFor(oldKeys[old]);
+            used[slot] = true;
+            keys[slot] = oldKeys[old];
+            scores[slot] = oldScores[old];
+            System.arraycopy(oldRanks, old * sources, ranks, slot * sources, sources);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        scores = new float[capacity];
+        ranks = new int[capacity * sources];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static void siftUp(int[] heap, float[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(heap, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, float[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[i] <= scores[smallest]) {
+                return;
+            }
+            swap(heap, scores, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, float[] scores, int a, int b) {
+        int slot = heap[a];
+        heap[a] = heap[b];
+        heap[b] = slot;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+
+    /**
+     * 융합 결과 항목 (검색기별 순위는 0부터, 결과에 없으면 -1)
+     */
+    public static final class Fused {
+        private final long key;
+        private final float score;
+        private final int[] ranks;
+
+        private Fused(long key, float score, int[] ranks) {
+            this.key = key;
+            this.score = score;
+            this.ranks = ranks;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        public int getRank(int source) {
+            return ranks[source];
+        }
+    }
+}
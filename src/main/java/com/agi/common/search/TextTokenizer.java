@@ -0,0 +1,83 @@
+package com.agi.common.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 한국어/영어 혼합 텍스트 토크나이저
+ *
+ * 영문/숫자는 단어 단위 소문자 토큰으로, 한글·한자 등 공백 없이 이어지는 문자열은
+ * 문자 바이그램으로 분리합니다. 바이그램은 형태소 분석 없이도 조사가 붙은 어절
+ * ("검색은", "검색을")과 질의("검색")가 같은 토큰을 공유하게 해 줍니다.
+ */
+public final class TextTokenizer {
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * 텍스트를 색인/질의 토큰 목록으로 변환 (중복 포함, 등장 순서 유지)
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder word = new StringBuilder();
+        StringBuilder run = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isBigramScript(codePoint)) {
+                flushWord(word, tokens);
+                run.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushRun(run, tokens);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushRun(run, tokens);
+            }
+        }
+        flushWord(word, tokens);
+        flushRun(run, tokens);
+        return tokens;
+    }
+
+    private static boolean isBigramScript(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HANGUL
+                || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() == 0) {
+            return;
+        }
+        if (word.length() <= MAX_TOKEN_LENGTH) {
+            tokens.add(word.toString().toLowerCase(Locale.ROOT));
+        }
+        word.setLength(0);
+    }
+
+    private static void flushRun(StringBuilder run, List<String> tokens) {
+        if (run.length() == 0) {
+            return;
+        }
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(run.toString());
+        } else {
+            for (int j = 0; j + 1 < codePoints.length; j++) {
+                tokens.add(new String(codePoints, j, 2));
+            }
+        }
+        run.setLength(0);
+    }
+}
@@ -0,0 +1,12 @@
+package com.agi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * @Async 실행은 Boot 기본 applicationTaskExecutor 사용 (spring.threads.virtual.enabled이면 가상 스레드)
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,51 @@
+package com.agi.config;
+
+import com.agi.common.jdbc.GatedDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 가상 스레드 모드에서 커넥션 풀 앞에 동시 커넥션 게이트 적용
+ *
+ * 허가 수 기본값은 Hikari 최대 풀 크기라서 풀 안에서 대기하는 스레드가 생기지 않습니다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.gate.enabled", havingValue = "true")
+public class DataSourceGateConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceGatePostProcessor(Environment environment) {
+        int permits = environment.getProperty("datasource.gate.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long acquireTimeoutMillis = environment.getProperty("datasource.gate.acquire-timeout-ms", Long.class, 30000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof GatedDataSource)) {
+                    return new GatedDataSource(dataSource, permits, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceGateMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof GatedDataSource gated) {
+                Gauge.builder("jdbc.gate.waiting", gated, GatedDataSource::getWaiting)
+                        .description("Threads waiting for a connection permit")
+                        .register(registry);
+                Gauge.builder("jdbc.gate.available", gated, GatedDataSource::getAvailablePermits)
+                        .register(registry);
+            }
+        };
+    }
+}
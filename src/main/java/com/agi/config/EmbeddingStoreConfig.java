@@ -0,0 +1,29 @@
+package com.agi.config;
+
+import com.agi.common.embedding.MappedEmbeddingStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+public class EmbeddingStoreConfig {
+
+    @Value("${embedding.store.base-path:/home/sandbox/embeddings}")
+    private String basePath;
+
+    @Value("${embedding.store.quantization:FLOAT32}")
+    private MappedEmbeddingStore.Quantization quantization;
+
+    @Bean(destroyMethod = "close")
+    public MappedEmbeddingStore messageEmbeddingStore() throws IOException {
+        return MappedEmbeddingStore.open(Paths.get(basePath, "message.emb"), quantization);
+    }
+
+    @Bean(destroyMethod = "close")
+    public MappedEmbeddingStore knowledgeEmbeddingStore() throws IOException {
+        return MappedEmbeddingStore.open(Paths.get(basePath, "knowledge.emb"), quantization);
+    }
+}
@@ -0,0 +1,30 @@
+package com.agi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class KnowledgeSearchConfig {
+
+    @Value("${knowledge.search.threads:0}")
+    private int threads;
+
+    /**
+     * 색인 샤드 병렬 검색용 스레드 풀 (0이면 CPU 코어 수)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService knowledgeSearchExecutor() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "knowledge-search-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
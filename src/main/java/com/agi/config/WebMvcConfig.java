@@ -0,0 +1,37 @@
+package com.agi.config;
+
+import com.agi.system.monitoring.web.RouteMetricsInterceptor;
+import com.agi.system.monitoring.web.TimedJsonHttpMessageConverter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final RouteMetricsInterceptor routeMetricsInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(routeMetricsInterceptor);
+    }
+
+    /**
+     * 기본 JSON 변환기를 직렬화 시간 계측 변환기로 교체 (같은 ObjectMapper 사용)
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson
+                    && !(jackson instanceof TimedJsonHttpMessageConverter)) {
+                converters.set(i, new TimedJsonHttpMessageConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+}
@@ -1,13 +1,92 @@
 package com.agi.conversation.controller;
 
+import com.agi.common.pagination.CursorPage;
+import com.agi.conversation.dto.request.MessageCreateRequest;
+import com.agi.conversation.dto.request.SimilarMessageSearchRequest;
+import com.agi.conversation.dto.response.ContextWindowDto;
+import com.agi.conversation.dto.response.ConversationDto;
+import com.agi.conversation.dto.response.MessageDto;
+import com.agi.conversation.dto.response.SimilarMessageDto;
+import com.agi.conversation.service.ConversationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 /**
  * 대화 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/conversations")
+@RequiredArgsConstructor
 public class ConversationController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final ConversationService conversationService;
+    
+    /**
+     * 사용자 대화 목록 조회 (커서 기반)
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<ConversationDto>> getConversations(@RequestParam Long userId,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(conversationService.getConversations(userId, cursor, size));
+    }
+    
+    /**
+     * 대화 메시지 조회 (커서 기반, order=desc|asc)
+     */
+    @GetMapping("/{conversationId}/messages")
+    public ResponseEntity<CursorPage<MessageDto>> getMessages(@PathVariable Long conversationId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestParam(required = false) String order) {
+        return ResponseEntity.ok(conversationService.getMessages(conversationId, cursor, size, order));
+    }
+    
+    /**
+     * 토큰 예산 내 컨텍스트 윈도우 조회
+     */
+    @GetMapping("/{conversationId}/context")
+    public ResponseEntity<ContextWindowDto> getContextWindow(@PathVariable Long conversationId,
+                                                             @RequestParam(required = false) Integer maxTokens) {
+        return ResponseEntity.ok(conversationService.getContextWindow(conversationId, maxTokens));
+    }
+    
+    /**
+     * 대화 전체 메시지 NDJSON 스트리밍 내보내기
+     */
+    @GetMapping("/{conversationId}/messages/export")
+    public ResponseEntity<StreamingResponseBody> exportMessages(@PathVariable Long conversationId) {
+        StreamingResponseBody body = out -> conversationService.exportMessages(conversationId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * 메시지 추가
+     */
+    @PostMapping("/messages")
+    public ResponseEntity<MessageDto> addMessage(@Valid @RequestBody MessageCreateRequest request) {
+        return ResponseEntity.ok(conversationService.addMessage(request));
+    }
+    
+    /**
+     * 임베딩 유사도 기반 과거 메시지 검색
+     */
+    @PostMapping("/messages/similar")
+    public ResponseEntity<List<SimilarMessageDto>> searchSimilarMessages(@Valid @RequestBody SimilarMessageSearchRequest request) {
+        return ResponseEntity.ok(conversationService.searchSimilarMessages(request));
+    }
 }
@@ -0,0 +1,33 @@
+package com.agi.conversation.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 유사 메시지 검색 요청 DTO
+ *
+ * embedding 또는 messageId 중 하나로 질의 벡터를 지정합니다.
+ * conversationId가 있으면 해당 대화, userId가 있으면 해당 사용자의 메시지로 범위를 제한하며 둘 중 하나는 필수입니다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarMessageSearchRequest {
+    
+    private float[] embedding;
+    
+    private Long messageId;
+    
+    private Long userId;
+    
+    private Long conversationId;
+    
+    @Min(value = 1, message = "topK는 1 이상이어야 합니다")
+    @Max(value = 100, message = "topK는 100 이하여야 합니다")
+    private Integer topK;
+}
@@ -0,0 +1,27 @@
+package com.agi.conversation.dto.response;
+
+import com.agi.conversation.enums.MessageType;
+import com.agi.conversation.service.ContextWindowBuilder;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 컨텍스트 윈도우 메시지 응답 DTO
+ */
+@Getter
+@Builder
+public class ContextMessageDto {
+    private Long id;
+    private MessageType role;
+    private String content;
+    private Integer tokens;
+    
+    public static ContextMessageDto from(ContextWindowBuilder.Entry entry) {
+        return ContextMessageDto.builder()
+                .id(entry.getMessageId())
+                .role(entry.getRole())
+                .content(entry.getContent())
+                .tokens(entry.getTokens())
+                .build();
+    }
+}
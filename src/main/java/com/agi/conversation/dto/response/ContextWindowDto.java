@@ -0,0 +1,33 @@
+package com.agi.conversation.dto.response;
+
+import com.agi.conversation.service.ContextWindowBuilder;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 컨텍스트 윈도우 응답 DTO (토큰 수는 추정치)
+ */
+@Getter
+@Builder
+public class ContextWindowDto {
+    private Long conversationId;
+    private String summary;
+    private List<ContextMessageDto> messages;
+    private Integer totalTokens;
+    private Integer maxTokens;
+    
+    public static ContextWindowDto from(ContextWindowBuilder.ContextWindow window) {
+        return ContextWindowDto.builder()
+                .conversationId(window.getConversationId())
+                .summary(window.getSummary())
+                .messages(window.getMessages().stream()
+                        .map(ContextMessageDto::from)
+                        .collect(Collectors.toList()))
+                .totalTokens(window.getTotalTokens())
+                .maxTokens(window.getMaxTokens())
+                .build();
+    }
+}
@@ -21,6 +21,7 @@ public class ConversationDto {
     private Boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime lastMessageAt;
     private List<MessageDto> messages;
     
     /**
@@ -35,6 +36,7 @@ public class ConversationDto {
                 .isActive(conversation.getIsActive())
                 .createdAt(conversation.getCreatedAt())
                 .updatedAt(conversation.getUpdatedAt())
+                .lastMessageAt(conversation.getLastMessageAt())
                 .build();
     }
     
@@ -0,0 +1,36 @@
+package com.agi.conversation.dto.response;
+
+import com.agi.conversation.entity.Message;
+import com.agi.conversation.enums.MessageType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 유사 메시지 검색 결과 응답 DTO
+ */
+@Getter
+@Builder
+public class SimilarMessageDto {
+    private Long id;
+    private Long conversationId;
+    private String content;
+    private MessageType role;
+    private LocalDateTime createdAt;
+    private Double score;
+    
+    /**
+     * 엔티티와 유사도 점수로 DTO 생성
+     */
+    public static SimilarMessageDto fromEntity(Message message, double score) {
+        return SimilarMessageDto.builder()
+                .id(message.getId())
+                .conversationId(message.getConversation().getId())
+                .content(message.getContent())
+                .role(message.getRole())
+                .createdAt(message.getCreatedAt())
+                .score(score)
+                .build();
+    }
+}
@@ -2,6 +2,8 @@ package com.agi.conversation.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
 import jakarta.persistence.ManyToOne;
@@ -20,7 +22,9 @@ import java.util.ArrayList;
 import com.agi.user.entity.User;
 
 @Entity
-@Table(name = "conversation")
+@Table(name = "conversation", indexes = {
+        @Index(name = "idx_conversation_user_last_message", columnList = "user_id, last_message_at, id")
+})
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,6 +49,10 @@ public class Conversation {
     
     private LocalDateTime updatedAt;
     
+    /** 마지막 메시지 시각 (목록 정렬/커서 기준, 메시지가 없으면 생성 시각) */
+    @Column(nullable = false)
+    private LocalDateTime lastMessageAt;
+    
     @Column(nullable = false)
     private Boolean isActive;
     
@@ -52,4 +60,23 @@ public class Conversation {
     private List<Message> messages = new ArrayList<>();
     
     private String metadata;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (lastMessageAt == null) {
+            lastMessageAt = createdAt;
+        }
+    }
+    
+    /**
+     * 마지막 메시지 시각 갱신
+     */
+    public void updateLastMessageAt(LocalDateTime lastMessageAt) {
+        if (this.lastMessageAt == null || lastMessageAt.isAfter(this.lastMessageAt)) {
+            this.lastMessageAt = lastMessageAt;
+        }
+    }
 }
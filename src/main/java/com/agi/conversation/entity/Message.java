@@ -12,7 +12,11 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Entity
-@Table(name = "message")
+@Table(name = "message", indexes = {
+        @Index(name = "idx_message_conversation_created", columnList = "conversation_id, created_at, id"),
+        @Index(name = "idx_message_embedding_updated", columnList = "embedding_updated_at")
+})
+@EntityListeners({MessageEmbeddingListener.class, MessageContextListener.class})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Message {
@@ -37,9 +41,15 @@ public class Message {
     @Column(columnDefinition = "BLOB")
     private byte[] embedding;
     
+    /** 벡터 인덱스 대조 기준 */
+    private LocalDateTime embeddingUpdatedAt;
+    
     @Column(columnDefinition = "JSON")
     private Map<String, Object> metadata = new HashMap<>();
     
+    @Transient
+    private boolean embeddingChanged;
+    
     @Builder
     public Message(Conversation conversation, MessageType role, String content, Map<String, Object> metadata) {
         this.conversation = conversation;
@@ -61,5 +71,16 @@ public class Message {
     
     public void updateEmbedding(byte[] embedding) {
         this.embedding = embedding;
+        this.embeddingUpdatedAt = LocalDateTime.now();
+        this.embeddingChanged = true;
+    }
+    
+    /**
+     * 임베딩 변경 여부를 반환하고 플래그 초기화 (벡터 인덱스 동기화용)
+     */
+    public boolean consumeEmbeddingChange() {
+        boolean changed = this.embeddingChanged;
+        this.embeddingChanged = false;
+        return changed;
     }
 }
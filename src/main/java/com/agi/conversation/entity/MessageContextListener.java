@@ -0,0 +1,39 @@
+package com.agi.conversation.entity;
+
+import com.agi.conversation.service.ContextWindowBuilder.MessageChange;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 메시지 추가/수정/삭제를 컨텍스트 윈도우 캐시에 알리는 엔티티 리스너
+ *
+ * 콜백은 커밋 전에 불리므로 변경 내용만 이벤트로 발행하고, 캐시 반영은 커밋 후
+ * {@link com.agi.conversation.service.ContextWindowBuilder}에서 합니다.
+ */
+@Component
+public class MessageContextListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MessageContextListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPersist(Message message) {
+        eventPublisher.publishEvent(MessageChange.of(MessageChange.Kind.CREATED, message));
+    }
+
+    @PostUpdate
+    public void onUpdate(Message message) {
+        eventPublisher.publishEvent(MessageChange.of(MessageChange.Kind.UPDATED, message));
+    }
+
+    @PostRemove
+    public void onRemove(Message message) {
+        eventPublisher.publishEvent(MessageChange.of(MessageChange.Kind.DELETED, message));
+    }
+}
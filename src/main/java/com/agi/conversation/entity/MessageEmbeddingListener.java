@@ -0,0 +1,40 @@
+package com.agi.conversation.entity;
+
+import com.agi.conversation.service.MessageVectorIndex.EmbeddingChange;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 메시지 임베딩 변경을 벡터 인덱스에 알리는 엔티티 리스너
+ *
+ * 콜백은 커밋 전에 불리므로 변경 내용만 이벤트로 발행하고, 인덱스 반영은 커밋 후
+ * {@link com.agi.conversation.service.MessageVectorIndex}에서 합니다.
+ */
+@Component
+public class MessageEmbeddingListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MessageEmbeddingListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Message message) {
+        if (!message.consumeEmbeddingChange()) {
+            return;
+        }
+        Conversation conversation = message.getConversation();
+        eventPublisher.publishEvent(new EmbeddingChange(message.getId(), conversation.getId(),
+                conversation.getUser().getId(), message.getEmbedding()));
+    }
+
+    @PostRemove
+    public void onRemove(Message message) {
+        eventPublisher.publishEvent(new EmbeddingChange(message.getId(), null, null, null));
+    }
+}
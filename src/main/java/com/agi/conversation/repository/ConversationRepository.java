@@ -2,6 +2,7 @@ package com.agi.conversation.repository;
 
 import com.agi.conversation.entity.Conversation;
 import com.agi.user.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -10,14 +11,16 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ConversationRepository extends JpaRepository<Conversation, String> {
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
     List<Conversation> findByUser(User user);
     
-    @Query("SELECT c FROM Conversation c WHERE c.user.id = :userId")
-    List<Conversation> findByUserId(Long userId);
+    @Query("SELECT c FROM Conversation c WHERE c.user.id = :userId ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<Conversation> findLatestByUserId(Long userId, Pageable pageable);
     
-    @Query("SELECT c FROM Conversation c WHERE c.user.id = :userId ORDER BY c.lastMessageAt DESC")
-    List<Conversation> findByUserIdOrderByLastMessageAtDesc(Long userId);
+    @Query("SELECT c FROM Conversation c WHERE c.user.id = :userId " +
+           "AND (c.lastMessageAt < :lastMessageAt OR (c.lastMessageAt = :lastMessageAt AND c.id < :id)) " +
+           "ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<Conversation> findByUserIdBefore(Long userId, LocalDateTime lastMessageAt, Long id, Pageable pageable);
     
     @Query("SELECT c FROM Conversation c WHERE c.createdAt >= :startDate AND c.createdAt <= :endDate")
     List<Conversation> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
@@ -0,0 +1,15 @@
+package com.agi.conversation.repository;
+
+/**
+ * 임베딩 인덱스 재구축용 메시지 프로젝션
+ */
+public interface MessageEmbeddingProjection {
+
+    Long getId();
+
+    Long getConversationId();
+
+    Long getUserId();
+
+    byte[] getEmbedding();
+}
@@ -3,24 +3,49 @@ package com.agi.conversation.repository;
 import com.agi.conversation.entity.Message;
 import com.agi.conversation.entity.Conversation;
 import com.agi.conversation.enums.MessageType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface MessageRepository extends JpaRepository<Message, String> {
+public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByConversation(Conversation conversation);
     
-    List<Message> findByConversationOrderByCreatedAtAsc(Conversation conversation);
+    List<Message> findByRole(MessageType role);
     
-    List<Message> findByType(MessageType type);
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatestByConversationId(Long conversationId, Pageable pageable);
     
-    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.createdAt ASC")
-    List<Message> findByConversationIdOrderByCreatedAtAsc(String conversationId);
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId " +
+           "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findByConversationIdBefore(Long conversationId, LocalDateTime createdAt, Long id, Pageable pageable);
+    
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findOldestByConversationId(Long conversationId, Pageable pageable);
+    
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId " +
+           "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findByConversationIdAfter(Long conversationId, LocalDateTime createdAt, Long id, Pageable pageable);
     
     @Query("SELECT m FROM Message m WHERE m.createdAt >= :startDate AND m.createdAt <= :endDate")
     List<Message> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    @Query("SELECT m.id FROM Message m WHERE m.id > :afterId AND m.embedding IS NOT NULL ORDER BY m.id ASC")
+    List<Long> findEmbeddedIdsAfter(Long afterId, Pageable pageable);
+    
+    @Query("SELECT m.id AS id, c.id AS conversationId, c.user.id AS userId, m.embedding AS embedding " +
+           "FROM Message m JOIN m.conversation c WHERE m.id IN :ids AND m.embedding IS NOT NULL")
+    List<MessageEmbeddingProjection> findEmbeddingsByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT m.id AS id, c.id AS conversationId, c.user.id AS userId, m.embedding AS embedding " +
+           "FROM Message m JOIN m.conversation c WHERE m.embeddingUpdatedAt >= :since AND m.id > :afterId " +
+           "AND m.embedding IS NOT NULL ORDER BY m.id ASC")
+    List<MessageEmbeddingProjection> findEmbeddingsChangedSince(LocalDateTime since, Long afterId, Pageable pageable);
 }
@@ -0,0 +1,419 @@
+package com.agi.conversation.service;
+
+import com.agi.conversation.entity.Message;
+import com.agi.conversation.enums.MessageType;
+import com.agi.conversation.repository.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 대화별 컨텍스트 윈도우 증분 빌더
+ *
+ * 대화마다 토큰 수를 미리 계산한 최근 메시지 목록과 누적 토큰 수를 LRU 캐시에 유지하고,
+ * 새 메시지는 {@link com.agi.conversation.entity.MessageContextListener}가 알린 변경을 커밋 후에 끝에만 추가합니다.
+ * 캐시에 없는 대화는 대화별 잠금 안에서 읽으므로, 읽는 동안 커밋된 메시지는 읽기가 끝난 뒤 반영되고
+ * 늦게 커밋된 이전 ID의 메시지도 순서에 맞게 끼워 넣습니다. 잠금은 가상 스레드가 JDBC 조회 중
+ * 캐리어 스레드를 점유하지 않도록 {@link ReentrantLock}을 씁니다.
+ * 캐시 한도를 넘은 가장 오래된 턴은 요약 줄로 접어 두므로 턴마다 전체 이력을 다시 읽거나
+ * 토큰화하지 않습니다. 캐시에 없는 대화는 최신 메시지부터 키셋 배치로 필요한 만큼만 읽습니다.
+ */
+@Slf4j
+@Component
+public class ContextWindowBuilder {
+
+    private static final int LOAD_BATCH_SIZE = 50;
+    private static final int SUMMARY_LINE_CHARS = 120;
+
+    private final MessageRepository messageRepository;
+    private final int defaultMaxTokens;
+    private final int maxCachedTokens;
+    private final int summaryMaxTokens;
+    private final Map<Long, ConversationContext> contexts;
+
+    public ContextWindowBuilder(MessageRepository messageRepository,
+                                @Value("${conversation.context.default-max-tokens:4096}") int defaultMaxTokens,
+                                @Value("${conversation.context.max-cached-tokens:16384}") int maxCachedTokens,
+                                @Value("${conversation.context.summary-max-tokens:512}") int summaryMaxTokens,
+                                @Value("${conversation.context.cache-size:1000}") int cacheSize) {
+        this.messageRepository = messageRepository;
+        this.defaultMaxTokens = defaultMaxTokens;
+        this.maxCachedTokens = maxCachedTokens;
+        this.summaryMaxTokens = summaryMaxTokens;
+        this.contexts = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ConversationContext> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * 토큰 예산 안에서 최신 메시지 위주의 컨텍스트 윈도우 생성
+     *
+     * @param maxTokens 토큰 예산 (null이면 기본값)
+     */
+    public ContextWindow build(Long conversationId, Integer maxTokens) {
+        int budget = maxTokens != null && maxTokens > 0 ? maxTokens : defaultMaxTokens;
+        ConversationContext context = contexts.computeIfAbsent(conversationId,
+                id -> new ConversationContext(maxCachedTokens, summaryMaxTokens));
+        try {
+            context.loadIfNeeded(() -> load(conversationId));
+        } catch (RuntimeException e) {
+            contexts.remove(conversationId, context);
+            throw e;
+        }
+        return context.window(conversationId, budget);
+    }
+
+    /**
+     * 커밋된 메시지 변경 반영 (캐시에 없는 대화는 다음 build 시 로딩)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageChange(MessageChange change) {
+        ConversationContext context = contexts.get(change.conversationId());
+        if (context == null) {
+            return;
+        }
+        switch (change.kind()) {
+            case CREATED -> context.append(change.entry());
+            case UPDATED -> context.replace(change.entry());
+            case DELETED -> context.remove(change.entry().messageId);
+        }
+    }
+
+    /**
+     * 대화 캐시 무효화
+     */
+    public void invalidate(Long conversationId) {
+        contexts.remove(conversationId);
+    }
+
+    /**
+     * @return 오래된 순 메시지
+     */
+    private List<Entry> load(Long conversationId) {
+        List<Entry> newestFirst = new ArrayList<>();
+        long tokens = 0;
+        PageRequest limit = PageRequest.of(0, LOAD_BATCH_SIZE);
+        List<Message> batch = messageRepository.findLatestByConversationId(conversationId, limit);
+        while (!batch.isEmpty()) {
+            for (Message message : batch) {
+                Entry entry = toEntry(message);
+                newestFirst.add(entry);
+                tokens += entry.tokens;
+            }
+            // 한도를 넘긴 배치까지 읽어 두면 넘친 턴은 요약으로 접힘
+            if (tokens > maxCachedTokens || batch.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            Message oldest = batch.get(batch.size() - 1);
+            batch = messageRepository.findByConversationIdBefore(conversationId, oldest.getCreatedAt(), oldest.getId(), limit);
+        }
+        Collections.reverse(newestFirst);
+        log.debug("Loaded context for conversation {}: {} messages, {} tokens", conversationId, newestFirst.size(), tokens);
+        return newestFirst;
+    }
+
+    private static Entry toEntry(Message message) {
+        return new Entry(message.getId(), message.getRole(), message.getContent(),
+                TokenEstimator.estimateMessage(message.getContent()));
+    }
+
+    /**
+     * 메시지 변경 이벤트 (엔티티 콜백 시점의 내용, 반영은 커밋 후)
+     */
+    public record MessageChange(Kind kind, Long conversationId, Entry entry) {
+
+        public enum Kind {
+            CREATED, UPDATED, DELETED
+        }
+
+        public static MessageChange of(Kind kind, Message message) {
+            return new MessageChange(kind, message.getConversation().getId(), toEntry(message));
+        }
+    }
+
+    /**
+     * 대화 하나의 캐시 상태 (메시지는 오래된 순)
+     */
+    private static final class ConversationContext {
+        private final int maxTokens;
+        private final int summaryMaxTokens;
+        private final Deque<Entry> entries = new ArrayDeque<>();
+        private final Deque<String> summaryLines = new ArrayDeque<>();
+        /** 아래 상태는 lock 보유 시에만 접근 */
+        private final ReentrantLock lock = new ReentrantLock();
+        private int tokens;
+        private int summaryTokens;
+        private long lastMessageId;
+        /** 읽기 전 변경은 읽을 때 이미 커밋되어 있으므로 무시 */
+        private boolean loaded;
+
+        ConversationContext(int maxTokens, int summaryMaxTokens) {
+            this.maxTokens = maxTokens;
+            this.summaryMaxTokens = summaryMaxTokens;
+        }
+
+        /**
+         * 처음 한 번 DB에서 읽어 채움 (읽는 동안 도착한 변경은 잠금을 기다렸다가 반영)
+         */
+        void loadIfNeeded(Supplier<List<Entry>> loader) {
+            lock.lock();
+            try {
+                if (loaded) {
+                    return;
+                }
+                List<Entry> oldestFirst = loader.get();
+                loaded = true;
+                for (Entry entry : oldestFirst) {
+                    append(entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void append(Entry entry) {
+            lock.lock();
+            try {
+                if (!loaded) {
+                    return;
+                }
+                if (entry.messageId > lastMessageId) {
+                    entries.addLast(entry);
+                    lastMessageId = entry.messageId;
+                } else if (!insertInOrder(entry)) {
+                    return;
+                }
+                tokens += entry.tokens;
+                while (tokens > maxTokens && entries.size() > 1) {
+                    Entry evicted = entries.pollFirst();
+                    tokens -= evicted.tokens;
+                    summarize(evicted);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 늦게 커밋된 이전 ID 메시지를 순서에 맞게 삽입 (이미 있거나 캐시 범위보다 오래되면 false)
+         */
+        private boolean insertInOrder(Entry entry) {
+            if (entries.isEmpty() || entry.messageId < entries.peekFirst().messageId) {
+                return false;
+            }
+            List<Entry> ordered = new ArrayList<>(entries.size() + 1);
+            boolean inserted = false;
+            for (Entry current : entries) {
+                if (current.messageId == entry.messageId) {
+                    return false;
+                }
+                if (!inserted && current.messageId > entry.messageId) {
+                    ordered.add(entry);
+                    inserted = true;
+                }
+                ordered.add(current);
+            }
+            entries.clear();
+            entries.addAll(ordered);
+            return true;
+        }
+
+        void replace(Entry entry) {
+            lock.lock();
+            try {
+                if (!loaded) {
+                    return;
+                }
+                List<Entry> updated = new ArrayList<>(entries.size());
+                for (Entry current : entries) {
+                    if (current.messageId == entry.messageId) {
+                        tokens += entry.tokens - current.tokens;
+                        updated.add(entry);
+                    } else {
+                        updated.add(current);
+                    }
+                }
+                entries.clear();
+                entries.addAll(updated);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(long messageId) {
+            lock.lock();
+            try {
+                if (!loaded) {
+                    return;
+                }
+                Iterator<Entry> iterator = entries.iterator();
+                while (iterator.hasNext()) {
+                    Entry current = iterator.next();
+                    if (current.messageId == messageId) {
+                        tokens -= current.tokens;
+                        iterator.remove();
+                        return;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 최신 메시지부터 예산을 채움 (가장 최신 메시지는 예산을 넘어도 포함)
+         * 접힌 턴이 있으면 예산의 1/4 이내일 때 요약을 앞에 붙입니다.
+         */
+        ContextWindow window(Long conversationId, int budget) {
+            lock.lock();
+            try {
+                String summary = null;
+                int used = 0;
+                if (!summaryLines.isEmpty() && summaryTokens <= budget / 4) {
+                    summary = String.join("\n", summaryLines);
+                    used = summaryTokens;
+                }
+                List<Entry> selected = new ArrayList<>();
+                Iterator<Entry> newestFirst = entries.descendingIterator();
+                while (newestFirst.hasNext()) {
+                    Entry entry = newestFirst.next();
+                    if (!selected.isEmpty() && used + entry.tokens > budget) {
+                        break;
+                    }
+                    selected.add(entry);
+                    used += entry.tokens;
+                }
+                Collections.reverse(selected);
+                return new ContextWindow(conversationId, summary, selected, used, budget);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void summarize(Entry evicted) {
+            String line = evicted.role.name().toLowerCase() + ": " + firstSentence(evicted.content);
+            summaryLines.addLast(line);
+            summaryTokens += TokenEstimator.estimate(line) + 1;
+            while (summaryTokens > summaryMaxTokens && !summaryLines.isEmpty()) {
+                summaryTokens -= TokenEstimator.estimate(summaryLines.pollFirst()) + 1;
+            }
+        }
+
+        private static String firstSentence(String content) {
+            String text = content == null ? "" : content.strip().replaceAll("\\s+", " ");
+            int end = text.length();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '.' || c == '?' || c == '!' || c == '。') {
+                    end = i + 1;
+                    break;
+                }
+            }
+            end = Math.min(end, SUMMARY_LINE_CHARS);
+            return end < text.length() ? text.substring(0, end) + "…" : text;
+        }
+    }
+
+    /**
+     * 컨텍스트에 포함된 메시지 (토큰 수는 추정치)
+     */
+    public static final class Entry {
+        private final long messageId;
+        private final MessageType role;
+        private final String content;
+        private final int tokens;
+
+        public Entry(long messageId, MessageType role, String content, int tokens) {
+            this.messageId = messageId;
+            this.role = role;
+            this.content = content;
+            this.tokens = tokens;
+        }
+
+        public long getMessageId() {
+            return messageId;
+        }
+
+        public MessageType getRole() {
+            return role;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public int getTokens() {
+            return tokens;
+        }
+    }
+
+    /**
+     * 조립된 컨텍스트 윈도우
+     */
+    public static final class ContextWindow {
+        private final Long conversationId;
+        private final String summary;
+        private final List<Entry> messages;
+        private final int totalTokens;
+        private final int maxTokens;
+
+        public ContextWindow(Long conversationId, String summary, List<Entry> messages, int totalTokens, int maxTokens) {
+            this.conversationId = conversationId;
+            this.summary = summary;
+            this.messages = messages;
+            this.totalTokens = totalTokens;
+            this.maxTokens = maxTokens;
+        }
+
+        public Long getConversationId() {
+            return conversationId;
+        }
+
+        public String getSummary() {
+            return summary;
+        }
+
+        public List<Entry> getMessages() {
+            return messages;
+        }
+
+        public int getTotalTokens() {
+            return totalTokens;
+        }
+
+        public int getMaxTokens() {
+            return maxTokens;
+        }
+
+        /**
+         * "역할: 내용" 줄 단위 프롬프트 텍스트 (요약이 있으면 맨 앞)
+         */
+        public String toPrompt() {
+            StringBuilder prompt = new StringBuilder();
+            if (summary != null) {
+                prompt.append("[이전 대화 요약]\n").append(summary).append("\n\n");
+            }
+            for (Entry entry : messages) {
+                prompt.append(entry.role.name().toLowerCase()).append(": ").append(entry.content).append('\n');
+            }
+            return prompt.toString();
+        }
+    }
+}
@@ -1,11 +1,216 @@
 package com.agi.conversation.service;
 
+import com.agi.common.embedding.EmbeddingCodec;
+import com.agi.common.embedding.HnswIndex;
+import com.agi.common.exception.BadRequestException;
+import com.agi.common.exception.ResourceNotFoundException;
+import com.agi.common.pagination.Cursor;
+import com.agi.common.pagination.CursorPage;
+import com.agi.conversation.dto.request.MessageCreateRequest;
+import com.agi.conversation.dto.request.SimilarMessageSearchRequest;
+import com.agi.conversation.dto.response.ContextWindowDto;
+import com.agi.conversation.dto.response.ConversationDto;
+import com.agi.conversation.dto.response.MessageDto;
+import com.agi.conversation.dto.response.SimilarMessageDto;
+import com.agi.conversation.entity.Conversation;
+import com.agi.conversation.entity.Message;
+import com.agi.conversation.enums.MessageType;
+import com.agi.conversation.repository.ConversationRepository;
+import com.agi.conversation.repository.MessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 대화 관련 서비스
  */
 @Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ConversationService {
-    // 서비스 구현체는 추후 개발
+    
+    private static final int DEFAULT_TOP_K = 10;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_BATCH_SIZE = 500;
+    
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final MessageVectorIndex messageVectorIndex;
+    private final ContextWindowBuilder contextWindowBuilder;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * 사용자 대화 목록 조회 (마지막 메시지 시각 내림차순, 커서 기반)
+     */
+    public CursorPage<ConversationDto> getConversations(Long userId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Cursor position = Cursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Conversation> rows = position == null
+                ? conversationRepository.findLatestByUserId(userId, limit)
+                : conversationRepository.findByUserIdBefore(userId, position.getTimestamp(), position.getId(), limit);
+        return CursorPage.of(rows, pageSize,
+                conversation -> new Cursor(conversation.getLastMessageAt(), conversation.getId()),
+                ConversationDto::fromEntity);
+    }
+    
+    /**
+     * 대화 메시지 조회 (커서 기반)
+     *
+     * 기본은 최신 메시지부터 과거 방향(desc)이며, asc이면 가장 오래된 메시지부터 조회합니다.
+     */
+    public CursorPage<MessageDto> getMessages(Long conversationId, String cursor, Integer size, String order) {
+        if (!conversationRepository.existsById(conversationId)) {
+            throw new ResourceNotFoundException("Conversation", "id", conversationId);
+        }
+        int pageSize = pageSize(size);
+        Cursor position = Cursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Message> rows;
+        if ("asc".equalsIgnoreCase(order)) {
+            rows = position == null
+                    ? messageRepository.findOldestByConversationId(conversationId, limit)
+                    : messageRepository.findByConversationIdAfter(conversationId, position.getTimestamp(), position.getId(), limit);
+        } else if (order == null || "desc".equalsIgnoreCase(order)) {
+            rows = position == null
+                    ? messageRepository.findLatestByConversationId(conversationId, limit)
+                    : messageRepository.findByConversationIdBefore(conversationId, position.getTimestamp(), position.getId(), limit);
+        } else {
+            throw new BadRequestException("지원하지 않는 정렬 방향입니다: " + order);
+        }
+        return CursorPage.of(rows, pageSize,
+                message -> new Cursor(message.getCreatedAt(), message.getId()),
+                MessageDto::fromEntity);
+    }
+    
+    /**
+     * 대화 전체 메시지를 시간순 NDJSON으로 스트리밍
+     *
+     * 배치마다 별도 트랜잭션으로 조회하므로 영속성 컨텍스트에 이력 전체가 쌓이지 않습니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportMessages(Long conversationId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MessageDto.class);
+        PageRequest limit = PageRequest.of(0, EXPORT_BATCH_SIZE);
+        List<Message> batch = messageRepository.findOldestByConversationId(conversationId, limit);
+        while (!batch.isEmpty()) {
+            for (Message message : batch) {
+                out.write(writer.writeValueAsBytes(MessageDto.fromEntity(message)));
+                out.write('\n');
+            }
+            out.flush();
+            if (batch.size() < EXPORT_BATCH_SIZE) {
+                break;
+            }
+            Message last = batch.get(batch.size() - 1);
+            batch = messageRepository.findByConversationIdAfter(conversationId, last.getCreatedAt(), last.getId(), limit);
+        }
+    }
+    
+    /**
+     * 토큰 예산 내 대화 컨텍스트 윈도우 조회
+     */
+    public ContextWindowDto getContextWindow(Long conversationId, Integer maxTokens) {
+        if (!conversationRepository.existsById(conversationId)) {
+            throw new ResourceNotFoundException("Conversation", "id", conversationId);
+        }
+        return ContextWindowDto.from(contextWindowBuilder.build(conversationId, maxTokens));
+    }
+    
+    /**
+     * 메시지 추가 (대화의 마지막 메시지 시각 갱신)
+     */
+    @Transactional
+    public MessageDto addMessage(MessageCreateRequest request) {
+        Conversation conversation = conversationRepository.findById(request.getConversationId())
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation", "id", request.getConversationId()));
+        Message message = messageRepository.save(Message.builder()
+                .conversation(conversation)
+                .role(parseRole(request.getRole()))
+                .content(request.getContent())
+                .build());
+        conversation.updateLastMessageAt(message.getCreatedAt());
+        return MessageDto.fromEntity(message);
+    }
+    
+    /**
+     * 메시지 임베딩 갱신 (벡터 인덱스는 엔티티 리스너가 동기화)
+     */
+    @Transactional
+    public void updateMessageEmbedding(Long messageId, byte[] embedding) {
+        Message message = messageRepository.findById(messageId)
+                .orElseThrow(() -> new ResourceNotFoundException("Message", "id", messageId));
+        message.updateEmbedding(embedding);
+    }
+    
+    /**
+     * 임베딩 유사도 기반 과거 메시지 검색
+     */
+    public List<SimilarMessageDto> searchSimilarMessages(SimilarMessageSearchRequest request) {
+        int topK = request.getTopK() != null ? request.getTopK() : DEFAULT_TOP_K;
+        float[] query = request.getEmbedding();
+        Long excludedId = null;
+        
+        if (request.getUserId() == null && request.getConversationId() == null) {
+            throw new BadRequestException("userId 또는 conversationId 중 하나는 필수입니다");
+        }
+        if (query == null) {
+            if (request.getMessageId() == null) {
+                throw new BadRequestException("embedding 또는 messageId 중 하나는 필수입니다");
+            }
+            // 저장소에 있으면 BLOB을 읽지 않고 매핑된 벡터를 사용
+            query = messageVectorIndex.vectorOf(request.getMessageId());
+            if (query == null) {
+                Message source = messageRepository.findById(request.getMessageId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Message", "id", request.getMessageId()));
+                query = EmbeddingCodec.decode(source.getEmbedding());
+                if (query == null) {
+                    throw new BadRequestException("임베딩이 없는 메시지입니다: " + source.getId());
+                }
+            }
+            excludedId = request.getMessageId();
+        }
+        
+        List<HnswIndex.Hit> hits = messageVectorIndex.search(query, excludedId != null ? topK + 1 : topK,
+                request.getUserId(), request.getConversationId());
+        
+        Map<Long, Float> scores = new LinkedHashMap<>();
+        for (HnswIndex.Hit hit : hits) {
+            if (scores.size() < topK && !Long.valueOf(hit.getKey()).equals(excludedId)) {
+                scores.put(hit.getKey(), hit.getScore());
+            }
+        }
+        
+        Map<Long, Message> messages = messageRepository.findAllById(scores.keySet()).stream()
+                .collect(Collectors.toMap(Message::getId, Function.identity()));
+        return scores.entrySet().stream()
+                .filter(entry -> messages.containsKey(entry.getKey()))
+                .map(entry -> SimilarMessageDto.fromEntity(messages.get(entry.getKey()), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+    
+    private int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+    
+    private MessageType parseRole(String role) {
+        try {
+            return MessageType.valueOf(role.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("지원하지 않는 메시지 역할입니다: " + role);
+        }
+    }
 }
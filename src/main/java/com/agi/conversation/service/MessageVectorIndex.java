@@ -0,0 +1,165 @@
+package com.agi.conversation.service;
+
+import com.agi.common.embedding.HnswIndex;
+import com.agi.common.embedding.MappedEmbeddingStore;
+import com.agi.common.embedding.SyncedVectorIndex;
+import com.agi.conversation.repository.MessageEmbeddingProjection;
+import com.agi.conversation.repository.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 메시지 임베딩 근사 최근접 이웃 인덱스
+ *
+ * 벡터는 오프힙 {@link MappedEmbeddingStore}에 두고 그래프만 힙에 유지합니다.
+ * 재구축과 message 테이블 대조는 {@link SyncedVectorIndex}가 맡고,
+ * 그 사이의 변경은 {@link com.agi.conversation.entity.MessageEmbeddingListener}가 알린 변경을 커밋 후에 반영하므로
+ * 롤백된 변경은 인덱스에 남지 않습니다.
+ * tenant는 사용자 ID, partition은 대화 ID입니다.
+ */
+@Slf4j
+@Component
+public class MessageVectorIndex implements SyncedVectorIndex.Source {
+
+    private final MessageRepository messageRepository;
+    private final SyncedVectorIndex vectors;
+
+    public MessageVectorIndex(MessageRepository messageRepository,
+                              @Qualifier("messageEmbeddingStore") MappedEmbeddingStore store,
+                              @Value("${conversation.embedding.index.m:16}") int m,
+                              @Value("${conversation.embedding.index.ef-construction:200}") int efConstruction,
+                              @Value("${conversation.embedding.index.ef-search:128}") int efSearch,
+                              @Value("${conversation.embedding.index.exact-scan-threshold:2000}") int exactScanThreshold,
+                              @Value("${conversation.embedding.index.rebuild-batch-size:1000}") int rebuildBatchSize) {
+        this.messageRepository = messageRepository;
+        this.vectors = new SyncedVectorIndex("Message", this, store, m, efConstruction, efSearch,
+                exactScanThreshold, rebuildBatchSize);
+    }
+
+    /**
+     * 애플리케이션 기동 후 백그라운드에서 인덱스 재구축
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread thread = new Thread(vectors::rebuild, "message-vector-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 주기적으로 message 테이블과 대조하고 저장소를 디스크에 기록
+     */
+    @Scheduled(initialDelayString = "${conversation.embedding.index.sync-interval-ms:300000}",
+            fixedDelayString = "${conversation.embedding.index.sync-interval-ms:300000}")
+    public void synchronize() {
+        if (!vectors.isReady()) {
+            return;
+        }
+        try {
+            vectors.synchronize();
+        } catch (RuntimeException e) {
+            log.warn("Message vector index synchronization failed", e);
+        }
+    }
+
+    /**
+     * 커밋된 임베딩 변경 반영
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmbeddingChange(EmbeddingChange change) {
+        upsert(change.messageId(), change.conversationId(), change.userId(), change.embedding());
+    }
+
+    /**
+     * 메시지 임베딩 추가 또는 교체
+    public void upsert(Long messageId, Long conversationId, Long userId, byte[] embedding) {
+        if (embedding == null) {
+            remove(messageId);
+            return;
+        }
+        vectors.upsert(messageId, userId, conversationId, embedding);
+    }
+
+    /**
+     * 메시지 임베딩 제거
+     */
+    public void remove(Long messageId) {
+        if (messageId != null) {
+            vectors.remove(messageId);
+        }
+    }
+
+    /**
+     * top-k 유사 메시지 검색 (conversationId가 있으면 대화 범위, userId가 있으면 사용자 범위, 둘 다 없으면 빈 결과)
+     */
+    public List<HnswIndex.Hit> search(float[] query, int topK, Long userId, Long conversationId) {
+        HnswIndex current = vectors.index();
+        if (current == null || query == null || query.length != current.dimension()) {
+            return Collections.emptyList();
+        }
+        if (conversationId != null) {
+            return current.searchByPartition(query, topK, conversationId);
+        }
+        if (userId != null) {
+            return current.searchByTenant(query, topK, userId);
+        }
+        // 다른 사용자의 메시지가 섞이지 않도록 전체 검색은 하지 않음
+        return Collections.emptyList();
+    }
+
+    /**
+     * 저장소에 보관된 메시지 임베딩 (정규화된 벡터, 없으면 null)
+     */
+    public float[] vectorOf(Long messageId) {
+        return messageId != null ? vectors.vectorOf(messageId) : null;
+    }
+
+    public boolean isReady() {
+        return vectors.isReady();
+    }
+
+    public int size() {
+        return vectors.size();
+    }
+
+    @Override
+    public List<Long> findIdsAfter(long afterId, int limit) {
+        return messageRepository.findEmbeddedIdsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<SyncedVectorIndex.Row> findByIds(List<Long> ids) {
+        return toRows(messageRepository.findEmbeddingsByIdIn(ids));
+    }
+
+    @Override
+    public List<SyncedVectorIndex.Row> findChangedSince(LocalDateTime since, long afterId, int limit) {
+        return toRows(messageRepository.findEmbeddingsChangedSince(since, afterId, PageRequest.of(0, limit)));
+    }
+
+    private static List<SyncedVectorIndex.Row> toRows(List<MessageEmbeddingProjection> projections) {
+        return projections.stream()
+                .map(row -> new SyncedVectorIndex.Row(row.getId(), row.getUserId(), row.getConversationId(),
+                        row.getEmbedding()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 메시지 임베딩 변경 이벤트 (엔티티 콜백 시점의 값, embedding이 null이면 제거)
+     */
+    public record EmbeddingChange(Long messageId, Long conversationId, Long userId, byte[] embedding) {
+    }
+}
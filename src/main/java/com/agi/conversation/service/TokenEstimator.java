@@ -0,0 +1,43 @@
+package com.agi.conversation.service;
+
+/**
+ * 모델 토크나이저 없이 쓰는 토큰 수 추정기
+ *
+ * BPE 계열 토크나이저 기준으로 ASCII는 약 4자당 1토큰, 한글 등 비ASCII 문자는
+ * 문자당 1토큰으로 보수적으로 계산하고 메시지마다 역할 구분 오버헤드를 더합니다.
+ */
+public final class TokenEstimator {
+
+    /** 메시지당 역할/구분자 오버헤드 */
+    public static final int MESSAGE_OVERHEAD = 4;
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * 텍스트 토큰 수 추정
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ascii++;
+            } else if (!Character.isLowSurrogate(c)) {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    /**
+     * 메시지 하나의 토큰 수 추정 (오버헤드 포함)
+     */
+    public static int estimateMessage(String content) {
+        return estimate(content) + MESSAGE_OVERHEAD;
+    }
+}
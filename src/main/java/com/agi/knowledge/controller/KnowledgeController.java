@@ -1,5 +1,16 @@
 package com.agi.knowledge.controller;
 
+import com.agi.knowledge.dto.request.KnowledgeRetrievalRequest;
+import com.agi.knowledge.dto.request.KnowledgeSearchRequest;
+import com.agi.knowledge.dto.response.KnowledgeDto;
+import com.agi.knowledge.dto.response.KnowledgeRetrievalDto;
+import com.agi.knowledge.service.KnowledgeService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -8,6 +19,24 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @RequestMapping("/api/knowledge")
+@RequiredArgsConstructor
 public class KnowledgeController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final KnowledgeService knowledgeService;
+    
+    /**
+     * 키워드/태그/출처 조건 지식 검색
+     */
+    @PostMapping("/search")
+    public ResponseEntity<Page<KnowledgeDto>> searchKnowledge(@Valid @RequestBody KnowledgeSearchRequest request) {
+        return ResponseEntity.ok(knowledgeService.searchKnowledge(request));
+    }
+    
+    /**
+     * 어휘 + 임베딩 하이브리드 지식 검색
+     */
+    @PostMapping("/retrieve")
+    public ResponseEntity<KnowledgeRetrievalDto> retrieveKnowledge(@Valid @RequestBody KnowledgeRetrievalRequest request) {
+        return ResponseEntity.ok(knowledgeService.retrieveKnowledge(request));
+    }
 }
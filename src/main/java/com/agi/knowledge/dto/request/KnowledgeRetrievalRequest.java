@@ -0,0 +1,32 @@
+package com.agi.knowledge.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 지식 하이브리드 검색 요청 DTO (query와 embedding 중 하나 이상 필수)
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KnowledgeRetrievalRequest {
+    
+    private String query;
+    
+    private float[] embedding;
+    
+    @Min(value = 1, message = "topK는 1 이상이어야 합니다")
+    @Max(value = 100, message = "topK는 100 이하여야 합니다")
+    private Integer topK;
+    
+    private List<String> tags;
+    
+    private String source;
+}
@@ -1,8 +1,11 @@
 package com.agi.knowledge.dto.request;
 
-import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
@@ -11,6 +14,8 @@ import java.util.List;
  */
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class KnowledgeSearchRequest {
     
     private String keyword;
@@ -25,7 +30,10 @@ public class KnowledgeSearchRequest {
     
     private String sortDirection;
     
+    @Min(value = 0, message = "페이지 번호는 0 이상이어야 합니다")
     private Integer page;
     
+    @Min(value = 1, message = "페이지 크기는 1 이상이어야 합니다")
+    @Max(value = 100, message = "페이지 크기는 100 이하여야 합니다")
     private Integer size;
 }
@@ -0,0 +1,20 @@
+package com.agi.knowledge.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 지식 하이브리드 검색 응답 DTO
+ */
+@Getter
+@Builder
+public class KnowledgeRetrievalDto {
+    private List<RetrievedKnowledgeDto> results;
+    private Integer lexicalCandidates;
+    private Integer vectorCandidates;
+    /** 단계별 소요 시간 (lexical, vector, fusion, fetch, total; 마이크로초) */
+    private Map<String, Long> stageMicros;
+}
@@ -0,0 +1,16 @@
+package com.agi.knowledge.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 하이브리드 검색 결과 항목 DTO (순위는 1부터, 해당 검색기 후보가 아니면 null)
+ */
+@Getter
+@Builder
+public class RetrievedKnowledgeDto {
+    private KnowledgeDto knowledge;
+    private Double score;
+    private Integer lexicalRank;
+    private Integer vectorRank;
+}
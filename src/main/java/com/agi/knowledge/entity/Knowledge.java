@@ -14,7 +14,10 @@ import java.util.Set;
  * 지식 엔티티
  */
 @Entity
-@Table(name = "knowledge")
+@Table(name = "knowledge", indexes = {
+        @Index(name = "idx_knowledge_updated", columnList = "updated_at")
+})
+@EntityListeners({KnowledgeEmbeddingListener.class, KnowledgeSearchListener.class})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Knowledge {
@@ -42,9 +45,15 @@ public class Knowledge {
     
     private LocalDateTime updatedAt;
     
+    @Column(columnDefinition = "BLOB")
+    private byte[] embedding;
+    
     @OneToMany(mappedBy = "knowledge", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<KnowledgeTag> knowledgeTags = new HashSet<>();
     
+    @Transient
+    private boolean embeddingChanged;
+    
     @Builder
     public Knowledge(String title, String content, String source, Double relevanceScore, Boolean verified) {
         this.title = title;
@@ -81,11 +90,31 @@ public class Knowledge {
         this.updatedAt = LocalDateTime.now();
     }
     
+    /**
+     * 임베딩 업데이트
+     */
+    public void updateEmbedding(byte[] embedding) {
+        this.embedding = embedding;
+        this.embeddingChanged = true;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    /**
+     * 임베딩 변경 여부를 반환하고 플래그 초기화 (벡터 인덱스 동기화용)
+     */
+    public boolean consumeEmbeddingChange() {
+        boolean changed = this.embeddingChanged;
+        this.embeddingChanged = false;
+        return changed;
+    }
+    
     /**
      * 태그 추가
      */
     public void addTag(KnowledgeTag tag) {
         this.knowledgeTags.add(tag);
+        // 다른 인스턴스의 검색 색인이 updated_at으로 태그 변경을 찾도록 갱신
+        this.updatedAt = LocalDateTime.now();
     }
     
     /**
@@ -93,5 +122,6 @@ public class Knowledge {
      */
     public void removeTag(KnowledgeTag tag) {
         this.knowledgeTags.remove(tag);
+        this.updatedAt = LocalDateTime.now();
     }
 }
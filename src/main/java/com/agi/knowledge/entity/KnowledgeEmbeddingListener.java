@@ -0,0 +1,37 @@
+package com.agi.knowledge.entity;
+
+import com.agi.knowledge.service.KnowledgeVectorIndex.EmbeddingChange;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 지식 임베딩 변경을 벡터 인덱스에 알리는 엔티티 리스너
+ *
+ * 콜백은 커밋 전에 불리므로 변경 내용만 이벤트로 발행하고, 인덱스 반영은 커밋 후
+ * {@link com.agi.knowledge.service.KnowledgeVectorIndex}에서 합니다.
+ */
+@Component
+public class KnowledgeEmbeddingListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public KnowledgeEmbeddingListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Knowledge knowledge) {
+        if (knowledge.consumeEmbeddingChange()) {
+            eventPublisher.publishEvent(new EmbeddingChange(knowledge.getId(), knowledge.getEmbedding()));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Knowledge knowledge) {
+        eventPublisher.publishEvent(new EmbeddingChange(knowledge.getId(), null));
+    }
+}
@@ -0,0 +1,35 @@
+package com.agi.knowledge.entity;
+
+import com.agi.knowledge.service.KnowledgeSearchIndex.DocumentChange;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 지식 생성/수정/삭제를 전문 검색 색인에 알리는 엔티티 리스너
+ *
+ * 콜백은 커밋 전에 불리므로 변경 내용만 이벤트로 발행하고, 색인 반영은 커밋 후
+ * {@link com.agi.knowledge.service.KnowledgeSearchIndex}에서 합니다.
+ */
+@Component
+public class KnowledgeSearchListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public KnowledgeSearchListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Knowledge knowledge) {
+        eventPublisher.publishEvent(DocumentChange.saved(knowledge));
+    }
+
+    @PostRemove
+    public void onRemove(Knowledge knowledge) {
+        eventPublisher.publishEvent(DocumentChange.removed(knowledge.getId()));
+    }
+}
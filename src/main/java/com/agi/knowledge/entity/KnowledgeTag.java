@@ -13,6 +13,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "knowledge_tags")
+@EntityListeners(KnowledgeTagSearchListener.class)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class KnowledgeTag {
@@ -0,0 +1,36 @@
+package com.agi.knowledge.entity;
+
+import com.agi.knowledge.service.KnowledgeSearchIndex.TagChange;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * 지식 태그 추가/삭제를 전문 검색 색인의 태그 필터에 알리는 엔티티 리스너 (반영은 커밋 후)
+ */
+@Component
+public class KnowledgeTagSearchListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public KnowledgeTagSearchListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPersist(KnowledgeTag tag) {
+        publish(tag, true);
+    }
+
+    @PostRemove
+    public void onRemove(KnowledgeTag tag) {
+        publish(tag, false);
+    }
+
+    private void publish(KnowledgeTag tag, boolean added) {
+        if (tag.getKnowledge() != null) {
+            eventPublisher.publishEvent(new TagChange(tag.getKnowledge().getId(), tag.getTag(), added));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.agi.knowledge.repository;
+
+/**
+ * 임베딩 인덱스 재구축용 지식 프로젝션
+ */
+public interface KnowledgeEmbeddingProjection {
+
+    Long getId();
+
+    byte[] getEmbedding();
+}
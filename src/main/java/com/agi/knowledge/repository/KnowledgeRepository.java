@@ -1,27 +1,42 @@
 package com.agi.knowledge.repository;
 
 import com.agi.knowledge.entity.Knowledge;
-import com.agi.knowledge.enums.KnowledgeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface KnowledgeRepository extends JpaRepository<Knowledge, String> {
-    List<Knowledge> findByType(KnowledgeType type);
+public interface KnowledgeRepository extends JpaRepository<Knowledge, Long> {
     
-    @Query("SELECT k FROM Knowledge k WHERE k.content LIKE %:keyword%")
-    List<Knowledge> findByContentContaining(String keyword);
-    
-    @Query("SELECT k FROM Knowledge k JOIN k.tags t WHERE t.name = :tagName")
+    @Query("SELECT k FROM Knowledge k JOIN k.knowledgeTags t WHERE t.tag = :tagName")
     List<Knowledge> findByTagName(String tagName);
     
     @Query("SELECT k FROM Knowledge k WHERE k.createdAt >= :startDate AND k.createdAt <= :endDate")
     List<Knowledge> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    @Query("SELECT k FROM Knowledge k WHERE k.type = :type AND k.content LIKE %:keyword%")
-    List<Knowledge> findByTypeAndContentContaining(KnowledgeType type, String keyword);
+    @Query("SELECT DISTINCT k FROM Knowledge k LEFT JOIN FETCH k.knowledgeTags WHERE k.id IN :ids")
+    List<Knowledge> findAllWithTagsByIdIn(Collection<Long> ids);
+    
+    List<Knowledge> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
+    @Query("SELECT k FROM Knowledge k WHERE k.updatedAt >= :since AND k.id > :afterId ORDER BY k.id ASC")
+    List<Knowledge> findChangedSince(LocalDateTime since, Long afterId, Pageable pageable);
+    
+    @Query("SELECT k.id FROM Knowledge k WHERE k.id > :afterId ORDER BY k.id ASC")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+    
+    @Query("SELECT k.id FROM Knowledge k WHERE k.id > :afterId AND k.embedding IS NOT NULL ORDER BY k.id ASC")
+    List<Long> findEmbeddedIdsAfter(Long afterId, Pageable pageable);
+    
+    @Query("SELECT k.id AS id, k.embedding AS embedding FROM Knowledge k WHERE k.id IN :ids AND k.embedding IS NOT NULL")
+    List<KnowledgeEmbeddingProjection> findEmbeddingsByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT k.id AS id, k.embedding AS embedding FROM Knowledge k " +
+           "WHERE k.updatedAt >= :since AND k.id > :afterId AND k.embedding IS NOT NULL ORDER BY k.id ASC")
+    List<KnowledgeEmbeddingProjection> findEmbeddingsChangedSince(LocalDateTime since, Long afterId, Pageable pageable);
 }
@@ -0,0 +1,11 @@
+package com.agi.knowledge.repository;
+
+/**
+ * 검색 색인 재구축용 지식 태그 프로젝션
+ */
+public interface KnowledgeTagProjection {
+
+    Long getKnowledgeId();
+
+    String getTag();
+}
@@ -6,20 +6,20 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface KnowledgeTagRepository extends JpaRepository<KnowledgeTag, Long> {
     List<KnowledgeTag> findByKnowledge(Knowledge knowledge);
     
-    Optional<KnowledgeTag> findByName(String name);
+    List<KnowledgeTag> findByTag(String tag);
     
     @Query("SELECT kt FROM KnowledgeTag kt WHERE kt.knowledge.id = :knowledgeId")
-    List<KnowledgeTag> findByKnowledgeId(String knowledgeId);
+    List<KnowledgeTag> findByKnowledgeId(Long knowledgeId);
     
-    @Query("SELECT kt FROM KnowledgeTag kt WHERE kt.name LIKE %:keyword%")
-    List<KnowledgeTag> findByNameContaining(String keyword);
+    @Query("SELECT kt.knowledge.id AS knowledgeId, kt.tag AS tag FROM KnowledgeTag kt WHERE kt.knowledge.id IN :knowledgeIds")
+    List<KnowledgeTagProjection> findTagsByKnowledgeIdIn(Collection<Long> knowledgeIds);
     
-    boolean existsByName(String name);
+    boolean existsByTag(String tag);
 }
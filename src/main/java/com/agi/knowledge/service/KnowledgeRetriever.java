@@ -0,0 +1,154 @@
+package com.agi.knowledge.service;
+
+import com.agi.common.embedding.HnswIndex;
+import com.agi.common.search.InvertedIndex;
+import com.agi.common.search.ReciprocalRankFusion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 지식 하이브리드 검색기 (BM25 + 임베딩 유사도)
+ *
+ * 어휘 검색과 벡터 검색을 병렬로 실행해 각각 상위 후보만 받은 뒤, 후보 합집합에 대해서만
+ * 가중 역순위 융합과 관련성 점수/검증 여부 사전 점수를 계산하여 상위 k개를 고릅니다.
+ * 단계별 소요 시간(마이크로초)을 결과에 함께 담습니다.
+ */
+@Slf4j
+@Component
+public class KnowledgeRetriever {
+
+    public static final int LEXICAL = 0;
+    public static final int VECTOR = 1;
+
+    private final KnowledgeSearchIndex knowledgeSearchIndex;
+    private final KnowledgeVectorIndex knowledgeVectorIndex;
+    private final ExecutorService executor;
+    private final int rankConstant;
+    private final int candidates;
+    private final float lexicalWeight;
+    private final float vectorWeight;
+    private final double relevanceWeight;
+    private final double verifiedWeight;
+
+    public KnowledgeRetriever(KnowledgeSearchIndex knowledgeSearchIndex,
+                              KnowledgeVectorIndex knowledgeVectorIndex,
+                              @Qualifier("knowledgeSearchExecutor") ExecutorService executor,
+                              @Value("${knowledge.retrieval.rank-constant:60}") int rankConstant,
+                              @Value("${knowledge.retrieval.candidates:100}") int candidates,
+                              @Value("${knowledge.retrieval.lexical-weight:1.0}") float lexicalWeight,
+                              @Value("${knowledge.retrieval.vector-weight:1.0}") float vectorWeight,
+                              @Value("${knowledge.retrieval.relevance-weight:0.01}") double relevanceWeight,
+                              @Value("${knowledge.retrieval.verified-weight:0.005}") double verifiedWeight) {
+        this.knowledgeSearchIndex = knowledgeSearchIndex;
+        this.knowledgeVectorIndex = knowledgeVectorIndex;
+        this.executor = executor;
+        this.rankConstant = rankConstant;
+        this.candidates = candidates;
+        this.lexicalWeight = lexicalWeight;
+        this.vectorWeight = vectorWeight;
+        this.relevanceWeight = relevanceWeight;
+        this.verifiedWeight = verifiedWeight;
+    }
+
+    /**
+     * 상위 k개 지식 검색 (query나 embedding 중 없는 쪽의 단계는 건너뜀)
+     */
+    public Retrieval retrieve(String query, float[] embedding, int topK, Collection<String> tags, String source) {
+        int candidateCount = Math.max(topK, candidates);
+        boolean filtered = (tags != null && !tags.isEmpty()) || source != null;
+
+        long[] vectorNanos = new long[1];
+        CompletableFuture<List<HnswIndex.Hit>> vectorFuture = embedding == null
+                ? CompletableFuture.completedFuture(Collections.emptyList())
+                : CompletableFuture.supplyAsync(() -> {
+                    long started = System.nanoTime();
+                    List<HnswIndex.Hit> hits = knowledgeVectorIndex.search(embedding, candidateCount);
+                    vectorNanos[0] = System.nanoTime() - started;
+                    return hits;
+                }, executor);
+
+        long lexicalStarted = System.nanoTime();
+        InvertedIndex.SearchResult lexical = knowledgeSearchIndex.searchLexical(query, candidateCount, tags, source);
+        long lexicalNanos = System.nanoTime() - lexicalStarted;
+        List<HnswIndex.Hit> vector = vectorFuture.join();
+
+        long fusionStarted = System.nanoTime();
+        List<InvertedIndex.Hit> lexicalHits = lexical.getHits();
+        ReciprocalRankFusion fusion = new ReciprocalRankFusion(rankConstant,
+                new float[]{lexicalWeight, vectorWeight}, lexicalHits.size() + vector.size());
+        for (int rank = 0; rank < lexicalHits.size(); rank++) {
+            fusion.add(LEXICAL, lexicalHits.get(rank).getKey(), rank);
+        }
+        int vectorCandidates = 0;
+        for (HnswIndex.Hit hit : vector) {
+            // 벡터 인덱스는 태그/출처를 모르므로 후보 단계에서 후처리 필터
+            if (!filtered || knowledgeSearchIndex.matches(hit.getKey(), tags, source)) {
+                fusion.add(VECTOR, hit.getKey(), vectorCandidates++);
+            }
+        }
+        List<ReciprocalRankFusion.Fused> results = fusion.top(topK, this::prior);
+        long fusionNanos = System.nanoTime() - fusionStarted;
+
+        Map<String, Long> stageMicros = new LinkedHashMap<>();
+        stageMicros.put("lexical", TimeUnit.NANOSECONDS.toMicros(lexicalNanos));
+        stageMicros.put("vector", TimeUnit.NANOSECONDS.toMicros(vectorNanos[0]));
+        stageMicros.put("fusion", TimeUnit.NANOSECONDS.toMicros(fusionNanos));
+        log.debug("Knowledge retrieval: lexical={} vector={} fused={} stages={}",
+                lexicalHits.size(), vectorCandidates, fusion.size(), stageMicros);
+        return new Retrieval(results, lexicalHits.size(), vectorCandidates, stageMicros);
+    }
+
+    /**
+     * 관련성 점수(0~1로 제한)와 검증 여부에 따른 사전 점수
+     */
+    private double prior(long knowledgeId) {
+        Double relevanceScore = knowledgeSearchIndex.relevanceScoreOf(knowledgeId);
+        double prior = relevanceScore != null ? relevanceWeight * Math.max(0.0, Math.min(1.0, relevanceScore)) : 0.0;
+        return knowledgeSearchIndex.isVerified(knowledgeId) ? prior + verifiedWeight : prior;
+    }
+
+    /**
+     * 하이브리드 검색 결과
+     */
+    public static final class Retrieval {
+        private final List<ReciprocalRankFusion.Fused> results;
+        private final int lexicalCandidates;
+        private final int vectorCandidates;
+        private final Map<String, Long> stageMicros;
+
+        public Retrieval(List<ReciprocalRankFusion.Fused> results, int lexicalCandidates, int vectorCandidates,
+                         Map<String, Long> stageMicros) {
+            this.results = results;
+            this.lexicalCandidates = lexicalCandidates;
+            this.vectorCandidates = vectorCandidates;
+            this.stageMicros = stageMicros;
+        }
+
+        public List<ReciprocalRankFusion.Fused> getResults() {
+            return results;
+        }
+
+        public int getLexicalCandidates() {
+            return lexicalCandidates;
+        }
+
+        public int getVectorCandidates() {
+            return vectorCandidates;
+        }
+
+        public Map<String, Long> getStageMicros() {
+            return stageMicros;
+        }
+    }
+}
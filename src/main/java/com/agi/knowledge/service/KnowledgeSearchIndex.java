@@ -0,0 +1,534 @@
+package com.agi.knowledge.service;
+
+import com.agi.common.search.InvertedIndex;
+import com.agi.common.search.TextTokenizer;
+import com.agi.knowledge.entity.Knowledge;
+import com.agi.knowledge.entity.KnowledgeTag;
+import com.agi.knowledge.repository.KnowledgeRepository;
+import com.agi.knowledge.repository.KnowledgeTagProjection;
+import com.agi.knowledge.repository.KnowledgeTagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * 지식 전문 검색 색인
+ *
+ * 제목/내용은 id 해시로 나눈 {@link InvertedIndex} 샤드에 BM25로 색인하고, 샤드는
+ * 병렬로 검색한 뒤 상위 결과를 병합합니다. IDF는 샤드별 통계를 사용합니다.
+ * 태그/출처 필터와 정렬에 필요한 속성은 문서별 스냅샷으로 메모리에 유지하여
+ * 검색 시 DB를 조회하지 않습니다.
+ * 기동 시 knowledge 테이블을 id 순 키셋 배치로 읽어 재구축하며,
+ * 이후 변경은 {@link com.agi.knowledge.entity.KnowledgeSearchListener}가 알린 변경을 커밋 후에 반영합니다.
+ * 다른 인스턴스의 변경과 놓친 이벤트는 주기적으로 updated_at 기준 갱신과 id 대조로 맞춥니다.
+ */
+@Slf4j
+@Component
+public class KnowledgeSearchIndex {
+
+    /** BM25 점수 정렬 속성 */
+    public static final String RELEVANCE = "relevance";
+
+    public static final Set<String> SORT_PROPERTIES =
+            Set.of(RELEVANCE, "id", "title", "createdAt", "updatedAt", "relevanceScore");
+
+    // 제목 토큰은 두 번 색인하여 가중치 부여
+    private static final int TITLE_BOOST = 2;
+
+    /** 갱신 시각 기록 후 늦게 커밋된 트랜잭션을 놓치지 않도록 대조 시각에서 빼는 여유 */
+    private static final long COMMIT_LAG_MILLIS = 5 * 60 * 1000L;
+
+    private final KnowledgeRepository knowledgeRepository;
+    private final KnowledgeTagRepository knowledgeTagRepository;
+    private final ExecutorService executor;
+    private final int rebuildBatchSize;
+
+    private final InvertedIndex[] shards;
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final AtomicBoolean synchronizing = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile long syncedAt;
+
+    public KnowledgeSearchIndex(KnowledgeRepository knowledgeRepository,
+                                KnowledgeTagRepository knowledgeTagRepository,
+                                @Qualifier("knowledgeSearchExecutor") ExecutorService executor,
+                                @Value("${knowledge.search.shards:4}") int shardCount,
+                                @Value("${knowledge.search.rebuild-batch-size:500}") int rebuildBatchSize) {
+        this.knowledgeRepository = knowledgeRepository;
+        this.knowledgeTagRepository = knowledgeTagRepository;
+        this.executor = executor;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.shards = new InvertedIndex[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new InvertedIndex();
+        }
+    }
+
+    /**
+     * 애플리케이션 기동 후 백그라운드에서 색인 재구축
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread thread = new Thread(this::rebuild, "knowledge-search-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * knowledge 테이블로부터 색인 재구축
+     *
+     * 재구축 도중 리스너로 들어온 최신 문서는 덮어쓰지 않습니다.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long lastId = 0L;
+        int indexed = 0;
+        try {
+            while (true) {
+                List<Knowledge> batch =
+                        knowledgeRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, rebuildBatchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Map<Long, Set<String>> tags = tagsOf(batch);
+                for (Knowledge knowledge : batch) {
+                    lastId = knowledge.getId();
+                    if (documents.containsKey(knowledge.getId())) {
+                        continue;
+                    }
+                    put(knowledge, tags.getOrDefault(knowledge.getId(), Collections.emptySet()));
+                    indexed++;
+                }
+            }
+            syncedAt = started;
+            ready = true;
+            log.info("Knowledge search index rebuilt: {} documents in {} ms", indexed, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Knowledge search index rebuild failed after knowledge id {}", lastId, e);
+        }
+    }
+
+    /**
+     * 주기적으로 knowledge 테이블과 대조 (이미 대조 중이면 건너뜀)
+     *
+     * 다른 인스턴스에서 바뀐 문서는 updated_at으로 다시 읽고, 생성/삭제는 id 목록 병합으로 찾습니다.
+     */
+    @Scheduled(initialDelayString = "${knowledge.search.sync-interval-ms:300000}",
+            fixedDelayString = "${knowledge.search.sync-interval-ms:300000}")
+    public void synchronize() {
+        if (!ready || !synchronizing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            int changed = refreshChanged(syncedAt);
+            int[] reconciled = reconcileIds();
+            syncedAt = started;
+            if (changed + reconciled[0] + reconciled[1] > 0) {
+                log.info("Knowledge search index synchronized: {} changed, {} added, {} removed in {} ms", changed,
+                        reconciled[0], reconciled[1], System.currentTimeMillis() - started);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Knowledge search index synchronization failed", e);
+        } finally {
+            synchronizing.set(false);
+        }
+    }
+
+    /**
+     * 커밋된 지식 생성/수정/삭제 반영
+     *
+     * 태그 컬렉션이 로딩되지 않은 채 저장된 경우 기존 색인의 태그를 유지합니다.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDocumentChange(DocumentChange change) {
+        Knowledge knowledge = change.knowledge();
+        if (knowledge == null) {
+            remove(change.knowledgeId());
+            return;
+        }
+        Set<String> tags = change.tags();
+        if (tags == null) {
+            Document previous = documents.get(knowledge.getId());
+            tags = previous != null ? previous.tags : Collections.emptySet();
+        }
+        put(knowledge, tags);
+    }
+
+    /**
+     * 커밋된 태그 추가/삭제 반영
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagChange(TagChange change) {
+        updateTag(change.knowledgeId(), change.tag(), change.added());
+    }
+
+    /**
+     * 지식 색인 제거
+     */
+    public void remove(Long knowledgeId) {
+        if (knowledgeId != null) {
+            documents.remove(knowledgeId);
+            shardOf(knowledgeId).remove(knowledgeId);
+        }
+    }
+
+    /**
+     * 문서 태그 추가/제거 반영 (본문 색인은 그대로 유지)
+     */
+    public void updateTag(Long knowledgeId, String tag, boolean added) {
+        documents.computeIfPresent(knowledgeId, (id, document) -> {
+            Set<String> tags = new HashSet<>(document.tags);
+            if (added) {
+                tags.add(tag);
+            } else {
+                tags.remove(tag);
+            }
+            return document.withTags(tags);
+        });
+    }
+
+    /**
+     * 키워드/태그/출처 조건으로 지식 ID 페이지 검색
+     *
+     * 키워드가 있고 정렬이 없거나 {@link #RELEVANCE}이면 BM25 상위 (offset + size)개만 수집합니다.
+     * 태그는 모두 포함해야 일치하며, 키워드가 없으면 필터만 적용합니다.
+     */
+    public Page<Long> search(String keyword, Collection<String> tags, String source, Pageable pageable) {
+        LongPredicate filter = key -> {
+            Document document = documents.get(key);
+            return document != null && document.matches(tags, source);
+        };
+        boolean hasKeyword = keyword != null && !keyword.isBlank();
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+
+        if (hasKeyword && (order == null || RELEVANCE.equals(order.getProperty()))) {
+            int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+            InvertedIndex.SearchResult result = searchShards(keyword, limit, filter);
+            List<Long> ids = result.getHits().stream()
+                    .skip(pageable.getOffset())
+                    .map(InvertedIndex.Hit::getKey)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(ids, pageable, result.getTotalHits());
+        }
+
+        List<Document> matches = new ArrayList<>();
+        if (hasKeyword) {
+            for (InvertedIndex shard : shards) {
+                shard.forEachMatch(keyword, filter, (key, score) -> {
+                    Document document = documents.get(key);
+                    if (document != null) {
+                        matches.add(document);
+                    }
+                });
+            }
+        } else {
+            for (Document document : documents.values()) {
+                if (document.matches(tags, source)) {
+                    matches.add(document);
+                }
+            }
+        }
+        matches.sort(comparator(order));
+        List<Long> ids = matches.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(document -> document.id)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ids, pageable, matches.size());
+    }
+
+    /**
+     * 키워드 BM25 상위 limit개 검색 (하이브리드 검색의 어휘 후보 단계)
+     */
+    public InvertedIndex.SearchResult searchLexical(String keyword, int limit, Collection<String> tags, String source) {
+        if (keyword == null || keyword.isBlank()) {
+            return new InvertedIndex.SearchResult(Collections.emptyList(), 0);
+        }
+        return searchShards(keyword, limit, key -> matches(key, tags, source));
+    }
+
+    /**
+     * 문서가 태그/출처 조건을 만족하는지 여부 (색인에 없으면 false)
+     */
+    public boolean matches(long knowledgeId, Collection<String> tags, String source) {
+        Document document = documents.get(knowledgeId);
+        return document != null && document.matches(tags, source);
+    }
+
+    /**
+     * 문서의 관련성 점수 (색인에 없으면 null)
+     */
+    public Double relevanceScoreOf(long knowledgeId) {
+        Document document = documents.get(knowledgeId);
+        return document != null ? document.relevanceScore : null;
+    }
+
+    /**
+     * 문서의 검증 여부
+     */
+    public boolean isVerified(long knowledgeId) {
+        Document document = documents.get(knowledgeId);
+        return document != null && document.verified;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private int refreshChanged(long syncedAt) {
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(Math.max(0, syncedAt - COMMIT_LAG_MILLIS)),
+                ZoneId.systemDefault());
+        int changed = 0;
+        long lastId = 0L;
+        while (true) {
+            List<Knowledge> batch =
+                    knowledgeRepository.findChangedSince(since, lastId, PageRequest.of(0, rebuildBatchSize));
+            if (batch.isEmpty()) {
+                return changed;
+            }
+            Map<Long, Set<String>> tags = tagsOf(batch);
+            for (Knowledge knowledge : batch) {
+                lastId = knowledge.getId();
+                Set<String> current = tags.getOrDefault(knowledge.getId(), Collections.emptySet());
+                Document document = documents.get(knowledge.getId());
+                // 커밋 후 리스너가 이미 같은 버전 이상을 반영했으면 건너뜀
+                if (document != null && document.updatedAt != null && knowledge.getUpdatedAt() != null
+                        && !document.updatedAt.isBefore(knowledge.getUpdatedAt()) && document.tags.equals(current)) {
+                    continue;
+                }
+                put(knowledge, current);
+                changed++;
+            }
+        }
+    }
+
+    /**
+     * 색인 id 목록과 DB id 목록을 병합하며 양쪽 차이 반영
+     *
+     * @return {추가 수, 제거 수}
+     */
+    private int[] reconcileIds() {
+        List<Long> indexed = new ArrayList<>(documents.keySet());
+        Collections.sort(indexed);
+        int cursor = 0;
+        int added = 0;
+        int removed = 0;
+        List<Long> missing = new ArrayList<>();
+        long lastId = 0L;
+        while (true) {
+            List<Long> ids = knowledgeRepository.findIdsAfter(lastId, PageRequest.of(0, rebuildBatchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Long id : ids) {
+                while (cursor < indexed.size() && indexed.get(cursor) < id) {
+                    remove(indexed.get(cursor++));
+                    removed++;
+                }
+                if (cursor < indexed.size() && indexed.get(cursor).equals(id)) {
+                    cursor++;
+                } else {
+                    missing.add(id);
+                }
+            }
+            lastId = ids.get(ids.size() - 1);
+            if (missing.size() >= rebuildBatchSize) {
+                added += addMissing(missing);
+                missing.clear();
+            }
+        }
+        // 대조 시작 후 리스너로 추가된 문서는 indexed에 없으므로 지우지 않음
+        while (cursor < indexed.size()) {
+            remove(indexed.get(cursor++));
+            removed++;
+        }
+        added += addMissing(missing);
+        return new int[]{added, removed};
+    }
+
+    private int addMissing(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int added = 0;
+        for (Knowledge knowledge : knowledgeRepository.findAllWithTagsByIdIn(ids)) {
+            // 대조 중 리스너가 먼저 넣은 문서는 그대로 둠
+            if (!documents.containsKey(knowledge.getId())) {
+                put(knowledge, tagsOf(knowledge));
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private Map<Long, Set<String>> tagsOf(List<Knowledge> batch) {
+        List<Long> ids = batch.stream().map(Knowledge::getId).collect(Collectors.toList());
+        Map<Long, Set<String>> tags = new HashMap<>();
+        for (KnowledgeTagProjection row : knowledgeTagRepository.findTagsByKnowledgeIdIn(ids)) {
+            tags.computeIfAbsent(row.getKnowledgeId(), id -> new HashSet<>()).add(row.getTag());
+        }
+        return tags;
+    }
+
+    private static Set<String> tagsOf(Knowledge knowledge) {
+        return knowledge.getKnowledgeTags().stream().map(KnowledgeTag::getTag).collect(Collectors.toSet());
+    }
+
+    private void put(Knowledge knowledge, Set<String> tags) {
+        List<String> tokens = new ArrayList<>();
+        List<String> titleTokens = TextTokenizer.tokenize(knowledge.getTitle());
+        for (int i = 0; i < TITLE_BOOST; i++) {
+            tokens.addAll(titleTokens);
+        }
+        tokens.addAll(TextTokenizer.tokenize(knowledge.getContent()));
+        documents.put(knowledge.getId(), new Document(knowledge, tags));
+        shardOf(knowledge.getId()).upsert(knowledge.getId(), tokens);
+    }
+
+    private InvertedIndex shardOf(long knowledgeId) {
+        return shards[(int) Math.floorMod(knowledgeId, (long) shards.length)];
+    }
+
+    private InvertedIndex.SearchResult searchShards(String keyword, int limit, LongPredicate filter) {
+        if (shards.length == 1) {
+            return shards[0].search(keyword, limit, filter);
+        }
+        List<CompletableFuture<InvertedIndex.SearchResult>> futures = new ArrayList<>(shards.length);
+        for (InvertedIndex shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> shard.search(keyword, limit, filter), executor));
+        }
+        List<InvertedIndex.SearchResult> results = new ArrayList<>(shards.length);
+        for (CompletableFuture<InvertedIndex.SearchResult> future : futures) {
+            results.add(future.join());
+        }
+        return InvertedIndex.merge(results, limit);
+    }
+
+    private static Comparator<Document> comparator(Sort.Order order) {
+        if (order == null || RELEVANCE.equals(order.getProperty())) {
+            // 키워드가 없는 기본 정렬은 최신순
+            return Comparator.comparing((Document document) -> document.createdAt,
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+        }
+        Comparator<Document> comparator;
+        switch (order.getProperty()) {
+            case "id":
+                comparator = Comparator.comparing(document -> document.id);
+                break;
+            case "title":
+                comparator = Comparator.comparing(document -> document.title, Comparator.nullsLast(Comparator.naturalOrder()));
+                break;
+            case "updatedAt":
+                comparator = Comparator.comparing(document -> document.updatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                break;
+            case "relevanceScore":
+                comparator = Comparator.comparing(document -> document.relevanceScore, Comparator.nullsLast(Comparator.naturalOrder()));
+                break;
+            case "createdAt":
+                comparator = Comparator.comparing(document -> document.createdAt, Comparator.nullsLast(Comparator.naturalOrder()));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+        }
+        return order.isDescending() ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * 필터/정렬용 지식 속성 스냅샷
+     */
+    private static final class Document {
+        private final Long id;
+        private final String title;
+        private final String source;
+        private final Set<String> tags;
+        private final Double relevanceScore;
+        private final boolean verified;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+
+        Document(Knowledge knowledge, Set<String> tags) {
+            this(knowledge.getId(), knowledge.getTitle(), knowledge.getSource(), tags, knowledge.getRelevanceScore(),
+                    Boolean.TRUE.equals(knowledge.getVerified()), knowledge.getCreatedAt(), knowledge.getUpdatedAt());
+        }
+
+        private Document(Long id, String title, String source, Set<String> tags, Double relevanceScore,
+                         boolean verified, LocalDateTime createdAt, LocalDateTime updatedAt) {
+            this.id = id;
+            this.title = title;
+            this.source = source;
+            this.tags = Collections.unmodifiableSet(tags);
+            this.relevanceScore = relevanceScore;
+            this.verified = verified;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+        }
+
+        Document withTags(Set<String> tags) {
+            return new Document(id, title, source, tags, relevanceScore, verified, createdAt, updatedAt);
+        }
+
+        boolean matches(Collection<String> requiredTags, String requiredSource) {
+            if (requiredSource != null && !requiredSource.equals(source)) {
+                return false;
+            }
+            return requiredTags == null || tags.containsAll(requiredTags);
+        }
+    }
+
+    /**
+     * 지식 생성/수정/삭제 알림 (knowledge가 null이면 삭제, tags가 null이면 기존 태그 유지)
+     */
+    public record DocumentChange(Long knowledgeId, Knowledge knowledge, Set<String> tags) {
+
+        public static DocumentChange saved(Knowledge knowledge) {
+            Set<String> tags = Hibernate.isInitialized(knowledge.getKnowledgeTags()) ? tagsOf(knowledge) : null;
+            return new DocumentChange(knowledge.getId(), knowledge, tags);
+        }
+
+        public static DocumentChange removed(Long knowledgeId) {
+            return new DocumentChange(knowledgeId, null, null);
+        }
+    }
+
+    /**
+     * 지식 태그 추가/삭제 알림
+     */
+    public record TagChange(Long knowledgeId, String tag, boolean added) {
+    }
+}
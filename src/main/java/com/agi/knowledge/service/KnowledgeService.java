@@ -1,11 +1,146 @@
 package com.agi.knowledge.service;
 
+import com.agi.common.embedding.HnswIndex;
+import com.agi.common.exception.BadRequestException;
+import com.agi.common.exception.ResourceNotFoundException;
+import com.agi.common.search.ReciprocalRankFusion;
+import com.agi.knowledge.dto.request.KnowledgeRetrievalRequest;
+import com.agi.knowledge.dto.request.KnowledgeSearchRequest;
+import com.agi.knowledge.dto.response.KnowledgeDto;
+import com.agi.knowledge.dto.response.KnowledgeRetrievalDto;
+import com.agi.knowledge.dto.response.RetrievedKnowledgeDto;
+import com.agi.knowledge.entity.Knowledge;
+import com.agi.knowledge.repository.KnowledgeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 지식 관련 서비스
  */
 @Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class KnowledgeService {
-    // 서비스 구현체는 추후 개발
+    
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int DEFAULT_TOP_K = 10;
+    
+    private final KnowledgeRepository knowledgeRepository;
+    private final KnowledgeVectorIndex knowledgeVectorIndex;
+    private final KnowledgeSearchIndex knowledgeSearchIndex;
+    private final KnowledgeRetriever knowledgeRetriever;
+    
+    /**
+     * 키워드/태그/출처 조건 지식 검색 (전문 검색 색인 사용)
+     */
+    public Page<KnowledgeDto> searchKnowledge(KnowledgeSearchRequest request) {
+        Pageable pageable = PageRequest.of(
+                request.getPage() != null ? request.getPage() : 0,
+                request.getSize() != null ? request.getSize() : DEFAULT_PAGE_SIZE,
+                toSort(request.getSortBy(), request.getSortDirection()));
+        
+        Page<Long> ids = knowledgeSearchIndex.search(request.getKeyword(), request.getTags(), request.getSource(), pageable);
+        Map<Long, Knowledge> knowledge = knowledgeRepository.findAllWithTagsByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Knowledge::getId, Function.identity()));
+        List<KnowledgeDto> content = ids.getContent().stream()
+                .filter(knowledge::containsKey)
+                .map(id -> KnowledgeDto.fromEntity(knowledge.get(id)))
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+    
+    /**
+     * 어휘 + 임베딩 하이브리드 지식 검색 (응답 근거 검색용)
+     *
+     * 융합 상위 k개만 DB에서 조회합니다.
+     */
+    public KnowledgeRetrievalDto retrieveKnowledge(KnowledgeRetrievalRequest request) {
+        boolean hasQuery = request.getQuery() != null && !request.getQuery().isBlank();
+        if (!hasQuery && request.getEmbedding() == null) {
+            throw new BadRequestException("query 또는 embedding 중 하나는 필수입니다");
+        }
+        long started = System.nanoTime();
+        int topK = request.getTopK() != null ? request.getTopK() : DEFAULT_TOP_K;
+        KnowledgeRetriever.Retrieval retrieval = knowledgeRetriever.retrieve(
+                request.getQuery(), request.getEmbedding(), topK, request.getTags(), request.getSource());
+        
+        long fetchStarted = System.nanoTime();
+        List<Long> ids = retrieval.getResults().stream()
+                .map(ReciprocalRankFusion.Fused::getKey)
+                .collect(Collectors.toList());
+        Map<Long, Knowledge> knowledge = knowledgeRepository.findAllWithTagsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Knowledge::getId, Function.identity()));
+        List<RetrievedKnowledgeDto> results = retrieval.getResults().stream()
+                .filter(fused -> knowledge.containsKey(fused.getKey()))
+                .map(fused -> RetrievedKnowledgeDto.builder()
+                        .knowledge(KnowledgeDto.fromEntity(knowledge.get(fused.getKey())))
+                        .score((double) fused.getScore())
+                        .lexicalRank(toDisplayRank(fused.getRank(KnowledgeRetriever.LEXICAL)))
+                        .vectorRank(toDisplayRank(fused.getRank(KnowledgeRetriever.VECTOR)))
+                        .build())
+                .collect(Collectors.toList());
+        
+        Map<String, Long> stageMicros = retrieval.getStageMicros();
+        stageMicros.put("fetch", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - fetchStarted));
+        stageMicros.put("total", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+        return KnowledgeRetrievalDto.builder()
+                .results(results)
+                .lexicalCandidates(retrieval.getLexicalCandidates())
+                .vectorCandidates(retrieval.getVectorCandidates())
+                .stageMicros(stageMicros)
+                .build();
+    }
+    
+    /**
+     * 지식 임베딩 갱신 (벡터 인덱스는 엔티티 리스너가 동기화)
+     */
+    @Transactional
+    public void updateKnowledgeEmbedding(Long knowledgeId, byte[] embedding) {
+        Knowledge knowledge = knowledgeRepository.findById(knowledgeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Knowledge", "id", knowledgeId));
+        knowledge.updateEmbedding(embedding);
+    }
+    
+    /**
+     * 임베딩 유사도 기반 지식 검색 (유사도 내림차순)
+     */
+    public List<KnowledgeDto> searchSimilarKnowledge(float[] query, int topK) {
+        List<Long> ids = knowledgeVectorIndex.search(query, topK).stream()
+                .map(HnswIndex.Hit::getKey)
+                .collect(Collectors.toList());
+        
+        Map<Long, Knowledge> knowledge = knowledgeRepository.findAllWithTagsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Knowledge::getId, Function.identity()));
+        return ids.stream()
+                .filter(knowledge::containsKey)
+                .map(id -> KnowledgeDto.fromEntity(knowledge.get(id)))
+                .collect(Collectors.toList());
+    }
+    
+    private Integer toDisplayRank(int rank) {
+        return rank >= 0 ? rank + 1 : null;
+    }
+    
+    private Sort toSort(String sortBy, String sortDirection) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return Sort.unsorted();
+        }
+        if (!KnowledgeSearchIndex.SORT_PROPERTIES.contains(sortBy)) {
+            throw new BadRequestException("지원하지 않는 정렬 기준입니다: " + sortBy);
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sortDirection).orElse(Sort.Direction.DESC);
+        return Sort.by(direction, sortBy);
+    }
 }
@@ -0,0 +1,158 @@
+package com.agi.knowledge.service;
+
+import com.agi.common.embedding.HnswIndex;
+import com.agi.common.embedding.MappedEmbeddingStore;
+import com.agi.common.embedding.SyncedVectorIndex;
+import com.agi.knowledge.repository.KnowledgeEmbeddingProjection;
+import com.agi.knowledge.repository.KnowledgeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 지식 임베딩 근사 최근접 이웃 인덱스
+ *
+ * 벡터는 오프힙 {@link MappedEmbeddingStore}에 두고 그래프만 힙에 유지합니다.
+ * 재구축과 knowledge 테이블 대조는 {@link SyncedVectorIndex}가 맡고, 그 사이의 변경은
+ * {@link com.agi.knowledge.entity.KnowledgeEmbeddingListener}가 알린 변경을 커밋 후에 반영합니다.
+ * 지식은 사용자/대화 범위가 없으므로 tenant와 partition은 0으로 고정합니다.
+ */
+@Slf4j
+@Component
+public class KnowledgeVectorIndex implements SyncedVectorIndex.Source {
+
+    private static final long GLOBAL_SCOPE = 0L;
+
+    private final KnowledgeRepository knowledgeRepository;
+    private final SyncedVectorIndex vectors;
+
+    public KnowledgeVectorIndex(KnowledgeRepository knowledgeRepository,
+                                @Qualifier("knowledgeEmbeddingStore") MappedEmbeddingStore store,
+                                @Value("${knowledge.embedding.index.m:16}") int m,
+                                @Value("${knowledge.embedding.index.ef-construction:200}") int efConstruction,
+                                @Value("${knowledge.embedding.index.ef-search:128}") int efSearch,
+                                @Value("${knowledge.embedding.index.exact-scan-threshold:2000}") int exactScanThreshold,
+                                @Value("${knowledge.embedding.index.rebuild-batch-size:1000}") int rebuildBatchSize) {
+        this.knowledgeRepository = knowledgeRepository;
+        this.vectors = new SyncedVectorIndex("Knowledge", this, store, m, efConstruction, efSearch,
+                exactScanThreshold, rebuildBatchSize);
+    }
+
+    /**
+     * 애플리케이션 기동 후 백그라운드에서 인덱스 재구축
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread thread = new Thread(vectors::rebuild, "knowledge-vector-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 주기적으로 knowledge 테이블과 대조하고 저장소를 디스크에 기록
+     */
+    @Scheduled(initialDelayString = "${knowledge.embedding.index.sync-interval-ms:300000}",
+            fixedDelayString = "${knowledge.embedding.index.sync-interval-ms:300000}")
+    public void synchronize() {
+        if (!vectors.isReady()) {
+            return;
+        }
+        try {
+            vectors.synchronize();
+        } catch (RuntimeException e) {
+            log.warn("Knowledge vector index synchronization failed", e);
+        }
+    }
+
+    /**
+     * 커밋된 임베딩 변경 반영
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmbeddingChange(EmbeddingChange change) {
+        upsert(change.knowledgeId(), change.embedding());
+    }
+
+    /**
+     * 지식 임베딩 추가 또는 교체
+    public void upsert(Long knowledgeId, byte[] embedding) {
+        if (embedding == null) {
+            remove(knowledgeId);
+            return;
+        }
+        vectors.upsert(knowledgeId, GLOBAL_SCOPE, GLOBAL_SCOPE, embedding);
+    }
+
+    /**
+     * 지식 임베딩 제거
+     */
+    public void remove(Long knowledgeId) {
+        if (knowledgeId != null) {
+            vectors.remove(knowledgeId);
+        }
+    }
+
+    /**
+     * top-k 유사 지식 검색
+     */
+    public List<HnswIndex.Hit> search(float[] query, int topK) {
+        HnswIndex current = vectors.index();
+        if (current == null || query == null || query.length != current.dimension()) {
+            return Collections.emptyList();
+        }
+        return current.search(query, topK);
+    }
+
+    /**
+     * 저장소에 보관된 지식 임베딩 (정규화된 벡터, 없으면 null)
+     */
+    public float[] vectorOf(Long knowledgeId) {
+        return knowledgeId != null ? vectors.vectorOf(knowledgeId) : null;
+    }
+
+    public boolean isReady() {
+        return vectors.isReady();
+    }
+
+    public int size() {
+        return vectors.size();
+    }
+
+    @Override
+    public List<Long> findIdsAfter(long afterId, int limit) {
+        return knowledgeRepository.findEmbeddedIdsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<SyncedVectorIndex.Row> findByIds(List<Long> ids) {
+        return toRows(knowledgeRepository.findEmbeddingsByIdIn(ids));
+    }
+
+    @Override
+    public List<SyncedVectorIndex.Row> findChangedSince(LocalDateTime since, long afterId, int limit) {
+        return toRows(knowledgeRepository.findEmbeddingsChangedSince(since, afterId, PageRequest.of(0, limit)));
+    }
+
+    private static List<SyncedVectorIndex.Row> toRows(List<KnowledgeEmbeddingProjection> projections) {
+        return projections.stream()
+                .map(row -> new SyncedVectorIndex.Row(row.getId(), GLOBAL_SCOPE, GLOBAL_SCOPE, row.getEmbedding()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 지식 임베딩 변경 이벤트 (엔티티 콜백 시점의 값, embedding이 null이면 제거)
+     */
+    public record EmbeddingChange(Long knowledgeId, byte[] embedding) {
+    }
+}
@@ -1,13 +1,63 @@
 package com.agi.learning.model.controller;
 
+import com.agi.learning.model.dto.response.LoadedModelDto;
+import com.agi.learning.model.dto.response.ModelInfoDto;
+import com.agi.learning.model.service.ModelService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 모델 관리 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/learning/models")
+@RequiredArgsConstructor
 public class ModelController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final ModelService modelService;
+    
+    /**
+     * 모델 정보 조회
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ModelInfoDto> getModel(@PathVariable String id) {
+        return ResponseEntity.ok(modelService.getModel(id));
+    }
+    
+    /**
+     * 메모리에 적재된 모델 목록
+     */
+    @GetMapping("/loaded")
+    public ResponseEntity<List<LoadedModelDto>> getLoadedModels() {
+        return ResponseEntity.ok(modelService.getLoadedModels());
+    }
+    
+    /**
+     * 모델 적재 (pinned=true면 메모리 예산 초과 시에도 내리지 않음)
+     */
+    @PostMapping("/{id}/load")
+    public ResponseEntity<LoadedModelDto> loadModel(@PathVariable String id,
+                                                    @RequestParam(required = false) String version,
+                                                    @RequestParam(defaultValue = "false") boolean pinned) {
+        return ResponseEntity.ok(modelService.loadModel(id, version, pinned));
+    }
+    
+    /**
+     * 모델 내리기
+     */
+    @DeleteMapping("/{id}/load")
+    public ResponseEntity<Void> unloadModel(@PathVariable String id,
+                                            @RequestParam(required = false) String version) {
+        modelService.unloadModel(id, version);
+        return ResponseEntity.noContent().build();
+    }
 }
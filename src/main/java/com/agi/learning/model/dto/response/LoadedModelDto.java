@@ -0,0 +1,27 @@
+package com.agi.learning.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadedModelDto {
+    
+    private String modelId;
+    
+    private String version;
+    
+    private Long sizeBytes;
+    
+    private Boolean pinned;
+    
+    private LocalDateTime loadedAt;
+    
+    private LocalDateTime lastAccessedAt;
+}
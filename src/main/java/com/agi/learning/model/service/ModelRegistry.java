@@ -0,0 +1,345 @@
+package com.agi.learning.model.service;
+
+import com.agi.learning.model.entity.Model;
+import com.agi.learning.model.repository.ModelRepository;
+import com.agi.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.deeplearning4j.nn.graph.ComputationGraph;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.util.ModelSerializer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 메모리에 적재된 DL4J 모델 레지스트리
+ *
+ * 모델은 (id, version) 단위로 처음 요청될 때 {@code dl4j.model.path/{id}/{version}.zip}
+ * (버전이 없으면 {@code {id}.zip})에서 적재되며, 같은 모델에 대한 동시 요청은 하나의 적재를 공유합니다.
+ * 적재된 모델 크기는 {@code Model.parametersCount} x 파라미터당 바이트로 추정하고,
+ * 합계가 메모리 예산을 넘으면 고정(pinned)되지 않은 모델을 가장 오래 사용되지 않은 순으로 내립니다.
+ */
+@Slf4j
+@Component
+public class ModelRegistry {
+
+    /**
+     * 모델 식별자 (version이 null이면 버전 없는 모델 파일)
+     */
+    public record ModelKey(String modelId, String version) {
+
+        public static ModelKey parse(String value) {
+            int separator = value.indexOf(':');
+            return separator < 0
+                    ? new ModelKey(value.trim(), null)
+                    : new ModelKey(value.substring(0, separator).trim(), value.substring(separator + 1).trim());
+        }
+
+        @Override
+        public String toString() {
+            return version == null ? modelId : modelId + ":" + version;
+        }
+    }
+
+    /**
+     * 적재된 모델
+     */
+    public static final class LoadedModel {
+
+        private final ModelKey key;
+        private final org.deeplearning4j.nn.api.Model network;
+        private final long sizeBytes;
+        private final LocalDateTime loadedAt;
+        private volatile boolean pinned;
+        private volatile LocalDateTime lastAccessedAt;
+
+        LoadedModel(ModelKey key, org.deeplearning4j.nn.api.Model network, long sizeBytes) {
+            this.key = key;
+            this.network = network;
+            this.sizeBytes = sizeBytes;
+            this.loadedAt = LocalDateTime.now();
+            this.lastAccessedAt = loadedAt;
+        }
+
+        /**
+         * 추론 (학습 모드 아님)
+         */
+        public INDArray output(INDArray input) {
+            if (network instanceof MultiLayerNetwork multiLayerNetwork) {
+                return multiLayerNetwork.output(input, false);
+            }
+            return ((ComputationGraph) network).outputSingle(false, input);
+        }
+
+        public ModelKey getKey() {
+            return key;
+        }
+
+        public org.deeplearning4j.nn.api.Model getNetwork() {
+            return network;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public boolean isPinned() {
+            return pinned;
+        }
+
+        public LocalDateTime getLoadedAt() {
+            return loadedAt;
+        }
+
+        public LocalDateTime getLastAccessedAt() {
+            return lastAccessedAt;
+        }
+    }
+
+    private final ModelRepository modelRepository;
+    private final Path basePath;
+    private final long memoryBudgetBytes;
+    private final int bytesPerParameter;
+    private final long loadTimeoutMillis;
+    private final List<String> prewarm;
+    private final ExecutorService loader;
+
+    /** 적재 중이거나 적재된 모델 (동시 첫 요청이 같은 Future를 공유) */
+    private final Map<ModelKey, CompletableFuture<LoadedModel>> models = new ConcurrentHashMap<>();
+    /** 적재 완료된 모델의 사용 순서 (접근 순서 LRU, this로 보호) */
+    private final LinkedHashMap<ModelKey, LoadedModel> residents = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    public ModelRegistry(ModelRepository modelRepository,
+                         @Value("${dl4j.model.path}") String basePath,
+                         @Value("${dl4j.model.registry.memory-budget-mb:2048}") long memoryBudgetMb,
+                         @Value("${dl4j.model.registry.bytes-per-parameter:4}") int bytesPerParameter,
+                         @Value("${dl4j.model.registry.load-timeout-ms:60000}") long loadTimeoutMillis,
+                         @Value("${dl4j.model.registry.loader-threads:2}") int loaderThreads,
+                         @Value("${dl4j.model.registry.prewarm:}") List<String> prewarm) {
+        this.modelRepository = modelRepository;
+        this.basePath = Paths.get(basePath);
+        this.memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+        this.bytesPerParameter = bytesPerParameter;
+        this.loadTimeoutMillis = loadTimeoutMillis;
+        this.prewarm = prewarm;
+        AtomicInteger sequence = new AtomicInteger();
+        this.loader = Executors.newFixedThreadPool(Math.max(1, loaderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "model-loader-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 기동 후 지정 모델(id 또는 id:version)을 고정 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmOnStartup() {
+        for (String value : prewarm) {
+            if (value.isBlank()) {
+                continue;
+            }
+            ModelKey key = ModelKey.parse(value);
+            loadAsync(key).whenComplete((loaded, error) -> {
+                if (error != null) {
+                    log.warn("Model prewarm failed: {}", key, error);
+                } else {
+                    loaded.pinned = true;
+                }
+            });
+        }
+    }
+
+    /**
+     * 적재된 모델 조회 (없으면 적재를 기다림)
+     */
+    public LoadedModel acquire(ModelKey key) {
+        CompletableFuture<LoadedModel> future = loadAsync(key);
+        try {
+            LoadedModel loaded = future.get(loadTimeoutMillis, TimeUnit.MILLISECONDS);
+            touch(loaded);
+            return loaded;
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Model load timed out: " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Model load interrupted: " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Model load failed: " + key, cause);
+        }
+    }
+
+    /**
+     * 비동기 적재 (이미 적재 중이거나 적재된 경우 같은 Future 반환, 실패한 적재는 다음 요청에서 재시도)
+     */
+    public CompletableFuture<LoadedModel> loadAsync(ModelKey key) {
+        CompletableFuture<LoadedModel> future = models.computeIfAbsent(key,
+                k -> CompletableFuture.supplyAsync(() -> load(k), loader));
+        future.whenComplete((loaded, error) -> {
+            if (error != null) {
+                models.remove(key, future);
+            } else if (models.get(key) != future) {
+                // 적재 도중 unload된 경우
+                release(loaded);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 고정 적재 (메모리 예산 초과 시에도 내리지 않음)
+     */
+    public LoadedModel pin(ModelKey key) {
+        LoadedModel loaded = acquire(key);
+        loaded.pinned = true;
+        return loaded;
+    }
+
+    /**
+     * 모델 내리기
+     */
+    public boolean unload(ModelKey key) {
+        CompletableFuture<LoadedModel> future = models.remove(key);
+        if (future == null) {
+            return false;
+        }
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            release(future.join());
+        }
+        log.info("Model unloaded: {}", key);
+        return true;
+    }
+
+    /**
+     * 적재된 모델 목록 (최근 사용 순)
+     */
+    public synchronized List<LoadedModel> residents() {
+        List<LoadedModel> result = new ArrayList<>(residents.values());
+        Collections.reverse(result);
+        return result;
+    }
+
+    public synchronized long residentBytes() {
+        return residentBytes;
+    }
+
+    public long memoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    private LoadedModel load(ModelKey key) {
+        Model model = modelRepository.findById(key.modelId())
+                .orElseThrow(() -> new ResourceNotFoundException("Model", "id", key.modelId()));
+        if (key.version() != null && !Objects.equals(key.version(), model.getVersion())) {
+            throw new ResourceNotFoundException("Model", "version", key.version());
+        }
+        Path file = fileOf(key);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("Model file not found: " + file);
+        }
+
+        long started = System.currentTimeMillis();
+        org.deeplearning4j.nn.api.Model network = restore(file.toFile());
+        long parameters = model.getParametersCount() != null ? model.getParametersCount() : network.numParams();
+        LoadedModel loaded = new LoadedModel(key, network, parameters * bytesPerParameter);
+        admit(loaded);
+        log.info("Model loaded: {} ({} params, {} ms)", key, parameters, System.currentTimeMillis() - started);
+        return loaded;
+    }
+
+    private Path fileOf(ModelKey key) {
+        return key.version() == null
+                ? basePath.resolve(key.modelId() + ".zip")
+                : basePath.resolve(key.modelId()).resolve(key.version() + ".zip");
+    }
+
+    private static org.deeplearning4j.nn.api.Model restore(File file) {
+        try {
+            return ModelSerializer.restoreMultiLayerNetwork(file, false);
+        } catch (Exception multiLayerFailure) {
+            try {
+                return ModelSerializer.restoreComputationGraph(file, false);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to load model: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * 적재 완료 모델 등록 후 예산을 넘는 만큼 LRU 순으로 내림
+     */
+    private void admit(LoadedModel loaded) {
+        List<ModelKey> evicted = new ArrayList<>();
+        synchronized (this) {
+            residents.put(loaded.key, loaded);
+            residentBytes += loaded.sizeBytes;
+            Iterator<LoadedModel> iterator = residents.values().iterator();
+            while (residentBytes > memoryBudgetBytes && iterator.hasNext()) {
+                LoadedModel candidate = iterator.next();
+                if (candidate == loaded || candidate.pinned) {
+                    continue;
+                }
+                iterator.remove();
+                residentBytes -= candidate.sizeBytes;
+                evicted.add(candidate.key);
+            }
+            if (residentBytes > memoryBudgetBytes) {
+                log.warn("Model memory budget exceeded by pinned or in-use models: {} / {} bytes",
+                        residentBytes, memoryBudgetBytes);
+            }
+        }
+        for (ModelKey key : evicted) {
+            models.remove(key);
+            log.info("Model evicted (LRU): {}", key);
+        }
+    }
+
+    private synchronized void release(LoadedModel loaded) {
+        if (residents.get(loaded.key) == loaded) {
+            residents.remove(loaded.key);
+            residentBytes -= loaded.sizeBytes;
+        }
+    }
+
+    private synchronized void touch(LoadedModel loaded) {
+        // 내려간 모델을 아직 참조 중인 호출자는 LRU 순서를 되살리지 않음
+        if (residents.get(loaded.key) == loaded) {
+            loaded.lastAccessedAt = LocalDateTime.now();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+}
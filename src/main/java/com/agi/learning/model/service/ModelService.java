@@ -1,11 +1,93 @@
 package com.agi.learning.model.service;
 
+import com.agi.common.exception.ResourceNotFoundException;
+import com.agi.learning.model.dto.response.LoadedModelDto;
+import com.agi.learning.model.dto.response.ModelInfoDto;
+import com.agi.learning.model.entity.Model;
+import com.agi.learning.model.repository.ModelRepository;
+import com.agi.learning.model.service.ModelRegistry.LoadedModel;
+import com.agi.learning.model.service.ModelRegistry.ModelKey;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * 모델 관리 관련 서비스
+ *
+ * 모델 적재는 수십 초까지 걸릴 수 있으므로 레지스트리 호출은 트랜잭션 밖에서 합니다.
  */
 @Service
+@RequiredArgsConstructor
 public class ModelService {
-    // 서비스 구현체는 추후 개발
+    
+    private final ModelRepository modelRepository;
+    private final ModelRegistry modelRegistry;
+    
+    /**
+     * 모델 정보 조회
+     */
+    @Transactional(readOnly = true)
+    public ModelInfoDto getModel(String id) {
+        Model model = modelRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Model", "id", id));
+        return toDto(model);
+    }
+    
+    /**
+     * 모델 적재
+     */
+    public LoadedModelDto loadModel(String id, String version, boolean pinned) {
+        ModelKey key = new ModelKey(id, version);
+        LoadedModel loaded = pinned ? modelRegistry.pin(key) : modelRegistry.acquire(key);
+        return toDto(loaded);
+    }
+    
+    /**
+     * 모델 내리기
+     */
+    public void unloadModel(String id, String version) {
+        if (!modelRegistry.unload(new ModelKey(id, version))) {
+            throw new ResourceNotFoundException("LoadedModel", "id", id);
+        }
+    }
+    
+    /**
+     * 적재된 모델 목록 (최근 사용 순)
+     */
+    public List<LoadedModelDto> getLoadedModels() {
+        return modelRegistry.residents().stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    private LoadedModelDto toDto(LoadedModel loaded) {
+        return LoadedModelDto.builder()
+                .modelId(loaded.getKey().modelId())
+                .version(loaded.getKey().version())
+                .sizeBytes(loaded.getSizeBytes())
+                .pinned(loaded.isPinned())
+                .loadedAt(loaded.getLoadedAt())
+                .lastAccessedAt(loaded.getLastAccessedAt())
+                .build();
+    }
+    
+    private ModelInfoDto toDto(Model model) {
+        return ModelInfoDto.builder()
+                .id(model.getId())
+                .name(model.getName())
+                .modelType(model.getModelType().name())
+                .version(model.getVersion())
+                .status(model.getStatus())
+                .metrics(model.getMetrics())
+                .hyperParameters(model.getHyperParameters())
+                .createdAt(model.getCreatedAt())
+                .lastTrainedAt(model.getLastTrainedAt())
+                .trainingTimeSeconds(model.getTrainingTimeSeconds())
+                .datasetId(model.getDatasetId())
+                .parametersCount(model.getParametersCount())
+                .build();
+    }
 }
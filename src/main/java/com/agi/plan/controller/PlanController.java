@@ -1,13 +1,56 @@
 package com.agi.plan.controller;
 
+import com.agi.plan.dto.request.PlanCreateRequest;
+import com.agi.plan.dto.response.PlanDto;
+import com.agi.plan.service.PlanService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 계획 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/plans")
+@RequiredArgsConstructor
 public class PlanController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final PlanService planService;
+    
+    @PostMapping
+    public ResponseEntity<PlanDto> createPlan(@Valid @RequestBody PlanCreateRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(planService.createPlan(request));
+    }
+    
+    @GetMapping("/{planId}")
+    public ResponseEntity<PlanDto> getPlan(@PathVariable Long planId) {
+        return ResponseEntity.ok(planService.getPlan(planId));
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<PlanDto>> getPlansByUser(@RequestParam Long userId) {
+        return ResponseEntity.ok(planService.getPlansByUser(userId));
+    }
+    
+    /**
+     * 계획 실행 (독립된 단계는 병렬로, 실행은 비동기)
+     *
+     * 실패한 계획은 입력이 바뀌지 않은 완료 단계를 건너뛰고 이어서 실행합니다 (fresh=true면 처음부터).
+     */
+    @PostMapping("/{planId}/execute")
+    public ResponseEntity<PlanDto> executePlan(@PathVariable Long planId,
+                                               @RequestParam(defaultValue = "false") boolean fresh) {
+        planService.executePlan(planId, fresh);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(planService.getPlan(planId));
+    }
 }
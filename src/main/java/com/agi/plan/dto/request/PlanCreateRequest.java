@@ -1,9 +1,12 @@
 package com.agi.plan.dto.request;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
@@ -12,6 +15,8 @@ import java.util.List;
  */
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class PlanCreateRequest {
     
     @NotNull(message = "사용자 ID는 필수입니다")
@@ -22,5 +27,6 @@ public class PlanCreateRequest {
     
     private String description;
     
+    @Valid
     private List<PlanStepRequest> steps;
 }
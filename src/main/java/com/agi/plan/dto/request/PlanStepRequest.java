@@ -2,14 +2,20 @@ package com.agi.plan.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
 
 /**
  * 계획 단계 요청 DTO
  */
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class PlanStepRequest {
     
     @NotBlank(message = "단계 내용은 필수입니다")
@@ -21,4 +27,9 @@ public class PlanStepRequest {
     private String expectedResult;
     
     private Integer estimatedDuration;
+    
+    /**
+     * 선행 단계의 order 목록
+     */
+    private List<Integer> dependsOn;
 }
@@ -2,6 +2,7 @@ package com.agi.plan.dto.response;
 
 import com.agi.plan.entity.Plan;
 import com.agi.plan.enums.PlanStatus;
+import com.agi.plan.repository.PlanQueryRepository.PlanView;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -46,4 +47,24 @@ public class PlanDto {
                         null)
                 .build();
     }
+    
+    /**
+     * 조회 프로젝션으로부터 PlanDto 객체 생성
+     * 
+     * @param view 계획 프로젝션
+     * @param steps 단계 DTO 목록
+     * @return PlanDto 객체
+     */
+    public static PlanDto fromView(PlanView view, List<PlanStepDto> steps) {
+        return PlanDto.builder()
+                .id(view.id())
+                .userId(view.userId())
+                .title(view.title())
+                .description(view.description())
+                .status(view.status())
+                .createdAt(view.createdAt())
+                .updatedAt(view.updatedAt())
+                .steps(steps)
+                .build();
+    }
 }
@@ -2,10 +2,14 @@ package com.agi.plan.dto.response;
 
 import com.agi.plan.entity.PlanStep;
 import com.agi.plan.enums.PlanStepStatus;
+import com.agi.plan.repository.PlanQueryRepository.PlanStepView;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 계획 단계 정보 응답 DTO
@@ -24,6 +28,7 @@ public class PlanStepDto {
     private Integer actualDuration;
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
+    private List<Long> dependencies;
 
     /**
      * PlanStep 엔티티로부터 PlanStepDto 객체 생성
@@ -39,12 +44,45 @@ public class PlanStepDto {
                 .order(planStep.getOrderIndex())
                 .status(planStep.getStatus())
                 .actualResult(planStep.getResult())
+                .actualDuration(actualDuration(planStep.getStartedAt(), planStep.getCompletedAt()))
+                .startedAt(planStep.getStartedAt())
+                .completedAt(planStep.getCompletedAt())
+                .dependencies(new ArrayList<>(planStep.getDependencies()))
                 // 아래 필드들은 엔티티에 없으므로 null로 설정
                 .expectedResult(null)
                 .estimatedDuration(null)
-                .actualDuration(null)
-                .startedAt(null)
-                .completedAt(planStep.getCompletedAt())
                 .build();
     }
+    
+    /**
+     * 조회 프로젝션으로부터 PlanStepDto 객체 생성
+     * 
+     * @param view 단계 프로젝션
+     * @param dependencies 선행 단계 ID 목록
+     * @return PlanStepDto 객체
+     */
+    public static PlanStepDto fromView(PlanStepView view, List<Long> dependencies) {
+        return PlanStepDto.builder()
+                .id(view.id())
+                .planId(view.planId())
+                .content(view.description())
+                .order(view.orderIndex())
+                .status(view.status())
+                .actualResult(view.result())
+                .actualDuration(actualDuration(view.startedAt(), view.completedAt()))
+                .startedAt(view.startedAt())
+                .completedAt(view.completedAt())
+                .dependencies(dependencies)
+                .build();
+    }
+    
+    /**
+     * 실제 소요 시간 (초, 시작/종료 시각이 모두 있을 때만)
+     */
+    private static Integer actualDuration(LocalDateTime startedAt, LocalDateTime completedAt) {
+        if (startedAt == null || completedAt == null) {
+            return null;
+        }
+        return (int) Duration.between(startedAt, completedAt).toSeconds();
+    }
 }
@@ -13,7 +13,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "plan")
+@Table(name = "plan", indexes = {
+        @Index(name = "idx_plan_heartbeat", columnList = "status, heartbeatAt"),
+        @Index(name = "idx_plan_worker", columnList = "workerId, status")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Plan {
@@ -42,6 +45,14 @@ public class Plan {
     
     private LocalDateTime completedAt;
     
+    /** 실행 중인 노드 (실행기가 JDBC로만 기록) */
+    @Column(insertable = false, updatable = false)
+    private String workerId;
+    
+    /** 실행 노드의 마지막 생존 신호 (오래되면 FAILED로 전환) */
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime heartbeatAt;
+    
     @OneToMany(mappedBy = "plan", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PlanStep> steps = new ArrayList<>();
     
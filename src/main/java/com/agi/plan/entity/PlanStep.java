@@ -40,11 +40,19 @@ public class PlanStep {
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
+    private LocalDateTime startedAt;
+    
     private LocalDateTime completedAt;
     
     @Column(columnDefinition = "TEXT")
     private String result;
     
+    /**
+     * result를 만든 입력(단계 설명, 선행 단계 결과)의 SHA-256 (재실행 시 같으면 result 재사용)
+     */
+    @Column(name = "input_hash", length = 64)
+    private String inputHash;
+    
     @ElementCollection
     @CollectionTable(
         name = "plan_step_dependency",
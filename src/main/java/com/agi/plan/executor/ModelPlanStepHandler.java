@@ -0,0 +1,46 @@
+package com.agi.plan.executor;
+
+import com.agi.ai.generation.enums.GenerationModelType;
+import com.agi.ai.generation.service.GenerationModelClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 기본 단계 실행 (단계 설명과 선행 단계 결과로 생성 모델 호출)
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ModelPlanStepHandler implements PlanStepHandler {
+    
+    private final GenerationModelClient modelClient;
+    private final GenerationModelType modelType;
+    
+    public ModelPlanStepHandler(GenerationModelClient modelClient,
+                                @Value("${ai.generation.default-model-type:GPT_4}") GenerationModelType modelType) {
+        this.modelClient = modelClient;
+        this.modelType = modelType;
+    }
+    
+    @Override
+    public boolean supports(PlanStepContext context) {
+        return true;
+    }
+    
+    @Override
+    public String execute(PlanStepContext context) {
+        StringBuilder prompt = new StringBuilder();
+        if (!context.dependencyResults().isEmpty()) {
+            prompt.append("이전 단계 결과:\n");
+            for (Map.Entry<Long, String> entry : context.dependencyResults().entrySet()) {
+                prompt.append("- [").append(entry.getKey()).append("] ").append(entry.getValue()).append('\n');
+            }
+            prompt.append('\n');
+        }
+        prompt.append("수행할 단계: ").append(context.description());
+        return modelClient.generate(modelType, prompt.toString(), null, null, null).getText();
+    }
+}
@@ -0,0 +1,169 @@
+package com.agi.plan.executor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 계획 단계 의존성 그래프 (불변, 생성 시 한 번 검증)
+ *
+ * 단계는 0부터의 인덱스로 다루며, Kahn 위상 정렬로 순환을 검출합니다.
+ * height는 해당 단계부터 끝까지 가장 긴 경로의 단계 수로, 임계 경로에 있는 단계를 먼저 실행하는 데 씁니다.
+ */
+public final class PlanDag {
+
+    private final long[] ids;
+    private final Map<Long, Integer> indexById;
+    private final int[][] dependencies;
+    private final int[][] dependents;
+    private final int[] order;
+    private final int[] height;
+
+    private PlanDag(long[] ids, Map<Long, Integer> indexById, int[][] dependencies, int[][] dependents,
+                    int[] order, int[] height) {
+        this.ids = ids;
+        this.indexById = indexById;
+        this.dependencies = dependencies;
+        this.dependents = dependents;
+        this.order = order;
+        this.height = height;
+    }
+
+    /**
+     * @param prerequisites 단계 ID → 선행 단계 ID (반복 순서가 같은 깊이 단계의 실행 순서)
+     * @throws IllegalArgumentException 없는 단계를 참조하거나 순환이 있는 경우
+     */
+    public static PlanDag build(Map<Long, ? extends Collection<Long>> prerequisites) {
+        int size = prerequisites.size();
+        long[] ids = new long[size];
+        Map<Long, Integer> indexById = new HashMap<>();
+        int next = 0;
+        for (Long id : prerequisites.keySet()) {
+            ids[next] = id;
+            indexById.put(id, next++);
+        }
+        int[][] dependencies = new int[size][];
+        List<List<Integer>> dependentLists = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dependentLists.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            Set<Integer> unique = new LinkedHashSet<>();
+            for (Long dependencyId : prerequisites.get(ids[i])) {
+                Integer dependency = indexById.get(dependencyId);
+                if (dependency == null) {
+                    throw new IllegalArgumentException("Step " + ids[i] + " depends on unknown step " + dependencyId);
+                }
+                if (dependency == i) {
+                    throw new IllegalArgumentException("Step " + ids[i] + " depends on itself");
+                }
+                if (unique.add(dependency)) {
+                    dependentLists.get(dependency).add(i);
+                }
+            }
+            dependencies[i] = unique.stream().mapToInt(Integer::intValue).toArray();
+        }
+        int[][] dependents = new int[size][];
+        for (int i = 0; i < size; i++) {
+            dependents[i] = dependentLists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Kahn 위상 정렬
+        int[] indegree = new int[size];
+        for (int i = 0; i < size; i++) {
+            indegree[i] = dependencies[i].length;
+        }
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            if (indegree[i] == 0) {
+                ready.add(i);
+            }
+        }
+        int[] order = new int[size];
+        int sorted = 0;
+        while (!ready.isEmpty()) {
+            int current = ready.poll();
+            order[sorted++] = current;
+            for (int dependent : dependents[current]) {
+                if (--indegree[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (sorted < size) {
+            List<Long> cyclic = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (indegree[i] > 0) {
+                    cyclic.add(ids[i]);
+                }
+            }
+            throw new IllegalArgumentException("Dependency cycle among steps " + cyclic);
+        }
+
+        int[] height = new int[size];
+        for (int k = size - 1; k >= 0; k--) {
+            int current = order[k];
+            int longest = 0;
+            for (int dependent : dependents[current]) {
+                longest = Math.max(longest, height[dependent]);
+            }
+            height[current] = longest + 1;
+        }
+        return new PlanDag(ids, indexById, dependencies, dependents, order, height);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    public int indexOf(long id) {
+        Integer index = indexById.get(id);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown step: " + id);
+        }
+        return index;
+    }
+
+    public int[] dependenciesOf(int index) {
+        return dependencies[index];
+    }
+
+    public int[] dependentsOf(int index) {
+        return dependents[index];
+    }
+
+    /**
+     * 위상 정렬 순서
+     */
+    public int[] order() {
+        return order.clone();
+    }
+
+    /**
+     * index부터 끝까지 가장 긴 경로의 단계 수
+     */
+    public int heightOf(int index) {
+        return height[index];
+    }
+
+    /**
+     * 임계 경로 길이 (단계 수)
+     */
+    public int criticalPathLength() {
+        int longest = 0;
+        for (int value : height) {
+            longest = Math.max(longest, value);
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,470 @@
+package com.agi.plan.executor;
+
+import com.agi.plan.enums.PlanStatus;
+import com.agi.plan.enums.PlanStepStatus;
+import com.agi.plan.repository.PlanExecutionRepository;
+import com.agi.plan.repository.PlanExecutionRepository.StepRow;
+import com.agi.plan.repository.PlanExecutionRepository.StepUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계획 단계 DAG 병렬 실행기
+ *
+ * 선행 단계가 모두 끝난 단계만 고정 크기 풀에 넣으며, 풀 대기열은 남은 임계 경로가 긴 단계부터 꺼내므로
+ * 폭이 넓은 계획도 임계 경로 길이에 가깝게 끝납니다. 실패한 단계의 후속 단계는 SKIPPED로 처리하고
+ * 독립된 가지는 계속 실행합니다. 단계 상태는 모아 두었다가 batch-size마다, flush-interval마다,
+ * 그리고 계획이 끝날 때 JDBC 배치로 기록합니다.
+ * 완료 단계에는 입력 해시를 함께 남겨, 재실행 시 입력이 같은 단계는 실행 없이 저장된 결과를 씁니다.
+ * 실행 중인 계획에는 이 노드의 ID와 생존 신호를 기록하며, 생존 신호가 끊긴 계획은 어느 노드든 FAILED로 돌려
+ * 다시 실행할 수 있게 합니다.
+ */
+@Slf4j
+@Component
+public class PlanExecutor {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int FINAL_FLUSH_ATTEMPTS = 3;
+    private static final long FINAL_FLUSH_BACKOFF_MILLIS = 200;
+
+    private final PlanExecutionRepository planExecutionRepository;
+    private final List<PlanStepHandler> handlers;
+    private final int batchSize;
+    private final String workerId;
+    private final long staleAfterMillis;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, PlanRun> runs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public PlanExecutor(PlanExecutionRepository planExecutionRepository,
+                        List<PlanStepHandler> handlers,
+                        @Value("${plan.executor.parallelism:8}") int parallelism,
+                        @Value("${plan.executor.batch-size:32}") int batchSize,
+                        @Value("${plan.executor.worker-id:}") String workerId,
+                        @Value("${plan.executor.stale-after-ms:60000}") long staleAfterMillis,
+                        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.planExecutionRepository = planExecutionRepository;
+        this.handlers = handlers;
+        this.batchSize = batchSize;
+        this.workerId = workerId.isBlank() ? defaultWorkerId() : workerId;
+        this.staleAfterMillis = staleAfterMillis;
+        // 가상 스레드 모드에서도 풀 크기로 동시 실행 수와 임계 경로 우선 순서를 유지
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), workerFactory(virtualThreads));
+    }
+
+    /**
+     * 계획 실행 시작 (계획은 이미 이 노드의 ID로 IN_PROGRESS로 전환되고 재사용하지 않을 단계는 PENDING으로 초기화된 상태)
+     *
+     * @param steps dag 인덱스 순서의 단계 목록 (초기화 전 상태)
+     * @param reuse true면 COMPLETED 단계 중 입력 해시가 같은 단계는 실행하지 않고 결과 재사용
+     */
+    public void execute(Long planId, List<StepRow> steps, PlanDag dag, boolean reuse) {
+        for (int i = 0; i < dag.size(); i++) {
+            if (steps.get(i).id() != dag.idAt(i)) {
+                throw new IllegalArgumentException("Steps are not in DAG order: " + planId);
+            }
+        }
+        PlanRun run = new PlanRun(planId, steps, dag, reuse);
+        if (runs.putIfAbsent(planId, run) != null) {
+            throw new IllegalStateException("Plan is already running: " + planId);
+        }
+        log.info("Plan {} started: {} steps, critical path {}", planId, dag.size(), dag.criticalPathLength());
+        if (dag.size() == 0) {
+            finish(run);
+            return;
+        }
+        for (int i = 0; i < dag.size(); i++) {
+            if (dag.dependenciesOf(i).length == 0) {
+                submit(run, i);
+            }
+        }
+    }
+
+    public boolean isRunning(Long planId) {
+        return runs.containsKey(planId);
+    }
+
+    /**
+     * 계획 실행 노드 ID ({@link PlanExecutionRepository#claim}에 기록)
+     */
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * 쌓인 단계 상태 주기적 기록
+     */
+    @Scheduled(fixedDelayString = "${plan.executor.flush-interval-ms:500}")
+    public void flushAll() {
+        for (PlanRun run : runs.values()) {
+            flush(run, false);
+        }
+    }
+
+    /**
+     * 실행 중인 계획의 생존 신호 기록
+     */
+    @Scheduled(fixedDelayString = "${plan.executor.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (runs.isEmpty()) {
+            return;
+        }
+        try {
+            planExecutionRepository.heartbeat(workerId, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Plan heartbeat failed", e);
+        }
+    }
+
+    /**
+     * 생존 신호가 끊긴 노드의 계획을 FAILED로 전환
+     */
+    @Scheduled(fixedDelayString = "${plan.executor.recover-interval-ms:30000}")
+    public void recoverStale() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int failed = planExecutionRepository.failStale(now.minus(staleAfterMillis, ChronoUnit.MILLIS), now);
+            if (failed > 0) {
+                log.warn("Marked {} plans abandoned by their worker as FAILED", failed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stale plan recovery failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        // 끝내지 못한 계획은 기록 가능한 만큼 남기고 FAILED로 전환 (다시 실행 가능)
+        for (PlanRun run : runs.values()) {
+            flush(run, true);
+            planExecutionRepository.finish(run.planId, workerId, PlanStatus.FAILED, LocalDateTime.now());
+        }
+        runs.clear();
+    }
+
+    private void submit(PlanRun run, int index) {
+        executor.execute(new StepRun(run, index, run.dag.heightOf(index), sequence.getAndIncrement()));
+    }
+
+    private void runStep(PlanRun run, int index) {
+        StepRow step = run.steps.get(index);
+        LocalDateTime startedAt = LocalDateTime.now();
+        String inputHash = null;
+        try {
+            Map<Long, String> dependencyResults = new TreeMap<>();
+            for (int dependency : run.dag.dependenciesOf(index)) {
+                dependencyResults.put(run.dag.idAt(dependency), run.results.get(dependency));
+            }
+            PlanStepContext context = new PlanStepContext(run.planId, step.id(), step.orderIndex(),
+                    step.description(), dependencyResults);
+            PlanStepHandler handler = handlerFor(context);
+            inputHash = inputHash(handler, context);
+            String result;
+            if (run.reuse && step.status() == PlanStepStatus.COMPLETED && inputHash.equals(step.inputHash())) {
+                // 입력이 그대로인 완료 단계는 저장된 결과 재사용 (DB 상태도 그대로 둠)
+                result = step.result();
+                run.reused.incrementAndGet();
+            } else {
+                run.record(new StepUpdate(step.id(), PlanStepStatus.IN_PROGRESS, null, null, startedAt, null));
+                result = handler.execute(context);
+                run.record(new StepUpdate(step.id(), PlanStepStatus.COMPLETED, result, inputHash, startedAt,
+                        LocalDateTime.now()));
+            }
+            run.results.set(index, result);
+            for (int dependent : run.dag.dependentsOf(index)) {
+                if (run.remaining.decrementAndGet(dependent) == 0) {
+                    submit(run, dependent);
+                }
+            }
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Plan {} step {} failed: {}", run.planId, step.id(), e.toString());
+            run.failed = true;
+            run.record(new StepUpdate(step.id(), PlanStepStatus.FAILED, truncate(e.getMessage()), inputHash,
+                    startedAt, LocalDateTime.now()));
+            skipDependents(run, index);
+        }
+        if (run.pending.decrementAndGet() == 0) {
+            finish(run);
+        } else if (run.unflushedCount() >= batchSize) {
+            flush(run, false);
+        }
+    }
+
+    /**
+     * 실패한 단계에 (간접적으로) 의존하는 단계를 모두 SKIPPED로 처리
+     *
+     * 실패한 선행 단계는 remaining을 줄이지 않으므로 후속 단계가 풀에 들어가는 일은 없습니다.
+     */
+    private void skipDependents(PlanRun run, int failedIndex) {
+        LocalDateTime now = LocalDateTime.now();
+        Deque<Integer> worklist = new ArrayDeque<>();
+        worklist.push(failedIndex);
+        int skipped = 0;
+        while (!worklist.isEmpty()) {
+            for (int dependent : run.dag.dependentsOf(worklist.pop())) {
+                if (run.skipped.compareAndSet(dependent, 0, 1)) {
+                    run.record(new StepUpdate(run.dag.idAt(dependent), PlanStepStatus.SKIPPED, null, null, null, now));
+                    worklist.push(dependent);
+                    skipped++;
+                }
+            }
+        }
+        if (skipped > 0) {
+            run.pending.addAndGet(-skipped);
+        }
+    }
+
+    /**
+     * 남은 단계 상태를 기록하고 계획 종료
+     *
+     * 단계 상태를 끝내 기록하지 못하면 DB에 남은 단계가 결과와 맞지 않으므로 FAILED로 끝내 다시 실행할 수 있게 합니다.
+     */
+    private void finish(PlanRun run) {
+        boolean flushed = flushFinal(run);
+        PlanStatus status = run.failed || !flushed ? PlanStatus.FAILED : PlanStatus.COMPLETED;
+        try {
+            if (!planExecutionRepository.finish(run.planId, workerId, status, LocalDateTime.now())) {
+                log.warn("Plan {} was no longer IN_PROGRESS on this worker when finishing", run.planId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to finish plan {}", run.planId, e);
+        } finally {
+            runs.remove(run.planId);
+        }
+        log.info("Plan {} finished: {} ({} of {} steps reused)", run.planId, status, run.reused.get(), run.dag.size());
+    }
+
+    private boolean flushFinal(PlanRun run) {
+        for (int attempt = 1; attempt <= FINAL_FLUSH_ATTEMPTS; attempt++) {
+            if (flush(run, true)) {
+                return true;
+            }
+            if (attempt < FINAL_FLUSH_ATTEMPTS) {
+                try {
+                    Thread.sleep(FINAL_FLUSH_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        log.error("Plan {} step states could not be saved; marking the plan FAILED", run.planId);
+        return false;
+    }
+
+    /**
+     * 쌓인 단계 상태 기록 (같은 단계는 마지막 상태만)
+     *
+     * @param wait false면 다른 스레드가 기록 중일 때 건너뜀
+     * @return 쌓인 상태를 모두 기록했으면 true (건너뛰었거나 실패하면 false)
+     */
+    private boolean flush(PlanRun run, boolean wait) {
+        if (wait) {
+            run.flushLock.lock();
+        } else if (!run.flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            StepUpdate update;
+            while ((update = run.updates.poll()) != null) {
+                run.queued.decrementAndGet();
+                run.unsaved.put(update.id(), update);
+            }
+            if (run.unsaved.isEmpty()) {
+                return true;
+            }
+            // 실패하면 남겨 두고 다음 기록 때 다시 시도
+            planExecutionRepository.saveSteps(new ArrayList<>(run.unsaved.values()));
+            run.unsaved.clear();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to save step states of plan {}", run.planId, e);
+            return false;
+        } finally {
+            run.flushLock.unlock();
+        }
+    }
+
+    private PlanStepHandler handlerFor(PlanStepContext context) {
+        for (PlanStepHandler handler : handlers) {
+            if (handler.supports(context)) {
+                return handler;
+            }
+        }
+        throw new IllegalStateException("No handler for plan step: " + context.stepId());
+    }
+
+    /**
+     * 단계 입력의 SHA-256 (실행 구현, 단계 설명, 선행 단계 ID와 결과)
+     *
+     * 각 값은 길이를 앞에 붙여 이어 붙이므로 경계가 달라지면 해시도 달라집니다.
+     */
+    static String inputHash(PlanStepHandler handler, PlanStepContext context) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, handler.getClass().getName());
+            update(digest, context.description());
+            for (Map.Entry<Long, String> entry : context.dependencyResults().entrySet()) {
+                update(digest, String.valueOf(entry.getKey()));
+                update(digest, entry.getValue());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static String defaultWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static ThreadFactory workerFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name("plan-worker-", 1).factory();
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "plan-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 계획 한 번의 실행 상태
+     */
+    private static final class PlanRun {
+
+        private final Long planId;
+        private final List<StepRow> steps;
+        private final PlanDag dag;
+        private final boolean reuse;
+        /** 단계별 아직 끝나지 않은 선행 단계 수 */
+        private final AtomicIntegerArray remaining;
+        private final AtomicIntegerArray skipped;
+        private final AtomicReferenceArray<String> results;
+        /** 종료 상태에 이르지 않은 단계 수 */
+        private final AtomicInteger pending;
+        private final ConcurrentLinkedQueue<StepUpdate> updates = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        /** 기록 대기 중인 단계 상태 (flushLock 보유 시에만 접근) */
+        private final Map<Long, StepUpdate> unsaved = new LinkedHashMap<>();
+        private final AtomicInteger reused = new AtomicInteger();
+        private volatile boolean failed;
+
+        private PlanRun(Long planId, List<StepRow> steps, PlanDag dag, boolean reuse) {
+            this.planId = planId;
+            this.steps = steps;
+            this.dag = dag;
+            this.reuse = reuse;
+            this.remaining = new AtomicIntegerArray(dag.size());
+            for (int i = 0; i < dag.size(); i++) {
+                remaining.set(i, dag.dependenciesOf(i).length);
+            }
+            this.skipped = new AtomicIntegerArray(dag.size());
+            this.results = new AtomicReferenceArray<>(dag.size());
+            this.pending = new AtomicInteger(dag.size());
+        }
+
+        private void record(StepUpdate update) {
+            updates.add(update);
+            queued.incrementAndGet();
+        }
+
+        private int unflushedCount() {
+            return queued.get();
+        }
+    }
+
+    /**
+     * 작업자 풀의 우선순위 큐 항목 (남은 임계 경로가 긴 순, 같으면 준비된 순)
+     */
+    private final class StepRun implements Runnable, Comparable<StepRun> {
+
+        private final PlanRun run;
+        private final int index;
+        private final int height;
+        private final long sequence;
+
+        private StepRun(PlanRun run, int index, int height, long sequence) {
+            this.run = run;
+            this.index = index;
+            this.height = height;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            runStep(run, index);
+        }
+
+        @Override
+        public int compareTo(StepRun other) {
+            if (height != other.height) {
+                return Integer.compare(other.height, height);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
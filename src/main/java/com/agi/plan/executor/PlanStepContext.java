@@ -0,0 +1,12 @@
+package com.agi.plan.executor;
+
+import java.util.Map;
+
+/**
+ * 단계 실행 입력
+ *
+ * @param dependencyResults 선행 단계 ID → 결과 (모두 COMPLETED인 상태)
+ */
+public record PlanStepContext(Long planId, Long stepId, Integer orderIndex, String description,
+                              Map<Long, String> dependencyResults) {
+}
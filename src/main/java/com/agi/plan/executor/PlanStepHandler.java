@@ -0,0 +1,17 @@
+package com.agi.plan.executor;
+
+/**
+ * 계획 단계 실행 구현
+ *
+ * 여러 구현이 있으면 @Order 순서대로 처음 supports가 참인 구현이 단계를 실행합니다.
+ * 실행은 실행기 작업자 스레드에서 이루어지며, 예외를 던지면 단계가 FAILED로 기록됩니다.
+ */
+public interface PlanStepHandler {
+    
+    boolean supports(PlanStepContext context);
+    
+    /**
+     * @return 단계 결과 (plan_step.result에 저장)
+     */
+    String execute(PlanStepContext context) throws Exception;
+}
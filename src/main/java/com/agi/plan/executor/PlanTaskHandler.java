@@ -0,0 +1,48 @@
+package com.agi.plan.executor;
+
+import com.agi.plan.service.PlanService;
+import com.agi.system.task.executor.TaskContext;
+import com.agi.system.task.executor.TaskHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 계획 실행 태스크 (scheduledAt으로 계획 실행을 예약하거나 다른 노드에 맡길 때)
+ *
+ * 파라미터는 {"planId": 1, "fresh": false}이며, 태스크는 계획 실행을 시작하면 완료됩니다.
+ * 실행 결과는 계획 상태로 확인합니다.
+ */
+@Component
+public class PlanTaskHandler implements TaskHandler {
+
+    public static final String TYPE = "plan.execute";
+
+    private final PlanService planService;
+
+    public PlanTaskHandler(PlanService planService) {
+        this.planService = planService;
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Object handle(TaskContext context) {
+        Parameters parameters = context.getParameters(Parameters.class);
+        if (parameters == null || parameters.planId() == null) {
+            throw new IllegalArgumentException("planId 파라미터가 필요합니다");
+        }
+        boolean fresh = Boolean.TRUE.equals(parameters.fresh());
+        planService.executePlan(parameters.planId(), fresh);
+        return Map.of("planId", parameters.planId(), "fresh", fresh);
+    }
+
+    /**
+     * 태스크 파라미터
+     */
+    public record Parameters(Long planId, Boolean fresh) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.agi.plan.repository;
+
+import com.agi.plan.enums.PlanStatus;
+import com.agi.plan.enums.PlanStepStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 계획 실행기 전용 JDBC 연산
+ *
+ * 실행 중에는 엔티티를 붙잡지 않고 스냅샷(StepRow)으로 다루며, 단계 상태는 일괄 UPDATE로,
+ * 계획 상태는 현재 상태를 조건으로 한 UPDATE로 전환합니다.
+ * 실행 중인 계획에는 실행 노드와 생존 신호를 남겨, 노드가 죽으면 다른 노드가 FAILED로 돌려 다시 실행할 수 있게 합니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PlanExecutionRepository {
+    
+    private static final String UPDATE_STEP_SQL = "UPDATE plan_step SET status = ?, result = ?, input_hash = ?, "
+            + "started_at = ?, completed_at = ? WHERE id = ?";
+    
+    /**
+     * 실행 대상 단계 스냅샷
+     */
+    public record StepRow(Long id, Integer orderIndex, String description, String dependsOn,
+                          PlanStepStatus status, String result, String inputHash) {
+    }
+    
+    /**
+     * 단계 상태 기록
+     */
+    public record StepUpdate(Long id, PlanStepStatus status, String result, String inputHash,
+                             LocalDateTime startedAt, LocalDateTime completedAt) {
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * 계획의 단계 (orderIndex 순)
+     */
+    public List<StepRow> findSteps(Long planId) {
+        return jdbcTemplate.query("SELECT id, order_index, description, depends_on, status, result, input_hash "
+                        + "FROM plan_step WHERE plan_id = ? ORDER BY order_index, id",
+                (rs, rowNum) -> new StepRow(
+                        rs.getLong("id"),
+                        rs.getInt("order_index"),
+                        rs.getString("description"),
+                        rs.getString("depends_on"),
+                        PlanStepStatus.valueOf(rs.getString("status")),
+                        rs.getString("result"),
+                        rs.getString("input_hash")),
+                planId);
+    }
+    
+    /**
+     * 계획 전체의 의존 관계 (단계 ID → 선행 단계 ID)
+     */
+    public Map<Long, List<Long>> findDependencies(Long planId) {
+        Map<Long, List<Long>> dependencies = new HashMap<>();
+        jdbcTemplate.query("SELECT d.step_id, d.dependency_step_id FROM plan_step_dependency d "
+                        + "JOIN plan_step s ON s.id = d.step_id WHERE s.plan_id = ?",
+                rs -> {
+                    dependencies.computeIfAbsent(rs.getLong("step_id"), key -> new ArrayList<>())
+                            .add(rs.getLong("dependency_step_id"));
+                },
+                planId);
+        return dependencies;
+    }
+    
+    /**
+     * CREATED 또는 FAILED 계획을 IN_PROGRESS로 전환하고 실행 노드 기록
+     *
+     * @return 전환되었으면 true
+     */
+    public boolean claim(Long planId, String workerId, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE plan SET status = 'IN_PROGRESS', worker_id = ?, heartbeat_at = ?, updated_at = ? "
+                        + "WHERE id = ? AND status IN ('CREATED', 'FAILED')",
+                workerId, Timestamp.valueOf(now), Timestamp.valueOf(now), planId) > 0;
+    }
+    
+    /**
+     * 이 노드가 실행 중인 계획 종료 (다른 노드가 넘겨받았거나 이미 끝났으면 무시)
+     *
+     * @return 전환되었으면 true
+     */
+    public boolean finish(Long planId, String workerId, PlanStatus to, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE plan SET status = ?, updated_at = ?, "
+                        + (to == PlanStatus.COMPLETED ? "completed_at = updated_at, " : "")
+                        + "worker_id = NULL, heartbeat_at = NULL WHERE id = ? AND status = 'IN_PROGRESS' AND worker_id = ?",
+                to.name(), Timestamp.valueOf(now), planId, workerId) > 0;
+    }
+    
+    /**
+     * 이 노드가 실행 중인 계획의 생존 신호 기록
+     */
+    public int heartbeat(String workerId, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE plan SET heartbeat_at = ? WHERE worker_id = ? AND status = 'IN_PROGRESS'",
+                Timestamp.valueOf(now), workerId);
+    }
+    
+    /**
+     * 생존 신호가 staleBefore 이전이거나 없는 IN_PROGRESS 계획을 FAILED로 전환 (다시 실행 가능)
+     */
+    public int failStale(LocalDateTime staleBefore, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE plan SET status = 'FAILED', updated_at = ?, worker_id = NULL, heartbeat_at = NULL "
+                        + "WHERE status = 'IN_PROGRESS' AND (heartbeat_at IS NULL OR heartbeat_at < ?)",
+                Timestamp.valueOf(now), Timestamp.valueOf(staleBefore));
+    }
+    
+    /**
+     * 단계 상태 초기화 (재실행 전)
+     *
+     * @param keepCompleted true면 COMPLETED 단계의 결과와 입력 해시를 남겨 재사용 후보로 둠
+     */
+    public int resetSteps(Long planId, boolean keepCompleted) {
+        return jdbcTemplate.update("UPDATE plan_step SET status = 'PENDING', result = NULL, input_hash = NULL, "
+                + "started_at = NULL, completed_at = NULL WHERE plan_id = ?"
+                + (keepCompleted ? " AND status <> 'COMPLETED'" : ""), planId);
+    }
+    
+    /**
+     * 단계 상태 일괄 기록
+     */
+    public void saveSteps(List<StepUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STEP_SQL, updates, updates.size(), (ps, update) -> {
+            ps.setString(1, update.status().name());
+            ps.setString(2, update.result());
+            ps.setString(3, update.inputHash());
+            ps.setTimestamp(4, update.startedAt() != null ? Timestamp.valueOf(update.startedAt()) : null);
+            ps.setTimestamp(5, update.completedAt() != null ? Timestamp.valueOf(update.completedAt()) : null);
+            ps.setLong(6, update.id());
+        });
+    }
+}
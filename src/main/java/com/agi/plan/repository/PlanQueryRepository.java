@@ -0,0 +1,114 @@
+package com.agi.plan.repository;
+
+import com.agi.plan.enums.PlanStatus;
+import com.agi.plan.enums.PlanStepStatus;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.agi.plan.entity.QPlan.plan;
+import static com.agi.plan.entity.QPlanStep.planStep;
+
+/**
+ * 계획 조회 전용 QueryDSL 저장소
+ *
+ * 엔티티 대신 필요한 컬럼만 프로젝션으로 읽으며, 계획 수나 단계 수와 관계없이
+ * 계획 / 단계 / 의존 관계를 각각 쿼리 한 번씩 (총 3번) 읽습니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PlanQueryRepository {
+    
+    /**
+     * 계획 헤더 프로젝션
+     */
+    public record PlanView(Long id, Long userId, String title, String description, PlanStatus status,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+    
+    /**
+     * 단계 프로젝션
+     */
+    public record PlanStepView(Long id, Long planId, Integer orderIndex, String description,
+                               PlanStepStatus status, String result, LocalDateTime startedAt,
+                               LocalDateTime completedAt) {
+    }
+    
+    private final JPAQueryFactory queryFactory;
+    
+    public Optional<PlanView> findPlan(Long planId) {
+        return Optional.ofNullable(selectPlans(plan.id.eq(planId)).fetchOne());
+    }
+    
+    /**
+     * 사용자의 계획 (최신순)
+     */
+    public List<PlanView> findPlansByUser(Long userId) {
+        return selectPlans(plan.user.id.eq(userId))
+                .orderBy(plan.createdAt.desc(), plan.id.desc())
+                .fetch();
+    }
+    
+    /**
+     * 계획들의 단계 (계획별 orderIndex 순)
+     */
+    public List<PlanStepView> findSteps(Collection<Long> planIds) {
+        if (planIds.isEmpty()) {
+            return List.of();
+        }
+        return queryFactory
+                .select(Projections.constructor(PlanStepView.class,
+                        planStep.id, planStep.plan.id, planStep.orderIndex, planStep.description,
+                        planStep.status, planStep.result, planStep.startedAt, planStep.completedAt))
+                .from(planStep)
+                .where(planStep.plan.id.in(planIds))
+                .orderBy(planStep.plan.id.asc(), planStep.orderIndex.asc(), planStep.id.asc())
+                .fetch();
+    }
+    
+    /**
+     * 계획들의 단계 의존 관계 (단계 ID → 선행 단계 ID)
+     */
+    public Map<Long, List<Long>> findDependencies(Collection<Long> planIds) {
+        Map<Long, List<Long>> dependencies = new HashMap<>();
+        if (planIds.isEmpty()) {
+            return dependencies;
+        }
+        NumberPath<Long> dependency = Expressions.numberPath(Long.class, "dependency");
+        List<Tuple> edges = queryFactory
+                .select(planStep.id, dependency)
+                .from(planStep)
+                .join(planStep.dependencies, dependency)
+                .where(planStep.plan.id.in(planIds))
+                .fetch();
+        for (Tuple edge : edges) {
+            dependencies.computeIfAbsent(edge.get(planStep.id), key -> new ArrayList<>())
+                    .add(edge.get(dependency));
+        }
+        return dependencies;
+    }
+    
+    private JPAQuery<PlanView> selectPlans(BooleanExpression condition) {
+        // user.id는 외래 키 컬럼이라 user 테이블을 조인하지 않음
+        return queryFactory
+                .select(Projections.constructor(PlanView.class,
+                        plan.id, plan.user.id, plan.title, plan.description, plan.status,
+                        plan.createdAt, plan.updatedAt))
+                .from(plan)
+                .where(condition);
+    }
+}
@@ -13,13 +13,13 @@ import java.util.List;
 public interface PlanStepRepository extends JpaRepository<PlanStep, Long> {
     List<PlanStep> findByPlan(Plan plan);
     
-    List<PlanStep> findByPlanOrderByStepNumberAsc(Plan plan);
+    List<PlanStep> findByPlanOrderByOrderIndexAsc(Plan plan);
     
     List<PlanStep> findByStatus(PlanStepStatus status);
     
-    @Query("SELECT ps FROM PlanStep ps WHERE ps.plan.id = :planId ORDER BY ps.stepNumber ASC")
-    List<PlanStep> findByPlanIdOrderByStepNumberAsc(String planId);
+    @Query("SELECT ps FROM PlanStep ps WHERE ps.plan.id = :planId ORDER BY ps.orderIndex ASC")
+    List<PlanStep> findByPlanIdOrderByOrderIndexAsc(Long planId);
     
     @Query("SELECT ps FROM PlanStep ps WHERE ps.plan.id = :planId AND ps.status = :status")
-    List<PlanStep> findByPlanIdAndStatus(String planId, PlanStepStatus status);
+    List<PlanStep> findByPlanIdAndStatus(Long planId, PlanStepStatus status);
 }
@@ -0,0 +1,51 @@
+package com.agi.plan.service;
+
+import com.agi.plan.dto.response.PlanDto;
+import com.agi.plan.dto.response.PlanStepDto;
+import com.agi.plan.repository.PlanQueryRepository;
+import com.agi.plan.repository.PlanQueryRepository.PlanStepView;
+import com.agi.plan.repository.PlanQueryRepository.PlanView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 계획 프로젝션을 PlanDto로 조립
+ *
+ * 계획 목록의 단계와 의존 관계를 각각 한 번에 읽어 메모리에서 묶으므로
+ * 계획 수와 단계 수에 관계없이 쿼리 수가 일정합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlanDtoAssembler {
+    
+    private final PlanQueryRepository planQueryRepository;
+    
+    public PlanDto assemble(PlanView plan) {
+        return assemble(List.of(plan)).get(0);
+    }
+    
+    /**
+     * @return plans와 같은 순서의 DTO 목록
+     */
+    public List<PlanDto> assemble(List<PlanView> plans) {
+        if (plans.isEmpty()) {
+            return List.of();
+        }
+        List<Long> planIds = plans.stream().map(PlanView::id).collect(Collectors.toList());
+        Map<Long, List<Long>> dependencies = planQueryRepository.findDependencies(planIds);
+        Map<Long, List<PlanStepDto>> stepsByPlan = new HashMap<>();
+        for (PlanStepView step : planQueryRepository.findSteps(planIds)) {
+            stepsByPlan.computeIfAbsent(step.planId(), key -> new ArrayList<>())
+                    .add(PlanStepDto.fromView(step, dependencies.getOrDefault(step.id(), List.of())));
+        }
+        return plans.stream()
+                .map(plan -> PlanDto.fromView(plan, stepsByPlan.getOrDefault(plan.id(), List.of())))
+                .collect(Collectors.toList());
+    }
+}
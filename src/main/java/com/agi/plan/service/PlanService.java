@@ -1,11 +1,201 @@
 package com.agi.plan.service;
 
+import com.agi.common.exception.BadRequestException;
+import com.agi.common.exception.ResourceNotFoundException;
+import com.agi.plan.dto.request.PlanCreateRequest;
+import com.agi.plan.dto.request.PlanStepRequest;
+import com.agi.plan.dto.response.PlanDto;
+import com.agi.plan.entity.Plan;
+import com.agi.plan.entity.PlanStep;
+import com.agi.plan.executor.PlanDag;
+import com.agi.plan.executor.PlanExecutor;
+import com.agi.plan.repository.PlanExecutionRepository;
+import com.agi.plan.repository.PlanExecutionRepository.StepRow;
+import com.agi.plan.repository.PlanQueryRepository;
+import com.agi.plan.repository.PlanRepository;
+import com.agi.user.entity.User;
+import com.agi.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 계획 관련 서비스
  */
 @Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class PlanService {
-    // 서비스 구현체는 추후 개발
+    
+    private final PlanRepository planRepository;
+    private final PlanExecutionRepository planExecutionRepository;
+    private final PlanQueryRepository planQueryRepository;
+    private final PlanDtoAssembler planDtoAssembler;
+    private final UserRepository userRepository;
+    private final PlanExecutor planExecutor;
+    
+    /**
+     * 계획 생성 (단계의 dependsOn은 같은 요청 안의 order로 지정)
+     */
+    @Transactional
+    public PlanDto createPlan(PlanCreateRequest request) {
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", request.getUserId()));
+        Plan plan = Plan.builder()
+                .user(user)
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .build();
+        List<PlanStepRequest> stepRequests = request.getSteps() != null ? request.getSteps() : List.of();
+        Map<Integer, PlanStep> stepsByOrder = new HashMap<>();
+        for (PlanStepRequest stepRequest : stepRequests) {
+            PlanStep step = PlanStep.builder()
+                    .plan(plan)
+                    .orderIndex(stepRequest.getOrder())
+                    .description(stepRequest.getContent())
+                    .dependsOn(joinOrders(stepRequest.getDependsOn()))
+                    .build();
+            if (stepsByOrder.put(stepRequest.getOrder(), step) != null) {
+                throw new BadRequestException("단계 순서가 중복되었습니다: " + stepRequest.getOrder());
+            }
+            plan.addStep(step);
+        }
+        // 단계 ID가 정해진 뒤 의존 관계 연결
+        planRepository.saveAndFlush(plan);
+        for (PlanStepRequest stepRequest : stepRequests) {
+            if (stepRequest.getDependsOn() == null) {
+                continue;
+            }
+            PlanStep step = stepsByOrder.get(stepRequest.getOrder());
+            for (Integer order : stepRequest.getDependsOn()) {
+                PlanStep dependency = stepsByOrder.get(order);
+                if (dependency == null) {
+                    throw new BadRequestException("존재하지 않는 선행 단계입니다: " + order);
+                }
+                step.addDependency(dependency.getId());
+            }
+        }
+        validate(dependencyGraph(plan.getSteps().stream()
+                .map(step -> new StepRow(step.getId(), step.getOrderIndex(), step.getDescription(),
+                        step.getDependsOn(), step.getStatus(), step.getResult(), step.getInputHash()))
+                .collect(Collectors.toList()), dependencyMap(plan.getSteps())));
+        return PlanDto.fromEntity(plan);
+    }
+    
+    /**
+     * 계획 조회 (계획, 단계, 의존 관계를 쿼리 3번으로)
+     */
+    public PlanDto getPlan(Long planId) {
+        return planQueryRepository.findPlan(planId)
+                .map(planDtoAssembler::assemble)
+                .orElseThrow(() -> new ResourceNotFoundException("Plan", "id", planId));
+    }
+    
+    /**
+     * 사용자 계획 목록 (계획 수와 관계없이 쿼리 3번)
+     */
+    public List<PlanDto> getPlansByUser(Long userId) {
+        return planDtoAssembler.assemble(planQueryRepository.findPlansByUser(userId));
+    }
+    
+    /**
+     * 계획 실행 시작 (의존성 그래프를 검증한 뒤 비동기로 실행)
+     *
+     * 실패한 계획을 다시 실행하면 완료 단계 중 입력이 그대로인 단계는 저장된 결과를 재사용하므로
+     * 실패/대기 단계부터 이어서 실행됩니다. fresh면 모든 단계를 처음부터 실행합니다.
+     * 실행하던 노드가 죽어 IN_PROGRESS로 남은 계획은 생존 신호가 끊긴 뒤 FAILED로 바뀌어 다시 실행할 수 있습니다.
+     * 상태 전환과 단계 초기화가 커밋된 뒤 실행기가 읽도록 트랜잭션 밖에서 실행합니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void executePlan(Long planId, boolean fresh) {
+        if (!planRepository.existsById(planId)) {
+            throw new ResourceNotFoundException("Plan", "id", planId);
+        }
+        List<StepRow> steps = planExecutionRepository.findSteps(planId);
+        PlanDag dag = validate(dependencyGraph(steps, planExecutionRepository.findDependencies(planId)));
+        if (planExecutor.isRunning(planId)
+                || !planExecutionRepository.claim(planId, planExecutor.getWorkerId(), LocalDateTime.now())) {
+            throw new BadRequestException("실행할 수 없는 계획 상태입니다: " + planId);
+        }
+        planExecutionRepository.resetSteps(planId, !fresh);
+        planExecutor.execute(planId, steps, dag, !fresh);
+    }
+    
+    private static PlanDag validate(Map<Long, List<Long>> graph) {
+        try {
+            return PlanDag.build(graph);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("단계 의존성이 올바르지 않습니다 (순환 또는 없는 단계 참조): " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 단계 ID → 선행 단계 ID (steps 순서 유지)
+     *
+     * plan_step_dependency가 비어 있는 단계는 dependsOn의 쉼표 구분 order 목록을 사용합니다.
+     */
+    private static Map<Long, List<Long>> dependencyGraph(List<StepRow> steps, Map<Long, List<Long>> dependencies) {
+        Map<Integer, Long> idByOrder = new HashMap<>();
+        for (StepRow step : steps) {
+            idByOrder.put(step.orderIndex(), step.id());
+        }
+        Map<Long, List<Long>> graph = new LinkedHashMap<>();
+        for (StepRow step : steps) {
+            List<Long> prerequisites = dependencies.get(step.id());
+            if (prerequisites == null || prerequisites.isEmpty()) {
+                prerequisites = new ArrayList<>();
+                for (Integer order : parseOrders(step.dependsOn())) {
+                    Long id = idByOrder.get(order);
+                    if (id == null) {
+                        throw new BadRequestException("존재하지 않는 선행 단계입니다: " + order);
+                    }
+                    prerequisites.add(id);
+                }
+            }
+            graph.put(step.id(), prerequisites);
+        }
+        return graph;
+    }
+    
+    private static Map<Long, List<Long>> dependencyMap(List<PlanStep> steps) {
+        Map<Long, List<Long>> dependencies = new HashMap<>();
+        for (PlanStep step : steps) {
+            dependencies.put(step.getId(), step.getDependencies());
+        }
+        return dependencies;
+    }
+    
+    private static List<Integer> parseOrders(String dependsOn) {
+        List<Integer> orders = new ArrayList<>();
+        if (dependsOn == null || dependsOn.isBlank()) {
+            return orders;
+        }
+        for (String token : dependsOn.split(",")) {
+            if (token.isBlank()) {
+                continue;
+            }
+            try {
+                orders.add(Integer.valueOf(token.trim()));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("dependsOn 형식이 올바르지 않습니다: " + dependsOn);
+            }
+        }
+        return orders;
+    }
+    
+    private static String joinOrders(List<Integer> orders) {
+        if (orders == null || orders.isEmpty()) {
+            return null;
+        }
+        return orders.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
 }
@@ -1,13 +1,100 @@
 package com.agi.sandbox.controller;
 
+import com.agi.sandbox.dto.request.SandboxCreateRequest;
+import com.agi.sandbox.dto.request.SandboxExecuteRequest;
+import com.agi.sandbox.dto.response.SandboxDto;
+import com.agi.sandbox.dto.response.SandboxExecutionDto;
+import com.agi.sandbox.dto.response.SandboxLogChunkDto;
+import com.agi.sandbox.dto.response.SandboxPoolStatsDto;
+import com.agi.sandbox.service.SandboxService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 샌드박스 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/sandbox")
+@RequiredArgsConstructor
 public class SandboxController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final SandboxService sandboxService;
+    
+    @PostMapping
+    public ResponseEntity<SandboxDto> createSandbox(@Valid @RequestBody SandboxCreateRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(sandboxService.createSandbox(request));
+    }
+    
+    @GetMapping("/{sandboxId}")
+    public ResponseEntity<SandboxDto> getSandbox(@PathVariable String sandboxId) {
+        return ResponseEntity.ok(sandboxService.getSandbox(sandboxId));
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<SandboxDto>> getSandboxesByUser(@RequestParam Long userId) {
+        return ResponseEntity.ok(sandboxService.getSandboxesByUser(userId));
+    }
+    
+    @PostMapping("/{sandboxId}/stop")
+    public ResponseEntity<SandboxDto> stopSandbox(@PathVariable String sandboxId) {
+        return ResponseEntity.ok(sandboxService.stopSandbox(sandboxId));
+    }
+    
+    /**
+     * 휴면 중인 샌드박스 복원 (명령 실행 등 다음 접근 때도 자동 복원)
+     */
+    @PostMapping("/{sandboxId}/resume")
+    public ResponseEntity<SandboxDto> resumeSandbox(@PathVariable String sandboxId) {
+        return ResponseEntity.ok(sandboxService.resumeSandbox(sandboxId));
+    }
+    
+    /**
+     * 명령 실행 시작 (실행은 비동기, 출력은 /executions/{id}/log로 조회)
+     */
+    @PostMapping("/{sandboxId}/executions")
+    public ResponseEntity<SandboxExecutionDto> executeCommand(@PathVariable String sandboxId,
+                                                              @Valid @RequestBody SandboxExecuteRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(sandboxService.executeCommand(sandboxId, request));
+    }
+    
+    @GetMapping("/executions/{executionId}")
+    public ResponseEntity<SandboxExecutionDto> getExecution(@PathVariable String executionId) {
+        return ResponseEntity.ok(sandboxService.getExecution(executionId));
+    }
+    
+    /**
+     * 실행 출력 이어 읽기 (실행 중이면 nextOffset으로 반복 호출)
+     */
+    @GetMapping("/executions/{executionId}/log")
+    public ResponseEntity<SandboxLogChunkDto> readExecutionLog(@PathVariable String executionId,
+                                                               @RequestParam(defaultValue = "stdout") String stream,
+                                                               @RequestParam(required = false) Long offset,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(sandboxService.readExecutionLog(executionId, stream, offset, limit));
+    }
+    
+    @PostMapping("/executions/{executionId}/cancel")
+    public ResponseEntity<Void> cancelExecution(@PathVariable String executionId) {
+        sandboxService.cancelExecution(executionId);
+        return ResponseEntity.accepted().build();
+    }
+    
+    /**
+     * 템플릿별 작업 공간 풀 상태
+     */
+    @GetMapping("/pool/stats")
+    public ResponseEntity<List<SandboxPoolStatsDto>> getPoolStats() {
+        return ResponseEntity.ok(sandboxService.getPoolStats());
+    }
 }
@@ -1,16 +1,19 @@
 package com.agi.sandbox.dto.request;
 
-import com.agi.sandbox.enums.SandboxStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 /**
  * 샌드박스 생성 요청 DTO
  */
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class SandboxCreateRequest {
     
     @NotNull(message = "사용자 ID는 필수입니다")
@@ -21,6 +24,11 @@ public class SandboxCreateRequest {
     
     private String description;
     
+    /**
+     * 샌드박스 템플릿 ID (없으면 기본 작업 공간)
+     */
+    private String templateId;
+    
     private String configuration;
     
     private Integer timeoutSeconds;
@@ -28,4 +36,6 @@ public class SandboxCreateRequest {
     private Integer memoryLimitMb;
     
     private Integer cpuLimit;
+    
+    private Integer diskLimitMb;
 }
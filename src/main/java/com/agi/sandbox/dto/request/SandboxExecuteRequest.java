@@ -0,0 +1,29 @@
+package com.agi.sandbox.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 샌드박스 명령 실행 요청 DTO
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SandboxExecuteRequest {
+    
+    @NotNull(message = "사용자 ID는 필수입니다")
+    private Long userId;
+    
+    @NotBlank(message = "실행할 명령은 필수입니다")
+    private String command;
+    
+    /**
+     * 제한 시간 (초, 없으면 샌드박스 설정)
+     */
+    private Integer timeoutSeconds;
+}
@@ -2,6 +2,7 @@ package com.agi.sandbox.dto.response;
 
 import com.agi.sandbox.entity.Sandbox;
 import com.agi.sandbox.enums.SandboxStatus;
+import com.agi.sandbox.runtime.SandboxStateTracker;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -17,11 +18,13 @@ public class SandboxDto {
     private Long userId;
     private String name;
     private String description;
+    private String templateId;
     private SandboxStatus status;
     private String configuration;
     private Integer timeoutSeconds;
     private Integer memoryLimitMb;
     private Integer cpuLimit;
+    private Integer diskLimitMb;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime lastAccessedAt;
@@ -38,14 +41,33 @@ public class SandboxDto {
                 .userId(sandbox.getUser().getId())
                 .name(sandbox.getName())
                 .description(sandbox.getDescription())
+                .templateId(sandbox.getTemplateId())
                 .status(sandbox.getStatus())
                 .configuration(sandbox.getConfiguration())
                 .timeoutSeconds(sandbox.getTimeoutSeconds())
                 .memoryLimitMb(sandbox.getMemoryLimitMb())
                 .cpuLimit(sandbox.getCpuLimit())
+                .diskLimitMb(sandbox.getResourceDisk())
                 .createdAt(sandbox.getCreatedAt())
                 .updatedAt(sandbox.getUpdatedAt())
                 .lastAccessedAt(sandbox.getLastAccessedAt())
                 .build();
     }
+    
+    /**
+     * 메모리의 최신 상태를 반영한 SandboxDto 객체 생성
+     * 
+     * @param sandbox Sandbox 엔티티
+     * @param state 메모리 상태 (null이면 엔티티 값 사용)
+     * @return SandboxDto 객체
+     */
+    public static SandboxDto fromEntity(Sandbox sandbox, SandboxStateTracker.State state) {
+        SandboxDto dto = fromEntity(sandbox);
+        if (state != null) {
+            dto.status = state.getStatus();
+            dto.lastAccessedAt = state.getLastAccessedAt();
+            dto.updatedAt = state.getUpdatedAt();
+        }
+        return dto;
+    }
 }
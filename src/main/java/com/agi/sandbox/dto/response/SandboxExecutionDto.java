@@ -0,0 +1,52 @@
+package com.agi.sandbox.dto.response;
+
+import com.agi.sandbox.entity.SandboxExecution;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 샌드박스 명령 실행 정보 응답 DTO
+ */
+@Getter
+@Builder
+public class SandboxExecutionDto {
+    private String id;
+    private String sandboxId;
+    private Long userId;
+    private String command;
+    private String status;
+    private Integer exitCode;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long stdoutBytes;
+    private Long stderrBytes;
+    private String outputPreview;
+    private String errorPreview;
+    private String resourceUsage;
+
+    /**
+     * SandboxExecution 엔티티로부터 SandboxExecutionDto 객체 생성
+     * 
+     * @param execution SandboxExecution 엔티티
+     * @return SandboxExecutionDto 객체
+     */
+    public static SandboxExecutionDto fromEntity(SandboxExecution execution) {
+        return SandboxExecutionDto.builder()
+                .id(execution.getId())
+                .sandboxId(execution.getSandbox().getId())
+                .userId(execution.getUserId())
+                .command(execution.getCommand())
+                .status(execution.getStatus())
+                .exitCode(execution.getExitCode())
+                .startedAt(execution.getStartedAt())
+                .completedAt(execution.getCompletedAt())
+                .stdoutBytes(execution.getStdoutBytes())
+                .stderrBytes(execution.getStderrBytes())
+                .outputPreview(execution.getOutput())
+                .errorPreview(execution.getErrorOutput())
+                .resourceUsage(execution.getResourceUsage())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.agi.sandbox.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 샌드박스 실행 출력 구간 (다음 요청은 nextOffset부터)
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SandboxLogChunkDto {
+    
+    private String executionId;
+    
+    private String stream;
+    
+    private Long offset;
+    
+    private Long nextOffset;
+    
+    /** 지금까지 기록된 전체 바이트 수 */
+    private Long size;
+    
+    private String data;
+    
+    /** 실행 중이면 true (출력이 더 늘어날 수 있음) */
+    private Boolean running;
+}
@@ -0,0 +1,42 @@
+package com.agi.sandbox.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 템플릿별 샌드박스 작업 공간 풀 상태
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SandboxPoolStatsDto {
+    
+    private String templateId;
+    
+    /** 바로 대여 가능한 작업 공간 수 */
+    private Integer idle;
+    
+    /** 생성 또는 초기화 중인 작업 공간 수 */
+    private Integer pending;
+    
+    /** 목표 대기 수 */
+    private Integer target;
+    
+    /** 조정 주기당 대여 수 EWMA */
+    private Double demandEwma;
+    
+    /** 대기 작업 공간으로 처리한 대여 수 */
+    private Long hits;
+    
+    /** 대기 작업 공간이 없어 바로 생성한 대여 수 */
+    private Long misses;
+    
+    /** 반납된 작업 공간 대신 원본에서 새로 만든 수 */
+    private Long resets;
+    
+    /** 템플릿 원본의 파일/디렉터리 수 */
+    private Integer templateEntries;
+}
@@ -42,13 +42,35 @@ public class SandboxExecution {
     
     private String command;
     
+    /**
+     * 표준 출력 미리보기 (마지막 일부만, 전체는 logPath의 조각 파일)
+     */
     @Column(columnDefinition = "TEXT")
     private String output;
     
+    /**
+     * 표준 오류 미리보기 (마지막 일부만, 전체는 logPath의 조각 파일)
+     */
     @Column(columnDefinition = "TEXT")
     private String errorOutput;
     
+    /**
+     * 출력 조각 파일 디렉터리
+     */
+    private String logPath;
+    
+    /**
+     * 기록된 표준 출력 바이트 수 (실행 중에는 주기적으로 갱신)
+     */
+    private Long stdoutBytes;
+    
+    private Long stderrBytes;
+    
     private Integer exitCode;
     
+    /**
+     * 자원 사용량 JSON (limiter, cpuTimeMs, peakRssBytes, readBytes, writeBytes, diskBytes, killedBy 등)
+     */
+    @Column(columnDefinition = "TEXT")
     private String resourceUsage;
 }
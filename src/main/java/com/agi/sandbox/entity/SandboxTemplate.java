@@ -51,4 +51,9 @@ public class SandboxTemplate {
     private String networkConfig;
     
     private String preInstalledPackages;
+    
+    /**
+     * 이 시간(분) 동안 접근이 없으면 휴면 (null이면 sandbox.hibernation.idle-minutes, 0 이하면 휴면하지 않음)
+     */
+    private Integer idleTimeoutMinutes;
 }
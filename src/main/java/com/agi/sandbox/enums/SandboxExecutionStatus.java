@@ -0,0 +1,13 @@
+package com.agi.sandbox.enums;
+
+/**
+ * 샌드박스 명령 실행 상태 Enum
+ */
+public enum SandboxExecutionStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    TIMEOUT,
+    CANCELLED,
+    KILLED // 자원 제한 초과 (원인은 resourceUsage.killedBy)
+}
@@ -0,0 +1,386 @@
+package com.agi.sandbox.pool;
+
+import com.agi.sandbox.dto.response.SandboxPoolStatsDto;
+import com.agi.sandbox.entity.SandboxTemplate;
+import com.agi.sandbox.repository.SandboxTemplateRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 템플릿별 미리 만들어 둔 샌드박스 작업 공간 풀
+ *
+ * 대여는 대기 중인 작업 공간 디렉터리를 {base-path}/sandboxes/{sandboxId}로 이름만 바꾸므로 복사가 없고,
+ * 반납된 작업 공간은 다른 사용자에게 다시 나가므로 재사용하지 않고, 백그라운드에서 지운 뒤 원본에서 새로 만들어
+ * 대기열에 넣습니다 (원본은 기본 디렉터리 몇 개라 새로 만드는 비용이 작음).
+ * 템플릿별 대기 수는 주기마다 대여 수의 EWMA에 여유 배수를 곱해 min-idle ~ max-idle 범위에서 정합니다.
+ * 대기 작업 공간은 {base-path}/pool 아래에만 있으므로 기동 시 통째로 지워 정리합니다.
+ */
+@Slf4j
+@Component
+public class SandboxPool {
+
+    /** 템플릿 없이 만든 샌드박스의 풀 키 */
+    public static final String DEFAULT_TEMPLATE = "_default";
+
+    private final SandboxTemplateRepository sandboxTemplateRepository;
+    private final Path templatesDir;
+    private final Path poolDir;
+    private final Path sandboxesDir;
+    private final int minIdle;
+    private final int maxIdle;
+    private final double ewmaAlpha;
+    private final double headroom;
+    private final ExecutorService maintenance;
+    private final Map<String, TemplatePool> pools = new ConcurrentHashMap<>();
+
+    public SandboxPool(SandboxTemplateRepository sandboxTemplateRepository,
+                       @Value("${sandbox.workspace.base-path:/home/sandbox}") String basePath,
+                       @Value("${sandbox.pool.min-idle:1}") int minIdle,
+                       @Value("${sandbox.pool.max-idle:16}") int maxIdle,
+                       @Value("${sandbox.pool.ewma-alpha:0.3}") double ewmaAlpha,
+                       @Value("${sandbox.pool.headroom:2.0}") double headroom,
+                       @Value("${sandbox.pool.workers:2}") int workers) {
+        this.sandboxTemplateRepository = sandboxTemplateRepository;
+        Path base = Paths.get(basePath);
+        this.templatesDir = base.resolve("templates");
+        this.poolDir = base.resolve("pool");
+        this.sandboxesDir = base.resolve("sandboxes");
+        this.minIdle = minIdle;
+        this.maxIdle = maxIdle;
+        this.ewmaAlpha = ewmaAlpha;
+        this.headroom = headroom;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.maintenance = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "sandbox-pool-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            WorkspaceTemplate.deleteRecursively(poolDir);
+            Files.createDirectories(templatesDir);
+            Files.createDirectories(poolDir);
+            Files.createDirectories(sandboxesDir);
+        } catch (IOException e) {
+            log.error("Failed to prepare sandbox pool directories under {}", poolDir.getParent(), e);
+            return;
+        }
+        scale();
+    }
+
+    @PreDestroy
+    public void stop() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * 샌드박스 작업 공간 경로
+     */
+    public Path workspaceOf(String sandboxId) {
+        return sandboxesDir.resolve(sandboxId);
+    }
+
+    /**
+     * 작업 공간 대여 (대기 중인 것이 없으면 이 스레드에서 바로 생성)
+     *
+     * @param template null이면 기본 템플릿
+     * @return 샌드박스 작업 공간 경로
+     */
+    public Path checkout(SandboxTemplate template, String sandboxId) {
+        TemplatePool pool = poolFor(template);
+        Path target = workspaceOf(sandboxId);
+        pool.checkouts.increment();
+        try {
+            Path idle;
+            while ((idle = pool.idle.pollFirst()) != null) {
+                pool.idleCount.decrementAndGet();
+                try {
+                    Files.move(idle, target, StandardCopyOption.ATOMIC_MOVE);
+                    pool.hits.increment();
+                    return target;
+                } catch (IOException e) {
+                    log.warn("Discarding pooled workspace {}: {}", idle, e.toString());
+                    discard(idle);
+                }
+            }
+            pool.misses.increment();
+            pool.template.materialize(target);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare sandbox workspace: " + sandboxId, e);
+        } finally {
+            replenish(pool);
+        }
+    }
+
+    /**
+     * 작업 공간 반납 (삭제 후, 대기 수가 모자라면 원본에서 새로 만들어 풀에 추가)
+     */
+    public void release(String templateId, String sandboxId) {
+        Path workspace = workspaceOf(sandboxId);
+        if (!Files.isDirectory(workspace)) {
+            return;
+        }
+        TemplatePool pool = pools.get(keyOf(templateId));
+        Path parked;
+        try {
+            parked = pool != null ? pool.dir.resolve(UUID.randomUUID().toString()) : null;
+            if (parked == null) {
+                // 풀이 없는 템플릿 (비활성화 등)이면 그냥 삭제
+                WorkspaceTemplate.deleteRecursively(workspace);
+                return;
+            }
+            Files.move(workspace, parked, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to release sandbox workspace {}: {}", workspace, e.toString());
+            return;
+        }
+        pool.pending.incrementAndGet();
+        submit(() -> {
+            try {
+                discard(parked);
+                if (pool.idleCount.get() >= pool.target) {
+                    return;
+                }
+                Path fresh = pool.dir.resolve(UUID.randomUUID().toString());
+                try {
+                    pool.template.materialize(fresh);
+                    pool.resets.increment();
+                    offerIdle(pool, fresh);
+                } catch (IOException e) {
+                    log.warn("Failed to recreate pooled workspace for {}: {}", pool.template.getKey(), e.toString());
+                    discard(fresh);
+                }
+            } finally {
+                pool.pending.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * 작업 공간을 원본 대비 변경분 스냅샷으로 저장하고 반납 (휴면)
+     *
+     * @param template null이면 기본 템플릿
+     * @return 스냅샷에 담긴 항목 수
+     */
+    public int hibernate(SandboxTemplate template, String sandboxId, Path snapshot, int compressionLevel) {
+        TemplatePool pool = poolFor(template);
+        int entries;
+        try {
+            entries = WorkspaceSnapshot.write(pool.template, workspaceOf(sandboxId), snapshot, compressionLevel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to snapshot sandbox workspace: " + sandboxId, e);
+        }
+        release(pool.template.getKey(), sandboxId);
+        return entries;
+    }
+
+    /**
+     * 풀에서 대여한 작업 공간에 스냅샷을 적용해 복원
+     *
+     * 작업 공간이 이미 있으면 (스냅샷 저장 후 반납 전에 중단된 경우) 그대로 씁니다.
+     *
+     * @param template null이면 기본 템플릿
+     */
+    public Path restore(SandboxTemplate template, String sandboxId, Path snapshot) {
+        Path target = workspaceOf(sandboxId);
+        if (Files.isDirectory(target)) {
+            return target;
+        }
+        checkout(template, sandboxId);
+        try {
+            WorkspaceSnapshot.apply(snapshot, target);
+        } catch (IOException e) {
+            discard(target);
+            throw new UncheckedIOException("Failed to restore sandbox workspace: " + sandboxId, e);
+        }
+        return target;
+    }
+
+    /**
+     * 템플릿별 대기 수 조정 (대여 수 EWMA 기반) 및 비활성 템플릿 풀 정리
+     */
+    @Scheduled(initialDelayString = "${sandbox.pool.scale-interval-ms:5000}",
+            fixedDelayString = "${sandbox.pool.scale-interval-ms:5000}")
+    public void scale() {
+        Set<String> active = new HashSet<>();
+        active.add(DEFAULT_TEMPLATE);
+        try {
+            for (SandboxTemplate template : sandboxTemplateRepository.findAllActive()) {
+                active.add(keyOf(template.getId()));
+                poolFor(template);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to load sandbox templates", e);
+            return;
+        }
+        poolFor(null);
+        for (TemplatePool pool : pools.values()) {
+            long checkouts = pool.checkouts.sumThenReset();
+            pool.ewma = pool.ewma + ewmaAlpha * (checkouts - pool.ewma);
+            if (!active.contains(pool.template.getKey())) {
+                pool.target = 0;
+                drainExcess(pool);
+                if (pool.idleCount.get() == 0 && pool.pending.get() == 0) {
+                    pools.remove(pool.template.getKey(), pool);
+                }
+                continue;
+            }
+            pool.target = Math.max(minIdle, Math.min(maxIdle, (int) Math.ceil(pool.ewma * headroom)));
+            drainExcess(pool);
+            replenish(pool);
+        }
+    }
+
+    public List<SandboxPoolStatsDto> stats() {
+        List<SandboxPoolStatsDto> result = new ArrayList<>();
+        for (TemplatePool pool : pools.values()) {
+            result.add(SandboxPoolStatsDto.builder()
+                    .templateId(pool.template.getKey())
+                    .idle(pool.idleCount.get())
+                    .pending(pool.pending.get())
+                    .target(pool.target)
+                    .demandEwma(pool.ewma)
+                    .hits(pool.hits.sum())
+                    .misses(pool.misses.sum())
+                    .resets(pool.resets.sum())
+                    .templateEntries(pool.template.size())
+                    .build());
+        }
+        return result;
+    }
+
+    private TemplatePool poolFor(SandboxTemplate template) {
+        String key = keyOf(template != null ? template.getId() : null);
+        TemplatePool pool = pools.get(key);
+        if (pool != null) {
+            return pool;
+        }
+        // 원본 준비는 파일 I/O라 맵 잠금 밖에서 하고, 경쟁에서 진 쪽은 버림
+        try {
+            Path dir = poolDir.resolve(key);
+            Files.createDirectories(dir);
+            Files.createDirectories(templatesDir);
+            Files.createDirectories(sandboxesDir);
+            TemplatePool created = new TemplatePool(WorkspaceTemplate.prepare(key, templatesDir, template), dir, minIdle);
+            pool = pools.putIfAbsent(key, created);
+            return pool != null ? pool : created;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to prepare sandbox template: " + key, e);
+        }
+    }
+
+    private void replenish(TemplatePool pool) {
+        int deficit = pool.target - pool.idleCount.get() - pool.pending.get();
+        for (int i = 0; i < deficit; i++) {
+            pool.pending.incrementAndGet();
+            submit(() -> {
+                Path workspace = pool.dir.resolve(UUID.randomUUID().toString());
+                try {
+                    pool.template.materialize(workspace);
+                    offerIdle(pool, workspace);
+                } catch (IOException e) {
+                    log.warn("Failed to create pooled workspace for {}: {}", pool.template.getKey(), e.toString());
+                    discard(workspace);
+                } finally {
+                    pool.pending.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void drainExcess(TemplatePool pool) {
+        while (pool.idleCount.get() > pool.target) {
+            Path idle = pool.idle.pollLast();
+            if (idle == null) {
+                return;
+            }
+            pool.idleCount.decrementAndGet();
+            submit(() -> discard(idle));
+        }
+    }
+
+    private void offerIdle(TemplatePool pool, Path workspace) {
+        pool.idle.offerFirst(workspace);
+        pool.idleCount.incrementAndGet();
+    }
+
+    private void submit(Runnable task) {
+        try {
+            maintenance.execute(task);
+        } catch (RejectedExecutionException e) {
+            // 종료 중: 남은 작업 공간은 다음 기동 때 정리됨
+            log.debug("Sandbox pool is shutting down, skipped maintenance task");
+        }
+    }
+
+    private static void discard(Path workspace) {
+        try {
+            WorkspaceTemplate.deleteRecursively(workspace);
+        } catch (IOException e) {
+            log.warn("Failed to delete workspace {}: {}", workspace, e.toString());
+        }
+    }
+
+    /**
+     * 템플릿 ID를 디렉터리 이름으로 쓸 수 있게 변환
+     */
+    static String keyOf(String templateId) {
+        if (templateId == null || templateId.isBlank()) {
+            return DEFAULT_TEMPLATE;
+        }
+        return templateId.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private static final class TemplatePool {
+
+        private final WorkspaceTemplate template;
+        private final Path dir;
+        /** 최근 초기화된 작업 공간이 앞 (파일 캐시가 따뜻한 것부터 대여) */
+        private final ConcurrentLinkedDeque<Path> idle = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+        /** 생성 또는 초기화 중인 작업 공간 수 */
+        private final AtomicInteger pending = new AtomicInteger();
+        private final LongAdder checkouts = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder resets = new LongAdder();
+        private volatile int target;
+        /** 주기당 대여 수 EWMA (scale 스레드만 갱신) */
+        private volatile double ewma;
+
+        private TemplatePool(WorkspaceTemplate template, Path dir, int target) {
+            this.template = template;
+            this.dir = dir;
+            this.target = target;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.agi.sandbox.pool;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 작업 공간의 템플릿 원본 대비 변경분 스냅샷 (zip)
+ *
+ * 첫 항목은 원본에서 지워진 경로 목록, 둘째 항목은 바뀐 경로별 종류(디렉터리/파일/링크)와 POSIX 권한이고,
+ * 이어서 새로 생기거나 바뀐 디렉터리, 파일, 심볼릭 링크(내용은 대상 경로)가 부모부터 들어갑니다.
+ * 복원은 풀에서 대여한 원본 상태의 작업 공간에 지워진 경로를 지우고 나머지를 풀기만 하면 되므로,
+ * 스냅샷 크기와 복원 시간이 작업 공간 전체가 아니라 사용 중 바뀐 양에 비례합니다.
+ */
+final class WorkspaceSnapshot {
+
+    private static final String DELETED_ENTRY = ".sandbox-snapshot/deleted";
+    private static final String ATTRIBUTES_ENTRY = ".sandbox-snapshot/attributes";
+    private static final char DIRECTORY = 'd';
+    private static final char FILE = 'f';
+    private static final char LINK = 'l';
+
+    private WorkspaceSnapshot() {
+    }
+
+    /**
+     * 스냅샷 파일 작성 (임시 파일에 쓴 뒤 이름 변경)
+     *
+     * @return 담은 항목 수
+     */
+    static int write(WorkspaceTemplate template, Path workspace, Path snapshot, int compressionLevel)
+            throws IOException {
+        WorkspaceTemplate.Delta delta = template.delta(workspace);
+        Files.createDirectories(snapshot.getParent());
+        Path staging = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(staging))) {
+                zip.setLevel(compressionLevel);
+                zip.putNextEntry(new ZipEntry(DELETED_ENTRY));
+                StringBuilder deleted = new StringBuilder();
+                for (Path path : delta.deleted()) {
+                    deleted.append(path).append('\n');
+                }
+                zip.write(deleted.toString().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+                List<BasicFileAttributes> attributes = new ArrayList<>();
+                StringBuilder lines = new StringBuilder();
+                for (Path relative : delta.changed()) {
+                    BasicFileAttributes attrs = WorkspaceTemplate.readAttributes(workspace.resolve(relative));
+                    char kind = attrs.isDirectory() ? DIRECTORY : attrs.isSymbolicLink() ? LINK : FILE;
+                    int mode = WorkspaceTemplate.modeOf(attrs);
+                    lines.append(kind).append(' ').append(mode < 0 ? "-" : Integer.toOctalString(mode))
+                            .append(' ').append(relative).append('\n');
+                    attributes.add(attrs);
+                }
+                zip.putNextEntry(new ZipEntry(ATTRIBUTES_ENTRY));
+                zip.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+                for (int i = 0; i < delta.changed().size(); i++) {
+                    Path relative = delta.changed().get(i);
+                    Path source = workspace.resolve(relative);
+                    BasicFileAttributes attrs = attributes.get(i);
+                    if (attrs.isDirectory()) {
+                        zip.putNextEntry(new ZipEntry(relative + "/"));
+                    } else if (attrs.isSymbolicLink()) {
+                        zip.putNextEntry(new ZipEntry(relative.toString()));
+                        zip.write(Files.readSymbolicLink(source).toString().getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        ZipEntry entry = new ZipEntry(relative.toString());
+                        entry.setLastModifiedTime(attrs.lastModifiedTime());
+                        zip.putNextEntry(entry);
+                        Files.copy(source, zip);
+                    }
+                    zip.closeEntry();
+                }
+            }
+            Files.move(staging, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+        return delta.changed().size() + delta.deleted().size();
+    }
+
+    /**
+     * 원본 상태의 작업 공간에 스냅샷 적용
+     */
+    static void apply(Path snapshot, Path workspace) throws IOException {
+        Path root = workspace.toAbsolutePath().normalize();
+        Path realRoot = root.toRealPath();
+        Map<Path, String[]> attributes = new HashMap<>();
+        List<Path> applied = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(snapshot))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (DELETED_ENTRY.equals(entry.getName())) {
+                    deleteAll(root, readLines(zip));
+                    continue;
+                }
+                if (ATTRIBUTES_ENTRY.equals(entry.getName())) {
+                    for (String line : readLines(zip)) {
+                        String[] parts = line.split(" ", 3);
+                        attributes.put(resolve(root, parts[2]), parts);
+                    }
+                    continue;
+                }
+                Path destination = resolve(root, entry.getName());
+                String[] attrs = attributes.get(destination);
+                char kind = attrs != null ? attrs[0].charAt(0) : entry.isDirectory() ? DIRECTORY : FILE;
+                applied.add(destination);
+                if (!Files.isDirectory(destination.getParent(), LinkOption.NOFOLLOW_LINKS)) {
+                    Files.createDirectories(destination.getParent());
+                }
+                // 앞서 복원한 링크를 거쳐 작업 공간 밖에 쓰지 않도록 실제 경로 확인
+                if (!destination.getParent().toRealPath().startsWith(realRoot)) {
+                    throw new IOException("Snapshot entry escapes workspace: " + entry.getName());
+                }
+                if (kind == DIRECTORY) {
+                    if (!Files.isDirectory(destination, LinkOption.NOFOLLOW_LINKS)) {
+                        Files.deleteIfExists(destination);
+                        Files.createDirectory(destination);
+                    }
+                    continue;
+                }
+                if (Files.isDirectory(destination, LinkOption.NOFOLLOW_LINKS)) {
+                    WorkspaceTemplate.deleteRecursively(destination);
+                } else {
+                    // 기존 링크를 따라 대상 파일에 쓰지 않도록 먼저 지움
+                    Files.deleteIfExists(destination);
+                }
+                if (kind == LINK) {
+                    String target = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                    Files.createSymbolicLink(destination, Paths.get(target));
+                    continue;
+                }
+                try (OutputStream out = Files.newOutputStream(destination)) {
+                    zip.transferTo(out);
+                }
+                FileTime lastModified = entry.getLastModifiedTime();
+                if (lastModified != null) {
+                    Files.setLastModifiedTime(destination, lastModified);
+                }
+            }
+        }
+        // 쓰기 권한이 없는 디렉터리도 있으므로 모두 풀고 난 뒤 하위부터 권한 적용
+        Collections.reverse(applied);
+        for (Path path : applied) {
+            String[] attrs = attributes.get(path);
+            if (attrs != null && attrs[0].charAt(0) != LINK && !"-".equals(attrs[1])) {
+                WorkspaceTemplate.setMode(path, Integer.parseInt(attrs[1], 8));
+            }
+        }
+    }
+
+    private static void deleteAll(Path root, List<String> paths) throws IOException {
+        // 하위 경로가 먼저 지워지도록 역순
+        Collections.reverse(paths);
+        for (String path : paths) {
+            WorkspaceTemplate.deleteRecursively(resolve(root, path));
+        }
+    }
+
+    private static List<String> readLines(InputStream in) throws IOException {
+        List<String> lines = new ArrayList<>();
+        // 엔트리 끝에서 멈추도록 zip 스트림을 닫지 않고 읽음
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static Path resolve(Path root, String name) throws IOException {
+        Path path = root.resolve(name).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IOException("Snapshot entry escapes workspace: " + name);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,308 @@
+package com.agi.sandbox.pool;
+
+import com.agi.sandbox.entity.SandboxTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 템플릿 원본 작업 공간과 그 목록(manifest)
+ *
+ * 원본은 {templates}/{templateId}에 한 번 만들어 두고, 작업 공간은 원본을 속성째 복사해 만듭니다.
+ * 목록에는 디렉터리, 일반 파일과 심볼릭 링크(대상 경로째)가 POSIX 권한과 함께 들어갑니다.
+ * 반납된 작업 공간은 사용자가 내용/권한/수정 시각/하드 링크를 모두 바꿀 수 있으므로 되돌려 쓰지 않고
+ * 지운 뒤 원본에서 다시 만듭니다.
+ */
+final class WorkspaceTemplate {
+
+    static final String METADATA_DIR = ".sandbox";
+    private static final String[] LAYOUT = {"workspace", "tmp", "output", METADATA_DIR};
+
+    private final String key;
+    private final Path source;
+    /** 원본 기준 상대 경로 → 항목 (부모 디렉터리가 먼저 오도록 경로 순) */
+    private final Map<Path, Entry> manifest;
+
+    private WorkspaceTemplate(String key, Path source, Map<Path, Entry> manifest) {
+        this.key = key;
+        this.source = source;
+        this.manifest = manifest;
+    }
+
+    /**
+     * 원본 준비 (없으면 기본 디렉터리 구조와 템플릿 정보로 생성)
+     *
+     * @param template null이면 기본 템플릿
+     */
+    static WorkspaceTemplate prepare(String key, Path templatesDir, SandboxTemplate template) throws IOException {
+        Path source = templatesDir.resolve(key);
+        if (!Files.isDirectory(source)) {
+            Path staging = Files.createTempDirectory(templatesDir, key + ".");
+            for (String dir : LAYOUT) {
+                Files.createDirectories(staging.resolve(dir));
+            }
+            writeTemplateInfo(staging.resolve(METADATA_DIR).resolve("template.properties"), key, template);
+            try {
+                Files.move(staging, source, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // 다른 노드/스레드가 먼저 만든 경우
+                deleteRecursively(staging);
+                if (!Files.isDirectory(source)) {
+                    throw e;
+                }
+            }
+        }
+        return new WorkspaceTemplate(key, source, scan(source));
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    int size() {
+        return manifest.size();
+    }
+
+    /**
+     * 원본을 target에 복사 (target은 없어야 함)
+     */
+    void materialize(Path target) throws IOException {
+        Files.createDirectories(target);
+        List<Path> directories = new ArrayList<>();
+        for (Map.Entry<Path, Entry> entry : manifest.entrySet()) {
+            restore(entry.getKey(), entry.getValue(), target);
+            if (entry.getValue().directory()) {
+                directories.add(entry.getKey());
+            }
+        }
+        // 쓰기 권한이 없는 디렉터리도 있으므로 내용을 모두 채운 뒤 하위부터 권한 적용
+        Collections.reverse(directories);
+        for (Path relative : directories) {
+            setMode(target.resolve(relative), manifest.get(relative).mode());
+        }
+    }
+
+    /**
+     * target에서 원본과 달라진 항목 (크기/수정 시각/권한/링크 대상 기준, 같은 샌드박스의 휴면 스냅샷용)
+     *
+     * 원본에서 종류가 바뀐 경로(파일 ↔ 디렉터리)는 바뀐 항목과 지운 항목 양쪽에 들어갑니다.
+     */
+    Delta delta(Path target) throws IOException {
+        List<Path> changed = new ArrayList<>();
+        Set<Path> seen = new HashSet<>();
+        // 방문 시 받는 속성에는 권한이 없으므로 권한은 따로 읽음
+        Files.walkFileTree(target, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Path relative = target.relativize(dir);
+                if (relative.toString().isEmpty()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                Entry entry = manifest.get(relative);
+                if (entry != null && entry.directory()) {
+                    seen.add(relative);
+                    if (modeOf(readAttributes(dir)) == entry.mode()) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                }
+                changed.add(relative);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path relative = target.relativize(file);
+                Entry entry = manifest.get(relative);
+                if (attrs.isSymbolicLink()) {
+                    if (entry != null && entry.link()) {
+                        seen.add(relative);
+                        if (entry.linkTarget().equals(Files.readSymbolicLink(file).toString())) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                    }
+                    changed.add(relative);
+                    return FileVisitResult.CONTINUE;
+                }
+                if (!attrs.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (entry != null && !entry.directory() && !entry.link()) {
+                    seen.add(relative);
+                    if (attrs.size() == entry.size() && attrs.lastModifiedTime().toMillis() == entry.lastModified()
+                            && modeOf(readAttributes(file)) == entry.mode()) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                }
+                changed.add(relative);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        List<Path> deleted = new ArrayList<>();
+        for (Path path : manifest.keySet()) {
+            if (!seen.contains(path)) {
+                deleted.add(path);
+            }
+        }
+        return new Delta(changed, deleted);
+    }
+
+    private void restore(Path relative, Entry entry, Path target) throws IOException {
+        Path destination = target.resolve(relative);
+        if (entry.directory()) {
+            Files.createDirectories(destination);
+        } else if (entry.link()) {
+            Files.createSymbolicLink(destination, Paths.get(entry.linkTarget()));
+        } else {
+            Files.copy(source.resolve(relative), destination, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    /**
+     * POSIX 권한 비트 (0755 등, POSIX를 지원하지 않는 파일 시스템이면 -1)
+     */
+    static int modeOf(BasicFileAttributes attrs) {
+        if (!(attrs instanceof PosixFileAttributes posix)) {
+            return -1;
+        }
+        int mode = 0;
+        for (PosixFilePermission permission : posix.permissions()) {
+            mode |= 1 << (8 - permission.ordinal());
+        }
+        return mode;
+    }
+
+    /**
+     * POSIX 권한 비트 적용 (mode가 음수이거나 POSIX를 지원하지 않으면 무시)
+     */
+    static void setMode(Path path, int mode) throws IOException {
+        if (mode < 0) {
+            return;
+        }
+        PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class,
+                LinkOption.NOFOLLOW_LINKS);
+        if (view == null) {
+            return;
+        }
+        Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+        for (PosixFilePermission permission : PosixFilePermission.values()) {
+            if ((mode & (1 << (8 - permission.ordinal()))) != 0) {
+                permissions.add(permission);
+            }
+        }
+        view.setPermissions(permissions);
+    }
+
+    static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static Map<Path, Entry> scan(Path source) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(source)) {
+            walk.filter(path -> !path.equals(source)).forEach(paths::add);
+        }
+        Collections.sort(paths);
+        Map<Path, Entry> manifest = new LinkedHashMap<>();
+        for (Path path : paths) {
+            BasicFileAttributes attrs = readAttributes(path);
+            String linkTarget = attrs.isSymbolicLink() ? Files.readSymbolicLink(path).toString() : null;
+            if (!attrs.isDirectory() && !attrs.isRegularFile() && linkTarget == null) {
+                continue;
+            }
+            manifest.put(source.relativize(path), new Entry(attrs.isDirectory(), attrs.size(),
+                    attrs.lastModifiedTime().toMillis(), modeOf(attrs), linkTarget));
+        }
+        return Collections.unmodifiableMap(manifest);
+    }
+
+    /**
+     * 링크를 따라가지 않는 속성 (POSIX 파일 시스템이면 권한 포함)
+     */
+    static BasicFileAttributes readAttributes(Path path) throws IOException {
+        if (Files.getFileAttributeView(path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS) != null) {
+            return Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private static void writeTemplateInfo(Path file, String key, SandboxTemplate template) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("template", key);
+        if (template != null) {
+            setIfPresent(properties, "name", template.getName());
+            setIfPresent(properties, "baseImage", template.getBaseImage());
+            setIfPresent(properties, "preInstalledPackages", template.getPreInstalledPackages());
+            setIfPresent(properties, "defaultCpu", template.getDefaultCpu());
+            setIfPresent(properties, "defaultMemory", template.getDefaultMemory());
+            setIfPresent(properties, "defaultDisk", template.getDefaultDisk());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+    }
+
+    private static void setIfPresent(Properties properties, String name, Object value) {
+        if (value != null) {
+            properties.setProperty(name, String.valueOf(value));
+        }
+    }
+
+    /**
+     * @param mode       POSIX 권한 비트 (지원하지 않으면 -1)
+     * @param linkTarget 심볼릭 링크 대상 (링크가 아니면 null)
+     */
+    private record Entry(boolean directory, long size, long lastModified, int mode, String linkTarget) {
+
+        boolean link() {
+            return linkTarget != null;
+        }
+    }
+
+    /**
+     * @param changed 새로 생기거나 바뀐 항목 (부모가 먼저)
+     * @param deleted 원본에는 있지만 target에 없는 항목 (경로 순)
+     */
+    record Delta(List<Path> changed, List<Path> deleted) {
+    }
+}
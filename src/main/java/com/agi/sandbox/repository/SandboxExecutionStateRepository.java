@@ -0,0 +1,63 @@
+package com.agi.sandbox.repository;
+
+import com.agi.sandbox.enums.SandboxExecutionStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 샌드박스 명령 실행 진행/완료 기록 (JDBC)
+ */
+@Repository
+@RequiredArgsConstructor
+public class SandboxExecutionStateRepository {
+    
+    /**
+     * 실행 중인 명령의 출력 오프셋과 자원 사용량 (JSON)
+     */
+    public record OutputOffsets(String id, long stdoutBytes, long stderrBytes, String resourceUsage) {
+    }
+    
+    /**
+     * 실행 종료 기록
+     */
+    public record ExecutionResult(String id, SandboxExecutionStatus status, Integer exitCode,
+                                  LocalDateTime completedAt, long stdoutBytes, long stderrBytes,
+                                  String outputPreview, String errorPreview, String resourceUsage) {
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public void updateOffsets(List<OutputOffsets> offsets) {
+        if (offsets.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE sandbox_execution SET stdout_bytes = ?, stderr_bytes = ?, resource_usage = ? "
+                        + "WHERE id = ? AND status = 'RUNNING'",
+                offsets, offsets.size(), (ps, offset) -> {
+                    ps.setLong(1, offset.stdoutBytes());
+                    ps.setLong(2, offset.stderrBytes());
+                    ps.setString(3, offset.resourceUsage());
+                    ps.setString(4, offset.id());
+                });
+    }
+    
+    public void complete(ExecutionResult result) {
+        jdbcTemplate.update("UPDATE sandbox_execution SET status = ?, exit_code = ?, completed_at = ?, "
+                        + "stdout_bytes = ?, stderr_bytes = ?, output = ?, error_output = ?, resource_usage = ? "
+                        + "WHERE id = ?",
+                result.status().name(),
+                result.exitCode(),
+                Timestamp.valueOf(result.completedAt()),
+                result.stdoutBytes(),
+                result.stderrBytes(),
+                result.outputPreview(),
+                result.errorPreview(),
+                result.resourceUsage(),
+                result.id());
+    }
+}
@@ -22,9 +22,12 @@ public interface SandboxRepository extends JpaRepository<Sandbox, String> {
     @Query("SELECT s FROM Sandbox s WHERE s.createdAt >= :startDate AND s.createdAt <= :endDate")
     List<Sandbox> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    @Query("SELECT s FROM Sandbox s WHERE s.lastActiveAt < :date")
+    @Query("SELECT s FROM Sandbox s WHERE s.lastAccessedAt < :date")
     List<Sandbox> findInactiveSandboxes(LocalDateTime date);
     
+    @Query("SELECT s FROM Sandbox s JOIN FETCH s.user WHERE s.status = :status AND s.lastAccessedAt < :date")
+    List<Sandbox> findInactiveSandboxes(SandboxStatus status, LocalDateTime date);
+    
     @Query("SELECT s FROM Sandbox s WHERE s.status = :status AND s.user.id = :userId")
     List<Sandbox> findByStatusAndUserId(SandboxStatus status, Long userId);
 }
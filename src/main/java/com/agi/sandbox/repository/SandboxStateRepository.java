@@ -0,0 +1,41 @@
+package com.agi.sandbox.repository;
+
+import com.agi.sandbox.enums.SandboxStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 샌드박스 상태 일괄 기록 (JDBC)
+ */
+@Repository
+@RequiredArgsConstructor
+public class SandboxStateRepository {
+    
+    private static final String UPDATE_STATE_SQL = "UPDATE sandbox SET status = ?, last_accessed_at = ?, "
+            + "updated_at = ? WHERE id = ?";
+    
+    /**
+     * 샌드박스 상태 기록
+     */
+    public record StateUpdate(String id, SandboxStatus status, LocalDateTime lastAccessedAt, LocalDateTime updatedAt) {
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public void saveStates(List<StateUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATE_SQL, updates, updates.size(), (ps, update) -> {
+            ps.setString(1, update.status().name());
+            ps.setTimestamp(2, update.lastAccessedAt() != null ? Timestamp.valueOf(update.lastAccessedAt()) : null);
+            ps.setTimestamp(3, Timestamp.valueOf(update.updatedAt()));
+            ps.setString(4, update.id());
+        });
+    }
+}
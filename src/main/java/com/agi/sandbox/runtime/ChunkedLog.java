@@ -0,0 +1,169 @@
+package com.agi.sandbox.runtime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 고정 크기 조각 파일로 나눠 쓰는 추가 전용 로그 ({dir}/{stream}.{index}.log)
+ *
+ * 조각 크기가 고정이라 논리 오프셋만으로 조각 파일과 위치가 정해지므로, 색인 없이 임의 구간을 읽을 수 있습니다.
+ * 쓰기는 단일 스레드가 하며, position은 파일에 쓴 뒤에 늘리므로 다른 스레드는 position까지 안전하게 읽습니다.
+ * 마지막 previewBytes 바이트는 링 버퍼에 남겨 DB 미리보기로 씁니다.
+ */
+public final class ChunkedLog implements Closeable {
+
+    private final Path dir;
+    private final String stream;
+    private final long chunkSize;
+    private final byte[] tail;
+    private long tailCount;
+    private FileChannel current;
+    private long currentIndex = -1;
+    private volatile long position;
+
+    private ChunkedLog(Path dir, String stream, long chunkSize, int previewBytes) {
+        this.dir = dir;
+        this.stream = stream;
+        this.chunkSize = chunkSize;
+        this.tail = new byte[previewBytes];
+    }
+
+    public static ChunkedLog create(Path dir, String stream, long chunkSize, int previewBytes) throws IOException {
+        Files.createDirectories(dir);
+        return new ChunkedLog(dir, stream, chunkSize, previewBytes);
+    }
+
+    /**
+     * src의 남은 바이트를 모두 기록
+     */
+    public void write(ByteBuffer src) throws IOException {
+        remember(src.duplicate());
+        while (src.hasRemaining()) {
+            long index = position / chunkSize;
+            if (index != currentIndex) {
+                roll(index);
+            }
+            int room = (int) Math.min(chunkSize - position % chunkSize, src.remaining());
+            ByteBuffer slice = src.slice();
+            slice.limit(room);
+            while (slice.hasRemaining()) {
+                current.write(slice);
+            }
+            src.position(src.position() + room);
+            position += room;
+        }
+    }
+
+    /**
+     * 지금까지 기록한 바이트 수
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 마지막 previewBytes 바이트 (UTF-8, 잘린 첫 문자는 버림)
+     */
+    public String preview() {
+        int length = (int) Math.min(tailCount, tail.length);
+        byte[] bytes = new byte[length];
+        int start = (int) ((tailCount - length) % Math.max(1, tail.length));
+        for (int i = 0; i < length; i++) {
+            bytes[i] = tail[(start + i) % tail.length];
+        }
+        int skip = 0;
+        if (tailCount > tail.length) {
+            while (skip < length && (bytes[skip] & 0xC0) == 0x80) {
+                skip++;
+            }
+        }
+        return new String(bytes, skip, length - skip, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    /**
+     * [offset, min(offset + limit, available)) 구간 읽기
+     *
+     * @param available 기록이 끝난 바이트 수 (실행 중이면 writer의 position)
+     */
+    public static byte[] read(Path dir, String stream, long chunkSize, long offset, int limit, long available)
+            throws IOException {
+        long end = Math.min(available, offset + limit);
+        if (offset >= end) {
+            return new byte[0];
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - offset));
+        long cursor = offset;
+        while (cursor < end) {
+            long index = cursor / chunkSize;
+            long within = cursor % chunkSize;
+            int length = (int) Math.min(chunkSize - within, end - cursor);
+            try (FileChannel channel = FileChannel.open(chunkPath(dir, stream, index), StandardOpenOption.READ)) {
+                ByteBuffer slice = buffer.slice();
+                slice.limit(length);
+                while (slice.hasRemaining()) {
+                    if (channel.read(slice, within + slice.position()) < 0) {
+                        throw new IOException("Log chunk is shorter than expected: " + chunkPath(dir, stream, index));
+                    }
+                }
+            }
+            buffer.position(buffer.position() + length);
+            cursor += length;
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 끝에 걸친 미완성 UTF-8 문자를 뺀 길이
+     */
+    public static int completeUtf8Length(byte[] bytes) {
+        int length = bytes.length;
+        for (int back = 1; back <= Math.min(3, length); back++) {
+            int b = bytes[length - back] & 0xFF;
+            if ((b & 0xC0) == 0x80) {
+                continue;
+            }
+            int expected = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+            return expected > back ? length - back : length;
+        }
+        return length;
+    }
+
+    static Path chunkPath(Path dir, String stream, long index) {
+        return dir.resolve(String.format("%s.%06d.log", stream, index));
+    }
+
+    private void roll(long index) throws IOException {
+        close();
+        current = FileChannel.open(chunkPath(dir, stream, index), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        currentIndex = index;
+    }
+
+    private void remember(ByteBuffer src) {
+        if (tail.length == 0) {
+            return;
+        }
+        // 링 버퍼보다 긴 입력은 끝부분만
+        int skip = Math.max(0, src.remaining() - tail.length);
+        src.position(src.position() + skip);
+        tailCount += skip;
+        while (src.hasRemaining()) {
+            tail[(int) (tailCount % tail.length)] = src.get();
+            tailCount++;
+        }
+    }
+}
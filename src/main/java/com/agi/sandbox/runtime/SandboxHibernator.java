@@ -0,0 +1,238 @@
+package com.agi.sandbox.runtime;
+
+import com.agi.sandbox.entity.Sandbox;
+import com.agi.sandbox.entity.SandboxTemplate;
+import com.agi.sandbox.enums.SandboxStatus;
+import com.agi.sandbox.pool.SandboxPool;
+import com.agi.sandbox.repository.SandboxRepository;
+import com.agi.sandbox.repository.SandboxTemplateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유휴 샌드박스 휴면과 복원
+ *
+ * 주기마다 템플릿별 유휴 시간을 넘긴 RUNNING 샌드박스를 PAUSED로 바꾸고, 작업 공간을 템플릿 원본 대비
+ * 변경분 스냅샷({snapshot-path}/{sandboxId}.zip)으로 저장한 뒤 작업 공간은 풀에 반납합니다.
+ * 다음 접근 때는 풀에서 대여한 작업 공간에 변경분만 풀어 복원하므로 새로 만드는 것보다 빠릅니다.
+ * 같은 샌드박스의 휴면/복원/폐기는 한 번에 하나만 진행되고, 나머지 요청은 끝나기를 기다립니다.
+ */
+@Slf4j
+@Component
+public class SandboxHibernator {
+
+    private final SandboxRepository sandboxRepository;
+    private final SandboxTemplateRepository sandboxTemplateRepository;
+    private final SandboxPool sandboxPool;
+    private final SandboxStateTracker sandboxStateTracker;
+    private final SandboxProcessRunner sandboxProcessRunner;
+    private final Path snapshotPath;
+    private final boolean enabled;
+    private final int defaultIdleMinutes;
+    private final int compressionLevel;
+    private final int maxPerScan;
+    private final Map<String, CompletableFuture<Void>> operations = new ConcurrentHashMap<>();
+
+    public SandboxHibernator(SandboxRepository sandboxRepository,
+                             SandboxTemplateRepository sandboxTemplateRepository,
+                             SandboxPool sandboxPool,
+                             SandboxStateTracker sandboxStateTracker,
+                             SandboxProcessRunner sandboxProcessRunner,
+                             @Value("${sandbox.hibernation.snapshot-path:/home/sandbox/snapshots}") String snapshotPath,
+                             @Value("${sandbox.hibernation.enabled:true}") boolean enabled,
+                             @Value("${sandbox.hibernation.idle-minutes:30}") int defaultIdleMinutes,
+                             @Value("${sandbox.hibernation.compression-level:1}") int compressionLevel,
+                             @Value("${sandbox.hibernation.max-per-scan:32}") int maxPerScan) {
+        this.sandboxRepository = sandboxRepository;
+        this.sandboxTemplateRepository = sandboxTemplateRepository;
+        this.sandboxPool = sandboxPool;
+        this.sandboxStateTracker = sandboxStateTracker;
+        this.sandboxProcessRunner = sandboxProcessRunner;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.enabled = enabled;
+        this.defaultIdleMinutes = defaultIdleMinutes;
+        this.compressionLevel = compressionLevel;
+        this.maxPerScan = maxPerScan;
+    }
+
+    /**
+     * 유휴 샌드박스 휴면
+     */
+    @Scheduled(initialDelayString = "${sandbox.hibernation.scan-interval-ms:60000}",
+            fixedDelayString = "${sandbox.hibernation.scan-interval-ms:60000}")
+    public void reap() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, SandboxTemplate> templates = new HashMap<>();
+        Map<String, Integer> idleMinutes = new HashMap<>();
+        int shortest = defaultIdleMinutes > 0 ? defaultIdleMinutes : Integer.MAX_VALUE;
+        List<Sandbox> candidates;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (SandboxTemplate template : sandboxTemplateRepository.findAllActive()) {
+                int minutes = template.getIdleTimeoutMinutes() != null ? template.getIdleTimeoutMinutes()
+                        : defaultIdleMinutes;
+                templates.put(template.getId(), template);
+                idleMinutes.put(template.getId(), minutes);
+                if (minutes > 0) {
+                    shortest = Math.min(shortest, minutes);
+                }
+            }
+            if (shortest == Integer.MAX_VALUE) {
+                return;
+            }
+            // DB의 접근 시각은 기록 주기만큼 늦으므로 후보만 고르고, 최종 판단은 메모리 상태로
+            candidates = sandboxRepository.findInactiveSandboxes(SandboxStatus.RUNNING, now.minusMinutes(shortest));
+        } catch (RuntimeException e) {
+            log.warn("Failed to load idle sandboxes", e);
+            return;
+        }
+        int hibernated = 0;
+        for (Sandbox sandbox : candidates) {
+            if (hibernated >= maxPerScan) {
+                break;
+            }
+            int minutes = sandbox.getTemplateId() != null
+                    ? idleMinutes.getOrDefault(sandbox.getTemplateId(), defaultIdleMinutes) : defaultIdleMinutes;
+            if (minutes <= 0) {
+                continue;
+            }
+            try {
+                SandboxTemplate template = sandbox.getTemplateId() == null ? null
+                        : templates.containsKey(sandbox.getTemplateId()) ? templates.get(sandbox.getTemplateId())
+                        : findTemplate(sandbox.getTemplateId());
+                if (hibernate(sandbox, template, now.minusMinutes(minutes))) {
+                    hibernated++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to hibernate sandbox {}", sandbox.getId(), e);
+            }
+        }
+        if (hibernated > 0) {
+            log.info("Hibernated {} idle sandboxes", hibernated);
+        }
+    }
+
+    /**
+     * PAUSED 샌드박스 복원 (이미 RUNNING이면 아무것도 하지 않음)
+     */
+    public void resume(Sandbox sandbox) {
+        String sandboxId = sandbox.getId();
+        CompletableFuture<Void> operation = begin(sandboxId);
+        try {
+            SandboxStateTracker.State state = sandboxStateTracker.track(sandbox);
+            if (state.getStatus() != SandboxStatus.PAUSED) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            Path snapshot = snapshotOf(sandboxId);
+            if (Files.exists(snapshot)) {
+                sandboxPool.restore(findTemplate(sandbox.getTemplateId()), sandboxId, snapshot);
+            } else if (!Files.isDirectory(sandboxPool.workspaceOf(sandboxId))) {
+                sandboxStateTracker.transition(sandboxId, EnumSet.of(SandboxStatus.PAUSED), SandboxStatus.ERROR);
+                throw new IllegalStateException("Snapshot of paused sandbox is missing: " + sandboxId);
+            }
+            if (!sandboxStateTracker.transition(sandboxId, EnumSet.of(SandboxStatus.PAUSED), SandboxStatus.RUNNING)) {
+                // 복원 중 중지된 경우
+                sandboxPool.release(sandbox.getTemplateId(), sandboxId);
+                return;
+            }
+            sandboxStateTracker.touch(sandboxId);
+            deleteSnapshot(sandboxId);
+            log.debug("Resumed sandbox {} in {} ms", sandboxId, (System.nanoTime() - startedAt) / 1_000_000);
+        } finally {
+            end(sandboxId, operation);
+        }
+    }
+
+    /**
+     * 중지된 샌드박스의 스냅샷 삭제 (진행 중인 휴면/복원이 끝난 뒤)
+     */
+    public void discard(String sandboxId) {
+        CompletableFuture<Void> operation = begin(sandboxId);
+        try {
+            deleteSnapshot(sandboxId);
+        } finally {
+            end(sandboxId, operation);
+        }
+    }
+
+    private boolean hibernate(Sandbox sandbox, SandboxTemplate template, LocalDateTime idleBefore) {
+        String sandboxId = sandbox.getId();
+        Path workspace = sandboxPool.workspaceOf(sandboxId);
+        CompletableFuture<Void> operation = new CompletableFuture<>();
+        if (operations.putIfAbsent(sandboxId, operation) != null) {
+            return false;
+        }
+        try {
+            sandboxStateTracker.track(sandbox);
+            if (sandboxProcessRunner.isRunningIn(workspace) || !sandboxStateTracker.transitionIfIdle(sandboxId,
+                    EnumSet.of(SandboxStatus.RUNNING), SandboxStatus.PAUSED, idleBefore)) {
+                return false;
+            }
+            if (!Files.isDirectory(workspace)) {
+                // 작업 공간 없이 RUNNING이던 샌드박스 (노드 이전 등)
+                sandboxStateTracker.transition(sandboxId, EnumSet.of(SandboxStatus.PAUSED), SandboxStatus.ERROR);
+                return false;
+            }
+            try {
+                int entries = sandboxPool.hibernate(template, sandboxId, snapshotOf(sandboxId), compressionLevel);
+                log.debug("Hibernated sandbox {} ({} changed entries)", sandboxId, entries);
+            } catch (RuntimeException e) {
+                // 작업 공간은 반납 전이므로 그대로 계속 사용
+                sandboxStateTracker.transition(sandboxId, EnumSet.of(SandboxStatus.PAUSED), SandboxStatus.RUNNING);
+                throw e;
+            }
+            return true;
+        } finally {
+            end(sandboxId, operation);
+        }
+    }
+
+    private CompletableFuture<Void> begin(String sandboxId) {
+        CompletableFuture<Void> operation = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<Void> running = operations.putIfAbsent(sandboxId, operation);
+            if (running == null) {
+                return operation;
+            }
+            running.join();
+        }
+    }
+
+    private void end(String sandboxId, CompletableFuture<Void> operation) {
+        operations.remove(sandboxId, operation);
+        operation.complete(null);
+    }
+
+    private SandboxTemplate findTemplate(String templateId) {
+        return templateId != null ? sandboxTemplateRepository.findById(templateId).orElse(null) : null;
+    }
+
+    private Path snapshotOf(String sandboxId) {
+        return snapshotPath.resolve(sandboxId + ".zip");
+    }
+
+    private void deleteSnapshot(String sandboxId) {
+        try {
+            Files.deleteIfExists(snapshotOf(sandboxId));
+        } catch (IOException e) {
+            log.warn("Failed to delete snapshot of sandbox {}: {}", sandboxId, e.toString());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.agi.sandbox.runtime;
+
+import com.agi.sandbox.enums.SandboxExecutionStatus;
+import com.agi.sandbox.repository.SandboxExecutionStateRepository;
+import com.agi.sandbox.repository.SandboxExecutionStateRepository.ExecutionResult;
+import com.agi.sandbox.repository.SandboxExecutionStateRepository.OutputOffsets;
+import com.agi.sandbox.runtime.limit.Confinement;
+import com.agi.sandbox.runtime.limit.ResourceLimits;
+import com.agi.sandbox.runtime.limit.ResourceUsage;
+import com.agi.sandbox.runtime.limit.SandboxSupervisor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 샌드박스 명령 실행과 출력 수집
+ *
+ * 표준 출력/오류는 실행마다 고정 크기 버퍼 하나씩으로 프로세스 파이프에서 읽어 조각 로그 파일에 바로 씁니다.
+ * 파이프 자체가 커널 버퍼 크기로 제한되므로 디스크가 느리면 명령 쪽이 기다리고,
+ * 출력이 얼마나 크든 실행당 메모리는 버퍼와 미리보기 링 버퍼 크기로 고정됩니다.
+ * DB에는 실행 중 주기적으로 오프셋과 자원 사용량만, 종료 시 여기에 미리보기를 더해 기록합니다.
+ * 자원 제한과 사용량 측정은 {@link SandboxSupervisor}가 맡습니다.
+ */
+@Slf4j
+@Component
+public class SandboxProcessRunner {
+
+    public static final String STDOUT = "stdout";
+    public static final String STDERR = "stderr";
+
+    private final SandboxExecutionStateRepository sandboxExecutionStateRepository;
+    private final SandboxSupervisor sandboxSupervisor;
+    private final Path logPath;
+    private final long chunkSize;
+    private final int previewBytes;
+    private final int bufferBytes;
+    private final long drainTimeoutMillis;
+    private final ExecutorService threads;
+    private final Map<String, RunningExecution> running = new ConcurrentHashMap<>();
+
+    public SandboxProcessRunner(SandboxExecutionStateRepository sandboxExecutionStateRepository,
+                                SandboxSupervisor sandboxSupervisor,
+                                @Value("${sandbox.execution.log-path:/home/sandbox/logs}") String logPath,
+                                @Value("${sandbox.execution.log-chunk-size-kb:1024}") int chunkSizeKb,
+                                @Value("${sandbox.execution.preview-bytes:4096}") int previewBytes,
+                                @Value("${sandbox.execution.buffer-bytes:8192}") int bufferBytes,
+                                @Value("${sandbox.execution.drain-timeout-ms:5000}") long drainTimeoutMillis,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.sandboxExecutionStateRepository = sandboxExecutionStateRepository;
+        this.sandboxSupervisor = sandboxSupervisor;
+        this.logPath = Paths.get(logPath);
+        this.chunkSize = chunkSizeKb * 1024L;
+        this.previewBytes = previewBytes;
+        this.bufferBytes = bufferBytes;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        // 실행당 출력 2개 + 대기 1개 스레드가 대부분 블로킹 읽기로 보내므로 가상 스레드가 적합
+        ThreadFactory factory = threadFactory(virtualThreads);
+        this.threads = virtualThreads ? Executors.newThreadPerTaskExecutor(factory) : Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * 실행 출력 조각 파일 디렉터리
+     */
+    public Path logDirOf(String executionId) {
+        return logPath.resolve(executionId);
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 명령 실행 시작 (종료 결과는 비동기로 기록)
+     *
+     * @param sandboxDir 샌드박스 디렉터리 (디스크 제한 측정 대상)
+     * @param workingDir 명령을 실행할 디렉터리
+     */
+    public void start(String executionId, Path sandboxDir, Path workingDir, String command, ResourceLimits limits)
+            throws IOException {
+        Path logDir = logDirOf(executionId);
+        ChunkedLog stdout = ChunkedLog.create(logDir, STDOUT, chunkSize, previewBytes);
+        ChunkedLog stderr = ChunkedLog.create(logDir, STDERR, chunkSize, previewBytes);
+        Confinement confinement = sandboxSupervisor.confine(executionId, limits);
+        Process process;
+        try {
+            ProcessBuilder builder = new ProcessBuilder(confinement.command(command))
+                    .directory(workingDir.toFile())
+                    .redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")));
+            builder.environment().put("HOME", workingDir.toString());
+            builder.environment().put("TMPDIR", workingDir.resolveSibling("tmp").toString());
+            process = builder.start();
+        } catch (IOException | RuntimeException e) {
+            confinement.close();
+            closeQuietly(stdout);
+            closeQuietly(stderr);
+            throw e;
+        }
+        ResourceUsage usage = sandboxSupervisor.watch(executionId, process, confinement, limits, sandboxDir);
+        RunningExecution execution = new RunningExecution(executionId, sandboxDir, process, confinement, usage,
+                stdout, stderr);
+        running.put(executionId, execution);
+        threads.execute(() -> pump(execution, process.getInputStream(), stdout));
+        threads.execute(() -> pump(execution, process.getErrorStream(), stderr));
+        threads.execute(() -> await(execution, limits.wallSeconds()));
+    }
+
+    public RunningExecution get(String executionId) {
+        return running.get(executionId);
+    }
+
+    /**
+     * 샌드박스 디렉터리에서 실행 중인 명령이 있으면 true
+     */
+    public boolean isRunningIn(Path sandboxDir) {
+        for (RunningExecution execution : running.values()) {
+            if (execution.sandboxDir.equals(sandboxDir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 실행 취소 (프로세스와 하위 프로세스 강제 종료)
+     *
+     * @return 실행 중이었으면 true
+     */
+    public boolean cancel(String executionId) {
+        RunningExecution execution = running.get(executionId);
+        if (execution == null) {
+            return false;
+        }
+        execution.cancelled = true;
+        execution.kill();
+        return true;
+    }
+
+    /**
+     * 샌드박스 디렉터리에서 실행 중인 명령을 모두 취소하고 결과 기록까지 끝나기를 기다림
+     *
+     * @return 대기 시간 안에 끝나지 않은 실행 수
+     */
+    public int cancelAllIn(Path sandboxDir, long timeoutMillis) {
+        List<RunningExecution> targets = new ArrayList<>();
+        for (RunningExecution execution : running.values()) {
+            if (execution.sandboxDir.equals(sandboxDir)) {
+                execution.cancelled = true;
+                execution.kill();
+                targets.add(execution);
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int remaining = 0;
+        for (RunningExecution execution : targets) {
+            try {
+                if (!execution.finished.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    remaining++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                remaining++;
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * 실행 중인 명령의 출력 오프셋 기록
+     */
+    @Scheduled(fixedDelayString = "${sandbox.execution.progress-interval-ms:2000}")
+    public void flushOffsets() {
+        if (running.isEmpty()) {
+            return;
+        }
+        List<OutputOffsets> offsets = new ArrayList<>();
+        for (RunningExecution execution : running.values()) {
+            offsets.add(new OutputOffsets(execution.id, execution.stdout.position(), execution.stderr.position(),
+                    sandboxSupervisor.toJson(execution.usage)));
+        }
+        try {
+            sandboxExecutionStateRepository.updateOffsets(offsets);
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist output offsets of {} executions", offsets.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (RunningExecution execution : running.values()) {
+            execution.cancelled = true;
+            execution.kill();
+        }
+        threads.shutdown();
+        try {
+            threads.awaitTermination(drainTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pump(RunningExecution execution, InputStream in, ChunkedLog output) {
+        ByteBuffer buffer = ByteBuffer.allocate(bufferBytes);
+        try (ReadableByteChannel channel = Channels.newChannel(in)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                output.write(buffer);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            // 강제 종료나 배출 시간 초과로 파이프가 닫힌 경우
+            log.debug("Output pump of {} stopped: {}", execution.id, e.toString());
+        } finally {
+            closeQuietly(output);
+            execution.drained.countDown();
+        }
+    }
+
+    private void await(RunningExecution execution, int timeoutSeconds) {
+        Process process = execution.process;
+        Integer exitCode = null;
+        try {
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                execution.timedOut = true;
+                execution.kill();
+            }
+            exitCode = process.waitFor();
+            // 파이프를 물려받은 프로세스가 남아 있어도 배출 시간이 지나면 닫고 마무리
+            if (!execution.drained.await(drainTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                closeQuietly(process.getInputStream());
+                closeQuietly(process.getErrorStream());
+                execution.drained.await(drainTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execution.kill();
+        } finally {
+            finish(execution, exitCode);
+        }
+    }
+
+    private void finish(RunningExecution execution, Integer exitCode) {
+        sandboxSupervisor.unwatch(execution.id);
+        execution.confinement.close();
+        SandboxExecutionStatus status = execution.cancelled ? SandboxExecutionStatus.CANCELLED
+                : execution.timedOut ? SandboxExecutionStatus.TIMEOUT
+                : execution.usage.getKilledBy() != null ? SandboxExecutionStatus.KILLED
+                : exitCode != null && exitCode == 0 ? SandboxExecutionStatus.COMPLETED
+                : SandboxExecutionStatus.FAILED;
+        try {
+            sandboxExecutionStateRepository.complete(new ExecutionResult(execution.id, status, exitCode,
+                    LocalDateTime.now(), execution.stdout.position(), execution.stderr.position(),
+                    execution.stdout.preview(), execution.stderr.preview(), sandboxSupervisor.toJson(execution.usage)));
+        } catch (RuntimeException e) {
+            log.error("Failed to persist result of sandbox execution {}", execution.id, e);
+        } finally {
+            running.remove(execution.id);
+            execution.finished.countDown();
+        }
+        log.debug("Sandbox execution {} finished: {} (exit {})", execution.id, status, exitCode);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.debug("Failed to close {}: {}", closeable, e.toString());
+        }
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name("sandbox-exec-", 1).factory();
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "sandbox-exec-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 실행 중인 명령
+     */
+    public static final class RunningExecution {
+
+        private final String id;
+        private final Path sandboxDir;
+        private final Process process;
+        private final Confinement confinement;
+        private final ResourceUsage usage;
+        private final ChunkedLog stdout;
+        private final ChunkedLog stderr;
+        private final CountDownLatch drained = new CountDownLatch(2);
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile boolean cancelled;
+        private volatile boolean timedOut;
+
+        private RunningExecution(String id, Path sandboxDir, Process process, Confinement confinement,
+                                 ResourceUsage usage, ChunkedLog stdout, ChunkedLog stderr) {
+            this.id = id;
+            this.sandboxDir = sandboxDir;
+            this.process = process;
+            this.confinement = confinement;
+            this.usage = usage;
+            this.stdout = stdout;
+            this.stderr = stderr;
+        }
+
+        /**
+         * 지금까지 기록된 바이트 수
+         */
+        public long written(String stream) {
+            return STDERR.equals(stream) ? stderr.position() : stdout.position();
+        }
+
+        /**
+         * 프로세스와 하위 프로세스 강제 종료
+         */
+        private void kill() {
+            confinement.kill(process);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.agi.sandbox.runtime;
+
+import com.agi.sandbox.entity.Sandbox;
+import com.agi.sandbox.enums.SandboxStatus;
+import com.agi.sandbox.repository.SandboxStateRepository;
+import com.agi.sandbox.repository.SandboxStateRepository.StateUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 샌드박스 상태와 마지막 접근 시각의 메모리 사본
+ *
+ * 상태 전환과 접근 기록은 메모리에서만 바뀌고, flush-interval마다 바뀐 샌드박스만 JDBC 배치로 기록합니다.
+ * 조회는 메모리 사본을 우선하므로 기록 전에도 최신 상태가 보이며, STOPPED/ERROR는 기록 후 메모리에서 뺍니다.
+ */
+@Slf4j
+@Component
+public class SandboxStateTracker {
+    
+    private final SandboxStateRepository sandboxStateRepository;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    
+    public SandboxStateTracker(SandboxStateRepository sandboxStateRepository) {
+        this.sandboxStateRepository = sandboxStateRepository;
+    }
+    
+    /**
+     * 새 샌드박스 등록
+     */
+    public void register(String sandboxId, SandboxStatus status) {
+        states.put(sandboxId, new State(status, LocalDateTime.now()));
+    }
+    
+    /**
+     * 메모리에 없으면 엔티티 값으로 적재 (재기동 후 첫 접근)
+     */
+    public State track(Sandbox sandbox) {
+        return states.computeIfAbsent(sandbox.getId(),
+                id -> new State(sandbox.getStatus(), sandbox.getLastAccessedAt(), sandbox.getUpdatedAt()));
+    }
+    
+    public State get(String sandboxId) {
+        return states.get(sandboxId);
+    }
+    
+    /**
+     * 현재 상태가 from 중 하나일 때만 전환
+     *
+     * @return 전환되었으면 true
+     */
+    public boolean transition(String sandboxId, Set<SandboxStatus> from, SandboxStatus to) {
+        State state = states.get(sandboxId);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            if (!from.contains(state.status)) {
+                return false;
+            }
+            state.status = to;
+            state.changed(LocalDateTime.now());
+            return true;
+        }
+    }
+    
+    /**
+     * 마지막 접근이 idleBefore 이전이고 현재 상태가 from 중 하나일 때만 전환 (휴면용)
+     *
+     * {@link #acquire}와 같은 잠금 아래에서 확인하므로, 전환에 성공했다면 그 사이 사용을 시작한 요청은 없습니다.
+     *
+     * @return 전환되었으면 true
+     */
+    public boolean transitionIfIdle(String sandboxId, Set<SandboxStatus> from, SandboxStatus to,
+                                    LocalDateTime idleBefore) {
+        State state = states.get(sandboxId);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            if (!from.contains(state.status) || state.lastAccessedAt == null
+                    || !state.lastAccessedAt.isBefore(idleBefore)) {
+                return false;
+            }
+            state.status = to;
+            state.changed(LocalDateTime.now());
+            return true;
+        }
+    }
+    
+    /**
+     * RUNNING이면 접근 시각을 갱신하고 true (상태 확인과 갱신을 한 번에)
+     */
+    public boolean acquire(String sandboxId) {
+        State state = states.get(sandboxId);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            if (state.status != SandboxStatus.RUNNING) {
+                return false;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            state.lastAccessedAt = now;
+            state.changed(now);
+            return true;
+        }
+    }
+    
+    /**
+     * 마지막 접근 시각 갱신
+     */
+    public void touch(String sandboxId) {
+        State state = states.get(sandboxId);
+        if (state != null) {
+            synchronized (state) {
+                LocalDateTime now = LocalDateTime.now();
+                state.lastAccessedAt = now;
+                state.changed(now);
+            }
+        }
+    }
+    
+    /**
+     * 바뀐 상태 일괄 기록
+     */
+    @Scheduled(fixedDelayString = "${sandbox.state.flush-interval-ms:2000}")
+    public void flush() {
+        List<StateUpdate> updates = new ArrayList<>();
+        List<State> flushed = new ArrayList<>();
+        List<Long> versions = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (Map.Entry<String, State> entry : states.entrySet()) {
+            State state = entry.getValue();
+            synchronized (state) {
+                if (state.version == state.flushedVersion) {
+                    continue;
+                }
+                updates.add(new StateUpdate(entry.getKey(), state.status, state.lastAccessedAt, state.updatedAt));
+                flushed.add(state);
+                versions.add(state.version);
+                ids.add(entry.getKey());
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            sandboxStateRepository.saveStates(updates);
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist {} sandbox states", updates.size(), e);
+            return;
+        }
+        for (int i = 0; i < flushed.size(); i++) {
+            State state = flushed.get(i);
+            synchronized (state) {
+                state.flushedVersion = versions.get(i);
+                if (state.version == state.flushedVersion
+                        && (state.status == SandboxStatus.STOPPED || state.status == SandboxStatus.ERROR)) {
+                    states.remove(ids.get(i), state);
+                }
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+    
+    /**
+     * 샌드박스 하나의 상태 (필드는 인스턴스 잠금 아래에서 변경)
+     */
+    public static final class State {
+        
+        private volatile SandboxStatus status;
+        private volatile LocalDateTime lastAccessedAt;
+        private volatile LocalDateTime updatedAt;
+        private long version;
+        private long flushedVersion;
+        
+        private State(SandboxStatus status, LocalDateTime now) {
+            this.status = status;
+            this.lastAccessedAt = now;
+            this.updatedAt = now;
+        }
+        
+        private State(SandboxStatus status, LocalDateTime lastAccessedAt, LocalDateTime updatedAt) {
+            this.status = status;
+            this.lastAccessedAt = lastAccessedAt;
+            this.updatedAt = updatedAt;
+        }
+        
+        private void changed(LocalDateTime now) {
+            updatedAt = now;
+            version++;
+        }
+        
+        public SandboxStatus getStatus() {
+            return status;
+        }
+        
+        public LocalDateTime getLastAccessedAt() {
+            return lastAccessedAt;
+        }
+        
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.agi.sandbox.runtime.limit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * cgroups v2 제한 (실행마다 하위 cgroup 하나)
+ *
+ * 셸이 자기 PID를 cgroup.procs에 쓴 뒤 명령을 exec하므로 명령과 그 하위 프로세스는 모두 cgroup 안에서 시작합니다.
+ * 메모리(memory.max, 스왑 없음), CPU(cpu.max), 프로세스 수(pids.max)는 커널이 강제하고,
+ * 측정은 cgroup 전체의 누적값이라 먼저 끝난 하위 프로세스도 포함됩니다.
+ */
+@Slf4j
+final class CgroupConfinement implements Confinement {
+    
+    private static final long CPU_PERIOD_MICROS = 100_000;
+    
+    private final Path dir;
+    
+    private CgroupConfinement(Path dir) {
+        this.dir = dir;
+    }
+    
+    static CgroupConfinement create(Path root, String name, ResourceLimits limits, int maxPids) throws IOException {
+        Path dir = root.resolve(name);
+        Files.createDirectory(dir);
+        try {
+            if (limits.memoryMb() != null) {
+                write(dir, "memory.max", String.valueOf((long) limits.memoryMb() * 1024 * 1024));
+                writeIfPresent(dir, "memory.swap.max", "0");
+            }
+            if (limits.cpuCores() != null) {
+                write(dir, "cpu.max", (limits.cpuCores() * CPU_PERIOD_MICROS) + " " + CPU_PERIOD_MICROS);
+            }
+            if (maxPids > 0) {
+                writeIfPresent(dir, "pids.max", String.valueOf(maxPids));
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(dir);
+            throw e;
+        }
+        return new CgroupConfinement(dir);
+    }
+    
+    @Override
+    public String type() {
+        return "cgroup2";
+    }
+    
+    @Override
+    public List<String> command(String shellCommand) {
+        return List.of("/bin/sh", "-c", "echo $$ > \"$1/cgroup.procs\" && exec /bin/sh -c \"$2\"",
+                "sandbox", dir.toString(), shellCommand);
+    }
+    
+    @Override
+    public boolean enforcesMemory() {
+        return true;
+    }
+    
+    @Override
+    public ResourceSample sample(Process process) throws IOException {
+        long cpuMicros = 0;
+        for (String line : Files.readAllLines(dir.resolve("cpu.stat"), StandardCharsets.US_ASCII)) {
+            if (line.startsWith("usage_usec ")) {
+                cpuMicros = Long.parseLong(line.substring(11).trim());
+                break;
+            }
+        }
+        long rssBytes = Long.parseLong(Files.readString(dir.resolve("memory.current"), StandardCharsets.US_ASCII).trim());
+        long readBytes = 0;
+        long writeBytes = 0;
+        try {
+            // "8:0 rbytes=.. wbytes=.. rios=.." (장치별 한 줄)
+            for (String line : Files.readAllLines(dir.resolve("io.stat"), StandardCharsets.US_ASCII)) {
+                for (String field : line.split(" ")) {
+                    if (field.startsWith("rbytes=")) {
+                        readBytes += Long.parseLong(field.substring(7));
+                    } else if (field.startsWith("wbytes=")) {
+                        writeBytes += Long.parseLong(field.substring(7));
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // io 컨트롤러가 위임되지 않은 경우
+        }
+        boolean oomKilled = false;
+        for (String line : Files.readAllLines(dir.resolve("memory.events"), StandardCharsets.US_ASCII)) {
+            if (line.startsWith("oom_kill ")) {
+                oomKilled = Long.parseLong(line.substring(9).trim()) > 0;
+                break;
+            }
+        }
+        return new ResourceSample(cpuMicros, rssBytes, readBytes, writeBytes, oomKilled);
+    }
+    
+    @Override
+    public void kill(Process process) {
+        try {
+            // 커널 5.14+: cgroup 안의 모든 프로세스를 한 번에 종료
+            write(dir, "cgroup.kill", "1");
+        } catch (IOException e) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }
+    }
+    
+    @Override
+    public void close() {
+        // 남은 프로세스가 빠져나가야 지울 수 있으므로 몇 번 재시도
+        for (int attempt = 0; attempt < 10; attempt++) {
+            try {
+                Files.deleteIfExists(dir);
+                return;
+            } catch (IOException e) {
+                if (attempt == 0) {
+                    try {
+                        write(dir, "cgroup.kill", "1");
+                    } catch (IOException ignored) {
+                        // cgroup.kill이 없는 커널
+                    }
+                }
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        log.warn("Failed to remove cgroup {}", dir);
+    }
+    
+    private static void write(Path dir, String file, String value) throws IOException {
+        Files.writeString(dir.resolve(file), value, StandardCharsets.US_ASCII);
+    }
+    
+    private static void writeIfPresent(Path dir, String file, String value) throws IOException {
+        if (Files.exists(dir.resolve(file))) {
+            write(dir, file, value);
+        }
+    }
+}
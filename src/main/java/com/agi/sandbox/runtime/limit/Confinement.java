@@ -0,0 +1,38 @@
+package com.agi.sandbox.runtime.limit;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 명령 실행 하나에 적용한 자원 제한
+ */
+public interface Confinement extends AutoCloseable {
+    
+    /**
+     * 제한 방식 이름 (resourceUsage에 기록)
+     */
+    String type();
+    
+    /**
+     * 셸 명령을 제한 안에서 실행하는 프로세스 인자
+     */
+    List<String> command(String shellCommand);
+    
+    /**
+     * 커널이 메모리 상한을 직접 강제하면 true (아니면 감시자가 측정값으로 종료)
+     */
+    boolean enforcesMemory();
+    
+    ResourceSample sample(Process process) throws IOException;
+    
+    /**
+     * 프로세스와 그 하위 프로세스 모두 강제 종료
+     */
+    void kill(Process process);
+    
+    /**
+     * 제한 자원 정리 (프로세스 종료 후)
+     */
+    @Override
+    void close();
+}
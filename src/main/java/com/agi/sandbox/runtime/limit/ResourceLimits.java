@@ -0,0 +1,12 @@
+package com.agi.sandbox.runtime.limit;
+
+/**
+ * 샌드박스 명령 실행 제한 (null이면 제한 없음)
+ *
+ * @param cpuCores    동시에 쓸 수 있는 CPU 코어 수
+ * @param memoryMb    상주 메모리 상한
+ * @param diskMb      샌드박스 디렉터리 전체 크기 상한
+ * @param wallSeconds 실행 제한 시간 (rlimit 방식의 누적 CPU 시간 상한 계산에 사용)
+ */
+public record ResourceLimits(Integer cpuCores, Integer memoryMb, Integer diskMb, int wallSeconds) {
+}
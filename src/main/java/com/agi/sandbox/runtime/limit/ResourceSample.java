@@ -0,0 +1,13 @@
+package com.agi.sandbox.runtime.limit;
+
+/**
+ * 한 번의 자원 사용량 측정값
+ *
+ * @param cpuMicros  누적 CPU 시간 (사용자 + 시스템)
+ * @param rssBytes   현재 상주 메모리
+ * @param readBytes  누적 디스크 읽기
+ * @param writeBytes 누적 디스크 쓰기
+ * @param oomKilled  커널이 메모리 상한으로 종료시켰으면 true
+ */
+public record ResourceSample(long cpuMicros, long rssBytes, long readBytes, long writeBytes, boolean oomKilled) {
+}
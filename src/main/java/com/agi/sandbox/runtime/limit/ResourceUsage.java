@@ -0,0 +1,92 @@
+package com.agi.sandbox.runtime.limit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 명령 실행 하나의 누적 자원 사용량 (감시 스레드가 갱신, 실행 스레드가 읽음)
+ */
+public final class ResourceUsage {
+    
+    private final String limiter;
+    private final ResourceLimits limits;
+    private final long startedAtNanos = System.nanoTime();
+    private long cpuMicros;
+    private long rssBytes;
+    private long peakRssBytes;
+    private long readBytes;
+    private long writeBytes;
+    private long diskBytes;
+    private long samples;
+    private Long wallTimeMillis;
+    private String killedBy;
+    
+    ResourceUsage(String limiter, ResourceLimits limits) {
+        this.limiter = limiter;
+        this.limits = limits;
+    }
+    
+    synchronized void record(ResourceSample sample) {
+        cpuMicros = Math.max(cpuMicros, sample.cpuMicros());
+        rssBytes = sample.rssBytes();
+        peakRssBytes = Math.max(peakRssBytes, sample.rssBytes());
+        readBytes = Math.max(readBytes, sample.readBytes());
+        writeBytes = Math.max(writeBytes, sample.writeBytes());
+        samples++;
+    }
+    
+    synchronized void recordDisk(long bytes) {
+        diskBytes = bytes;
+    }
+    
+    /**
+     * 처음 종료시킨 원인만 남김
+     *
+     * @return 이번 호출로 기록했으면 true
+     */
+    synchronized boolean markKilled(String reason) {
+        if (killedBy != null) {
+            return false;
+        }
+        killedBy = reason;
+        return true;
+    }
+    
+    synchronized void finish() {
+        if (wallTimeMillis == null) {
+            wallTimeMillis = (System.nanoTime() - startedAtNanos) / 1_000_000;
+        }
+    }
+    
+    /**
+     * 제한 초과로 종료시킨 원인 (cpu, memory, disk), 없으면 null
+     */
+    public synchronized String getKilledBy() {
+        return killedBy;
+    }
+    
+    /**
+     * resourceUsage에 기록할 구조
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("limiter", limiter);
+        snapshot.put("cpuTimeMs", cpuMicros / 1000);
+        snapshot.put("rssBytes", rssBytes);
+        snapshot.put("peakRssBytes", peakRssBytes);
+        snapshot.put("readBytes", readBytes);
+        snapshot.put("writeBytes", writeBytes);
+        snapshot.put("diskBytes", diskBytes);
+        snapshot.put("samples", samples);
+        snapshot.put("wallTimeMs", wallTimeMillis != null ? wallTimeMillis
+                : (System.nanoTime() - startedAtNanos) / 1_000_000);
+        snapshot.put("killedBy", killedBy);
+        Map<String, Object> limitMap = new LinkedHashMap<>();
+        limitMap.put("cpuCores", limits.cpuCores());
+        limitMap.put("memoryMb", limits.memoryMb());
+        limitMap.put("diskMb", limits.diskMb());
+        limitMap.put("wallSeconds", limits.wallSeconds());
+        snapshot.put("limits", limitMap);
+        return snapshot;
+    }
+}
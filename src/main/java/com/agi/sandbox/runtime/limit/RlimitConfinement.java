@@ -0,0 +1,111 @@
+package com.agi.sandbox.runtime.limit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * cgroups를 쓸 수 없을 때의 제한 (셸 ulimit + /proc 측정)
+ *
+ * 주소 공간(-v)과 누적 CPU 시간(-t)만 커널이 강제하고, 상주 메모리와 디스크는 감시자가 측정값으로 종료합니다.
+ * CPU 코어 수 제한은 걸 수 없어 누적 CPU 시간 상한(제한 시간 x 코어 수)으로 대신합니다.
+ * 측정은 살아 있는 프로세스의 합이라 먼저 끝난 하위 프로세스의 CPU 시간은 빠질 수 있습니다.
+ */
+final class RlimitConfinement implements Confinement {
+    
+    // 대부분의 Linux 배포판 기본값 (sysconf를 호출할 수 없어 고정)
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final long PAGE_SIZE = 4096;
+    
+    private final ResourceLimits limits;
+    private final int addressSpaceFactor;
+    private final boolean applyLimits;
+    private long maxCpuMicros;
+    
+    /**
+     * @param applyLimits false면 측정만 함 (sandbox.limits.mode=none)
+     */
+    RlimitConfinement(ResourceLimits limits, int addressSpaceFactor, boolean applyLimits) {
+        this.limits = limits;
+        this.addressSpaceFactor = addressSpaceFactor;
+        this.applyLimits = applyLimits;
+    }
+    
+    @Override
+    public String type() {
+        return applyLimits ? "rlimit" : "none";
+    }
+    
+    @Override
+    public List<String> command(String shellCommand) {
+        if (!applyLimits) {
+            return List.of("/bin/sh", "-c", shellCommand);
+        }
+        StringBuilder script = new StringBuilder();
+        if (limits.memoryMb() != null) {
+            // 주소 공간은 상주 메모리보다 훨씬 크게 잡히므로 여유 배수를 둠
+            script.append("ulimit -v ").append((long) limits.memoryMb() * 1024 * addressSpaceFactor)
+                    .append(" 2>/dev/null; ");
+        }
+        if (limits.cpuCores() != null) {
+            script.append("ulimit -t ").append((long) limits.wallSeconds() * limits.cpuCores())
+                    .append(" 2>/dev/null; ");
+        }
+        script.append("exec /bin/sh -c \"$1\"");
+        return List.of("/bin/sh", "-c", script.toString(), "sandbox", shellCommand);
+    }
+    
+    @Override
+    public boolean enforcesMemory() {
+        return false;
+    }
+    
+    @Override
+    public ResourceSample sample(Process process) throws IOException {
+        List<Long> pids = new ArrayList<>();
+        pids.add(process.pid());
+        process.descendants().forEach(handle -> pids.add(handle.pid()));
+        long cpuTicks = 0;
+        long rssPages = 0;
+        long readBytes = 0;
+        long writeBytes = 0;
+        for (long pid : pids) {
+            Path proc = Paths.get("/proc", String.valueOf(pid));
+            try {
+                String stat = Files.readString(proc.resolve("stat"), StandardCharsets.US_ASCII);
+                // comm에 공백이 있을 수 있으므로 마지막 ')' 뒤부터 나눔 (state가 3번째 필드)
+                String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+                cpuTicks += Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+                String[] statm = Files.readString(proc.resolve("statm"), StandardCharsets.US_ASCII).trim().split(" ");
+                rssPages += Long.parseLong(statm[1]);
+                for (String line : Files.readAllLines(proc.resolve("io"), StandardCharsets.US_ASCII)) {
+                    if (line.startsWith("read_bytes:")) {
+                        readBytes += Long.parseLong(line.substring(11).trim());
+                    } else if (line.startsWith("write_bytes:")) {
+                        writeBytes += Long.parseLong(line.substring(12).trim());
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                // 측정 중 끝난 프로세스
+            }
+        }
+        // 끝난 하위 프로세스만큼 합이 줄어들 수 있으므로 누적값은 줄지 않게 유지
+        maxCpuMicros = Math.max(maxCpuMicros, cpuTicks * 1_000_000 / CLOCK_TICKS_PER_SECOND);
+        return new ResourceSample(maxCpuMicros, rssPages * PAGE_SIZE, readBytes, writeBytes, false);
+    }
+    
+    @Override
+    public void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+    
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,251 @@
+package com.agi.sandbox.runtime.limit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 샌드박스 명령의 자원 제한 적용과 사용량 감시
+ *
+ * 제한 방식은 시작 시 한 번 정합니다. cgroups v2가 있고 cgroup-root가 쓰기 가능하면 실행마다 하위 cgroup을 만들어
+ * 커널이 메모리/CPU를 강제하게 하고, 아니면 ulimit으로 주소 공간과 누적 CPU 시간만 걸고 나머지는 측정값으로 강제합니다.
+ * 측정은 실행 수와 관계없이 감시 스레드 하나가 주기마다 모든 실행을 돌며 하고,
+ * 디스크 크기는 디렉터리를 훑어야 하므로 더 긴 주기로 잽니다.
+ */
+@Slf4j
+@Component
+public class SandboxSupervisor {
+    
+    public static final String KILLED_BY_CPU = "cpu";
+    public static final String KILLED_BY_MEMORY = "memory";
+    public static final String KILLED_BY_DISK = "disk";
+    
+    private static final Path CGROUP_MOUNT = Paths.get("/sys/fs/cgroup");
+    
+    private final ObjectMapper objectMapper;
+    private final String mode;
+    private final Path cgroupRoot;
+    private final int maxPids;
+    private final int addressSpaceFactor;
+    private final long diskCheckIntervalMillis;
+    private final ScheduledExecutorService sampler;
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    
+    public SandboxSupervisor(ObjectMapper objectMapper,
+                             @Value("${sandbox.limits.mode:auto}") String mode,
+                             @Value("${sandbox.limits.cgroup-root:/sys/fs/cgroup/agi-sandbox}") String cgroupRoot,
+                             @Value("${sandbox.limits.max-pids:256}") int maxPids,
+                             @Value("${sandbox.limits.address-space-factor:4}") int addressSpaceFactor,
+                             @Value("${sandbox.limits.sample-interval-ms:500}") long sampleIntervalMillis,
+                             @Value("${sandbox.limits.disk-check-interval-ms:5000}") long diskCheckIntervalMillis) {
+        this.objectMapper = objectMapper;
+        this.cgroupRoot = Paths.get(cgroupRoot);
+        this.maxPids = maxPids;
+        this.addressSpaceFactor = Math.max(1, addressSpaceFactor);
+        this.diskCheckIntervalMillis = diskCheckIntervalMillis;
+        this.mode = resolveMode(mode);
+        log.info("Sandbox resource limits: {}", this.mode);
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sandbox-supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(this::sampleAll, sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * 실행 하나에 적용할 제한 준비 (프로세스 시작 전)
+     */
+    public Confinement confine(String executionId, ResourceLimits limits) {
+        if ("cgroup".equals(mode)) {
+            try {
+                return CgroupConfinement.create(cgroupRoot, executionId, limits, maxPids);
+            } catch (IOException e) {
+                log.warn("Failed to create cgroup for {}, falling back to rlimit: {}", executionId, e.toString());
+            }
+        }
+        return new RlimitConfinement(limits, addressSpaceFactor, !"none".equals(mode));
+    }
+    
+    /**
+     * 시작한 프로세스 감시 등록
+     *
+     * @param sandboxDir 디스크 제한을 잴 샌드박스 디렉터리
+     */
+    public ResourceUsage watch(String executionId, Process process, Confinement confinement,
+                               ResourceLimits limits, Path sandboxDir) {
+        ResourceUsage usage = new ResourceUsage(confinement.type(), limits);
+        watches.put(executionId, new Watch(process, confinement, limits, sandboxDir, usage));
+        return usage;
+    }
+    
+    /**
+     * 감시 해제 후 마지막 측정 (프로세스 종료 후)
+     */
+    public ResourceUsage unwatch(String executionId) {
+        Watch watch = watches.remove(executionId);
+        if (watch == null) {
+            return null;
+        }
+        synchronized (watch) {
+            sample(watch);
+            watch.usage.finish();
+        }
+        return watch.usage;
+    }
+    
+    public String toJson(ResourceUsage usage) {
+        try {
+            return objectMapper.writeValueAsString(usage.snapshot());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize resource usage", e);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        sampler.shutdownNow();
+    }
+    
+    private void sampleAll() {
+        long now = System.currentTimeMillis();
+        for (Watch watch : watches.values()) {
+            try {
+                synchronized (watch) {
+                    if (!watch.process.isAlive()) {
+                        continue;
+                    }
+                    ResourceSample sample = sample(watch);
+                    if (sample != null) {
+                        enforce(watch, sample);
+                    }
+                    if (watch.limits.diskMb() != null && watch.sandboxDir != null
+                            && now - watch.lastDiskCheck >= diskCheckIntervalMillis) {
+                        watch.lastDiskCheck = now;
+                        long bytes = sizeOf(watch.sandboxDir);
+                        watch.usage.recordDisk(bytes);
+                        if (bytes > watch.limits.diskMb() * 1024L * 1024) {
+                            kill(watch, KILLED_BY_DISK);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to supervise sandbox process {}", watch.process.pid(), e);
+            }
+        }
+    }
+    
+    private ResourceSample sample(Watch watch) {
+        try {
+            ResourceSample sample = watch.confinement.sample(watch.process);
+            watch.usage.record(sample);
+            return sample;
+        } catch (IOException | RuntimeException e) {
+            // 측정 중 프로세스가 끝난 경우 등
+            log.debug("Failed to sample sandbox process {}: {}", watch.process.pid(), e.toString());
+            return null;
+        }
+    }
+    
+    private void enforce(Watch watch, ResourceSample sample) {
+        ResourceLimits limits = watch.limits;
+        if (sample.oomKilled()) {
+            // 커널이 이미 종료시킨 경우이므로 원인만 기록하고 남은 프로세스 정리
+            kill(watch, KILLED_BY_MEMORY);
+        } else if (!watch.confinement.enforcesMemory() && limits.memoryMb() != null
+                && sample.rssBytes() > limits.memoryMb() * 1024L * 1024) {
+            kill(watch, KILLED_BY_MEMORY);
+        } else if (limits.cpuCores() != null
+                && sample.cpuMicros() > (long) limits.wallSeconds() * limits.cpuCores() * 1_000_000) {
+            kill(watch, KILLED_BY_CPU);
+        }
+    }
+    
+    private void kill(Watch watch, String reason) {
+        if (watch.usage.markKilled(reason)) {
+            log.info("Killing sandbox process {} over {} limit", watch.process.pid(), reason);
+        }
+        watch.confinement.kill(watch.process);
+    }
+    
+    private static long sizeOf(Path dir) {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            return walk.mapToLong(path -> {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    return attrs.isRegularFile() ? attrs.size() : 0;
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException | UncheckedIOException e) {
+            // 훑는 중 파일이 지워진 경우 다음 주기에 다시 잼
+            log.debug("Failed to measure {}: {}", dir, e.toString());
+            return 0;
+        }
+    }
+    
+    private String resolveMode(String configured) {
+        if (!"auto".equals(configured)) {
+            return configured;
+        }
+        if (!Files.isRegularFile(CGROUP_MOUNT.resolve("cgroup.controllers"))) {
+            return "rlimit";
+        }
+        try {
+            Files.createDirectories(cgroupRoot);
+            // 하위 cgroup에서 쓸 컨트롤러 위임 (이미 켜져 있거나 상위에서 허용하지 않은 컨트롤러는 무시됨)
+            for (String controller : new String[]{"memory", "cpu", "pids", "io"}) {
+                try {
+                    Files.writeString(cgroupRoot.resolve("cgroup.subtree_control"), "+" + controller,
+                            StandardCharsets.US_ASCII);
+                } catch (IOException e) {
+                    log.debug("Controller {} not available under {}: {}", controller, cgroupRoot, e.toString());
+                }
+            }
+            String enabled = Files.readString(cgroupRoot.resolve("cgroup.subtree_control"), StandardCharsets.US_ASCII);
+            return enabled.contains("memory") && enabled.contains("cpu") ? "cgroup" : "rlimit";
+        } catch (IOException e) {
+            log.debug("cgroup root {} is not writable: {}", cgroupRoot, e.toString());
+            return "rlimit";
+        }
+    }
+    
+    private static final class Watch {
+        
+        private final Process process;
+        private final Confinement confinement;
+        private final ResourceLimits limits;
+        private final Path sandboxDir;
+        private final ResourceUsage usage;
+        private long lastDiskCheck;
+        
+        private Watch(Process process, Confinement confinement, ResourceLimits limits, Path sandboxDir,
+                      ResourceUsage usage) {
+            this.process = process;
+            this.confinement = confinement;
+            this.limits = limits;
+            this.sandboxDir = sandboxDir;
+            this.usage = usage;
+        }
+    }
+}
@@ -1,11 +1,330 @@
 package com.agi.sandbox.service;
 
+import com.agi.common.exception.BadRequestException;
+import com.agi.common.exception.ResourceNotFoundException;
+import com.agi.sandbox.dto.request.SandboxCreateRequest;
+import com.agi.sandbox.dto.request.SandboxExecuteRequest;
+import com.agi.sandbox.dto.response.SandboxDto;
+import com.agi.sandbox.dto.response.SandboxExecutionDto;
+import com.agi.sandbox.dto.response.SandboxLogChunkDto;
+import com.agi.sandbox.dto.response.SandboxPoolStatsDto;
+import com.agi.sandbox.entity.Sandbox;
+import com.agi.sandbox.entity.SandboxExecution;
+import com.agi.sandbox.entity.SandboxTemplate;
+import com.agi.sandbox.enums.SandboxExecutionStatus;
+import com.agi.sandbox.enums.SandboxStatus;
+import com.agi.sandbox.pool.SandboxPool;
+import com.agi.sandbox.repository.SandboxExecutionRepository;
+import com.agi.sandbox.repository.SandboxExecutionStateRepository;
+import com.agi.sandbox.repository.SandboxExecutionStateRepository.ExecutionResult;
+import com.agi.sandbox.repository.SandboxRepository;
+import com.agi.sandbox.repository.SandboxTemplateRepository;
+import com.agi.sandbox.runtime.ChunkedLog;
+import com.agi.sandbox.runtime.SandboxHibernator;
+import com.agi.sandbox.runtime.SandboxProcessRunner;
+import com.agi.sandbox.runtime.SandboxStateTracker;
+import com.agi.sandbox.runtime.limit.ResourceLimits;
+import com.agi.user.entity.User;
+import com.agi.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * 샌드박스 관련 서비스
+ *
+ * 작업 공간은 {@link SandboxPool}에서 대여하므로 생성이 디렉터리 이름 변경 한 번으로 끝나며,
+ * 생성 직후의 CREATING → RUNNING 같은 상태 전환은 {@link SandboxStateTracker}가 모아서 기록합니다.
+ * 작업 공간 준비 중 DB 커넥션을 잡지 않도록 트랜잭션을 열지 않습니다.
  */
+@Slf4j
 @Service
 public class SandboxService {
-    // 서비스 구현체는 추후 개발
+
+    private static final int DEFAULT_LOG_READ_BYTES = 64 * 1024;
+    private static final int MAX_LOG_READ_BYTES = 1024 * 1024;
+
+    private final SandboxRepository sandboxRepository;
+    private final SandboxTemplateRepository sandboxTemplateRepository;
+    private final SandboxExecutionRepository sandboxExecutionRepository;
+    private final SandboxExecutionStateRepository sandboxExecutionStateRepository;
+    private final UserRepository userRepository;
+    private final SandboxPool sandboxPool;
+    private final SandboxStateTracker sandboxStateTracker;
+    private final SandboxProcessRunner sandboxProcessRunner;
+    private final SandboxHibernator sandboxHibernator;
+    private final int defaultTimeoutSeconds;
+    private final int maxTimeoutSeconds;
+    private final int maxMemoryMb;
+    private final long stopTimeoutMillis;
+
+    public SandboxService(SandboxRepository sandboxRepository,
+                          SandboxTemplateRepository sandboxTemplateRepository,
+                          SandboxExecutionRepository sandboxExecutionRepository,
+                          SandboxExecutionStateRepository sandboxExecutionStateRepository,
+                          UserRepository userRepository,
+                          SandboxPool sandboxPool,
+                          SandboxStateTracker sandboxStateTracker,
+                          SandboxProcessRunner sandboxProcessRunner,
+                          SandboxHibernator sandboxHibernator,
+                          @Value("${sandbox.execution.timeout:300}") int defaultTimeoutSeconds,
+                          @Value("${sandbox.execution.max-timeout:3600}") int maxTimeoutSeconds,
+                          @Value("${sandbox.execution.max-memory:1024}") int maxMemoryMb,
+                          @Value("${sandbox.execution.stop-timeout-ms:15000}") long stopTimeoutMillis) {
+        this.sandboxRepository = sandboxRepository;
+        this.sandboxTemplateRepository = sandboxTemplateRepository;
+        this.sandboxExecutionRepository = sandboxExecutionRepository;
+        this.sandboxExecutionStateRepository = sandboxExecutionStateRepository;
+        this.userRepository = userRepository;
+        this.sandboxPool = sandboxPool;
+        this.sandboxStateTracker = sandboxStateTracker;
+        this.sandboxProcessRunner = sandboxProcessRunner;
+        this.sandboxHibernator = sandboxHibernator;
+        this.defaultTimeoutSeconds = defaultTimeoutSeconds;
+        this.maxTimeoutSeconds = maxTimeoutSeconds;
+        this.maxMemoryMb = maxMemoryMb;
+        this.stopTimeoutMillis = stopTimeoutMillis;
+    }
+
+    /**
+     * 샌드박스 생성 (템플릿 풀에서 작업 공간 대여)
+     */
+    public SandboxDto createSandbox(SandboxCreateRequest request) {
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", request.getUserId()));
+        SandboxTemplate template = null;
+        if (request.getTemplateId() != null) {
+            template = sandboxTemplateRepository.findById(request.getTemplateId())
+                    .orElseThrow(() -> new ResourceNotFoundException("SandboxTemplate", "id", request.getTemplateId()));
+            if (!Boolean.TRUE.equals(template.getIsActive())) {
+                throw new BadRequestException("비활성화된 샌드박스 템플릿입니다: " + template.getName());
+            }
+        }
+        Integer memoryLimitMb = request.getMemoryLimitMb() != null ? request.getMemoryLimitMb()
+                : template != null ? template.getDefaultMemory() : null;
+        if (memoryLimitMb != null && memoryLimitMb > maxMemoryMb) {
+            throw new BadRequestException("메모리 제한은 " + maxMemoryMb + "MB를 넘을 수 없습니다");
+        }
+        if (request.getTimeoutSeconds() != null
+                && (request.getTimeoutSeconds() <= 0 || request.getTimeoutSeconds() > maxTimeoutSeconds)) {
+            throw new BadRequestException("제한 시간은 1~" + maxTimeoutSeconds + "초여야 합니다");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Sandbox sandbox = sandboxRepository.save(Sandbox.builder()
+                .id(UUID.randomUUID().toString())
+                .name(request.getName())
+                .description(request.getDescription())
+                .user(user)
+                .status(SandboxStatus.CREATING)
+                .createdAt(now)
+                .updatedAt(now)
+                .lastAccessedAt(now)
+                .templateId(template != null ? template.getId() : null)
+                .configuration(request.getConfiguration())
+                .cpuLimit(request.getCpuLimit() != null ? request.getCpuLimit()
+                        : template != null ? template.getDefaultCpu() : null)
+                .memoryLimitMb(memoryLimitMb != null ? memoryLimitMb : maxMemoryMb)
+                .resourceDisk(request.getDiskLimitMb() != null ? request.getDiskLimitMb()
+                        : template != null ? template.getDefaultDisk() : null)
+                .networkConfig(template != null ? template.getNetworkConfig() : null)
+                .isPublic(false)
+                .timeoutSeconds(request.getTimeoutSeconds() != null ? request.getTimeoutSeconds() : defaultTimeoutSeconds)
+                .build());
+        sandboxStateTracker.register(sandbox.getId(), SandboxStatus.CREATING);
+        try {
+            sandboxPool.checkout(template, sandbox.getId());
+        } catch (RuntimeException e) {
+            sandboxStateTracker.transition(sandbox.getId(), EnumSet.of(SandboxStatus.CREATING), SandboxStatus.ERROR);
+            throw e;
+        }
+        sandboxStateTracker.transition(sandbox.getId(), EnumSet.of(SandboxStatus.CREATING), SandboxStatus.RUNNING);
+        return SandboxDto.fromEntity(sandbox, sandboxStateTracker.get(sandbox.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public SandboxDto getSandbox(String sandboxId) {
+        Sandbox sandbox = findSandbox(sandboxId);
+        return SandboxDto.fromEntity(sandbox, sandboxStateTracker.get(sandboxId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SandboxDto> getSandboxesByUser(Long userId) {
+        return sandboxRepository.findByUserId(userId).stream()
+                .map(sandbox -> SandboxDto.fromEntity(sandbox, sandboxStateTracker.get(sandbox.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 샌드박스 중지 (작업 공간은 초기화 후 풀에 반납)
+     */
+    public SandboxDto stopSandbox(String sandboxId) {
+        Sandbox sandbox = findSandbox(sandboxId);
+        sandboxStateTracker.track(sandbox);
+        if (!sandboxStateTracker.transition(sandboxId,
+                EnumSet.of(SandboxStatus.RUNNING, SandboxStatus.PAUSED, SandboxStatus.ERROR), SandboxStatus.STOPPED)) {
+            throw new BadRequestException("중지할 수 없는 샌드박스 상태입니다: " + sandboxId);
+        }
+        sandboxHibernator.discard(sandboxId);
+        // 실행 중인 명령이 작업 공간을 쓰는 채로 다음 사용자에게 넘어가지 않도록 먼저 종료
+        int remaining = sandboxProcessRunner.cancelAllIn(sandboxPool.workspaceOf(sandboxId), stopTimeoutMillis);
+        if (remaining > 0) {
+            log.warn("{} executions of sandbox {} did not exit within {} ms", remaining, sandboxId, stopTimeoutMillis);
+        }
+        sandboxPool.release(sandbox.getTemplateId(), sandboxId);
+        return SandboxDto.fromEntity(sandbox, sandboxStateTracker.get(sandboxId));
+    }
+
+    /**
+     * 휴면 중인 샌드박스 복원
+     */
+    public SandboxDto resumeSandbox(String sandboxId) {
+        Sandbox sandbox = acquireRunning(sandboxId);
+        return SandboxDto.fromEntity(sandbox, sandboxStateTracker.get(sandboxId));
+    }
+
+    /**
+     * 실행 중인 샌드박스 조회 및 접근 기록 (도구 실행 등에서 사용, 휴면 중이면 먼저 복원)
+     */
+    public Sandbox acquireRunning(String sandboxId) {
+        Sandbox sandbox = findSandbox(sandboxId);
+        SandboxStateTracker.State state = sandboxStateTracker.track(sandbox);
+        if (state.getStatus() == SandboxStatus.PAUSED) {
+            sandboxHibernator.resume(sandbox);
+        }
+        // 복원 직후 다시 휴면되지 않도록 상태 확인과 접근 기록을 한 번에
+        if (!sandboxStateTracker.acquire(sandboxId)) {
+            throw new BadRequestException("실행 중인 샌드박스가 아닙니다: " + sandboxId);
+        }
+        return sandbox;
+    }
+
+    /**
+     * 샌드박스 작업 공간에서 명령 실행 시작 (출력은 조각 로그 파일로 수집)
+     *
+     * 명령별 제한 시간은 CPU 시간 제한으로도 쓰이므로 샌드박스의 제한 시간을 넘을 수 없습니다.
+     */
+    public SandboxExecutionDto executeCommand(String sandboxId, SandboxExecuteRequest request) {
+        Sandbox sandbox = acquireRunning(sandboxId);
+        if (!sandbox.getUser().getId().equals(request.getUserId())) {
+            throw new BadRequestException("샌드박스 소유자만 명령을 실행할 수 있습니다");
+        }
+        // 설정 한도가 생기기 전에 만든 샌드박스도 한도를 넘지 않도록
+        int limitSeconds = Math.min(sandbox.getTimeoutSeconds() != null ? sandbox.getTimeoutSeconds()
+                : defaultTimeoutSeconds, maxTimeoutSeconds);
+        int timeoutSeconds = request.getTimeoutSeconds() != null ? request.getTimeoutSeconds() : limitSeconds;
+        if (timeoutSeconds <= 0 || timeoutSeconds > limitSeconds) {
+            throw new BadRequestException("제한 시간은 1~" + limitSeconds + "초여야 합니다");
+        }
+        String executionId = UUID.randomUUID().toString();
+        SandboxExecution execution = sandboxExecutionRepository.save(SandboxExecution.builder()
+                .id(executionId)
+                .sandbox(sandbox)
+                .userId(request.getUserId())
+                .startedAt(LocalDateTime.now())
+                .status(SandboxExecutionStatus.RUNNING.name())
+                .command(request.getCommand())
+                .logPath(sandboxProcessRunner.logDirOf(executionId).toString())
+                .stdoutBytes(0L)
+                .stderrBytes(0L)
+                .build());
+        ResourceLimits limits = new ResourceLimits(sandbox.getCpuLimit(),
+                sandbox.getMemoryLimitMb() != null ? sandbox.getMemoryLimitMb() : maxMemoryMb,
+                sandbox.getResourceDisk(), timeoutSeconds);
+        Path sandboxDir = sandboxPool.workspaceOf(sandboxId);
+        try {
+            sandboxProcessRunner.start(executionId, sandboxDir, sandboxDir.resolve("workspace"),
+                    request.getCommand(), limits);
+        } catch (IOException e) {
+            sandboxExecutionStateRepository.complete(new ExecutionResult(executionId, SandboxExecutionStatus.FAILED,
+                    null, LocalDateTime.now(), 0, 0, null, e.getMessage(), null));
+            throw new UncheckedIOException("Failed to start sandbox command: " + executionId, e);
+        }
+        return SandboxExecutionDto.fromEntity(execution);
+    }
+
+    @Transactional(readOnly = true)
+    public SandboxExecutionDto getExecution(String executionId) {
+        return SandboxExecutionDto.fromEntity(findExecution(executionId));
+    }
+
+    /**
+     * 실행 출력 구간 읽기 (실행 중이면 지금까지 기록된 부분까지)
+     *
+     * @param limit 최대 바이트 수 (null이면 64KB, 최대 1MB)
+     */
+    public SandboxLogChunkDto readExecutionLog(String executionId, String stream, Long offset, Integer limit) {
+        if (!SandboxProcessRunner.STDOUT.equals(stream) && !SandboxProcessRunner.STDERR.equals(stream)) {
+            throw new BadRequestException("stream은 stdout 또는 stderr여야 합니다: " + stream);
+        }
+        long start = offset != null ? offset : 0;
+        if (start < 0) {
+            throw new BadRequestException("offset은 0 이상이어야 합니다");
+        }
+        int size = limit != null ? Math.max(1, Math.min(limit, MAX_LOG_READ_BYTES)) : DEFAULT_LOG_READ_BYTES;
+        SandboxExecution execution = findExecution(executionId);
+        SandboxProcessRunner.RunningExecution running = sandboxProcessRunner.get(executionId);
+        long written;
+        if (running != null) {
+            written = running.written(stream);
+        } else {
+            Long persisted = SandboxProcessRunner.STDERR.equals(stream)
+                    ? execution.getStderrBytes() : execution.getStdoutBytes();
+            written = persisted != null ? persisted : 0;
+        }
+        Path logDir = execution.getLogPath() != null ? Paths.get(execution.getLogPath())
+                : sandboxProcessRunner.logDirOf(executionId);
+        byte[] bytes;
+        try {
+            bytes = ChunkedLog.read(logDir, stream, sandboxProcessRunner.getChunkSize(), start, size, written);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read sandbox execution log: " + executionId, e);
+        }
+        // 다음 요청이 문자 경계에서 이어지도록 끝의 미완성 UTF-8 문자는 남김
+        int length = ChunkedLog.completeUtf8Length(bytes);
+        if (length == 0) {
+            length = bytes.length;
+        }
+        return SandboxLogChunkDto.builder()
+                .executionId(executionId)
+                .stream(stream)
+                .offset(start)
+                .nextOffset(start + length)
+                .size(written)
+                .data(new String(bytes, 0, length, StandardCharsets.UTF_8))
+                .running(running != null)
+                .build();
+    }
+
+    public void cancelExecution(String executionId) {
+        findExecution(executionId);
+        if (!sandboxProcessRunner.cancel(executionId)) {
+            throw new BadRequestException("실행 중인 명령이 아닙니다: " + executionId);
+        }
+    }
+
+    public List<SandboxPoolStatsDto> getPoolStats() {
+        return sandboxPool.stats();
+    }
+
+    private SandboxExecution findExecution(String executionId) {
+        return sandboxExecutionRepository.findById(executionId)
+                .orElseThrow(() -> new ResourceNotFoundException("SandboxExecution", "id", executionId));
+    }
+
+    private Sandbox findSandbox(String sandboxId) {
+        return sandboxRepository.findById(sandboxId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sandbox", "id", sandboxId));
+    }
 }
@@ -1,13 +1,81 @@
 package com.agi.system.logging.controller;
 
+import com.agi.system.logging.dto.request.LogRequest;
+import com.agi.system.logging.dto.response.LogDto;
+import com.agi.system.logging.dto.response.LogIngestionStatsDto;
+import com.agi.system.logging.dto.response.LogSegmentDto;
+import com.agi.system.logging.service.LoggingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 시스템 로깅 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/system/logging")
+@RequiredArgsConstructor
 public class LoggingController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final LoggingService loggingService;
+    
+    /**
+     * 로그 기록 (202: 적재 대기열에 등록, 503: 과부하로 버려짐)
+     */
+    @PostMapping
+    public ResponseEntity<Void> log(@Valid @RequestBody LogRequest request) {
+        HttpStatus status = loggingService.log(request) ? HttpStatus.ACCEPTED : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).build();
+    }
+    
+    /**
+     * 로그 조회 (최신순, 범위/레벨이 맞지 않는 세그먼트는 건너뜀)
+     */
+    @GetMapping
+    public ResponseEntity<List<LogDto>> searchLogs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<String> level,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(loggingService.searchLogs(from, to, level, keyword, limit));
+    }
+    
+    /**
+     * 로그 세그먼트 목록 (시간별 파티션)
+     */
+    @GetMapping("/segments")
+    public ResponseEntity<List<LogSegmentDto>> getSegments() {
+        return ResponseEntity.ok(loggingService.getSegments());
+    }
+    
+    /**
+     * 로그 일괄 기록
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Integer>> logAll(@Valid @RequestBody List<@Valid LogRequest> requests) {
+        int accepted = loggingService.logAll(requests);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("accepted", accepted, "dropped", requests.size() - accepted));
+    }
+    
+    /**
+     * 적재 파이프라인 통계 (버퍼 사용량, 레벨별 버림/표본 제외 개수)
+     */
+    @GetMapping("/ingest/stats")
+    public ResponseEntity<LogIngestionStatsDto> getIngestionStats() {
+        return ResponseEntity.ok(loggingService.getIngestionStats());
+    }
 }
@@ -0,0 +1,31 @@
+package com.agi.system.logging.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogIngestionStatsDto {
+    
+    private Integer buffered;
+    
+    private Integer capacity;
+    
+    private Long accepted;
+    
+    private Long flushed;
+    
+    private Long failed;
+    
+    /** 버퍼가 가득 차 버린 개수 (레벨별) */
+    private Map<String, Long> dropped;
+    
+    /** 버퍼 과부하로 표본 제외한 개수 (DEBUG/TRACE) */
+    private Map<String, Long> sampledOut;
+}
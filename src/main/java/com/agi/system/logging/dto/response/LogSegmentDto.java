@@ -0,0 +1,30 @@
+package com.agi.system.logging.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogSegmentDto {
+    
+    private String name;
+    
+    private Long startId;
+    
+    private Long endId;
+    
+    private LocalDateTime minTimestamp;
+    
+    private LocalDateTime maxTimestamp;
+    
+    private List<String> levels;
+    
+    private Long rowCount;
+}
@@ -2,6 +2,7 @@ package com.agi.system.logging.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
 import jakarta.persistence.Enumerated;
@@ -15,15 +16,16 @@ import java.time.LocalDateTime;
 import com.agi.system.logging.enums.LogLevel;
 
 @Entity
-@Table(name = "log")
+@Table(name = "log", indexes = @Index(name = "idx_log_timestamp", columnList = "timestamp"))
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Log {
     
+    /** 시간순 ID ({@link com.agi.system.logging.service.LogIdGenerator}) */
     @Id
-    private String id;
+    private Long id;
     
     @Column(nullable = false, columnDefinition = "TEXT")
     private String message;
@@ -0,0 +1,37 @@
+package com.agi.system.logging.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 로그 시간순 ID 노드 번호 점유 (인스턴스당 하나)
+ *
+ * 생존 신호가 lease 시간 넘게 끊긴 번호는 다른 인스턴스가 넘겨받을 수 있습니다.
+ */
+@Entity
+@Table(name = "log_node")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LogNode {
+    
+    /** 노드 번호 (0~1023) */
+    @Id
+    private Integer nodeId;
+    
+    /** 점유 인스턴스 (호스트 이름-임의 접미사) */
+    @Column(nullable = false)
+    private String owner;
+    
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+}
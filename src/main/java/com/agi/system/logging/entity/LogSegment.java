@@ -0,0 +1,48 @@
+package com.agi.system.logging.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 로그 시간 구간 세그먼트 (log 테이블의 시간별 파티션 하나)
+ *
+ * 적재 시각 기준 [startId, endId) ID 구간에 속한 로그의 이벤트 시각 범위와 레벨 비트맵을 보관하며,
+ * 조회 시 범위나 레벨이 맞지 않는 세그먼트를 건너뛰는 데 사용합니다.
+ */
+@Entity
+@Table(name = "log_segment")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LogSegment {
+    
+    /** 파티션 이름 (pyyyyMMddHH, UTC) */
+    @Id
+    private String name;
+    
+    @Column(nullable = false)
+    private Long startId;
+    
+    @Column(nullable = false)
+    private Long endId;
+    
+    private LocalDateTime minTimestamp;
+    
+    private LocalDateTime maxTimestamp;
+    
+    /** LogLevel ordinal 비트맵 */
+    @Column(nullable = false)
+    private Integer levelMask;
+    
+    @Column(nullable = false)
+    private Long rowCount;
+}
@@ -0,0 +1,9 @@
+package com.agi.system.logging.repository;
+
+import com.agi.system.logging.entity.LogNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LogNodeRepository extends JpaRepository<LogNode, Integer> {
+}
@@ -0,0 +1,75 @@
+package com.agi.system.logging.repository;
+
+import com.agi.system.logging.entity.Log;
+import com.agi.system.logging.enums.LogLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 세그먼트 ID 구간으로 범위를 좁힌 로그 조회
+ *
+ * id는 시간순 기본키이자 파티션 키이므로 ID 구간 조건만으로 파티션 프루닝과 기본키 범위 스캔이 적용됩니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LogQueryRepository {
+    
+    private static final RowMapper<Log> LOG_ROW_MAPPER = (rs, rowNum) -> Log.builder()
+            .id(rs.getLong("id"))
+            .message(rs.getString("message"))
+            .level(LogLevel.valueOf(rs.getString("level")))
+            .source(rs.getString("source"))
+            .userId(rs.getString("user_id"))
+            .sessionId(rs.getString("session_id"))
+            .requestId(rs.getString("request_id"))
+            .timestamp(rs.getTimestamp("timestamp").toLocalDateTime())
+            .stackTrace(rs.getString("stack_trace"))
+            .metadata(rs.getString("metadata"))
+            .build();
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * 최신순 조회
+     *
+     * @param idRanges [startId, endId) 구간 목록 (비어 있으면 빈 결과)
+     * @param levels 비어 있으면 전체 레벨
+     */
+    public List<Log> search(List<long[]> idRanges, LocalDateTime from, LocalDateTime to,
+                            Collection<LogLevel> levels, String keyword, int limit) {
+        if (idRanges.isEmpty()) {
+            return new ArrayList<>();
+        }
+        StringBuilder sql = new StringBuilder("SELECT id, message, level, source, user_id, session_id, request_id, "
+                + "timestamp, stack_trace, metadata FROM log WHERE (");
+        List<Object> args = new ArrayList<>();
+        for (int i = 0; i < idRanges.size(); i++) {
+            sql.append(i == 0 ? "" : " OR ").append("(id >= ? AND id < ?)");
+            args.add(idRanges.get(i)[0]);
+            args.add(idRanges.get(i)[1]);
+        }
+        sql.append(") AND timestamp >= ? AND timestamp <= ?");
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+        if (!levels.isEmpty()) {
+            sql.append(" AND level IN (").append(String.join(", ", Collections.nCopies(levels.size(), "?"))).append(")");
+            levels.forEach(level -> args.add(level.name()));
+        }
+        if (keyword != null && !keyword.isBlank()) {
+            sql.append(" AND message LIKE ?");
+            args.add("%" + keyword + "%");
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), LOG_ROW_MAPPER, args.toArray());
+    }
+}
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface LogRepository extends JpaRepository<Log, String> {
+public interface LogRepository extends JpaRepository<Log, Long> {
     
     List<Log> findByLevel(LogLevel level);
     
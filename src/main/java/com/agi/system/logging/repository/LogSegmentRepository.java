@@ -0,0 +1,24 @@
+package com.agi.system.logging.repository;
+
+import com.agi.system.logging.entity.LogSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LogSegmentRepository extends JpaRepository<LogSegment, String> {
+    
+    List<LogSegment> findAllByOrderByStartIdDesc();
+    
+    /**
+     * 이벤트 시각 범위가 겹치는 세그먼트 (ID 순)
+     */
+    @Query("SELECT s FROM LogSegment s WHERE s.maxTimestamp >= :from AND s.minTimestamp <= :to ORDER BY s.startId")
+    List<LogSegment> findOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    List<LogSegment> findByEndIdLessThanEqual(Long endId);
+}
@@ -0,0 +1,60 @@
+package com.agi.system.logging.service;
+
+import java.time.Instant;
+
+/**
+ * 로그 시간순 ID (밀리초 41비트, 노드 10비트, 순번 12비트)
+ *
+ * ID만으로 적재 시각을 알 수 있어 시간 구간을 ID 구간으로 바꿔 파티션 경계로 사용합니다.
+ * 발급은 단일 스레드 전용이며, 노드 번호는 인스턴스마다 달라야 합니다({@link LogNodeRegistry}).
+ */
+public class LogIdGenerator {
+
+    /** ID 기준 시각 (2024-01-01T00:00:00Z) */
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    /** 노드 번호 최댓값 */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private final long nodeId;
+    private long lastMillis;
+    private long sequence;
+
+    public LogIdGenerator(long nodeId) {
+        this.nodeId = nodeId & ((1L << NODE_BITS) - 1);
+    }
+
+    /**
+     * 다음 ID (같은 밀리초의 순번이 넘치면 다음 밀리초를 앞당겨 사용)
+     */
+    public long next() {
+        long now = Math.max(System.currentTimeMillis() - EPOCH_MILLIS, lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & ((1L << SEQUENCE_BITS) - 1);
+            if (sequence == 0) {
+                now++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return (now << TIMESTAMP_SHIFT) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * 해당 시각 이후 발급되는 ID의 하한
+     */
+    public static long lowerBound(Instant instant) {
+        return Math.max(0, instant.toEpochMilli() - EPOCH_MILLIS) << TIMESTAMP_SHIFT;
+    }
+
+    /**
+     * ID의 발급 시각
+     */
+    public static Instant instantOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS);
+    }
+}
@@ -0,0 +1,237 @@
+package com.agi.system.logging.service;
+
+import com.agi.common.concurrent.MpscRingBuffer;
+import com.agi.system.logging.dto.response.LogIngestionStatsDto;
+import com.agi.system.logging.enums.LogLevel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 로그 비동기 일괄 적재 파이프라인
+ *
+ * 생산자는 lock-free 링 버퍼에 넣기만 하고 DB를 기다리지 않습니다.
+ * 단일 적재 스레드가 batch-size개가 모이거나 flush-interval이 지나면 JDBC 배치 INSERT로 기록합니다.
+ * 버퍼 사용률이 sampling-threshold를 넘으면 DEBUG/TRACE는 1/sample-rate만 받고,
+ * 가득 차면 레벨과 무관하게 버리며 버린 개수는 레벨별로 집계합니다.
+ * ID는 적재 스레드가 {@link LogIdGenerator}로 발급하며, 적재 후 세그먼트 통계({@link LogSegmentManager})를 갱신합니다.
+ */
+@Slf4j
+@Component
+public class LogIngestionPipeline {
+
+    private static final String INSERT_SQL = "INSERT INTO log "
+            + "(id, message, level, source, user_id, session_id, request_id, timestamp, stack_trace, metadata) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * 버퍼 항목
+     */
+    public record LogEntry(LogLevel level, String message, String source, String userId, String sessionId,
+                           String requestId, LocalDateTime timestamp, String stackTrace, Object metadata) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final LogSegmentManager logSegmentManager;
+    private final LogIdGenerator idGenerator;
+    private final MpscRingBuffer<LogEntry> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int samplingThreshold;
+    private final int sampleRate;
+
+    private final LongAdder accepted = new LongAdder();
+    private final AtomicLong sampleSequence = new AtomicLong();
+    private final Map<LogLevel, LongAdder> dropped = new EnumMap<>(LogLevel.class);
+    private final Map<LogLevel, LongAdder> sampledOut = new EnumMap<>(LogLevel.class);
+    private final Map<LogLevel, Counter> droppedCounters = new EnumMap<>(LogLevel.class);
+    private final Map<LogLevel, Counter> sampledCounters = new EnumMap<>(LogLevel.class);
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public LogIngestionPipeline(JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                LogSegmentManager logSegmentManager,
+                                LogNodeRegistry logNodeRegistry,
+                                MeterRegistry meterRegistry,
+                                @Value("${logging.ingest.buffer-size:65536}") int bufferSize,
+                                @Value("${logging.ingest.batch-size:500}") int batchSize,
+                                @Value("${logging.ingest.flush-interval-ms:200}") long flushIntervalMs,
+                                @Value("${logging.ingest.sampling-threshold:0.75}") double samplingThreshold,
+                                @Value("${logging.ingest.sample-rate:10}") int sampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.logSegmentManager = logSegmentManager;
+        this.idGenerator = new LogIdGenerator(logNodeRegistry.getNodeId());
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.samplingThreshold = (int) (buffer.capacity() * samplingThreshold);
+        this.sampleRate = Math.max(1, sampleRate);
+        for (LogLevel level : LogLevel.values()) {
+            dropped.put(level, new LongAdder());
+            sampledOut.put(level, new LongAdder());
+            droppedCounters.put(level, Counter.builder("logging.ingest.dropped")
+                    .tag("level", level.name()).tag("reason", "full").register(meterRegistry));
+            sampledCounters.put(level, Counter.builder("logging.ingest.dropped")
+                    .tag("level", level.name()).tag("reason", "sampled").register(meterRegistry));
+        }
+        Gauge.builder("logging.ingest.buffer.size", buffer, MpscRingBuffer::size).register(meterRegistry);
+        Gauge.builder("logging.ingest.flushed", flushed, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("logging.ingest.failed", failed, AtomicLong::get).register(meterRegistry);
+
+        this.writer = new Thread(this::run, "log-ingest-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 로그 적재 요청 (대기 없음, 버리거나 표본 제외된 경우 false)
+     */
+    public boolean offer(LogEntry entry) {
+        LogLevel level = entry.level();
+        if (isSampled(level) && buffer.size() >= samplingThreshold) {
+            if (sampleSequence.incrementAndGet() % sampleRate != 0) {
+                sampledOut.get(level).increment();
+                sampledCounters.get(level).increment();
+                return false;
+            }
+        }
+        if (!running || !buffer.offer(entry)) {
+            dropped.get(level).increment();
+            droppedCounters.get(level).increment();
+            return false;
+        }
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * 적재 통계
+     */
+    public LogIngestionStatsDto stats() {
+        return LogIngestionStatsDto.builder()
+                .buffered(buffer.size())
+                .capacity(buffer.capacity())
+                .accepted(accepted.sum())
+                .flushed(flushed.get())
+                .failed(failed.get())
+                .dropped(countsOf(dropped))
+                .sampledOut(countsOf(sampledOut))
+                .build();
+    }
+
+    private static boolean isSampled(LogLevel level) {
+        return level == LogLevel.DEBUG || level == LogLevel.TRACE;
+    }
+
+    private static Map<String, Long> countsOf(Map<LogLevel, LongAdder> counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach((level, count) -> result.put(level.name(), count.sum()));
+        return result;
+    }
+
+    private void run() {
+        List<LogEntry> batch = new ArrayList<>(batchSize);
+        long firstBufferedAt = 0;
+        while (running || buffer.size() > 0) {
+            int drained = buffer.drain(batch::add, batchSize - batch.size());
+            if (drained > 0 && batch.size() == drained) {
+                firstBufferedAt = System.nanoTime();
+            }
+            boolean due = !batch.isEmpty()
+                    && (batch.size() >= batchSize || System.nanoTime() - firstBufferedAt >= flushIntervalNanos || !running);
+            if (due) {
+                flush(batch);
+                batch.clear();
+            } else if (drained == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<LogEntry> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        long[] ids = new long[batch.size()];
+        for (int i = 0; i < ids.length; i++) {
+            LogEntry entry = batch.get(i);
+            ids[i] = idGenerator.next();
+            rows.add(new Object[]{
+                    ids[i],
+                    entry.message(),
+                    entry.level().name(),
+                    entry.source(),
+                    entry.userId(),
+                    entry.sessionId(),
+                    entry.requestId(),
+                    Timestamp.valueOf(entry.timestamp()),
+                    entry.stackTrace(),
+                    toJson(entry.metadata())
+            });
+        }
+        int[] types = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR};
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, types);
+            flushed.addAndGet(rows.size());
+        } catch (RuntimeException e) {
+            // 생산자를 막지 않도록 재시도하지 않고 버림
+            failed.addAndGet(rows.size());
+            log.error("Log batch insert failed: {} rows", rows.size(), e);
+            return;
+        }
+        try {
+            logSegmentManager.record(ids, batch);
+        } catch (RuntimeException e) {
+            log.error("Log segment update failed, reconciling after the hour: {} rows", rows.size(), e);
+        }
+    }
+
+    private String toJson(Object metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
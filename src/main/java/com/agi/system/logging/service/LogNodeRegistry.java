@@ -0,0 +1,127 @@
+package com.agi.system.logging.service;
+
+import com.agi.system.logging.entity.LogNode;
+import com.agi.system.logging.repository.LogNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * 로그 시간순 ID 노드 번호 할당
+ *
+ * 노드 번호가 같은 인스턴스 둘이 같은 밀리초에 ID를 발급하면 충돌하므로, 번호는 log_node 테이블에 점유를 기록하고 씁니다.
+ * logging.ingest.node-id를 지정하면 그 번호를, 지정하지 않으면 호스트 이름에서 시작해 빈 번호를 찾아 점유하며,
+ * 지정한 번호를 다른 인스턴스가 쓰고 있거나 빈 번호가 없으면 기동을 중단합니다.
+ * 점유는 주기적인 생존 신호로 유지하고 종료 시 반납합니다.
+ */
+@Slf4j
+@Component
+public class LogNodeRegistry {
+
+    private static final String CLAIM_SQL = "INSERT INTO log_node (node_id, owner, heartbeat_at) VALUES (?, ?, NOW()) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "owner = IF(owner = VALUES(owner) OR heartbeat_at < NOW() - INTERVAL ? SECOND, VALUES(owner), owner), "
+            + "heartbeat_at = IF(owner = VALUES(owner), NOW(), heartbeat_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LogNodeRepository logNodeRepository;
+    private final long leaseSeconds;
+    private final String owner;
+    private final int nodeId;
+
+    public LogNodeRegistry(JdbcTemplate jdbcTemplate,
+                           LogNodeRepository logNodeRepository,
+                           @Value("${logging.ingest.node-id:-1}") int configuredNodeId,
+                           @Value("${logging.ingest.node-lease-seconds:600}") long leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.logNodeRepository = logNodeRepository;
+        this.leaseSeconds = leaseSeconds;
+        String host = hostName();
+        this.owner = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.nodeId = configuredNodeId >= 0 ? claimConfigured(configuredNodeId) : claimFree(host);
+        log.info("Log id node {} assigned to {}", nodeId, owner);
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 점유 유지 (다른 인스턴스가 넘겨받았으면 오류 기록)
+     */
+    @Scheduled(fixedDelayString = "${logging.ingest.node-heartbeat-ms:60000}")
+    public void heartbeat() {
+        try {
+            int updated = jdbcTemplate.update("UPDATE log_node SET heartbeat_at = NOW() WHERE node_id = ? AND owner = ?",
+                    nodeId, owner);
+            if (updated == 0 && !claim(nodeId)) {
+                log.error("Log id node {} was taken over by {}; log ids may collide until restart", nodeId,
+                        currentOwner(nodeId));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Log node heartbeat failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        try {
+            jdbcTemplate.update("DELETE FROM log_node WHERE node_id = ? AND owner = ?", nodeId, owner);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release log id node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private int claimConfigured(int configuredNodeId) {
+        if (configuredNodeId > LogIdGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException("logging.ingest.node-id must be between 0 and "
+                    + LogIdGenerator.MAX_NODE_ID + ": " + configuredNodeId);
+        }
+        if (!claim(configuredNodeId)) {
+            throw new IllegalStateException("Log id node " + configuredNodeId + " is already in use by "
+                    + currentOwner(configuredNodeId));
+        }
+        return configuredNodeId;
+    }
+
+    private int claimFree(String host) {
+        int nodes = LogIdGenerator.MAX_NODE_ID + 1;
+        int start = Math.floorMod(host.hashCode(), nodes);
+        for (int i = 0; i < nodes; i++) {
+            int candidate = (start + i) % nodes;
+            if (claim(candidate)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No free log id node among " + nodes);
+    }
+
+    /**
+     * 비어 있거나 lease가 끝난 번호 점유
+     *
+     * @return 이 인스턴스가 점유했으면 true
+     */
+    private boolean claim(int candidate) {
+        jdbcTemplate.update(CLAIM_SQL, candidate, owner, leaseSeconds);
+        return owner.equals(currentOwner(candidate));
+    }
+
+    private String currentOwner(int candidate) {
+        return logNodeRepository.findById(candidate).map(LogNode::getOwner).orElse(null);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.agi.system.logging.service;
+
+import com.agi.system.logging.entity.LogSegment;
+import com.agi.system.logging.enums.LogLevel;
+import com.agi.system.logging.repository.LogSegmentRepository;
+import com.agi.system.logging.service.LogIngestionPipeline.LogEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 로그 시간 세그먼트 관리
+ *
+ * log 테이블을 적재 시각(UTC) 1시간 단위 ID 구간으로 RANGE 파티셔닝하고, 세그먼트별 이벤트 시각 범위와
+ * 레벨 비트맵을 log_segment에 기록합니다. 파티션은 precreate-hours만큼 미리 만들어 두고,
+ * 보존 기간이 지난 세그먼트는 파티션째 삭제합니다.
+ * 파티셔닝을 쓸 수 없는 DB에서는 세그먼트 목록만 유지하고 보존 정리는 ID 구간 삭제로 대신합니다.
+ * 적재 후 세그먼트 반영에 실패한 시간대는 그 시간이 지난 뒤 정비 주기에 log 테이블에서 다시 집계하고,
+ * 기동 시에는 보존 기간 안에서 행은 있는데 세그먼트가 없는 시간대(이전 버전 행 포함)를 다시 집계합니다.
+ */
+@Slf4j
+@Component
+public class LogSegmentManager {
+
+    private static final String UPSERT_SQL = "INSERT INTO log_segment "
+            + "(name, start_id, end_id, min_timestamp, max_timestamp, level_mask, row_count) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE min_timestamp = LEAST(min_timestamp, VALUES(min_timestamp)), "
+            + "max_timestamp = GREATEST(max_timestamp, VALUES(max_timestamp)), "
+            + "level_mask = level_mask | VALUES(level_mask), row_count = row_count + VALUES(row_count)";
+
+    /** 재집계 결과로 덮어씀 */
+    private static final String REPLACE_SQL = "INSERT INTO log_segment "
+            + "(name, start_id, end_id, min_timestamp, max_timestamp, level_mask, row_count) VALUES (?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE min_timestamp = VALUES(min_timestamp), max_timestamp = VALUES(max_timestamp), "
+            + "level_mask = VALUES(level_mask), row_count = VALUES(row_count)";
+
+    private static final String AGGREGATE_SQL = "SELECT level, MIN(timestamp), MAX(timestamp), COUNT(*) FROM log "
+            + "WHERE id >= ? AND id < ? GROUP BY level";
+
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'log' AND PARTITION_NAME IS NOT NULL";
+
+    private static final String PARTITION_BOUND_SQL = "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'log' AND PARTITION_NAME = ?";
+
+    private static final String LEGACY_PARTITION = "p_legacy";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMddHH");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LogSegmentRepository logSegmentRepository;
+    private final boolean partitioningEnabled;
+    private final int precreateHours;
+    private final long retentionHours;
+
+    /** 세그먼트 반영에 실패해 다시 집계할 시간대 */
+    private final Set<Instant> pendingHours = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean partitioned;
+
+    public LogSegmentManager(JdbcTemplate jdbcTemplate,
+                             LogSegmentRepository logSegmentRepository,
+                             @Value("${logging.segment.partitioning-enabled:true}") boolean partitioningEnabled,
+                             @Value("${logging.segment.precreate-hours:24}") int precreateHours,
+                             @Value("${logging.segment.retention-hours:168}") long retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.logSegmentRepository = logSegmentRepository;
+        this.partitioningEnabled = partitioningEnabled;
+        this.precreateHours = precreateHours;
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * 레벨 집합의 비트맵
+     */
+    public static int maskOf(Collection<LogLevel> levels) {
+        int mask = 0;
+        for (LogLevel level : levels) {
+            mask |= 1 << level.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * 기동 시 파티셔닝 적용, 파티션 선생성 및 누락 세그먼트 재집계
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (partitioningEnabled) {
+            try {
+                if (partitionNames().isEmpty()) {
+                    partitionExistingTable();
+                }
+                partitioned = true;
+                maintain();
+            } catch (DataAccessException e) {
+                log.warn("Log table partitioning unavailable, falling back to id range retention: {}", e.getMessage());
+            }
+        }
+        try {
+            reconcileMissing();
+        } catch (DataAccessException e) {
+            log.warn("Log segment reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 매시 파티션 선생성 및 보존 기간 경과 세그먼트 삭제
+     */
+    @Scheduled(cron = "${logging.segment.maintenance-cron:0 5 * * * *}")
+    public void maintain() {
+        Instant now = Instant.now();
+        try {
+            if (partitioned) {
+                precreate(now);
+            }
+            dropExpired(now.minus(retentionHours, ChronoUnit.HOURS));
+            reconcilePending(now);
+        } catch (DataAccessException e) {
+            log.error("Log segment maintenance failed", e);
+        }
+    }
+
+    /**
+     * 적재된 배치를 세그먼트 통계에 반영 (적재 스레드에서 호출)
+     */
+    public void record(long[] ids, List<LogEntry> entries) {
+        Map<Instant, Object[]> segments = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            Instant hour = LogIdGenerator.instantOf(ids[i]).truncatedTo(ChronoUnit.HOURS);
+            LogEntry entry = entries.get(i);
+            Timestamp timestamp = Timestamp.valueOf(entry.timestamp());
+            Object[] row = segments.computeIfAbsent(hour, h -> new Object[]{
+                    nameOf(h), startIdOf(h), startIdOf(h.plus(1, ChronoUnit.HOURS)), timestamp, timestamp, 0, 0L});
+            if (timestamp.before((Timestamp) row[3])) {
+                row[3] = timestamp;
+            }
+            if (timestamp.after((Timestamp) row[4])) {
+                row[4] = timestamp;
+            }
+            row[5] = (Integer) row[5] | (1 << entry.level().ordinal());
+            row[6] = (Long) row[6] + 1;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(segments.values()));
+        } catch (RuntimeException e) {
+            // 행은 이미 적재되었으므로 시간이 지난 뒤 정비 주기에 다시 집계
+            pendingHours.addAll(segments.keySet());
+            throw e;
+        }
+    }
+
+    /**
+     * 이벤트 시각 범위와 레벨이 맞는 세그먼트 (ID 순)
+     */
+    public List<LogSegment> segmentsFor(LocalDateTime from, LocalDateTime to, int levelMask) {
+        return logSegmentRepository.findOverlapping(from, to).stream()
+                .filter(segment -> (segment.getLevelMask() & levelMask) != 0)
+                .collect(Collectors.toList());
+    }
+
+    public List<LogSegment> segments() {
+        return logSegmentRepository.findAllByOrderByStartIdDesc();
+    }
+
+    private void partitionExistingTable() {
+        Instant hour = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        long legacyEnd = startIdOf(hour);
+        jdbcTemplate.execute("ALTER TABLE log PARTITION BY RANGE (id) ("
+                + "PARTITION " + LEGACY_PARTITION + " VALUES LESS THAN (" + legacyEnd + "), "
+                + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+        log.info("Log table partitioned by hourly id ranges (legacy rows below id {})", legacyEnd);
+        // 파티셔닝 이전 행은 하나의 세그먼트로 등록 (여기서 실패하면 다음 기동 때 등록)
+        reconcile(LEGACY_PARTITION, 0L, legacyEnd);
+    }
+
+    /**
+     * 행은 있는데 세그먼트가 없는 지난 시간대 재집계 (보존 기간 안, 빈 구간은 건너뜀)
+     */
+    private void reconcileMissing() {
+        Set<String> registered = logSegmentRepository.findAll().stream()
+                .map(LogSegment::getName)
+                .collect(Collectors.toSet());
+        Instant current = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        long cursor = startIdOf(current.minus(retentionHours, ChronoUnit.HOURS));
+        if (partitioned) {
+            Long legacyEnd = legacyEndId();
+            if (legacyEnd != null) {
+                if (!registered.contains(LEGACY_PARTITION)) {
+                    reconcile(LEGACY_PARTITION, 0L, legacyEnd);
+                }
+                cursor = Math.max(cursor, legacyEnd);
+            }
+        }
+        long currentStart = startIdOf(current);
+        int repaired = 0;
+        while (cursor < currentStart) {
+            Long next = jdbcTemplate.queryForObject("SELECT MIN(id) FROM log WHERE id >= ? AND id < ?", Long.class,
+                    cursor, currentStart);
+            if (next == null) {
+                break;
+            }
+            Instant hour = LogIdGenerator.instantOf(next).truncatedTo(ChronoUnit.HOURS);
+            if (!registered.contains(nameOf(hour)) && reconcile(hour)) {
+                repaired++;
+            }
+            cursor = startIdOf(hour.plus(1, ChronoUnit.HOURS));
+        }
+        if (repaired > 0) {
+            log.info("Registered {} missing log segments", repaired);
+        }
+    }
+
+    /**
+     * 세그먼트 반영에 실패했던 지난 시간대 재집계 (진행 중인 시간대는 끝난 뒤에)
+     */
+    private void reconcilePending(Instant now) {
+        Instant current = now.truncatedTo(ChronoUnit.HOURS);
+        for (Instant hour : pendingHours) {
+            if (hour.isBefore(current)) {
+                reconcile(hour);
+                pendingHours.remove(hour);
+            }
+        }
+    }
+
+    private boolean reconcile(Instant hour) {
+        return reconcile(nameOf(hour), startIdOf(hour), startIdOf(hour.plus(1, ChronoUnit.HOURS)));
+    }
+
+    /**
+     * ID 구간의 행을 다시 집계해 세그먼트를 덮어씀
+     *
+     * @return 구간에 행이 있어 세그먼트를 기록했으면 true
+     */
+    private boolean reconcile(String name, long startId, long endId) {
+        Object[] row = {name, startId, endId, null, null, 0, 0L};
+        jdbcTemplate.query(AGGREGATE_SQL, rs -> {
+            Timestamp min = rs.getTimestamp(2);
+            Timestamp max = rs.getTimestamp(3);
+            if (row[3] == null || min.before((Timestamp) row[3])) {
+                row[3] = min;
+            }
+            if (row[4] == null || max.after((Timestamp) row[4])) {
+                row[4] = max;
+            }
+            row[5] = (Integer) row[5] | (1 << LogLevel.valueOf(rs.getString(1)).ordinal());
+            row[6] = (Long) row[6] + rs.getLong(4);
+        }, startId, endId);
+        if ((Long) row[6] == 0L) {
+            return false;
+        }
+        jdbcTemplate.update(REPLACE_SQL, row);
+        return true;
+    }
+
+    /**
+     * 이전 버전 행 파티션의 상한 ID (없으면 null)
+     */
+    private Long legacyEndId() {
+        List<String> bounds = jdbcTemplate.queryForList(PARTITION_BOUND_SQL, String.class, LEGACY_PARTITION);
+        return bounds.isEmpty() ? null : Long.valueOf(bounds.get(0).trim());
+    }
+
+    private void precreate(Instant now) {
+        Set<String> existing = partitionNames();
+        Instant current = now.truncatedTo(ChronoUnit.HOURS);
+        StringBuilder partitions = new StringBuilder();
+        for (int i = 0; i <= precreateHours; i++) {
+            Instant hour = current.plus(i, ChronoUnit.HOURS);
+            String name = nameOf(hour);
+            if (existing.contains(name)) {
+                continue;
+            }
+            partitions.append("PARTITION ").append(name)
+                    .append(" VALUES LESS THAN (").append(startIdOf(hour.plus(1, ChronoUnit.HOURS))).append("), ");
+        }
+        if (partitions.length() == 0) {
+            return;
+        }
+        // pmax는 항상 비어 있도록 앞서 만들어 두므로 재구성 비용이 작음
+        jdbcTemplate.execute("ALTER TABLE log REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                + partitions + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    private void dropExpired(Instant cutoff) {
+        long cutoffId = startIdOf(cutoff.truncatedTo(ChronoUnit.HOURS));
+        List<LogSegment> expired = logSegmentRepository.findByEndIdLessThanEqual(cutoffId);
+        if (partitioned) {
+            List<String> droppable = new ArrayList<>();
+            Set<String> existing = partitionNames();
+            for (String name : existing) {
+                Long endId = endIdOfPartition(name);
+                if (endId != null && endId <= cutoffId) {
+                    droppable.add(name);
+                }
+            }
+            if (!droppable.isEmpty()) {
+                jdbcTemplate.execute("ALTER TABLE log DROP PARTITION " + String.join(", ", droppable));
+                log.info("Dropped expired log partitions: {}", droppable);
+            }
+        } else if (!expired.isEmpty()) {
+            int deleted = jdbcTemplate.update("DELETE FROM log WHERE id < ?", cutoffId);
+            log.info("Deleted {} expired log rows below id {}", deleted, cutoffId);
+        }
+        logSegmentRepository.deleteAll(expired);
+    }
+
+    private Set<String> partitionNames() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class).stream()
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 파티션 상한 ID (pmax는 null)
+     */
+    private Long endIdOfPartition(String name) {
+        if (MAX_PARTITION.equals(name)) {
+            return null;
+        }
+        if (LEGACY_PARTITION.equals(name)) {
+            return logSegmentRepository.findById(LEGACY_PARTITION).map(LogSegment::getEndId).orElse(null);
+        }
+        try {
+            LocalDateTime hour = LocalDateTime.parse(name, NAME_FORMAT);
+            return startIdOf(hour.plusHours(1).toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String nameOf(Instant hour) {
+        return NAME_FORMAT.format(hour.atOffset(ZoneOffset.UTC));
+    }
+
+    private static long startIdOf(Instant hour) {
+        return LogIdGenerator.lowerBound(hour);
+    }
+}
@@ -1,11 +1,164 @@
 package com.agi.system.logging.service;
 
+import com.agi.common.exception.BadRequestException;
+import com.agi.system.logging.dto.request.LogRequest;
+import com.agi.system.logging.dto.response.LogDto;
+import com.agi.system.logging.dto.response.LogIngestionStatsDto;
+import com.agi.system.logging.dto.response.LogSegmentDto;
+import com.agi.system.logging.entity.Log;
+import com.agi.system.logging.entity.LogSegment;
+import com.agi.system.logging.enums.LogLevel;
+import com.agi.system.logging.repository.LogQueryRepository;
+import com.agi.system.logging.service.LogIngestionPipeline.LogEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * 시스템 로깅 관련 서비스
  */
 @Service
+@RequiredArgsConstructor
 public class LoggingService {
-    // 서비스 구현체는 추후 개발
+    
+    private static final int DEFAULT_SEARCH_LIMIT = 100;
+    private static final int MAX_SEARCH_LIMIT = 1000;
+    
+    private final LogIngestionPipeline logIngestionPipeline;
+    private final LogSegmentManager logSegmentManager;
+    private final LogQueryRepository logQueryRepository;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * 로그 기록 (비동기 일괄 적재, 버퍼 과부하로 버려지면 false)
+     */
+    public boolean log(LogRequest request) {
+        return logIngestionPipeline.offer(toEntry(request));
+    }
+    
+    /**
+     * 로그 일괄 기록 (적재된 개수 반환)
+     */
+    public int logAll(List<LogRequest> requests) {
+        int accepted = 0;
+        for (LogRequest request : requests) {
+            if (logIngestionPipeline.offer(toEntry(request))) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+    
+    /**
+     * 적재 파이프라인 통계
+     */
+    public LogIngestionStatsDto getIngestionStats() {
+        return logIngestionPipeline.stats();
+    }
+    
+    /**
+     * 기간/레벨/키워드 로그 조회 (최신순)
+     *
+     * 이벤트 시각 범위나 레벨 비트맵이 맞지 않는 세그먼트는 읽지 않습니다.
+     */
+    public List<LogDto> searchLogs(LocalDateTime from, LocalDateTime to, List<String> levels, String keyword, Integer limit) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("조회 시작 시각이 종료 시각보다 늦습니다");
+        }
+        List<LogLevel> parsedLevels = levels == null ? List.of() : levels.stream()
+                .map(this::parseLevel)
+                .collect(Collectors.toList());
+        int levelMask = parsedLevels.isEmpty()
+                ? LogSegmentManager.maskOf(List.of(LogLevel.values()))
+                : LogSegmentManager.maskOf(parsedLevels);
+        
+        // 연속한 세그먼트는 하나의 ID 구간으로 합침
+        List<long[]> idRanges = new ArrayList<>();
+        for (LogSegment segment : logSegmentManager.segmentsFor(from, to, levelMask)) {
+            long[] last = idRanges.isEmpty() ? null : idRanges.get(idRanges.size() - 1);
+            if (last != null && last[1] == segment.getStartId()) {
+                last[1] = segment.getEndId();
+            } else {
+                idRanges.add(new long[]{segment.getStartId(), segment.getEndId()});
+            }
+        }
+        int rows = limit == null || limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        return logQueryRepository.search(idRanges, from, to, parsedLevels, keyword, rows).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 세그먼트 목록 (최신순)
+     */
+    public List<LogSegmentDto> getSegments() {
+        return logSegmentManager.segments().stream()
+                .map(segment -> LogSegmentDto.builder()
+                        .name(segment.getName())
+                        .startId(segment.getStartId())
+                        .endId(segment.getEndId())
+                        .minTimestamp(segment.getMinTimestamp())
+                        .maxTimestamp(segment.getMaxTimestamp())
+                        .levels(Arrays.stream(LogLevel.values())
+                                .filter(level -> (segment.getLevelMask() & (1 << level.ordinal())) != 0)
+                                .map(LogLevel::name)
+                                .collect(Collectors.toList()))
+                        .rowCount(segment.getRowCount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    private LogDto toDto(Log log) {
+        return LogDto.builder()
+                .id(String.valueOf(log.getId()))
+                .message(log.getMessage())
+                .level(log.getLevel().name())
+                .source(log.getSource())
+                .userId(log.getUserId())
+                .sessionId(log.getSessionId())
+                .requestId(log.getRequestId())
+                .timestamp(log.getTimestamp())
+                .stackTrace(log.getStackTrace())
+                .metadata(parseMetadata(log.getMetadata()))
+                .build();
+    }
+    
+    private Object parseMetadata(String metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(metadata);
+        } catch (JsonProcessingException e) {
+            return metadata;
+        }
+    }
+    
+    private LogEntry toEntry(LogRequest request) {
+        return new LogEntry(
+                parseLevel(request.getLevel()),
+                request.getMessage(),
+                request.getSource(),
+                request.getUserId(),
+                request.getSessionId(),
+                request.getRequestId(),
+                request.getTimestamp() != null ? request.getTimestamp() : LocalDateTime.now(),
+                request.getStackTrace(),
+                request.getMetadata());
+    }
+    
+    private LogLevel parseLevel(String level) {
+        try {
+            return LogLevel.valueOf(level.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("지원하지 않는 로그 레벨입니다: " + level);
+        }
+    }
 }
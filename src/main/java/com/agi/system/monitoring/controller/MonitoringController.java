@@ -1,13 +1,52 @@
 package com.agi.system.monitoring.controller;
 
+import com.agi.system.monitoring.dto.request.SystemMetricsRequest;
+import com.agi.system.monitoring.dto.response.RouteLatencyDto;
+import com.agi.system.monitoring.dto.response.SlowRequestDto;
+import com.agi.system.monitoring.dto.response.SystemMetricsDto;
+import com.agi.system.monitoring.service.MonitoringService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 시스템 모니터링 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/system/monitoring")
+@RequiredArgsConstructor
 public class MonitoringController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final MonitoringService monitoringService;
+    
+    /**
+     * 최근 지표 조회 (메모리 링 버퍼에서 조회, duration 초 단위)
+     */
+    @PostMapping("/metrics")
+    public ResponseEntity<SystemMetricsDto> getSystemMetrics(@Valid @RequestBody SystemMetricsRequest request) {
+        return ResponseEntity.ok(monitoringService.getSystemMetrics(request));
+    }
+    
+    /**
+     * 경로별 지연 시간 백분위와 처리 중 요청 수
+     */
+    @GetMapping("/routes")
+    public ResponseEntity<List<RouteLatencyDto>> getRouteLatencies() {
+        return ResponseEntity.ok(monitoringService.getRouteLatencies());
+    }
+    
+    /**
+     * 최근 느린 요청 (DB/모델/직렬화 구간 내역 포함)
+     */
+    @GetMapping("/routes/slow")
+    public ResponseEntity<List<SlowRequestDto>> getSlowRequests() {
+        return ResponseEntity.ok(monitoringService.getSlowRequests());
+    }
 }
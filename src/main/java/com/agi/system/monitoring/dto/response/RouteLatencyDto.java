@@ -0,0 +1,36 @@
+package com.agi.system.monitoring.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteLatencyDto {
+    
+    private String route;
+    
+    private String method;
+    
+    private Long count;
+    
+    private Long inFlight;
+    
+    /** 상태 코드별 요청 수 */
+    private Map<String, Long> statusCounts;
+    
+    private Double meanMs;
+    
+    private Double p50Ms;
+    
+    private Double p95Ms;
+    
+    private Double p99Ms;
+    
+    private Double maxMs;
+}
@@ -0,0 +1,38 @@
+package com.agi.system.monitoring.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowRequestDto {
+    
+    private LocalDateTime timestamp;
+    
+    private String route;
+    
+    private String method;
+    
+    private String uri;
+    
+    private Integer status;
+    
+    private Double totalMs;
+    
+    private Double dbMs;
+    
+    private Integer dbCalls;
+    
+    private Double modelMs;
+    
+    private Double serializationMs;
+    
+    /** 전체에서 DB/모델/직렬화를 뺀 나머지 */
+    private Double otherMs;
+}
@@ -0,0 +1,220 @@
+package com.agi.system.monitoring.service;
+
+import com.agi.common.metrics.LogLinearHistogram;
+import com.agi.common.metrics.SampleRingBuffer;
+import com.agi.system.monitoring.enums.MetricType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JVM/시스템/요청 지표 수집기
+ *
+ * 전용 스레드가 interval마다 {@link MetricType}별 값을 고정 크기 링 버퍼에 기록합니다.
+ * 응답 시간은 수집 주기마다 교체되는 히스토그램 링에 요청 경로에서 바로 기록되며(원소 하나의 원자적 증가),
+ * 조회 시 요청한 구간의 히스토그램을 합쳐 백분위를 계산합니다. DB는 사용하지 않습니다.
+ */
+@Slf4j
+@Component
+public class MetricsSampler {
+
+    /** 응답 시간 히스토그램 상한 (마이크로초) */
+    private static final long MAX_RESPONSE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int HISTOGRAM_SUB_BUCKET_BITS = 6;
+    private static final double MB = 1024.0 * 1024.0;
+    private static final Path NET_DEV = Paths.get("/proc/net/dev");
+
+    private final long intervalMillis;
+    private final File diskRoot;
+    private final Map<MetricType, SampleRingBuffer> series = new EnumMap<>(MetricType.class);
+    private final LogLinearHistogram[] histograms;
+    private final long[] histogramStartedAt;
+    private volatile int activeHistogram;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+    private final ScheduledExecutorService scheduler;
+
+    private long lastNetworkBytes = -1;
+    private long lastSampledAt;
+
+    public MetricsSampler(@Value("${monitoring.sampler.interval-ms:1000}") long intervalMillis,
+                          @Value("${monitoring.sampler.retention-seconds:3600}") long retentionSeconds,
+                          @Value("${monitoring.sampler.histogram-window-seconds:300}") long histogramWindowSeconds,
+                          @Value("${monitoring.sampler.disk-path:/}") String diskPath) {
+        this.intervalMillis = intervalMillis;
+        this.diskRoot = new File(diskPath);
+        int capacity = (int) (TimeUnit.SECONDS.toMillis(retentionSeconds) / intervalMillis) + 1;
+        for (MetricType type : MetricType.values()) {
+            series.put(type, new SampleRingBuffer(capacity));
+        }
+        int histogramCount = (int) Math.max(2, TimeUnit.SECONDS.toMillis(histogramWindowSeconds) / intervalMillis + 1);
+        this.histograms = new LogLinearHistogram[histogramCount];
+        this.histogramStartedAt = new long[histogramCount];
+        for (int i = 0; i < histogramCount; i++) {
+            histograms[i] = new LogLinearHistogram(MAX_RESPONSE_MICROS, HISTOGRAM_SUB_BUCKET_BITS);
+        }
+        histogramStartedAt[0] = System.currentTimeMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        lastSampledAt = System.currentTimeMillis();
+        scheduler.scheduleAtFixedRate(this::sampleSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 요청 처리 결과 기록 (요청 경로, 할당 없음)
+     */
+    public void recordRequest(long durationNanos, boolean error) {
+        histograms[activeHistogram].record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * since(epoch 밀리초) 이후 표본
+     */
+    public List<SampleRingBuffer.Sample> samples(MetricType type, long since) {
+        return series.get(type).since(since);
+    }
+
+    /**
+     * since(epoch 밀리초) 이후 응답 시간 히스토그램 (마이크로초, 진행 중인 구간 포함)
+     */
+    public LogLinearHistogram responseTimes(long since) {
+        LogLinearHistogram merged = histograms[0].emptyCopy();
+        int active = activeHistogram;
+        for (int i = 0; i < histograms.length; i++) {
+            int index = Math.floorMod(active - i, histograms.length);
+            // 구간 끝(다음 구간 시작)이 since 이후인 구간만 포함
+            long endedAt = i == 0 ? Long.MAX_VALUE : histogramStartedAt[Math.floorMod(index + 1, histograms.length)];
+            if (endedAt < since) {
+                break;
+            }
+            merged.add(histograms[index]);
+        }
+        return merged;
+    }
+
+    public long intervalMillis() {
+        return intervalMillis;
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            log.warn("Metrics sampling failed", e);
+        }
+    }
+
+    private void sample() {
+        long now = System.currentTimeMillis();
+        double elapsedSeconds = Math.max(1, now - lastSampledAt) / 1000.0;
+        lastSampledAt = now;
+
+        // 응답 시간 히스토그램 교체 (다음 칸을 비운 뒤 활성화)
+        LogLinearHistogram finished = histograms[activeHistogram];
+        int next = (activeHistogram + 1) % histograms.length;
+        histograms[next].reset();
+        histogramStartedAt[next] = now;
+        activeHistogram = next;
+
+        long requestCount = requests.sumThenReset();
+        long errorCount = errors.sumThenReset();
+        add(MetricType.REQUEST_COUNT, now, requestCount);
+        add(MetricType.ERROR_RATE, now, requestCount == 0 ? 0 : errorCount * 100.0 / requestCount);
+        add(MetricType.RESPONSE_TIME, now, finished.mean() / 1000.0);
+
+        if (osBean instanceof com.sun.management.OperatingSystemMXBean os) {
+            double cpu = os.getProcessCpuLoad();
+            if (cpu >= 0) {
+                add(MetricType.CPU_USAGE, now, cpu * 100);
+            }
+            long total = os.getTotalMemorySize();
+            if (total > 0) {
+                add(MetricType.MEMORY_USAGE, now, (total - os.getFreeMemorySize()) * 100.0 / total);
+            }
+        }
+        long diskTotal = diskRoot.getTotalSpace();
+        if (diskTotal > 0) {
+            add(MetricType.DISK_USAGE, now, (diskTotal - diskRoot.getUsableSpace()) * 100.0 / diskTotal);
+        }
+        long networkBytes = networkBytes();
+        if (networkBytes >= 0 && lastNetworkBytes >= 0) {
+            add(MetricType.NETWORK_TRAFFIC, now, (networkBytes - lastNetworkBytes) / elapsedSeconds);
+        }
+        lastNetworkBytes = networkBytes;
+
+        add(MetricType.THREAD_COUNT, now, threadBean.getThreadCount());
+        add(MetricType.HEAP_MEMORY, now, memoryBean.getHeapMemoryUsage().getUsed() / MB);
+        add(MetricType.NON_HEAP_MEMORY, now, memoryBean.getNonHeapMemoryUsage().getUsed() / MB);
+    }
+
+    private void add(MetricType type, long timestamp, double value) {
+        series.get(type).add(timestamp, value);
+    }
+
+    /**
+     * 루프백을 제외한 전체 인터페이스 송수신 바이트 (/proc/net/dev, 없으면 -1)
+     */
+    private static long networkBytes() {
+        if (!Files.isReadable(NET_DEV)) {
+            return -1;
+        }
+        try {
+            long total = 0;
+            List<String> lines = Files.readAllLines(NET_DEV);
+            for (int i = 2; i < lines.size(); i++) {
+                String line = lines.get(i);
+                int colon = line.indexOf(':');
+                if (colon < 0 || line.substring(0, colon).trim().equals("lo")) {
+                    continue;
+                }
+                String[] fields = line.substring(colon + 1).trim().split("\\s+");
+                if (fields.length >= 9) {
+                    total += Long.parseLong(fields[0]) + Long.parseLong(fields[8]);
+                }
+            }
+            return total;
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+}
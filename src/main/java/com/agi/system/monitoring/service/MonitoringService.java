@@ -1,11 +1,181 @@
 package com.agi.system.monitoring.service;
 
+import com.agi.common.exception.BadRequestException;
+import com.agi.common.metrics.LogLinearHistogram;
+import com.agi.common.metrics.SampleRingBuffer.Sample;
+import com.agi.system.monitoring.dto.request.SystemMetricsRequest;
+import com.agi.system.monitoring.dto.response.RouteLatencyDto;
+import com.agi.system.monitoring.dto.response.SlowRequestDto;
+import com.agi.system.monitoring.dto.response.SystemMetricsDto;
+import com.agi.system.monitoring.enums.MetricType;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 시스템 모니터링 관련 서비스
  */
 @Service
+@RequiredArgsConstructor
 public class MonitoringService {
-    // 서비스 구현체는 추후 개발
+    
+    private static final int DEFAULT_DURATION_SECONDS = 60;
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+    
+    private final MetricsSampler metricsSampler;
+    private final RouteMetricsRegistry routeMetricsRegistry;
+    
+    /**
+     * 경로별 지연 시간 요약 (기동 이후 누적)
+     */
+    public List<RouteLatencyDto> getRouteLatencies() {
+        return routeMetricsRegistry.snapshot();
+    }
+    
+    /**
+     * 최근 느린 요청 (최신순)
+     */
+    public List<SlowRequestDto> getSlowRequests() {
+        return routeMetricsRegistry.slowRequests();
+    }
+    
+    /**
+     * 최근 duration초 지표 조회 (interval 단위 평균으로 묶음, 응답 시간은 백분위 포함)
+     */
+    public SystemMetricsDto getSystemMetrics(SystemMetricsRequest request) {
+        int duration = request.getDuration() != null && request.getDuration() > 0
+                ? request.getDuration() : DEFAULT_DURATION_SECONDS;
+        long intervalMillis = Math.max(metricsSampler.intervalMillis(), parseInterval(request.getInterval()));
+        long since = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(duration);
+        
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (MetricType type : metricTypes(request.getMetrics())) {
+            Map<String, Object> metric = summarize(metricsSampler.samples(type, since), intervalMillis);
+            if (type == MetricType.RESPONSE_TIME) {
+                metric.put("percentiles", percentiles(metricsSampler.responseTimes(since)));
+            }
+            metrics.put(type.name(), metric);
+        }
+        
+        return SystemMetricsDto.builder()
+                .target(request.getTarget())
+                .metrics(metrics)
+                .collectedAt(LocalDateTime.now())
+                .interval(intervalMillis + "ms")
+                .duration(duration)
+                .isSuccessful(true)
+                .build();
+    }
+    
+    private static Map<String, Object> summarize(List<Sample> samples, long intervalMillis) {
+        Map<String, Object> metric = new LinkedHashMap<>();
+        if (samples.isEmpty()) {
+            metric.put("samples", List.of());
+            return metric;
+        }
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double sum = 0;
+        for (Sample sample : samples) {
+            min = Math.min(min, sample.value());
+            max = Math.max(max, sample.value());
+            sum += sample.value();
+        }
+        metric.put("current", samples.get(samples.size() - 1).value());
+        metric.put("min", min);
+        metric.put("max", max);
+        metric.put("avg", sum / samples.size());
+        metric.put("samples", downsample(samples, intervalMillis));
+        return metric;
+    }
+    
+    /**
+     * interval 구간별 평균 ([구간 시작 epoch 밀리초, 평균값] 목록)
+     */
+    private static List<double[]> downsample(List<Sample> samples, long intervalMillis) {
+        List<double[]> points = new ArrayList<>();
+        long bucket = Long.MIN_VALUE;
+        double sum = 0;
+        int count = 0;
+        for (Sample sample : samples) {
+            long current = sample.timestamp() - Math.floorMod(sample.timestamp(), intervalMillis);
+            if (current != bucket && count > 0) {
+                points.add(new double[]{bucket, sum / count});
+                sum = 0;
+                count = 0;
+            }
+            bucket = current;
+            sum += sample.value();
+            count++;
+        }
+        if (count > 0) {
+            points.add(new double[]{bucket, sum / count});
+        }
+        return points;
+    }
+    
+    /**
+     * 응답 시간 백분위 (밀리초)
+     */
+    private static Map<String, Object> percentiles(LogLinearHistogram histogram) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.count());
+        for (double percentile : PERCENTILES) {
+            String key = "p" + (percentile == Math.rint(percentile)
+                    ? String.valueOf((long) percentile) : String.valueOf(percentile).replace(".", ""));
+            result.put(key, histogram.percentile(percentile) / 1000.0);
+        }
+        result.put("max", histogram.max() / 1000.0);
+        result.put("mean", histogram.mean() / 1000.0);
+        return result;
+    }
+    
+    private static List<MetricType> metricTypes(String[] names) {
+        if (names == null || names.length == 0) {
+            return Arrays.asList(MetricType.values());
+        }
+        List<MetricType> types = new ArrayList<>();
+        for (String name : names) {
+            try {
+                types.add(MetricType.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("지원하지 않는 지표입니다: " + name);
+            }
+        }
+        return types;
+    }
+    
+    /**
+     * 구간 문자열 해석 (예: 500ms, 5s, 1m, 1h, 숫자만 있으면 초, 없으면 0)
+     */
+    private static long parseInterval(String interval) {
+        if (interval == null || interval.isBlank()) {
+            return 0;
+        }
+        String value = interval.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (value.endsWith("ms")) {
+                return Long.parseLong(value.substring(0, value.length() - 2));
+            }
+            long amount = Long.parseLong(value.replaceAll("[smh]$", ""));
+            switch (value.charAt(value.length() - 1)) {
+                case 'm':
+                    return TimeUnit.MINUTES.toMillis(amount);
+                case 'h':
+                    return TimeUnit.HOURS.toMillis(amount);
+                default:
+                    return TimeUnit.SECONDS.toMillis(amount);
+            }
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("잘못된 interval 형식입니다: " + interval);
+        }
+    }
 }
@@ -0,0 +1,219 @@
+package com.agi.system.monitoring.service;
+
+import com.agi.common.metrics.LogLinearHistogram;
+import com.agi.common.metrics.RequestTiming;
+import com.agi.system.monitoring.dto.response.RouteLatencyDto;
+import com.agi.system.monitoring.dto.response.SlowRequestDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 경로(매핑 패턴)별, HTTP 메서드별, 상태 코드별 지연 시간 히스토그램과 처리 중 요청 수
+ *
+ * 경로/메서드/상태 칸은 처음 쓰일 때 한 번만 만들어지며, 이후 기록은 할당 없이 원자적 증가만 합니다.
+ * slow-threshold를 넘은 요청은 DB/모델/직렬화 구간 내역과 함께 최근 slow-capacity개까지 보관합니다.
+ */
+@Component
+public class RouteMetricsRegistry {
+
+    public static final String UNMATCHED = "UNMATCHED";
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "OTHER"};
+    private static final int MAX_STATUS = 600;
+    private static final long MAX_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long slowThresholdNanos;
+    private final AtomicReferenceArray<SlowRequestDto> slowRequests;
+    private final AtomicLong slowSequence = new AtomicLong();
+
+    public RouteMetricsRegistry(@Value("${monitoring.routes.slow-threshold-ms:1000}") long slowThresholdMs,
+                                @Value("${monitoring.routes.slow-capacity:100}") int slowCapacity) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.slowRequests = new AtomicReferenceArray<>(slowCapacity);
+    }
+
+    /**
+     * 요청 시작
+     */
+    public void started(String route, String method) {
+        inFlight.incrementAndGet();
+        methodStats(route, method).inFlight.increment();
+    }
+
+    /**
+     * 요청 종료 (timing은 요청 스레드의 구간 시간)
+     */
+    public void completed(String route, String method, int status, String uri, RequestTiming timing) {
+        long elapsed = System.nanoTime() - timing.getStartNanos();
+        inFlight.decrementAndGet();
+        MethodStats stats = methodStats(route, method);
+        stats.inFlight.decrement();
+        stats.histogram(status).record(TimeUnit.NANOSECONDS.toMicros(elapsed));
+        if (elapsed >= slowThresholdNanos) {
+            recordSlow(route, method, status, uri, elapsed, timing);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 경로별 지연 시간 요약 (요청 수 많은 순)
+     */
+    public List<RouteLatencyDto> snapshot() {
+        List<RouteLatencyDto> result = new ArrayList<>();
+        for (RouteStats route : routes.values()) {
+            for (int m = 0; m < METHODS.length; m++) {
+                MethodStats stats = route.methods.get(m);
+                if (stats == null) {
+                    continue;
+                }
+                LogLinearHistogram all = null;
+                Map<String, Long> statusCounts = new LinkedHashMap<>();
+                for (int status = 0; status < MAX_STATUS; status++) {
+                    LogLinearHistogram histogram = stats.byStatus.get(status);
+                    if (histogram == null) {
+                        continue;
+                    }
+                    statusCounts.put(String.valueOf(status), histogram.count());
+                    if (all == null) {
+                        all = histogram.emptyCopy();
+                    }
+                    all.add(histogram);
+                }
+                if (all == null) {
+                    all = new LogLinearHistogram(MAX_LATENCY_MICROS, SUB_BUCKET_BITS);
+                }
+                result.add(RouteLatencyDto.builder()
+                        .route(route.route)
+                        .method(METHODS[m])
+                        .count(all.count())
+                        .inFlight(stats.inFlight.sum())
+                        .statusCounts(statusCounts)
+                        .meanMs(all.mean() / 1000.0)
+                        .p50Ms(all.percentile(50) / 1000.0)
+                        .p95Ms(all.percentile(95) / 1000.0)
+                        .p99Ms(all.percentile(99) / 1000.0)
+                        .maxMs(all.max() / 1000.0)
+                        .build());
+            }
+        }
+        result.sort(Comparator.comparing(RouteLatencyDto::getCount).reversed());
+        return result;
+    }
+
+    /**
+     * 최근 느린 요청 (최신순)
+     */
+    public List<SlowRequestDto> slowRequests() {
+        List<SlowRequestDto> result = new ArrayList<>();
+        long end = slowSequence.get();
+        for (long i = end - 1; i >= Math.max(0, end - slowRequests.length()); i--) {
+            SlowRequestDto slow = slowRequests.get((int) (i % slowRequests.length()));
+            if (slow != null) {
+                result.add(slow);
+            }
+        }
+        return result;
+    }
+
+    private void recordSlow(String route, String method, int status, String uri, long elapsed, RequestTiming timing) {
+        long db = timing.getDbNanos();
+        long model = timing.getModelNanos();
+        long serialization = timing.getSerializationNanos();
+        SlowRequestDto slow = SlowRequestDto.builder()
+                .timestamp(LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault()))
+                .route(route)
+                .method(method)
+                .uri(uri)
+                .status(status)
+                .totalMs(elapsed / 1e6)
+                .dbMs(db / 1e6)
+                .dbCalls(timing.getDbCalls())
+                .modelMs(model / 1e6)
+                .serializationMs(serialization / 1e6)
+                .otherMs(Math.max(0, elapsed - db - model - serialization) / 1e6)
+                .build();
+        long sequence = slowSequence.getAndIncrement();
+        slowRequests.set((int) (sequence % slowRequests.length()), slow);
+    }
+
+    private MethodStats methodStats(String route, String method) {
+        RouteStats stats = routes.get(route);
+        if (stats == null) {
+            stats = routes.computeIfAbsent(route, RouteStats::new);
+        }
+        return stats.method(methodIndex(method));
+    }
+
+    private static int methodIndex(String method) {
+        switch (method) {
+            case "GET":
+                return 0;
+            case "POST":
+                return 1;
+            case "PUT":
+                return 2;
+            case "DELETE":
+                return 3;
+            case "PATCH":
+                return 4;
+            default:
+                return 5;
+        }
+    }
+
+    private static final class RouteStats {
+
+        private final String route;
+        private final AtomicReferenceArray<MethodStats> methods = new AtomicReferenceArray<>(METHODS.length);
+
+        private RouteStats(String route) {
+            this.route = route;
+        }
+
+        private MethodStats method(int index) {
+            MethodStats stats = methods.get(index);
+            if (stats == null) {
+                methods.compareAndSet(index, null, new MethodStats());
+                stats = methods.get(index);
+            }
+            return stats;
+        }
+    }
+
+    private static final class MethodStats {
+
+        private final LongAdder inFlight = new LongAdder();
+        private final AtomicReferenceArray<LogLinearHistogram> byStatus = new AtomicReferenceArray<>(MAX_STATUS);
+
+        private LogLinearHistogram histogram(int status) {
+            int index = status >= 0 && status < MAX_STATUS ? status : 0;
+            LogLinearHistogram histogram = byStatus.get(index);
+            if (histogram == null) {
+                byStatus.compareAndSet(index, null, new LogLinearHistogram(MAX_LATENCY_MICROS, SUB_BUCKET_BITS));
+                histogram = byStatus.get(index);
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.agi.system.monitoring.web;
+
+import com.agi.common.metrics.RequestTiming;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate JDBC 실행 시간을 요청 구간 시간에 누적
+ *
+ * hibernate.session.events.auto로 세션마다 생성됩니다.
+ */
+public class DbTimingSessionListener implements SessionEventListener {
+
+    private long statementStarted;
+    private long batchStarted;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTiming.addDb(System.nanoTime() - statementStarted);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTiming.addDb(System.nanoTime() - batchStarted);
+    }
+}
@@ -0,0 +1,30 @@
+package com.agi.system.monitoring.web;
+
+import com.agi.system.monitoring.service.RouteMetricsRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 경로별 지연 시간 Actuator 엔드포인트 (/actuator/routelatency)
+ */
+@Component
+@Endpoint(id = "routelatency")
+@RequiredArgsConstructor
+public class RouteLatencyEndpoint {
+
+    private final RouteMetricsRegistry routeMetricsRegistry;
+
+    @ReadOperation
+    public Map<String, Object> routeLatency() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("inFlight", routeMetricsRegistry.inFlight());
+        body.put("routes", routeMetricsRegistry.snapshot());
+        body.put("slowRequests", routeMetricsRegistry.slowRequests());
+        return body;
+    }
+}
@@ -0,0 +1,66 @@
+package com.agi.system.monitoring.web;
+
+import com.agi.common.metrics.RequestTiming;
+import com.agi.system.monitoring.service.RouteMetricsRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 컨트롤러 요청의 경로별 지연 시간 기록
+ *
+ * 경로는 매핑 패턴(예: /api/conversations/{id}/messages)이라 경로 변수마다 항목이 늘어나지 않습니다.
+ * 비동기 응답(SSE, 스트리밍)은 첫 디스패치에서 계측을 요청 속성으로 넘겨 두고 비동기 디스패치에서 이어받으므로,
+ * 요청 한 건으로 한 번만 세며 지연 시간은 스트림이 끝날 때까지입니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String TIMING_ATTRIBUTE = RouteMetricsInterceptor.class.getName() + ".timing";
+
+    private final RouteMetricsRegistry routeMetricsRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            Object detached = request.getAttribute(TIMING_ATTRIBUTE);
+            if (detached instanceof RequestTiming timing) {
+                request.removeAttribute(TIMING_ATTRIBUTE);
+                RequestTiming.resume(timing);
+            }
+            return true;
+        }
+        RequestTiming.begin(System.nanoTime());
+        routeMetricsRegistry.started(routeOf(request), request.getMethod());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // 완료는 비동기 디스패치의 afterCompletion에서 기록
+        request.setAttribute(TIMING_ATTRIBUTE, RequestTiming.detach());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestTiming timing = RequestTiming.current();
+        if (!timing.isActive()) {
+            return;
+        }
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        routeMetricsRegistry.completed(routeOf(request), request.getMethod(), status, request.getRequestURI(), timing);
+        RequestTiming.end();
+    }
+
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : RouteMetricsRegistry.UNMATCHED;
+    }
+}
@@ -0,0 +1,31 @@
+package com.agi.system.monitoring.web;
+
+import com.agi.common.metrics.RequestTiming;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * 응답 JSON 직렬화 시간을 요청 구간 시간에 누적하는 변환기
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long started = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTiming.addSerialization(System.nanoTime() - started);
+        }
+    }
+}
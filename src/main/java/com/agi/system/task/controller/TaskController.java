@@ -1,13 +1,69 @@
 package com.agi.system.task.controller;
 
+import com.agi.system.task.dto.request.TaskRequest;
+import com.agi.system.task.dto.response.TaskDto;
+import com.agi.system.task.dto.response.TaskSchedulerStatsDto;
+import com.agi.system.task.service.TaskService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 시스템 태스크 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/system/tasks")
+@RequiredArgsConstructor
 public class TaskController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final TaskService taskService;
+    
+    /**
+     * 태스크 등록 (실행은 비동기)
+     */
+    @PostMapping
+    public ResponseEntity<TaskDto> createTask(@Valid @RequestBody TaskRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(request));
+    }
+    
+    @GetMapping("/{taskId}")
+    public ResponseEntity<TaskDto> getTask(@PathVariable String taskId) {
+        return ResponseEntity.ok(taskService.getTask(taskId));
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<TaskDto>> getTasksByStatus(@RequestParam String status) {
+        return ResponseEntity.ok(taskService.getTasksByStatus(status));
+    }
+    
+    /**
+     * 하위 태스크 목록
+     */
+    @GetMapping("/{taskId}/children")
+    public ResponseEntity<List<TaskDto>> getChildTasks(@PathVariable String taskId) {
+        return ResponseEntity.ok(taskService.getChildTasks(taskId));
+    }
+    
+    @PostMapping("/{taskId}/cancel")
+    public ResponseEntity<TaskDto> cancelTask(@PathVariable String taskId) {
+        return ResponseEntity.ok(taskService.cancelTask(taskId));
+    }
+    
+    /**
+     * 이 노드의 실행기 상태 (작업자/대기열/처리 건수)
+     */
+    @GetMapping("/scheduler/stats")
+    public ResponseEntity<TaskSchedulerStatsDto> getSchedulerStats() {
+        return ResponseEntity.ok(taskService.getSchedulerStats());
+    }
 }
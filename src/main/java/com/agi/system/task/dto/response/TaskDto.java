@@ -44,4 +44,12 @@ public class TaskDto {
     private String parentTaskId;
     
     private Double progress;
+    
+    private Integer childCount;
+    
+    private Integer childQuorum;
+    
+    private Integer completedChildren;
+    
+    private Integer failedChildren;
 }
@@ -0,0 +1,42 @@
+package com.agi.system.task.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSchedulerStatsDto {
+    
+    private String workerId;
+    
+    private Boolean enabled;
+    
+    private Integer workers;
+    
+    /** 작업자 수 + 풀 대기열 크기 (동시에 선점할 수 있는 최대 태스크 수) */
+    private Integer capacity;
+    
+    private Integer running;
+    
+    private Integer queued;
+    
+    /** 선점 후 완료 기록 전인 태스크 수 */
+    private Integer outstanding;
+    
+    private Long claimed;
+    
+    private Long completed;
+    
+    private Long failed;
+    
+    /** 이 노드가 재등록한 응답 없는 노드의 태스크 수 */
+    private Long requeued;
+    
+    private List<String> handlers;
+}
@@ -2,10 +2,13 @@ package com.agi.system.task.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Builder;
@@ -15,7 +18,12 @@ import java.time.LocalDateTime;
 import com.agi.system.task.enums.TaskStatus;
 
 @Entity
-@Table(name = "task")
+@Table(name = "task", indexes = {
+        @Index(name = "idx_task_claim", columnList = "status, priority, scheduledAt"),
+        @Index(name = "idx_task_heartbeat", columnList = "status, heartbeatAt"),
+        @Index(name = "idx_task_worker", columnList = "workerId, status"),
+        @Index(name = "idx_task_parent", columnList = "parentTaskId, status")
+})
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,8 +43,10 @@ public class Task {
     
     private String userId;
     
+    // native ENUM 컬럼은 값 추가를 ddl-auto가 반영하지 않으므로 문자열 컬럼으로 매핑
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
     private TaskStatus status;
     
     @Column(nullable = false)
@@ -61,4 +71,25 @@ public class Task {
     private String parentTaskId;
     
     private Double progress;
+    
+    /** 실행 중인 노드 */
+    private String workerId;
+    
+    /** 실행 노드의 마지막 생존 신호 (오래되면 다시 대기열로) */
+    private LocalDateTime heartbeatAt;
+    
+    /** 실행 시도 횟수 (완료 기록 시 다른 시도의 결과를 덮어쓰지 않도록 함께 비교) */
+    private Integer attempts;
+    
+    /** 생성한 하위 태스크 수 (0보다 크면 하위 태스크 완료 후 재개되는 상위 태스크) */
+    private Integer childCount;
+    
+    /** 재개에 필요한 하위 태스크 완료 수 */
+    private Integer childQuorum;
+    
+    /** 완료된 하위 태스크 수 (하위 태스크 완료 시 원자적으로 증가) */
+    private Integer completedChildren;
+    
+    /** 실패/취소된 하위 태스크 수 */
+    private Integer failedChildren;
 }
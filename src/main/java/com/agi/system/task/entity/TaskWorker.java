@@ -0,0 +1,37 @@
+package com.agi.system.task.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 태스크 실행 노드와 처리할 수 있는 유형 (노드당 하나)
+ *
+ * 태스크 등록 시 생존 신호가 살아 있는 노드 중 하나라도 처리할 수 있는 유형만 받습니다.
+ */
+@Entity
+@Table(name = "task_worker")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskWorker {
+
+    /** 실행 노드 (호스트 이름-임의 접미사) */
+    @Id
+    private String workerId;
+
+    /** 처리기가 등록된 Task.type 목록 (쉼표 구분) */
+    @Column(nullable = false, length = 2000)
+    private String handlerTypes;
+
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -4,6 +4,7 @@ public enum TaskStatus {
     PENDING,
     SCHEDULED,
     RUNNING,
+    WAITING,
     PAUSED,
     COMPLETED,
     FAILED,
@@ -0,0 +1,11 @@
+package com.agi.system.task.executor;
+
+/**
+ * 상위 태스크가 생성할 하위 태스크 (priority가 null이면 상위 태스크 우선순위)
+ */
+public record ChildTask(String name, String type, Object parameters, Integer priority) {
+
+    public static ChildTask of(String type, Object parameters) {
+        return new ChildTask(type, type, parameters, null);
+    }
+}
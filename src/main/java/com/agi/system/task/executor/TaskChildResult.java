@@ -0,0 +1,14 @@
+package com.agi.system.task.executor;
+
+import com.agi.system.task.enums.TaskStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * 재개된 상위 태스크에 전달되는 하위 태스크 결과 (생성 순)
+ */
+public record TaskChildResult(String id, String name, TaskStatus status, JsonNode result, String errorMessage) {
+
+    public boolean isCompleted() {
+        return status == TaskStatus.COMPLETED;
+    }
+}
@@ -0,0 +1,141 @@
+package com.agi.system.task.executor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+/**
+ * 실행 중인 태스크 정보와 진행률 보고
+ *
+ * 진행률은 메모리에만 기록되고, 생존 신호 주기마다 바뀐 값만 일괄 저장됩니다.
+ */
+public class TaskContext {
+
+    private final String taskId;
+    private final String type;
+    private final String parameters;
+    private final int priority;
+    private final int attempts;
+    private final String parentTaskId;
+    private final int childQuorum;
+    private final TaskDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    private volatile double progress;
+    private volatile boolean progressDirty;
+    private boolean waiting;
+
+    TaskContext(String taskId, String type, String parameters, int priority, int attempts, String parentTaskId,
+                int childQuorum, TaskDispatcher dispatcher, ObjectMapper objectMapper) {
+        this.taskId = taskId;
+        this.type = type;
+        this.parameters = parameters;
+        this.priority = priority;
+        this.attempts = attempts;
+        this.parentTaskId = parentTaskId;
+        this.childQuorum = childQuorum;
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * 파라미터 JSON 원문 (없으면 null)
+     */
+    public String getParameters() {
+        return parameters;
+    }
+
+    /**
+     * 파라미터를 type으로 변환 (없으면 null)
+     */
+    public <T> T getParameters(Class<T> type) {
+        if (parameters == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(parameters, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid task parameters: " + taskId, e);
+        }
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * 시도 번호 (1부터, 실행 노드가 응답 없어 재등록되면 증가)
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getParentTaskId() {
+        return parentTaskId;
+    }
+
+    /**
+     * 재개에 필요했던 하위 태스크 완료 수 (하위 태스크로 재개된 경우에만 의미 있음)
+     */
+    public int getChildQuorum() {
+        return childQuorum;
+    }
+
+    /**
+     * 하위 태스크를 생성하고 이 태스크를 WAITING으로 전환
+     *
+     * 호출 후 handle은 바로 반환해야 하며 반환값은 버려집니다.
+     * 하위 태스크 중 quorum개가 완료되면 (또는 실패로 quorum이 불가능해지면)
+     * 이 태스크가 다시 선점되어 {@link TaskHandler#onChildrenCompleted}가 호출됩니다.
+     */
+    public void spawnChildren(List<ChildTask> children, int quorum) {
+        if (waiting) {
+            throw new IllegalStateException("Children already spawned: " + taskId);
+        }
+        dispatcher.spawnChildren(this, children, quorum);
+        waiting = true;
+    }
+
+    /**
+     * 모든 하위 태스크 완료를 기다리는 {@link #spawnChildren(List, int)}
+     */
+    public void spawnChildren(List<ChildTask> children) {
+        spawnChildren(children, children.size());
+    }
+
+    boolean isWaiting() {
+        return waiting;
+    }
+
+    /**
+     * 진행률 보고 (0~100)
+     */
+    public void setProgress(double progress) {
+        this.progress = Math.max(0, Math.min(100, progress));
+        this.progressDirty = true;
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    /**
+     * 마지막 확인 이후 진행률이 바뀌었으면 true (확인 표시를 지움)
+     */
+    boolean takeProgressChange() {
+        if (!progressDirty) {
+            return false;
+        }
+        progressDirty = false;
+        return true;
+    }
+}
@@ -0,0 +1,486 @@
+package com.agi.system.task.executor;
+
+import com.agi.common.concurrent.MpscRingBuffer;
+import com.agi.system.task.dto.response.TaskSchedulerStatsDto;
+import com.agi.system.task.enums.TaskStatus;
+import com.agi.system.task.repository.TaskQueueRepository;
+import com.agi.system.task.repository.TaskQueueRepository.ChildRow;
+import com.agi.system.task.repository.TaskQueueRepository.ClaimedTask;
+import com.agi.system.task.repository.TaskQueueRepository.Completion;
+import com.agi.system.task.repository.TaskQueueRepository.ProgressUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 태스크 테이블 기반 우선순위 실행기
+ *
+ * 단일 폴링 스레드가 작업자 풀의 빈 자리만큼만 실행 시각이 된 태스크를 선점(FOR UPDATE SKIP LOCKED)하므로
+ * 여러 노드가 같은 테이블을 나눠 처리하며, 선점한 태스크는 우선순위 큐를 쓰는 고정 크기 풀에서 실행됩니다.
+ * 작업자는 완료 결과를 lock-free 링 버퍼에 넣기만 하고, 폴링 스레드가 모아서 JDBC 배치로 기록합니다.
+ * 생존 신호는 노드 단위 UPDATE 한 번이며, 신호가 끊긴 노드의 태스크는 어느 노드에서든 다시 대기열로 돌립니다.
+ * 하위 태스크를 생성한 태스크는 WAITING으로 작업자를 놓아 주고, quorum이 채워지면 다시 선점되어 집계합니다.
+ * 노드마다 처리할 수 있는 유형을 task_worker에 생존 신호와 함께 기록하므로, 등록 시 유형 확인은 클러스터 전체 기준입니다.
+ */
+@Slf4j
+@Component
+public class TaskDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final TaskQueueRepository taskQueueRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TaskHandler> handlers = new HashMap<>();
+    private final String workerId;
+    private final boolean enabled;
+    private final int workers;
+    private final int capacity;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final long promoteIntervalNanos;
+    private final long staleAfterMillis;
+    private final int maxAttempts;
+    private final long shutdownGraceMillis;
+
+    private final ThreadPoolExecutor executor;
+    private final MpscRingBuffer<Completion> completions;
+    private final Map<String, TaskContext> running = new ConcurrentHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong requeued = new AtomicLong();
+
+    private volatile Thread poller;
+    private volatile boolean active;
+    private long lastPromotedAt;
+    /** 기록에 실패해 다시 시도할 완료 결과 (폴링 스레드 전용) */
+    private final List<Completion> unflushed = new ArrayList<>();
+
+    public TaskDispatcher(TaskQueueRepository taskQueueRepository,
+                          ObjectMapper objectMapper,
+                          List<TaskHandler> handlers,
+                          @Value("${task.scheduler.enabled:true}") boolean enabled,
+                          @Value("${task.scheduler.worker-id:}") String workerId,
+                          @Value("${task.scheduler.workers:8}") int workers,
+                          @Value("${task.scheduler.queue-capacity:256}") int queueCapacity,
+                          @Value("${task.scheduler.batch-size:64}") int batchSize,
+                          @Value("${task.scheduler.poll-interval-ms:200}") long pollIntervalMillis,
+                          @Value("${task.scheduler.promote-interval-ms:1000}") long promoteIntervalMillis,
+                          @Value("${task.scheduler.stale-after-ms:30000}") long staleAfterMillis,
+                          @Value("${task.scheduler.max-attempts:3}") int maxAttempts,
+                          @Value("${task.scheduler.shutdown-grace-ms:10000}") long shutdownGraceMillis,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.taskQueueRepository = taskQueueRepository;
+        this.objectMapper = objectMapper;
+        for (TaskHandler handler : handlers) {
+            if (handler.getType().contains(",")) {
+                throw new IllegalStateException("Task handler type must not contain ',': " + handler.getType());
+            }
+            TaskHandler previous = this.handlers.put(handler.getType(), handler);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate task handler for type: " + handler.getType());
+            }
+        }
+        this.enabled = enabled;
+        this.workerId = workerId.isBlank() ? defaultWorkerId() : workerId;
+        this.workers = workers;
+        this.capacity = workers + queueCapacity;
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMillis);
+        this.promoteIntervalNanos = TimeUnit.MILLISECONDS.toNanos(promoteIntervalMillis);
+        this.staleAfterMillis = staleAfterMillis;
+        this.maxAttempts = maxAttempts;
+        this.shutdownGraceMillis = shutdownGraceMillis;
+        // 기록 전까지 outstanding에 포함되므로 완료 버퍼는 capacity를 넘지 않음
+        this.completions = new MpscRingBuffer<>(capacity);
+        // 가상 스레드 모드에서도 풀 크기로 동시 실행 수와 우선순위 순서를 유지
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(capacity), workerFactory(virtualThreads));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Task dispatcher disabled");
+            return;
+        }
+        executor.prestartAllCoreThreads();
+        lastPromotedAt = System.nanoTime() - promoteIntervalNanos;
+        active = true;
+        registerWorker(LocalDateTime.now());
+        Thread thread = new Thread(this::pollLoop, "task-poller");
+        thread.setDaemon(true);
+        poller = thread;
+        thread.start();
+        log.info("Task dispatcher started: worker={}, workers={}, handlers={}", workerId, workers, handlers.keySet());
+        if (handlers.isEmpty()) {
+            log.warn("No task handlers registered; this node will not claim any tasks");
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        Thread thread = poller;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownGraceMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 풀에서 대기 중인 태스크는 실행하지 않고 반납 대상으로 남김
+        executor.getQueue().clear();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownGraceMillis, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flushCompletions();
+        try {
+            taskQueueRepository.unregisterWorker(workerId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to unregister task worker {}: {}", workerId, e.getMessage());
+        }
+        // 끝내지 못한 태스크는 다른 노드가 바로 가져가도록 반납
+        int released = taskQueueRepository.release(workerId);
+        if (released > 0) {
+            log.info("Released {} unfinished tasks on shutdown", released);
+        }
+    }
+
+    /**
+     * 폴링 스레드 깨우기 (새 태스크 등록 시)
+     */
+    public void wakeUp() {
+        LockSupport.unpark(poller);
+    }
+
+    /**
+     * 이 노드 또는 생존 신호가 살아 있는 다른 노드에 type 처리기가 있는지 여부
+     */
+    public boolean supports(String type) {
+        if (type == null) {
+            return false;
+        }
+        if (active && handlers.containsKey(type)) {
+            return true;
+        }
+        return taskQueueRepository.hasLiveWorker(type, LocalDateTime.now().minusNanos(staleAfterMillis * 1_000_000));
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * 노드 생존 신호, 실행 중인 태스크의 생존 신호와 바뀐 진행률 기록
+     */
+    @Scheduled(fixedDelayString = "${task.scheduler.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (!active) {
+            return;
+        }
+        registerWorker(LocalDateTime.now());
+        // 선점 후 풀 대기 중인 태스크도 RUNNING이므로 outstanding 기준
+        if (outstanding.get() == 0) {
+            return;
+        }
+        try {
+            List<ProgressUpdate> updates = new ArrayList<>();
+            for (TaskContext context : running.values()) {
+                if (context.takeProgressChange()) {
+                    updates.add(new ProgressUpdate(context.getTaskId(), context.getAttempts(), context.getProgress()));
+                }
+            }
+            taskQueueRepository.updateProgress(updates);
+            taskQueueRepository.heartbeat(workerId, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Task heartbeat failed", e);
+        }
+    }
+
+    /**
+     * 생존 신호가 끊긴 노드의 태스크 재등록
+     */
+    @Scheduled(fixedDelayString = "${task.scheduler.requeue-interval-ms:10000}")
+    public void requeueStale() {
+        if (!active) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime staleBefore = now.minusNanos(staleAfterMillis * 1_000_000);
+            taskQueueRepository.removeStaleWorkers(staleBefore);
+            int[] result = taskQueueRepository.requeueStale(staleBefore, maxAttempts, now);
+            if (result[0] > 0 || result[1] > 0) {
+                requeued.addAndGet(result[0]);
+                log.warn("Requeued {} tasks from unresponsive workers ({} failed after {} attempts)",
+                        result[0], result[1], maxAttempts);
+                wakeUp();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Task requeue failed", e);
+        }
+    }
+
+    private void registerWorker(LocalDateTime now) {
+        if (handlers.isEmpty()) {
+            return;
+        }
+        try {
+            taskQueueRepository.registerWorker(workerId, handlers.keySet(), now);
+        } catch (RuntimeException e) {
+            log.warn("Task worker registration failed", e);
+        }
+    }
+
+    public TaskSchedulerStatsDto stats() {
+        return TaskSchedulerStatsDto.builder()
+                .workerId(workerId)
+                .enabled(active)
+                .workers(workers)
+                .capacity(capacity)
+                .running(running.size())
+                .queued(executor.getQueue().size())
+                .outstanding(outstanding.get())
+                .claimed(claimed.sum())
+                .completed(completed.sum())
+                .failed(failed.sum())
+                .requeued(requeued.get())
+                .handlers(new ArrayList<>(handlers.keySet()))
+                .build();
+    }
+
+    private void pollLoop() {
+        while (active) {
+            try {
+                int flushed = flushCompletions();
+                promoteIfDue();
+                int free = capacity - outstanding.get();
+                int wanted = Math.min(free, batchSize);
+                int claimedNow = wanted > 0 ? claim(wanted) : 0;
+                // 가득 가져왔으면 바로 다시 선점, 아니면 완료나 새 태스크 등록이 깨울 때까지 대기
+                if (flushed == 0 && (wanted <= 0 || claimedNow < wanted)) {
+                    LockSupport.parkNanos(this, pollIntervalNanos);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Task polling failed", e);
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    private void promoteIfDue() {
+        long now = System.nanoTime();
+        if (now - lastPromotedAt >= promoteIntervalNanos) {
+            lastPromotedAt = now;
+            taskQueueRepository.promoteDue(LocalDateTime.now());
+        }
+    }
+
+    private int claim(int limit) {
+        // 처리기가 없는 노드는 선점하지 않음 (가져가도 실패로만 끝나므로)
+        if (handlers.isEmpty()) {
+            return 0;
+        }
+        List<ClaimedTask> tasks = taskQueueRepository.claim(workerId, LocalDateTime.now(), limit, handlers.keySet());
+        for (ClaimedTask task : tasks) {
+            outstanding.incrementAndGet();
+            claimed.increment();
+            executor.execute(new TaskRun(task, sequence.getAndIncrement()));
+        }
+        return tasks.size();
+    }
+
+    private int flushCompletions() {
+        completions.drain(unflushed::add, capacity);
+        if (unflushed.isEmpty()) {
+            return 0;
+        }
+        int size = unflushed.size();
+        // 실패하면 남겨 두고 다음 주기에 다시 기록 (그동안 outstanding에 포함되어 선점이 줄어듦)
+        taskQueueRepository.complete(unflushed);
+        unflushed.clear();
+        outstanding.addAndGet(-size);
+        return size;
+    }
+
+    /**
+     * 하위 태스크 생성 (작업자 스레드에서 {@link TaskContext#spawnChildren}으로 호출)
+     */
+    void spawnChildren(TaskContext parent, List<ChildTask> children, int quorum) {
+        if (children.isEmpty()) {
+            throw new IllegalArgumentException("No child tasks: " + parent.getTaskId());
+        }
+        if (quorum < 1 || quorum > children.size()) {
+            throw new IllegalArgumentException("Quorum must be in [1, " + children.size() + "]: " + quorum);
+        }
+        List<ChildRow> rows = new ArrayList<>(children.size());
+        for (ChildTask child : children) {
+            if (!supports(child.type())) {
+                throw new IllegalArgumentException("No handler for child task type: " + child.type());
+            }
+            rows.add(new ChildRow(UUID.randomUUID().toString(),
+                    child.name() != null ? child.name() : child.type(),
+                    child.type(),
+                    child.priority() != null ? child.priority() : parent.getPriority(),
+                    writeParameters(child.parameters())));
+        }
+        if (!taskQueueRepository.spawnChildren(parent.getTaskId(), parent.getAttempts(), rows, quorum,
+                LocalDateTime.now())) {
+            throw new IllegalStateException("Task is no longer running on this attempt: " + parent.getTaskId());
+        }
+        wakeUp();
+    }
+
+    private void execute(ClaimedTask task) {
+        TaskContext context = new TaskContext(task.id(), task.type(), task.parameters(), task.priority(),
+                task.attempts(), task.parentTaskId(), task.childQuorum(), this, objectMapper);
+        running.put(task.id(), context);
+        Completion completion;
+        try {
+            TaskHandler handler = handlers.get(task.type());
+            if (handler == null) {
+                throw new IllegalStateException("No handler for task type: " + task.type());
+            }
+            Object result = task.childCount() > 0
+                    ? handler.onChildrenCompleted(context, childResults(task.id()))
+                    : handler.handle(context);
+            if (context.isWaiting()) {
+                // 이미 WAITING으로 기록되었으므로 남길 완료 결과 없음
+                outstanding.decrementAndGet();
+                return;
+            }
+            completion = new Completion(task.id(), task.attempts(), task.parentTaskId(), TaskStatus.COMPLETED.name(),
+                    result == null ? null : objectMapper.writeValueAsString(result), null, 100.0, LocalDateTime.now());
+            completed.increment();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                if (!active) {
+                    // 종료 중 중단된 태스크는 RUNNING으로 남겨 두었다가 반납
+                    outstanding.decrementAndGet();
+                    return;
+                }
+            }
+            log.warn("Task {} ({}) failed: {}", task.id(), task.type(), e.toString());
+            completion = new Completion(task.id(), task.attempts(), task.parentTaskId(), TaskStatus.FAILED.name(), null,
+                    truncate(e instanceof JsonProcessingException ? "결과 직렬화 실패: " + e.getMessage() : e.getMessage()),
+                    context.getProgress(), LocalDateTime.now());
+            failed.increment();
+        } finally {
+            running.remove(task.id());
+        }
+        while (!completions.offer(completion)) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        LockSupport.unpark(poller);
+    }
+
+    private List<TaskChildResult> childResults(String parentId) throws JsonProcessingException {
+        List<TaskChildResult> results = new ArrayList<>();
+        for (TaskQueueRepository.ChildResult child : taskQueueRepository.findChildResults(parentId)) {
+            results.add(new TaskChildResult(child.id(), child.name(), TaskStatus.valueOf(child.status()),
+                    child.result() != null ? objectMapper.readTree(child.result()) : null, child.errorMessage()));
+        }
+        return results;
+    }
+
+    private String writeParameters(Object parameters) {
+        if (parameters == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(parameters);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid child task parameters", e);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static ThreadFactory workerFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name("task-worker-", 1).factory();
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "task-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static String defaultWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * 작업자 풀의 우선순위 큐 항목 (우선순위 높은 순, 같으면 선점 순)
+     */
+    private final class TaskRun implements Runnable, Comparable<TaskRun> {
+
+        private final ClaimedTask task;
+        private final long order;
+
+        private TaskRun(ClaimedTask task, long order) {
+            this.task = task;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            execute(task);
+        }
+
+        @Override
+        public int compareTo(TaskRun other) {
+            int byPriority = Integer.compare(other.task.priority(), task.priority());
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
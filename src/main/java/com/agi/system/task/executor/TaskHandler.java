@@ -0,0 +1,42 @@
+package com.agi.system.task.executor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 태스크 유형별 처리기
+ *
+ * 빈으로 등록하면 {@link TaskDispatcher}가 {@link #getType()}과 같은 Task.type을 이 처리기로 실행합니다.
+ * handle에서 {@link TaskContext#spawnChildren}을 호출하면 태스크는 WAITING이 되고,
+ * 하위 태스크가 quorum만큼 끝나면 {@link #onChildrenCompleted}로 재개됩니다.
+ */
+public interface TaskHandler {
+
+    /**
+     * 처리할 Task.type
+     */
+    String getType();
+
+    /**
+     * 태스크 실행 (반환값은 JSON으로 직렬화되어 result에 저장, 예외는 FAILED)
+     */
+    Object handle(TaskContext context) throws Exception;
+
+    /**
+     * 하위 태스크 집계 (반환값이 상위 태스크 result)
+     *
+     * quorum을 채우지 못한 채 재개되면(남은 하위 태스크로는 불가능해진 경우) 실패하고,
+     * 아니면 완료된 하위 태스크 결과를 생성 순으로 반환합니다.
+     */
+    default Object onChildrenCompleted(TaskContext context, List<TaskChildResult> children) throws Exception {
+        List<TaskChildResult> completed = children.stream()
+                .filter(TaskChildResult::isCompleted)
+                .collect(Collectors.toList());
+        if (completed.size() < context.getChildQuorum()) {
+            throw new IllegalStateException("하위 태스크 완료 수 부족: " + completed.size() + "/" + context.getChildQuorum());
+        }
+        return completed.stream()
+                .map(TaskChildResult::result)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,350 @@
+package com.agi.system.task.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 태스크 대기열 JDBC 연산 (선점, 완료 기록, 생존 신호, 재등록, 하위 태스크 집계)
+ *
+ * 선점은 FOR UPDATE SKIP LOCKED로 다른 노드가 잠근 행을 건너뛰므로 여러 노드가 같은 테이블을 나눠 가져갑니다.
+ * 완료/진행률 기록은 id와 attempts를 함께 비교해, 재등록 후 다른 시도가 가져간 태스크를 덮어쓰지 않습니다.
+ * 하위 태스크가 끝나면 상위 태스크의 카운터만 원자적으로 증가시키고, 완료 수가 quorum에 닿으면 상위 태스크를 재개합니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskQueueRepository {
+
+    private static final String CLAIM_SELECT_SQL = "SELECT id, type, parameters, priority, attempts, parent_task_id, "
+            + "child_count, child_quorum FROM task WHERE status = 'PENDING' AND scheduled_at <= ? AND type IN (%s) "
+            + "ORDER BY priority DESC, scheduled_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String COMPLETE_SQL = "UPDATE task SET status = ?, result = ?, error_message = ?, "
+            + "progress = ?, completed_at = ?, heartbeat_at = NULL "
+            + "WHERE id = ? AND attempts = ? AND status = 'RUNNING'";
+
+    private static final String PROGRESS_SQL = "UPDATE task SET progress = ? "
+            + "WHERE id = ? AND attempts = ? AND status = 'RUNNING'";
+
+    private static final String INSERT_CHILD_SQL = "INSERT INTO task (id, name, type, user_id, status, created_at, "
+            + "scheduled_at, priority, parameters, parent_task_id, progress, attempts, child_count) "
+            + "VALUES (?, ?, ?, ?, 'PENDING', ?, ?, ?, ?, ?, 0, 0, 0)";
+
+    // SET은 왼쪽부터 적용되므로 progress는 증가된 카운터로 계산됨
+    private static final String CHILDREN_FINISHED_SQL = "UPDATE task SET completed_children = completed_children + ?, "
+            + "failed_children = failed_children + ?, "
+            + "progress = (completed_children + failed_children) * 100.0 / child_count "
+            + "WHERE id = ? AND child_count > 0";
+
+    private static final String RESUME_SQL = "UPDATE task SET status = 'PENDING', scheduled_at = ? "
+            + "WHERE id = ? AND status = 'WAITING' "
+            + "AND (completed_children >= child_quorum OR failed_children > child_count - child_quorum)";
+
+    private static final RowMapper<ClaimedTask> CLAIMED_ROW_MAPPER = (rs, rowNum) -> new ClaimedTask(
+            rs.getString("id"),
+            rs.getString("type"),
+            rs.getString("parameters"),
+            rs.getInt("priority"),
+            rs.getInt("attempts") + 1,
+            rs.getString("parent_task_id"),
+            rs.getInt("child_count"),
+            rs.getInt("child_quorum"));
+
+    /**
+     * 선점한 태스크 (attempts는 이번 시도 번호, childCount가 0보다 크면 하위 태스크 완료 후 재개)
+     */
+    public record ClaimedTask(String id, String type, String parameters, int priority, int attempts,
+                              String parentTaskId, int childCount, int childQuorum) {
+    }
+
+    /**
+     * 완료 기록
+     */
+    public record Completion(String id, int attempts, String parentTaskId, String status, String result,
+                             String errorMessage, Double progress, LocalDateTime completedAt) {
+    }
+
+    /**
+     * 진행률 기록
+     */
+    public record ProgressUpdate(String id, int attempts, double progress) {
+    }
+
+    /**
+     * 생성할 하위 태스크 (parameters는 JSON)
+     */
+    public record ChildRow(String id, String name, String type, int priority, String parameters) {
+    }
+
+    /**
+     * 하위 태스크 결과
+     */
+    public record ChildResult(String id, String name, String status, String result, String errorMessage) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 실행 시각이 된 대기 태스크 중 types에 속하는 것을 우선순위 순으로 최대 limit개 선점해 RUNNING으로 전환
+     *
+     * 처리기가 없는 유형은 다른 노드가 가져가도록 남겨 둡니다.
+     */
+    @Transactional
+    public List<ClaimedTask> claim(String workerId, LocalDateTime now, int limit, Collection<String> types) {
+        if (types.isEmpty()) {
+            return List.of();
+        }
+        List<Object> selectArgs = new ArrayList<>();
+        selectArgs.add(Timestamp.valueOf(now));
+        selectArgs.addAll(types);
+        selectArgs.add(limit);
+        String placeholders = String.join(", ", Collections.nCopies(types.size(), "?"));
+        List<ClaimedTask> tasks = jdbcTemplate.query(String.format(CLAIM_SELECT_SQL, placeholders), CLAIMED_ROW_MAPPER,
+                selectArgs.toArray());
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE task SET status = 'RUNNING', worker_id = ?, heartbeat_at = ?, "
+                + "started_at = ?, attempts = COALESCE(attempts, 0) + 1 WHERE id IN (");
+        List<Object> args = new ArrayList<>();
+        args.add(workerId);
+        args.add(Timestamp.valueOf(now));
+        args.add(Timestamp.valueOf(now));
+        for (int i = 0; i < tasks.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(tasks.get(i).id());
+        }
+        jdbcTemplate.update(sql.append(")").toString(), args.toArray());
+        return tasks;
+    }
+
+    /**
+     * 실행 시각이 된 SCHEDULED 태스크를 PENDING으로 전환
+     */
+    public int promoteDue(LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE task SET status = 'PENDING' WHERE status = 'SCHEDULED' AND scheduled_at <= ?",
+                Timestamp.valueOf(now));
+    }
+
+    /**
+     * 완료 결과 일괄 기록 후 상위 태스크 카운터 반영
+     */
+    @Transactional
+    public void complete(List<Completion> completions) {
+        if (completions.isEmpty()) {
+            return;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(COMPLETE_SQL, completions, completions.size(), (ps, completion) -> {
+            ps.setString(1, completion.status());
+            ps.setString(2, completion.result());
+            ps.setString(3, completion.errorMessage());
+            ps.setObject(4, completion.progress());
+            ps.setTimestamp(5, Timestamp.valueOf(completion.completedAt()));
+            ps.setString(6, completion.id());
+            ps.setInt(7, completion.attempts());
+        });
+        // 실제로 기록된 (다른 시도에 밀리지 않은) 하위 태스크만 집계
+        Map<String, int[]> finished = new TreeMap<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Completion completion = completions.get(index++);
+                if (count != 0 && completion.parentTaskId() != null) {
+                    int[] tally = finished.computeIfAbsent(completion.parentTaskId(), key -> new int[2]);
+                    tally["COMPLETED".equals(completion.status()) ? 0 : 1]++;
+                }
+            }
+        }
+        childrenFinished(finished, completions.get(0).completedAt());
+    }
+
+    /**
+     * 진행률 일괄 기록
+     */
+    public void updateProgress(List<ProgressUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(PROGRESS_SQL, updates, updates.size(), (ps, update) -> {
+            ps.setDouble(1, update.progress());
+            ps.setString(2, update.id());
+            ps.setInt(3, update.attempts());
+        });
+    }
+
+    /**
+     * 노드가 실행 중인 태스크 전체의 생존 신호 갱신
+     */
+    public int heartbeat(String workerId, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE task SET heartbeat_at = ? WHERE worker_id = ? AND status = 'RUNNING'",
+                Timestamp.valueOf(now), workerId);
+    }
+
+    /**
+     * 생존 신호가 staleBefore 이전인 RUNNING 태스크 재등록 (시도 횟수를 다 쓴 태스크는 FAILED)
+     *
+     * @return {재등록 수, 실패 처리 수}
+     */
+    @Transactional
+    public int[] requeueStale(LocalDateTime staleBefore, int maxAttempts, LocalDateTime now) {
+        List<String[]> exhausted = jdbcTemplate.query("SELECT id, parent_task_id FROM task "
+                        + "WHERE status = 'RUNNING' AND heartbeat_at < ? AND attempts >= ? FOR UPDATE",
+                (rs, rowNum) -> new String[]{rs.getString("id"), rs.getString("parent_task_id")},
+                Timestamp.valueOf(staleBefore), maxAttempts);
+        Map<String, int[]> finished = new TreeMap<>();
+        for (String[] row : exhausted) {
+            jdbcTemplate.update("UPDATE task SET status = 'FAILED', error_message = ?, completed_at = ?, "
+                            + "heartbeat_at = NULL WHERE id = ?",
+                    "실행 노드 응답 없음 (시도 " + maxAttempts + "회 초과)", Timestamp.valueOf(now), row[0]);
+            if (row[1] != null) {
+                finished.computeIfAbsent(row[1], key -> new int[2])[1]++;
+            }
+        }
+        childrenFinished(finished, now);
+        int requeued = jdbcTemplate.update("UPDATE task SET status = 'PENDING', worker_id = NULL, heartbeat_at = NULL "
+                + "WHERE status = 'RUNNING' AND heartbeat_at < ?", Timestamp.valueOf(staleBefore));
+        return new int[]{requeued, exhausted.size()};
+    }
+
+    /**
+     * 노드가 처리할 수 있는 유형 기록과 생존 신호 갱신
+     */
+    public void registerWorker(String workerId, Collection<String> types, LocalDateTime now) {
+        jdbcTemplate.update("INSERT INTO task_worker (worker_id, handler_types, heartbeat_at) VALUES (?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE handler_types = VALUES(handler_types), heartbeat_at = VALUES(heartbeat_at)",
+                workerId, String.join(",", types), Timestamp.valueOf(now));
+    }
+
+    /**
+     * 생존 신호가 staleBefore 이후인 노드 중 type 처리기가 있는 노드가 있는지 여부
+     */
+    public boolean hasLiveWorker(String type, LocalDateTime staleBefore) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_worker "
+                        + "WHERE heartbeat_at >= ? AND FIND_IN_SET(?, handler_types) > 0",
+                Integer.class, Timestamp.valueOf(staleBefore), type);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 생존 신호가 staleBefore 이전인 노드 기록 삭제
+     */
+    public int removeStaleWorkers(LocalDateTime staleBefore) {
+        return jdbcTemplate.update("DELETE FROM task_worker WHERE heartbeat_at < ?", Timestamp.valueOf(staleBefore));
+    }
+
+    /**
+     * 노드 기록 삭제 (종료 시)
+     */
+    public int unregisterWorker(String workerId) {
+        return jdbcTemplate.update("DELETE FROM task_worker WHERE worker_id = ?", workerId);
+    }
+
+    /**
+     * 노드가 선점했지만 끝내지 못한 태스크 반납 (종료 시)
+     */
+    public int release(String workerId) {
+        return jdbcTemplate.update("UPDATE task SET status = 'PENDING', worker_id = NULL, heartbeat_at = NULL "
+                + "WHERE worker_id = ? AND status = 'RUNNING'", workerId);
+    }
+
+    /**
+     * 종료되지 않은 태스크 취소 (대기 중인 하위 태스크도 취소하고, 상위 태스크에는 실패로 집계)
+     *
+     * @return 취소되었으면 true
+     */
+    @Transactional
+    public boolean cancel(String id, String parentTaskId, LocalDateTime now) {
+        boolean cancelled = jdbcTemplate.update("UPDATE task SET status = 'CANCELLED', completed_at = ?, "
+                        + "heartbeat_at = NULL WHERE id = ? AND status IN ('PENDING', 'SCHEDULED', 'RUNNING', 'WAITING')",
+                Timestamp.valueOf(now), id) > 0;
+        if (cancelled) {
+            cancelWaitingChildren(id, now);
+            if (parentTaskId != null) {
+                Map<String, int[]> finished = new TreeMap<>();
+                finished.put(parentTaskId, new int[]{0, 1});
+                childrenFinished(finished, now);
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * 실행 중인 상위 태스크의 하위 태스크 생성 후 상위 태스크를 WAITING으로 전환
+     *
+     * @return 상위 태스크가 이미 이 시도의 RUNNING이 아니면 false (아무것도 만들지 않음)
+     */
+    @Transactional
+    public boolean spawnChildren(String parentId, int attempts, List<ChildRow> children, int quorum, LocalDateTime now) {
+        List<String> userIds = jdbcTemplate.query("SELECT user_id FROM task "
+                        + "WHERE id = ? AND attempts = ? AND status = 'RUNNING' FOR UPDATE",
+                (rs, rowNum) -> rs.getString("user_id"), parentId, attempts);
+        if (userIds.isEmpty()) {
+            return false;
+        }
+        String userId = userIds.get(0);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_CHILD_SQL, children, children.size(), (ps, child) -> {
+            ps.setString(1, child.id());
+            ps.setString(2, child.name());
+            ps.setString(3, child.type());
+            ps.setString(4, userId);
+            ps.setTimestamp(5, timestamp);
+            ps.setTimestamp(6, timestamp);
+            ps.setInt(7, child.priority());
+            if (child.parameters() != null) {
+                ps.setString(8, child.parameters());
+            } else {
+                ps.setNull(8, Types.VARCHAR);
+            }
+            ps.setString(9, parentId);
+        });
+        jdbcTemplate.update("UPDATE task SET status = 'WAITING', child_count = ?, child_quorum = ?, "
+                        + "completed_children = 0, failed_children = 0, progress = 0, heartbeat_at = NULL WHERE id = ?",
+                children.size(), quorum, parentId);
+        return true;
+    }
+
+    /**
+     * 하위 태스크 결과 (재개 시 한 번 조회)
+     */
+    public List<ChildResult> findChildResults(String parentId) {
+        return jdbcTemplate.query("SELECT id, name, status, result, error_message FROM task "
+                        + "WHERE parent_task_id = ? ORDER BY created_at, id",
+                (rs, rowNum) -> new ChildResult(rs.getString("id"), rs.getString("name"), rs.getString("status"),
+                        rs.getString("result"), rs.getString("error_message")),
+                parentId);
+    }
+
+    /**
+     * 상위 태스크별 {완료 수, 실패 수} 반영 후 quorum에 닿은 상위 태스크 재개
+     *
+     * 여러 노드가 같은 상위 태스크를 갱신해도 교착되지 않도록 id 순으로 잠급니다.
+     */
+    private void childrenFinished(Map<String, int[]> finished, LocalDateTime now) {
+        for (Map.Entry<String, int[]> entry : finished.entrySet()) {
+            jdbcTemplate.update(CHILDREN_FINISHED_SQL, entry.getValue()[0], entry.getValue()[1], entry.getKey());
+            if (jdbcTemplate.update(RESUME_SQL, Timestamp.valueOf(now), entry.getKey()) > 0) {
+                // quorum에 닿았으므로 아직 시작하지 않은 하위 태스크는 실행하지 않음
+                cancelWaitingChildren(entry.getKey(), now);
+            }
+        }
+    }
+
+    private void cancelWaitingChildren(String parentId, LocalDateTime now) {
+        jdbcTemplate.update("UPDATE task SET status = 'CANCELLED', completed_at = ? "
+                        + "WHERE parent_task_id = ? AND status IN ('PENDING', 'SCHEDULED', 'WAITING')",
+                Timestamp.valueOf(now), parentId);
+    }
+}
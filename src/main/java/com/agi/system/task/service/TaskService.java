@@ -1,11 +1,177 @@
 package com.agi.system.task.service;
 
+import com.agi.common.exception.BadRequestException;
+import com.agi.common.exception.ResourceNotFoundException;
+import com.agi.system.task.dto.request.TaskRequest;
+import com.agi.system.task.dto.response.TaskDto;
+import com.agi.system.task.dto.response.TaskSchedulerStatsDto;
+import com.agi.system.task.entity.Task;
+import com.agi.system.task.enums.TaskStatus;
+import com.agi.system.task.executor.TaskDispatcher;
+import com.agi.system.task.repository.TaskQueueRepository;
+import com.agi.system.task.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * 시스템 태스크 관련 서비스
  */
 @Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class TaskService {
-    // 서비스 구현체는 추후 개발
+    
+    private final TaskRepository taskRepository;
+    private final TaskQueueRepository taskQueueRepository;
+    private final TaskDispatcher taskDispatcher;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * 태스크 등록 (scheduledAt이 미래면 SCHEDULED, 아니면 바로 실행 대기)
+     *
+     * 상위 태스크의 하위 작업 수와 정족수는 생성 시점에 정해지므로, 하위 태스크는 실행 중인 상위 태스크의
+     * {@link com.agi.system.task.executor.TaskContext#spawnChildren}으로만 만들 수 있습니다.
+     * 저장이 커밋된 뒤 실행기를 깨우도록 트랜잭션 밖에서 실행합니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskDto createTask(TaskRequest request) {
+        if (!taskDispatcher.supports(request.getType())) {
+            throw new BadRequestException("지원하지 않는 작업 유형입니다: " + request.getType());
+        }
+        if (request.getParentTaskId() != null) {
+            throw new BadRequestException("하위 작업은 상위 작업 실행 중에만 생성할 수 있습니다");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime scheduledAt = request.getScheduledAt() != null ? request.getScheduledAt() : now;
+        TaskStatus status = scheduledAt.isAfter(now) ? TaskStatus.SCHEDULED : TaskStatus.PENDING;
+        Task task = taskRepository.save(Task.builder()
+                .id(UUID.randomUUID().toString())
+                .name(request.getName())
+                .type(request.getType())
+                .description(request.getDescription())
+                .userId(request.getUserId())
+                .status(status)
+                .createdAt(now)
+                .scheduledAt(scheduledAt)
+                .priority(request.getPriority() != null ? request.getPriority() : 0)
+                .parameters(writeJson(request.getParameters()))
+                .progress(0.0)
+                .attempts(0)
+                .childCount(0)
+                .build());
+        if (status == TaskStatus.PENDING) {
+            taskDispatcher.wakeUp();
+        }
+        return toDto(task);
+    }
+    
+    public TaskDto getTask(String taskId) {
+        return taskRepository.findById(taskId)
+                .map(this::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+    }
+    
+    public List<TaskDto> getTasksByStatus(String status) {
+        return taskRepository.findByStatus(parseStatus(status)).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 하위 태스크 목록
+     */
+    public List<TaskDto> getChildTasks(String taskId) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new ResourceNotFoundException("Task", "id", taskId);
+        }
+        return taskRepository.findByParentTaskId(taskId).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 태스크 취소 (실행 중이면 결과가 기록되지 않고, 대기 중인 하위 태스크도 취소)
+     *
+     * 취소는 JDBC로 기록되므로 결과 조회가 캐시된 엔티티를 보지 않도록 트랜잭션 밖에서 실행합니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskDto cancelTask(String taskId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", taskId));
+        if (!taskQueueRepository.cancel(taskId, task.getParentTaskId(), LocalDateTime.now())) {
+            throw new BadRequestException("이미 종료된 작업입니다: " + task.getStatus());
+        }
+        return getTask(taskId);
+    }
+    
+    /**
+     * 이 노드의 실행기 상태
+     */
+    public TaskSchedulerStatsDto getSchedulerStats() {
+        return taskDispatcher.stats();
+    }
+    
+    private TaskDto toDto(Task task) {
+        return TaskDto.builder()
+                .id(task.getId())
+                .name(task.getName())
+                .type(task.getType())
+                .description(task.getDescription())
+                .userId(task.getUserId())
+                .status(task.getStatus().name())
+                .createdAt(task.getCreatedAt())
+                .scheduledAt(task.getScheduledAt())
+                .startedAt(task.getStartedAt())
+                .completedAt(task.getCompletedAt())
+                .priority(task.getPriority())
+                .parameters(readJson(task.getParameters()))
+                .result(readJson(task.getResult()))
+                .errorMessage(task.getErrorMessage())
+                .parentTaskId(task.getParentTaskId())
+                .progress(task.getProgress())
+                .childCount(task.getChildCount())
+                .childQuorum(task.getChildQuorum())
+                .completedChildren(task.getCompletedChildren())
+                .failedChildren(task.getFailedChildren())
+                .build();
+    }
+    
+    private String writeJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("작업 파라미터를 JSON으로 변환할 수 없습니다");
+        }
+    }
+    
+    private Object readJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return json;
+        }
+    }
+    
+    private TaskStatus parseStatus(String status) {
+        try {
+            return TaskStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("지원하지 않는 작업 상태입니다: " + status);
+        }
+    }
 }
@@ -1,13 +1,53 @@
 package com.agi.tool.controller;
 
+import com.agi.tool.dto.request.ToolExecuteRequest;
+import com.agi.tool.dto.response.ToolBulkheadStatsDto;
+import com.agi.tool.dto.response.ToolExecutionResultDto;
+import com.agi.tool.service.ToolService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 도구 관련 API 컨트롤러
  */
 @RestController
 @RequestMapping("/api/tools")
+@RequiredArgsConstructor
 public class ToolController {
-    // 컨트롤러 구현체는 추후 개발
+    
+    private final ToolService toolService;
+    
+    /**
+     * 도구 실행 접수 (실행은 비동기, 결과는 /executions/{id}로 조회)
+     */
+    @PostMapping("/execute")
+    public ResponseEntity<ToolExecutionResultDto> executeTool(@Valid @RequestBody ToolExecuteRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toolService.executeTool(request));
+    }
+    
+    @GetMapping("/executions/{executionId}")
+    public ResponseEntity<ToolExecutionResultDto> getExecution(@PathVariable String executionId) {
+        return ResponseEntity.ok(toolService.getExecution(executionId));
+    }
+    
+    @PostMapping("/executions/{executionId}/cancel")
+    public ResponseEntity<Void> cancelExecution(@PathVariable String executionId) {
+        toolService.cancelExecution(executionId);
+        return ResponseEntity.accepted().build();
+    }
+    
+    @GetMapping("/bulkheads")
+    public ResponseEntity<List<ToolBulkheadStatsDto>> getBulkheadStats() {
+        return ResponseEntity.ok(toolService.getBulkheadStats());
+    }
 }
@@ -2,8 +2,10 @@ package com.agi.tool.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.util.Map;
 
@@ -12,8 +14,13 @@ import java.util.Map;
  */
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ToolExecuteRequest {
     
+    @NotNull(message = "사용자 ID는 필수입니다")
+    private Long userId;
+    
     @NotBlank(message = "도구 이름은 필수입니다")
     private String toolName;
     
@@ -22,5 +29,12 @@ public class ToolExecuteRequest {
     
     private String sandboxId;
     
+    /**
+     * 실행 제한 시간 (초, 없으면 tool.executor.default-timeout-seconds)
+     */
     private Integer timeout;
+    
+    private String conversationId;
+    
+    private String messageId;
 }
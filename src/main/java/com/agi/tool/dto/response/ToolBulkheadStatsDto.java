@@ -0,0 +1,20 @@
+package com.agi.tool.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 도구별 동시 실행 격벽 현황 응답 DTO
+ */
+@Getter
+@Builder
+public class ToolBulkheadStatsDto {
+    private String toolName;
+    private int maxConcurrent;
+    private int queueDepth;
+    private int active;
+    private int queued;
+    private long completed;
+    private long rejected;
+    private long timedOut;
+}
@@ -20,4 +20,5 @@ public class ToolExecutionResultDto {
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
     private String errorMessage;
+    private Long executionTimeMs;
 }
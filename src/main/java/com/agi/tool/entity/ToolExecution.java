@@ -8,6 +8,8 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Builder;
@@ -41,8 +43,10 @@ public class ToolExecution {
     
     private LocalDateTime completedAt;
     
+    // native ENUM 컬럼은 값 추가를 ddl-auto가 반영하지 않으므로 문자열 컬럼으로 매핑
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
     private ToolStatus status;
     
     @Column(columnDefinition = "JSON")
@@ -56,6 +60,8 @@ public class ToolExecution {
     
     private Long executionTimeMs;
     
+    private String sandboxId;
+    
     private String conversationId;
     
     private String messageId;
@@ -7,5 +7,7 @@ public enum ToolStatus {
     PENDING,
     RUNNING,
     COMPLETED,
-    FAILED
+    FAILED,
+    TIMEOUT, // 실행 상태 전용
+    CANCELLED // 실행 상태 전용
 }
@@ -0,0 +1,76 @@
+package com.agi.tool.executor;
+
+import com.agi.tool.enums.ToolType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 외부 도구 실행 (endpoint에 파라미터를 JSON으로 POST)
+ *
+ * 응답이 JSON 객체면 그대로, 아니면 {"value": 응답}으로 결과를 만듭니다.
+ * 샌드박스를 지정한 실행이면 X-Sandbox-Id 헤더로 함께 전달합니다.
+ * HttpClient.send는 인터럽트되면 요청을 중단하므로 제한 시간 초과와 취소가 바로 반영됩니다.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class HttpToolHandler implements ToolHandler {
+    
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    
+    public HttpToolHandler(ObjectMapper objectMapper,
+                           @Value("${tool.executor.http.connect-timeout-ms:5000}") long connectTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+    }
+    
+    @Override
+    public boolean supports(ToolInvocation invocation) {
+        return invocation.toolType() == ToolType.EXTERNAL
+                && invocation.endpoint() != null && !invocation.endpoint().isBlank();
+    }
+    
+    @Override
+    public Map<String, Object> execute(ToolInvocation invocation) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(invocation.endpoint()))
+                .timeout(Duration.ofSeconds(invocation.timeoutSeconds()))
+                .header("Content-Type", "application/json")
+                .header("X-Tool-Execution-Id", invocation.executionId())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(invocation.parameters())));
+        if (invocation.sandboxId() != null) {
+            builder.header("X-Sandbox-Id", invocation.sandboxId());
+        }
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Tool endpoint returned " + response.statusCode() + ": "
+                    + invocation.toolName());
+        }
+        String body = response.body();
+        if (body == null || body.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        JsonNode node = objectMapper.readTree(body);
+        if (node.isObject()) {
+            return objectMapper.convertValue(node, new TypeReference<Map<String, Object>>() {
+            });
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("value", objectMapper.convertValue(node, Object.class));
+        return result;
+    }
+}
@@ -0,0 +1,425 @@
+package com.agi.tool.executor;
+
+import com.agi.common.batch.MicroBatcher;
+import com.agi.tool.dto.response.ToolBulkheadStatsDto;
+import com.agi.tool.enums.ToolStatus;
+import com.agi.tool.enums.ToolType;
+import com.agi.tool.repository.ToolExecutionStateRepository;
+import com.agi.tool.repository.ToolExecutionStateRepository.CompletedExecution;
+import com.agi.tool.repository.ToolExecutionStateRepository.StartedExecution;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 도구 비동기 실행 엔진
+ *
+ * 도구마다 동시 실행 수와 대기열 깊이가 정해진 격벽(전용 풀)을 두어, 느린 외부 도구가 밀려도
+ * 다른 도구의 실행 자리와 대기열은 그대로 남습니다. 대기열까지 가득 차면 바로 거절합니다.
+ * 제한 시간은 실행이 시작될 때부터 재며, 초과하거나 취소되면 상태를 먼저 확정하고 실행 스레드를 인터럽트합니다.
+ * 접수와 종료 기록은 호출 스레드가 아니라 묶음 기록기가 모아서 JDBC 배치로 남기고,
+ * 기록이 끝날 때까지는 메모리 사본으로 조회합니다.
+ */
+@Slf4j
+@Component
+public class ToolExecutionEngine {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ToolExecutionStateRepository toolExecutionStateRepository;
+    private final List<ToolHandler> handlers;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final boolean virtualThreads;
+    private final long drainTimeoutMillis;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, ToolRun> runs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final MicroBatcher<Write, Boolean> writer;
+
+    public ToolExecutionEngine(ToolExecutionStateRepository toolExecutionStateRepository,
+                               List<ToolHandler> handlers,
+                               ObjectMapper objectMapper,
+                               Environment environment,
+                               @Value("${tool.executor.persist.batch-size:64}") int persistBatchSize,
+                               @Value("${tool.executor.persist.max-wait-ms:50}") long persistMaxWaitMillis,
+                               @Value("${tool.executor.persist.queue-capacity:4096}") int persistQueueCapacity,
+                               @Value("${tool.executor.drain-timeout-ms:2000}") long drainTimeoutMillis,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.toolExecutionStateRepository = toolExecutionStateRepository;
+        this.handlers = handlers;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.virtualThreads = virtualThreads;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tool-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer = new MicroBatcher<>("tool-execution", persistBatchSize, Duration.ofMillis(persistMaxWaitMillis),
+                persistQueueCapacity, this::persist, null);
+    }
+
+    /**
+     * 실행 접수 (격벽 대기열에 넣고 바로 반환)
+     *
+     * @throws RejectedExecutionException 도구의 실행 자리와 대기열이 모두 찬 경우 (FAILED로 기록됨)
+     */
+    public ToolRun submit(ToolInvocation invocation) {
+        ToolRun run = new ToolRun(invocation, LocalDateTime.now());
+        runs.put(invocation.executionId(), run);
+        write(new Write(new StartedExecution(invocation.executionId(), invocation.toolId(), invocation.userId(),
+                run.submittedAt, null, invocation.sandboxId(), invocation.conversationId(), invocation.messageId()),
+                invocation.parameters(), null, null));
+        Bulkhead bulkhead = bulkheadFor(invocation.toolName(), invocation.toolType());
+        try {
+            run.future = bulkhead.executor.submit(() -> execute(run, bulkhead));
+        } catch (RejectedExecutionException e) {
+            bulkhead.rejected.increment();
+            finish(run, ToolStatus.FAILED, null, "도구 실행 대기열이 가득 찼습니다: " + invocation.toolName());
+            throw e;
+        }
+        return run;
+    }
+
+    /**
+     * 실행할 구현이 있는 도구인지 (접수 전 확인용)
+     */
+    public boolean supports(ToolInvocation invocation) {
+        return findHandler(invocation) != null;
+    }
+
+    /**
+     * 기록이 끝나지 않은 실행 (없으면 DB에서 조회)
+     */
+    public ToolRun get(String executionId) {
+        return runs.get(executionId);
+    }
+
+    /**
+     * 실행 취소 (대기 중이면 대기열에서 빼고, 실행 중이면 인터럽트)
+     *
+     * @return 끝나지 않은 실행이었으면 true
+     */
+    public boolean cancel(String executionId) {
+        ToolRun run = runs.get(executionId);
+        if (run == null || !finish(run, ToolStatus.CANCELLED, null, "취소됨")) {
+            return false;
+        }
+        interrupt(run);
+        return true;
+    }
+
+    public List<ToolBulkheadStatsDto> stats() {
+        List<ToolBulkheadStatsDto> result = new ArrayList<>();
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            result.add(ToolBulkheadStatsDto.builder()
+                    .toolName(bulkhead.toolName)
+                    .maxConcurrent(bulkhead.maxConcurrent)
+                    .queueDepth(bulkhead.queueDepth)
+                    .active(bulkhead.executor.getActiveCount())
+                    .queued(bulkhead.executor.getQueue().size())
+                    .completed(bulkhead.completed.sum())
+                    .rejected(bulkhead.rejected.sum())
+                    .timedOut(bulkhead.timedOut.sum())
+                    .build());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (ToolRun run : runs.values()) {
+            if (finish(run, ToolStatus.FAILED, null, "서버 종료로 중단되었습니다")) {
+                interrupt(run);
+            }
+        }
+        bulkheads.values().forEach(bulkhead -> bulkhead.executor.shutdownNow());
+        timer.shutdownNow();
+        // 남은 기록이 처리될 때까지 잠시 기다린 뒤 기록기 종료
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        while (writer.pending() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        writer.close();
+    }
+
+    private Void execute(ToolRun run, Bulkhead bulkhead) {
+        if (!run.status.compareAndSet(ToolStatus.PENDING, ToolStatus.RUNNING)) {
+            return null;
+        }
+        run.startedAtNanos = System.nanoTime();
+        ToolInvocation invocation = run.invocation;
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (finish(run, ToolStatus.TIMEOUT, null,
+                    "제한 시간 " + invocation.timeoutSeconds() + "초를 넘었습니다")) {
+                bulkhead.timedOut.increment();
+                interrupt(run);
+            }
+        }, invocation.timeoutSeconds(), TimeUnit.SECONDS);
+        try {
+            Map<String, Object> result = handlerFor(invocation).execute(invocation);
+            finish(run, ToolStatus.COMPLETED, result, null);
+        } catch (Exception e) {
+            // 제한 시간 초과나 취소로 인터럽트된 경우는 이미 상태가 확정되어 있음
+            if (finish(run, ToolStatus.FAILED, null, truncate(e.toString()))) {
+                log.warn("Tool {} execution {} failed: {}", invocation.toolName(), invocation.executionId(),
+                        e.toString());
+            }
+        } finally {
+            timeout.cancel(false);
+            bulkhead.completed.increment();
+        }
+        return null;
+    }
+
+    /**
+     * 끝나지 않은 실행의 상태 확정 (먼저 호출한 쪽만 반영)
+     *
+     * @return 이번 호출로 확정했으면 true
+     */
+    private boolean finish(ToolRun run, ToolStatus status, Map<String, Object> result, String errorMessage) {
+        ToolStatus current;
+        do {
+            current = run.status.get();
+            if (current != ToolStatus.PENDING && current != ToolStatus.RUNNING) {
+                return false;
+            }
+        } while (!run.status.compareAndSet(current, status));
+        run.result = result;
+        run.errorMessage = errorMessage;
+        run.completedAt = LocalDateTime.now();
+        run.executionTimeMs = run.startedAtNanos != 0 ? (System.nanoTime() - run.startedAtNanos) / 1_000_000 : 0;
+        write(new Write(null, null, new CompletedExecution(run.invocation.executionId(), status, run.completedAt,
+                null, errorMessage, run.executionTimeMs), result))
+                .whenComplete((ignored, e) -> runs.remove(run.invocation.executionId(), run));
+        return true;
+    }
+
+    private void interrupt(ToolRun run) {
+        Future<?> future = run.future;
+        if (future != null) {
+            future.cancel(true);
+            Bulkhead bulkhead = bulkheads.get(run.invocation.toolName());
+            if (bulkhead != null && future instanceof Runnable task) {
+                // 대기 중이던 작업은 대기열 자리도 바로 돌려줌
+                bulkhead.executor.remove(task);
+            }
+        }
+    }
+
+    private CompletableFuture<Boolean> write(Write write) {
+        return writer.submit(write).whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.warn("Failed to persist tool execution {}: {}", write.id(), e.toString());
+            }
+        });
+    }
+
+    private List<Boolean> persist(List<Write> writes) {
+        List<StartedExecution> started = new ArrayList<>();
+        List<CompletedExecution> completed = new ArrayList<>();
+        for (Write write : writes) {
+            if (write.started != null) {
+                started.add(new StartedExecution(write.started.id(), write.started.toolId(), write.started.userId(),
+                        write.started.executedAt(), toJson(write.parameters), write.started.sandboxId(),
+                        write.started.conversationId(), write.started.messageId()));
+            } else {
+                completed.add(new CompletedExecution(write.completed.id(), write.completed.status(),
+                        write.completed.completedAt(), toJson(write.result), write.completed.errorMessage(),
+                        write.completed.executionTimeMs()));
+            }
+        }
+        // 같은 묶음 안에서는 접수 기록이 먼저
+        toolExecutionStateRepository.insert(started);
+        toolExecutionStateRepository.complete(completed);
+        List<Boolean> result = new ArrayList<>(writes.size());
+        for (int i = 0; i < writes.size(); i++) {
+            result.add(Boolean.TRUE);
+        }
+        return result;
+    }
+
+    private ToolHandler handlerFor(ToolInvocation invocation) {
+        ToolHandler handler = findHandler(invocation);
+        if (handler == null) {
+            throw new IllegalStateException("No handler for tool: " + invocation.toolName());
+        }
+        return handler;
+    }
+
+    private ToolHandler findHandler(ToolInvocation invocation) {
+        for (ToolHandler handler : handlers) {
+            if (handler.supports(invocation)) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    private Bulkhead bulkheadFor(String toolName, ToolType toolType) {
+        Bulkhead bulkhead = bulkheads.get(toolName);
+        if (bulkhead != null) {
+            return bulkhead;
+        }
+        return bulkheads.computeIfAbsent(toolName, name -> {
+            // 도구별 설정이 없으면 도구 유형별 기본값
+            String typeKey = "tool.executor.bulkhead." + toolType.name().toLowerCase().replace('_', '-');
+            String toolKey = "tool.executor.tools." + name;
+            int maxConcurrent = environment.getProperty(toolKey + ".max-concurrent", Integer.class,
+                    environment.getProperty(typeKey + ".max-concurrent", Integer.class, 4));
+            int queueDepth = environment.getProperty(toolKey + ".queue-depth", Integer.class,
+                    environment.getProperty(typeKey + ".queue-depth", Integer.class, 16));
+            log.info("Tool bulkhead created: tool={}, maxConcurrent={}, queueDepth={}", name, maxConcurrent, queueDepth);
+            return new Bulkhead(name, Math.max(1, maxConcurrent), Math.max(0, queueDepth), threadFactory(name));
+        });
+    }
+
+    private ThreadFactory threadFactory(String toolName) {
+        String prefix = "tool-" + toolName + "-";
+        if (virtualThreads) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize tool execution data", e);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * 묶음 기록 요청 (접수 또는 종료 중 하나, JSON 변환은 기록 스레드에서)
+     */
+    private record Write(StartedExecution started, Map<String, Object> parameters,
+                         CompletedExecution completed, Map<String, Object> result) {
+
+        String id() {
+            return started != null ? started.id() : completed.id();
+        }
+    }
+
+    /**
+     * 도구 하나의 격벽 (동시 실행 수 = 풀 크기, 대기열 깊이 = 대기열 용량)
+     */
+    private static final class Bulkhead {
+
+        private final String toolName;
+        private final int maxConcurrent;
+        private final int queueDepth;
+        private final ThreadPoolExecutor executor;
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+
+        private Bulkhead(String toolName, int maxConcurrent, int queueDepth, ThreadFactory threadFactory) {
+            this.toolName = toolName;
+            this.maxConcurrent = maxConcurrent;
+            this.queueDepth = queueDepth;
+            BlockingQueue<Runnable> queue = queueDepth > 0 ? new ArrayBlockingQueue<>(queueDepth) : new SynchronousQueue<>();
+            this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS, queue,
+                    threadFactory, new ThreadPoolExecutor.AbortPolicy());
+            // 한동안 쓰지 않은 도구의 스레드는 반납
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    /**
+     * 실행 한 건의 메모리 사본 (종료 기록이 끝나면 제거)
+     */
+    public static final class ToolRun {
+
+        private final ToolInvocation invocation;
+        private final LocalDateTime submittedAt;
+        private final AtomicReference<ToolStatus> status = new AtomicReference<>(ToolStatus.PENDING);
+        private volatile Future<?> future;
+        private volatile long startedAtNanos;
+        private volatile Map<String, Object> result;
+        private volatile String errorMessage;
+        private volatile LocalDateTime completedAt;
+        private volatile Long executionTimeMs;
+
+        private ToolRun(ToolInvocation invocation, LocalDateTime submittedAt) {
+            this.invocation = invocation;
+            this.submittedAt = submittedAt;
+        }
+
+        public ToolInvocation getInvocation() {
+            return invocation;
+        }
+
+        public LocalDateTime getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public ToolStatus getStatus() {
+            return status.get();
+        }
+
+        public Map<String, Object> getResult() {
+            return result;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        public LocalDateTime getCompletedAt() {
+            return completedAt;
+        }
+
+        public Long getExecutionTimeMs() {
+            return executionTimeMs;
+        }
+    }
+}
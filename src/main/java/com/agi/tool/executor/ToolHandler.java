@@ -0,0 +1,20 @@
+package com.agi.tool.executor;
+
+import java.util.Map;
+
+/**
+ * 도구 실행 구현
+ *
+ * 여러 구현이 있으면 @Order 순서대로 처음 supports가 참인 구현이 실행합니다.
+ * 실행은 도구별 격벽 스레드에서 이루어지며, 제한 시간 초과나 취소 시 스레드가 인터럽트되므로
+ * 블로킹 호출은 인터럽트에 반응하는 API를 써야 격벽 자리를 바로 돌려줍니다.
+ */
+public interface ToolHandler {
+    
+    boolean supports(ToolInvocation invocation);
+    
+    /**
+     * @return 실행 결과 (tool_execution.result에 JSON으로 저장)
+     */
+    Map<String, Object> execute(ToolInvocation invocation) throws Exception;
+}
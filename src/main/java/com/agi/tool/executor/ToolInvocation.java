@@ -0,0 +1,16 @@
+package com.agi.tool.executor;
+
+import com.agi.tool.enums.ToolType;
+
+import java.util.Map;
+
+/**
+ * 도구 실행 한 건의 입력
+ *
+ * @param endpoint       외부 도구 호출 주소 (없을 수 있음)
+ * @param timeoutSeconds 실행 제한 시간
+ */
+public record ToolInvocation(String executionId, String toolId, String toolName, ToolType toolType,
+                             String endpoint, Map<String, Object> parameters, String sandboxId, Long userId,
+                             String conversationId, String messageId, int timeoutSeconds) {
+}
@@ -0,0 +1,73 @@
+package com.agi.tool.repository;
+
+import com.agi.tool.enums.ToolStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 도구 실행 접수/완료 기록 (JDBC)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ToolExecutionStateRepository {
+    
+    /**
+     * 접수된 실행 (PENDING으로 기록)
+     */
+    public record StartedExecution(String id, String toolId, Long userId, LocalDateTime executedAt,
+                                   String parameters, String sandboxId, String conversationId, String messageId) {
+    }
+    
+    /**
+     * 실행 종료 기록
+     */
+    public record CompletedExecution(String id, ToolStatus status, LocalDateTime completedAt, String result,
+                                     String errorMessage, Long executionTimeMs) {
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public void insert(List<StartedExecution> executions) {
+        if (executions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tool_execution (id, tool_id, user_id, executed_at, status, parameters, "
+                        + "sandbox_id, conversation_id, message_id) VALUES (?, ?, ?, ?, 'PENDING', ?, ?, ?, ?)",
+                executions, executions.size(), (ps, execution) -> {
+                    ps.setString(1, execution.id());
+                    ps.setString(2, execution.toolId());
+                    ps.setLong(3, execution.userId());
+                    ps.setTimestamp(4, Timestamp.valueOf(execution.executedAt()));
+                    ps.setString(5, execution.parameters());
+                    ps.setString(6, execution.sandboxId());
+                    ps.setString(7, execution.conversationId());
+                    ps.setString(8, execution.messageId());
+                });
+    }
+    
+    public void complete(List<CompletedExecution> executions) {
+        if (executions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE tool_execution SET status = ?, completed_at = ?, result = ?, "
+                        + "error_message = ?, execution_time_ms = ? WHERE id = ?",
+                executions, executions.size(), (ps, execution) -> {
+                    ps.setString(1, execution.status().name());
+                    ps.setTimestamp(2, Timestamp.valueOf(execution.completedAt()));
+                    ps.setString(3, execution.result());
+                    ps.setString(4, execution.errorMessage());
+                    if (execution.executionTimeMs() != null) {
+                        ps.setLong(5, execution.executionTimeMs());
+                    } else {
+                        ps.setNull(5, Types.BIGINT);
+                    }
+                    ps.setString(6, execution.id());
+                });
+    }
+}
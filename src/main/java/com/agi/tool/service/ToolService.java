@@ -1,11 +1,158 @@
 package com.agi.tool.service;
 
+import com.agi.common.exception.BadRequestException;
+import com.agi.common.exception.ResourceNotFoundException;
+import com.agi.sandbox.entity.Sandbox;
+import com.agi.sandbox.service.SandboxService;
+import com.agi.tool.dto.request.ToolExecuteRequest;
+import com.agi.tool.dto.response.ToolBulkheadStatsDto;
+import com.agi.tool.dto.response.ToolExecutionResultDto;
+import com.agi.tool.entity.Tool;
+import com.agi.tool.entity.ToolExecution;
+import com.agi.tool.executor.ToolExecutionEngine;
+import com.agi.tool.executor.ToolExecutionEngine.ToolRun;
+import com.agi.tool.executor.ToolInvocation;
+import com.agi.tool.repository.ToolExecutionRepository;
+import com.agi.tool.repository.ToolRepository;
+import com.agi.user.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 도구 관련 서비스
+ *
+ * 실행은 {@link ToolExecutionEngine}에 접수만 하고 바로 반환하며, 결과는 실행 ID로 조회합니다.
  */
 @Service
 public class ToolService {
-    // 서비스 구현체는 추후 개발
+
+    private final ToolRepository toolRepository;
+    private final ToolExecutionRepository toolExecutionRepository;
+    private final UserRepository userRepository;
+    private final SandboxService sandboxService;
+    private final ToolExecutionEngine toolExecutionEngine;
+    private final ObjectMapper objectMapper;
+    private final int defaultTimeoutSeconds;
+    private final int maxTimeoutSeconds;
+
+    public ToolService(ToolRepository toolRepository,
+                       ToolExecutionRepository toolExecutionRepository,
+                       UserRepository userRepository,
+                       SandboxService sandboxService,
+                       ToolExecutionEngine toolExecutionEngine,
+                       ObjectMapper objectMapper,
+                       @Value("${tool.executor.default-timeout-seconds:30}") int defaultTimeoutSeconds,
+                       @Value("${tool.executor.max-timeout-seconds:600}") int maxTimeoutSeconds) {
+        this.toolRepository = toolRepository;
+        this.toolExecutionRepository = toolExecutionRepository;
+        this.userRepository = userRepository;
+        this.sandboxService = sandboxService;
+        this.toolExecutionEngine = toolExecutionEngine;
+        this.objectMapper = objectMapper;
+        this.defaultTimeoutSeconds = defaultTimeoutSeconds;
+        this.maxTimeoutSeconds = maxTimeoutSeconds;
+    }
+
+    /**
+     * 도구 실행 접수 (결과는 getExecution으로 조회)
+     */
+    public ToolExecutionResultDto executeTool(ToolExecuteRequest request) {
+        Tool tool = toolRepository.findByName(request.getToolName())
+                .orElseThrow(() -> new ResourceNotFoundException("Tool", "name", request.getToolName()));
+        if (!userRepository.existsById(request.getUserId())) {
+            throw new ResourceNotFoundException("User", "id", request.getUserId());
+        }
+        int timeoutSeconds = request.getTimeout() != null ? request.getTimeout() : defaultTimeoutSeconds;
+        if (timeoutSeconds <= 0 || timeoutSeconds > maxTimeoutSeconds) {
+            throw new BadRequestException("제한 시간은 1~" + maxTimeoutSeconds + "초여야 합니다");
+        }
+        ToolInvocation invocation = new ToolInvocation(UUID.randomUUID().toString(), tool.getId(), tool.getName(),
+                tool.getType(), tool.getEndpoint(), request.getParameters(), request.getSandboxId(),
+                request.getUserId(), request.getConversationId(), request.getMessageId(), timeoutSeconds);
+        // 실행 구현이 없는 도구(현재는 endpoint가 있는 EXTERNAL만 지원)는 접수하지 않음
+        if (!toolExecutionEngine.supports(invocation)) {
+            throw new BadRequestException("실행을 지원하지 않는 도구입니다: " + tool.getName() + " (" + tool.getType() + ")");
+        }
+        if (request.getSandboxId() != null) {
+            // 휴면 중인 샌드박스는 여기서 복원됨
+            Sandbox sandbox = sandboxService.acquireRunning(request.getSandboxId());
+            if (!sandbox.getUser().getId().equals(request.getUserId())) {
+                throw new BadRequestException("샌드박스 소유자만 도구를 실행할 수 있습니다");
+            }
+        }
+        try {
+            return toDto(toolExecutionEngine.submit(invocation));
+        } catch (RejectedExecutionException e) {
+            throw new BadRequestException("도구 실행 대기열이 가득 찼습니다. 잠시 후 다시 시도하세요: " + tool.getName());
+        }
+    }
+
+    /**
+     * 실행 조회 (기록 전이면 메모리 사본)
+     */
+    @Transactional(readOnly = true)
+    public ToolExecutionResultDto getExecution(String executionId) {
+        ToolRun run = toolExecutionEngine.get(executionId);
+        if (run != null) {
+            return toDto(run);
+        }
+        ToolExecution execution = toolExecutionRepository.findById(executionId)
+                .orElseThrow(() -> new ResourceNotFoundException("ToolExecution", "id", executionId));
+        return ToolExecutionResultDto.builder()
+                .executionId(execution.getId())
+                .toolName(execution.getTool().getName())
+                .status(execution.getStatus())
+                .result(parseResult(execution.getResult()))
+                .startedAt(execution.getExecutedAt())
+                .completedAt(execution.getCompletedAt())
+                .errorMessage(execution.getErrorMessage())
+                .executionTimeMs(execution.getExecutionTimeMs())
+                .build();
+    }
+
+    public void cancelExecution(String executionId) {
+        if (!toolExecutionEngine.cancel(executionId)) {
+            toolExecutionRepository.findById(executionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("ToolExecution", "id", executionId));
+            throw new BadRequestException("실행 중인 도구가 아닙니다: " + executionId);
+        }
+    }
+
+    public List<ToolBulkheadStatsDto> getBulkheadStats() {
+        return toolExecutionEngine.stats();
+    }
+
+    private ToolExecutionResultDto toDto(ToolRun run) {
+        return ToolExecutionResultDto.builder()
+                .executionId(run.getInvocation().executionId())
+                .toolName(run.getInvocation().toolName())
+                .status(run.getStatus())
+                .result(run.getResult())
+                .startedAt(run.getSubmittedAt())
+                .completedAt(run.getCompletedAt())
+                .errorMessage(run.getErrorMessage())
+                .executionTimeMs(run.getExecutionTimeMs())
+                .build();
+    }
+
+    private Map<String, Object> parseResult(String result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(result, new TypeReference<Map<String, Object>>() {
+            });
+        } catch (JsonProcessingException e) {
+            return Map.of("value", result);
+        }
+    }
 }